@@ -0,0 +1,142 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.benchmark;
+
+import com.github.jonathanxd.interoute.Interoute;
+import com.github.jonathanxd.interoute.annotation.BackendConfigurer;
+import com.github.jonathanxd.interoute.annotation.RouteTo;
+import com.github.jonathanxd.interoute.annotation.RouterInterface;
+import com.github.jonathanxd.interoute.backend.InterouteBackendConfigurer;
+import com.github.jonathanxd.interoute.backend.def.DefaultBackendConfiguration;
+import com.github.jonathanxd.interoute.backend.def.DefaultInterouteBackend;
+import com.github.jonathanxd.interoute.backend.def.MethodHandleInterouteBackend;
+import com.github.jonathanxd.interoute.exception.RoutingException;
+import com.github.jonathanxd.interoute.route.Route;
+import com.github.jonathanxd.iutils.object.result.Result;
+
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares router creation and steady-state route execution of {@link DefaultInterouteBackend} and
+ * {@link MethodHandleInterouteBackend}.
+ */
+@State(Scope.Benchmark)
+public class BackendBenchmark {
+
+    private KoresRouter koresRouter;
+    private HandleRouter handleRouter;
+
+    @Setup
+    public void setup() {
+        this.koresRouter = Interoute.createRouter(KoresRouter.class).successOrNull();
+        this.handleRouter = Interoute.createRouter(HandleRouter.class).successOrNull();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Object createKoresRouter() {
+        return Interoute.createRouter(KoresRouter.class).successOrNull();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Object createHandleRouter() {
+        return Interoute.createRouter(HandleRouter.class).successOrNull();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Route<Integer> routeKores() {
+        return this.koresRouter.plus(5, 2);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Route<Integer> routeHandle() {
+        return this.handleRouter.plus(5, 2);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Result<Integer, RoutingException> executeKores() throws Exception {
+        return this.koresRouter.plus(5, 2).execute().get();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Result<Integer, RoutingException> executeHandle() throws Exception {
+        return this.handleRouter.plus(5, 2).execute().get();
+    }
+
+    @RouterInterface(DefaultInterouteBackend.class)
+    @BackendConfigurer(MathConfigurer.class)
+    public interface KoresRouter {
+        @RouteTo("Math.plus")
+        Route<Integer> plus(int a, int b);
+    }
+
+    @RouterInterface(MethodHandleInterouteBackend.class)
+    @BackendConfigurer(MathConfigurer.class)
+    public interface HandleRouter {
+        @RouteTo("Math.plus")
+        Route<Integer> plus(int a, int b);
+    }
+
+    public static class MathPlus {
+        public int plus(int a, int b) {
+            return a + b;
+        }
+    }
+
+    public static class MathConfigurer implements InterouteBackendConfigurer<DefaultBackendConfiguration> {
+        public static final MathConfigurer INSTANCE = new MathConfigurer();
+
+        @NotNull
+        @Override
+        public DefaultBackendConfiguration configure(@NotNull DefaultBackendConfiguration configuration) {
+            return configuration.toBuilder()
+                    .addInstance("Math", new MathPlus())
+                    .build();
+        }
+    }
+}
@@ -27,7 +27,10 @@
  */
 package com.github.jonathanxd.interoute;
 
+import com.github.jonathanxd.interoute.backend.def.DefaultBackendConfiguration;
+import com.github.jonathanxd.interoute.backend.def.TieredRouter;
 import com.github.jonathanxd.interoute.exception.RouterCreationException;
+import com.github.jonathanxd.interoute.gen.RouterSpec;
 import com.github.jonathanxd.iutils.object.result.Result;
 
 /**
@@ -61,4 +64,43 @@ public final class Interoute {
                 .flatMap(r -> r.getBackend().<I>generate(r, loader).mapError(RouterCreationException::new));
     }
 
+    /**
+     * Creates a tiered {@link com.github.jonathanxd.interoute.route.Router} from {@code router} interface, promoted after
+     * {@link TieredRouter#DEFAULT_THRESHOLD} invocations of a single route.
+     *
+     * @param router Router interface.
+     * @param <I>    Router type.
+     * @return Result with either router instance or {@link RouterCreationException}.
+     * @see #createTieredRouter(Class, ClassLoader, int)
+     */
+    public static <I> Result<? extends I, RouterCreationException> createTieredRouter(Class<I> router) {
+        return Interoute.createTieredRouter(router, null, TieredRouter.DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Creates a tiered {@link com.github.jonathanxd.interoute.route.Router} from {@code router} interface.
+     *
+     * The returned router is an interpreted {@link java.lang.reflect.Proxy} router which is promoted to the class
+     * generated by the backend once any route is invoked {@code threshold} times. Routers of backends which does not use
+     * {@link DefaultBackendConfiguration} are generated immediately.
+     *
+     * @param router    Router interface.
+     * @param loader    Class loader to load routing class.
+     * @param threshold Amount of invocations of a single route which triggers the promotion.
+     * @param <I>       Router type.
+     * @return Result with either router instance or {@link RouterCreationException}.
+     */
+    @SuppressWarnings("unchecked")
+    public static <I> Result<? extends I, RouterCreationException> createTieredRouter(Class<I> router,
+                                                                                       ClassLoader loader,
+                                                                                       int threshold) {
+        return Result.<Class<I>, RouterCreationException>ok(router)
+                .flatMap(InterouteAnnotationParse::validate)
+                .flatMap(InterouteAnnotationParse::getRouterSpec)
+                .flatMap(r -> r.getConfiguration() instanceof DefaultBackendConfiguration
+                        ? Result.<I, RouterCreationException>ok(
+                                TieredRouter.create((RouterSpec<DefaultBackendConfiguration>) (RouterSpec<?>) r, loader, threshold))
+                        : r.getBackend().<I>generate(r, loader).mapError(RouterCreationException::new));
+    }
+
 }
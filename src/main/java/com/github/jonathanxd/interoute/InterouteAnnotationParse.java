@@ -28,6 +28,7 @@
 package com.github.jonathanxd.interoute;
 
 import com.github.jonathanxd.interoute.annotation.BackendConfigurer;
+import com.github.jonathanxd.interoute.annotation.CircuitBreaker;
 import com.github.jonathanxd.interoute.annotation.RequiresConfiguration;
 import com.github.jonathanxd.interoute.annotation.RouteInfo;
 import com.github.jonathanxd.interoute.annotation.RouteTo;
@@ -41,6 +42,7 @@ import com.github.jonathanxd.interoute.gen.RouteParameterSpec;
 import com.github.jonathanxd.interoute.gen.RouteSpec;
 import com.github.jonathanxd.interoute.gen.RouteSpecInfo;
 import com.github.jonathanxd.interoute.gen.RouterSpec;
+import com.github.jonathanxd.interoute.route.RouteTable;
 import com.github.jonathanxd.interoute.util.InstanceFactories;
 import com.github.jonathanxd.iutils.object.result.Result;
 import com.github.jonathanxd.iutils.reflection.Reflection;
@@ -53,7 +55,9 @@ import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -85,7 +89,7 @@ public class InterouteAnnotationParse {
                     String.format("Provided backed '%s' requires at least one @BackendConfigurer.",
                             declaredAnnotation.value().getCanonicalName())));
         } else {
-            return Result.ok(new RouterSpec<>(
+            return Result.<RouterSpec<C>, RouterCreationException>ok(new RouterSpec<>(
                             router,
                             backend,
                             InterouteAnnotationParse.createConfiguration(backend, router),
@@ -96,10 +100,43 @@ public class InterouteAnnotationParse {
                                     .collect(Collectors.toList()),
                             InterouteAnnotationParse.createSpecInfoList(router)
                     )
-            );
+            ).flatMap(InterouteAnnotationParse::validateBreakers);
         }
     }
 
+    /**
+     * Validates that {@link CircuitBreaker guarded} routes which share a circuit breaker, which are routes to the same
+     * {@link RouteTable#getBreakerKey(String) destination alias}, have the same breaker configuration.
+     *
+     * @param routerSpec Router specification.
+     * @param <C>        Backend configuration.
+     * @return Result with either {@code routerSpec} or {@link RouterCreationException} describing the conflict.
+     */
+    private static <C extends InterouteBackendConfiguration> Result<RouterSpec<C>, RouterCreationException> validateBreakers(
+            RouterSpec<C> routerSpec) {
+        Map<String, RouteSpec> guarded = new HashMap<>();
+
+        for (RouteSpec routeSpec : routerSpec.getRouteSpecList()) {
+            Optional<CircuitBreaker> circuitBreaker = routeSpec.getRouteSpecInfo(CircuitBreaker.class)
+                    .map(RouteSpecInfo::getInstance);
+
+            if (!circuitBreaker.isPresent())
+                continue;
+
+            RouteSpec first = guarded.putIfAbsent(RouteTable.getBreakerKey(routeSpec.getDestination()), routeSpec);
+
+            if (first != null && !first.getRouteSpecInfo(CircuitBreaker.class).get().getInstance()
+                    .equals(circuitBreaker.get())) {
+                return Result.error(new RouterCreationException(String.format(
+                        "Routes '%s' and '%s' share the circuit breaker of '%s' but have different configurations.",
+                        first.getOrigin().getName(), routeSpec.getOrigin().getName(),
+                        RouteTable.getBreakerKey(routeSpec.getDestination()))));
+            }
+        }
+
+        return Result.ok(routerSpec);
+    }
+
     /**
      * Creates backend configuration and configure using configurers provided by {@code router}
      * interface annotations.
@@ -142,7 +179,8 @@ public class InterouteAnnotationParse {
                     ConversionsKt.toMethodDeclaration(method),
                     InterouteAnnotationParse.createParameterSpec(Arrays.asList(method.getParameters())),
                     routeTo.value(),
-                    InterouteAnnotationParse.createSpecInfoList(method)));
+                    InterouteAnnotationParse.createSpecInfoList(method),
+                    method));
         }
     }
 
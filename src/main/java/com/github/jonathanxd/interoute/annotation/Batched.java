@@ -0,0 +1,84 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.annotation;
+
+import com.github.jonathanxd.interoute.gen.AnnotationUnifier;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects concurrent executions of the annotated route into batches, which are dispatched once to the {@link #value()
+ * bulk method} of the destination instance.
+ *
+ * The bulk method must be a public method of the destination type which receives a single {@link java.util.List} and
+ * returns a {@link java.util.List} with one result for each element, in the same order. Elements are the argument of
+ * each execution if the route has a single parameter, otherwise the {@code Object[]} of arguments of each execution.
+ * Results which are {@link com.github.jonathanxd.iutils.object.result.Result} instances are returned as is, so the bulk
+ * method may fail executions individually.
+ *
+ * A batch is dispatched when it reaches {@link #maxSize()} executions or {@link #maxDelay()} after its first execution,
+ * whichever happens first. Batchers are exposed with their statistics by the {@link
+ * com.github.jonathanxd.interoute.route.RouteEntry#getBatcher() route table}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@RouteInfo(AnnotationUnifier.Self.class)
+public @interface Batched {
+
+    /**
+     * Name of the bulk method of the destination type.
+     *
+     * @return Name of the bulk method of the destination type.
+     */
+    String value();
+
+    /**
+     * Maximum amount of executions of a batch.
+     *
+     * @return Maximum amount of executions of a batch.
+     */
+    int maxSize() default 64;
+
+    /**
+     * Maximum duration which the first execution of a batch waits for other executions.
+     *
+     * @return Maximum duration which the first execution of a batch waits.
+     */
+    long maxDelay() default 10;
+
+    /**
+     * Unit of {@link #maxDelay()}.
+     *
+     * @return Unit of {@link #maxDelay()}.
+     */
+    TimeUnit unit() default TimeUnit.MILLISECONDS;
+}
@@ -0,0 +1,79 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.annotation;
+
+import com.github.jonathanxd.interoute.gen.AnnotationUnifier;
+import com.github.jonathanxd.interoute.route.cache.CacheEviction;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches successful results of the annotated route by its arguments.
+ *
+ * Executions of routes which arguments are equal to the arguments of a cached result return an already completed future
+ * with the cached result, without invoking the destination. Failed results are never cached. Each router has its own
+ * caches, which are exposed with their statistics by the {@link com.github.jonathanxd.interoute.route.RouteEntry#getCache()
+ * route table}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@RouteInfo(AnnotationUnifier.Self.class)
+public @interface Cached {
+
+    /**
+     * Maximum amount of cached results.
+     *
+     * @return Maximum amount of cached results.
+     */
+    long maximumSize() default 1024;
+
+    /**
+     * Duration which cached results are valid after they are cached, non-positive values never expires results.
+     *
+     * @return Duration which cached results are valid.
+     */
+    long expireAfterWrite() default 0;
+
+    /**
+     * Unit of {@link #expireAfterWrite()}.
+     *
+     * @return Unit of {@link #expireAfterWrite()}.
+     */
+    TimeUnit unit() default TimeUnit.MILLISECONDS;
+
+    /**
+     * Policy which evicts cached results when the cache exceeds {@link #maximumSize()}.
+     *
+     * @return Policy which evicts cached results.
+     */
+    CacheEviction eviction() default CacheEviction.TINY_LFU;
+}
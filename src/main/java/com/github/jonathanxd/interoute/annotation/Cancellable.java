@@ -0,0 +1,62 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.annotation;
+
+import com.github.jonathanxd.interoute.gen.AnnotationUnifier;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Propagates cancellation of the future returned by {@link com.github.jonathanxd.interoute.route.Route#execute()} to the
+ * destination of the annotated route, the destination is executed by a {@link
+ * com.github.jonathanxd.interoute.route.cancel.CancellableTask cancellable task}.
+ *
+ * Executions cancelled before they start are removed from the executor queue and never invoke the destination.
+ * Executions cancelled while running have their {@link com.github.jonathanxd.interoute.route.cancel.CancellationToken
+ * cancellation token} cancelled, which the destination may check, and their worker thread interrupted if {@link
+ * #interrupt()} is {@code true}. Executions which time out because of {@link Timeout} are cancelled the same way.
+ *
+ * Cancellation is propagated through {@link Limited} and {@link Hedged}, but not to flights shared by {@link Coalesced}
+ * executions nor to {@link Cached} loads, which serve other executions.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@RouteInfo(AnnotationUnifier.Self.class)
+public @interface Cancellable {
+
+    /**
+     * Whether the worker thread which invokes the destination is interrupted when the execution is cancelled, otherwise
+     * the destination is only signalled through its cancellation token.
+     *
+     * @return Whether the worker thread is interrupted when the execution is cancelled.
+     */
+    boolean interrupt() default true;
+}
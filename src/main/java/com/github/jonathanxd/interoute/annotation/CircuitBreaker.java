@@ -0,0 +1,96 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.annotation;
+
+import com.github.jonathanxd.interoute.gen.AnnotationUnifier;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Guards the destination of the annotated route with a {@link
+ * com.github.jonathanxd.interoute.route.breaker.RouteCircuitBreaker circuit breaker}, which opens when the failure rate
+ * of the last {@link #window()} executions reaches {@link #failureRate()}.
+ *
+ * While the circuit is open, executions complete immediately with a {@link
+ * com.github.jonathanxd.interoute.exception.RouteCircuitOpenException} without invoking the destination. After {@link
+ * #openDuration()}, {@link #halfOpenCalls()} trial executions are let through: the circuit closes if all of them
+ * succeed, and opens again otherwise. Routes of the same router to the same destination instance alias share one
+ * breaker, so they must have the same configuration, otherwise the router is not created. Breakers are exposed with
+ * their statistics by the {@link com.github.jonathanxd.interoute.route.RouteEntry#getBreaker() route table}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@RouteInfo(AnnotationUnifier.Self.class)
+public @interface CircuitBreaker {
+
+    /**
+     * Failure rate of the window which opens the circuit, between {@code 0} and {@code 1}.
+     *
+     * @return Failure rate of the window which opens the circuit.
+     */
+    double failureRate() default 0.5;
+
+    /**
+     * Amount of last executions which the failure rate is computed from.
+     *
+     * @return Amount of last executions which the failure rate is computed from.
+     */
+    int window() default 100;
+
+    /**
+     * Amount of executions recorded in the window before the circuit may open.
+     *
+     * @return Amount of executions recorded in the window before the circuit may open.
+     */
+    int minimumCalls() default 20;
+
+    /**
+     * Duration which the circuit stays open before trial executions are let through.
+     *
+     * @return Duration which the circuit stays open.
+     */
+    long openDuration() default 5000;
+
+    /**
+     * Unit of {@link #openDuration()}.
+     *
+     * @return Unit of {@link #openDuration()}.
+     */
+    TimeUnit unit() default TimeUnit.MILLISECONDS;
+
+    /**
+     * Amount of trial executions let through while the circuit is half-open.
+     *
+     * @return Amount of trial executions let through while the circuit is half-open.
+     */
+    int halfOpenCalls() default 5;
+}
@@ -0,0 +1,83 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.annotation;
+
+import com.github.jonathanxd.interoute.gen.AnnotationUnifier;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hedges executions of the annotated route: when an execution does not complete within the {@link #percentile()}
+ * of recent latencies of the route, a second attempt is started and the first attempt to complete provides the result,
+ * the other attempt is cancelled.
+ *
+ * Each attempt acquires its own destination instance, and routes to an alias {@link
+ * com.github.jonathanxd.interoute.backend.def.InstanceScope#balanced(int,
+ * com.github.jonathanxd.interoute.backend.def.InstanceSelection) balanced} across a group of instances send the second
+ * attempt to an instance other than the one of the first attempt, unless the group selects instances by routing key.
+ *
+ * Only idempotent routes should be hedged. Hedgers are exposed with their statistics by the {@link
+ * com.github.jonathanxd.interoute.route.RouteEntry#getHedger() route table}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@RouteInfo(AnnotationUnifier.Self.class)
+public @interface Hedged {
+
+    /**
+     * Percentile of recent latencies after which the second attempt is started, between {@code 0} and {@code 1}.
+     *
+     * @return Percentile of recent latencies after which the second attempt is started.
+     */
+    double percentile() default 0.95;
+
+    /**
+     * Maximum ratio of second attempts to executions, between {@code 0} and {@code 1}.
+     *
+     * @return Maximum ratio of second attempts to executions.
+     */
+    double budget() default 0.05;
+
+    /**
+     * Delay of the second attempt before enough latencies are measured to compute the {@link #percentile()}.
+     *
+     * @return Delay of the second attempt before enough latencies are measured.
+     */
+    long initialDelay() default 10;
+
+    /**
+     * Unit of {@link #initialDelay()}.
+     *
+     * @return Unit of {@link #initialDelay()}.
+     */
+    TimeUnit unit() default TimeUnit.MILLISECONDS;
+}
@@ -0,0 +1,82 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.annotation;
+
+import com.github.jonathanxd.interoute.gen.AnnotationUnifier;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Limits concurrent executions of the annotated route with an adaptive {@link
+ * com.github.jonathanxd.interoute.route.limit.ConcurrencyLimiter concurrency limiter}, which adjusts the limit from the
+ * measured latency of the destination.
+ *
+ * Executions which exceed the limit are rejected immediately with a {@link
+ * com.github.jonathanxd.interoute.exception.RouteRejectedException}, instead of being queued. When combined with {@link
+ * Cached} or {@link Coalesced}, only executions which invoke the destination are limited. Limiters are exposed with
+ * their statistics by the {@link com.github.jonathanxd.interoute.route.RouteEntry#getLimiter() route table}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@RouteInfo(AnnotationUnifier.Self.class)
+public @interface Limited {
+
+    /**
+     * Group of the limiter, routes of the same router with the same group share one limiter, for example, all routes to
+     * the same destination alias. Routes with an empty group have their own limiter.
+     *
+     * The limits of the first route of the group are used.
+     *
+     * @return Group of the limiter.
+     */
+    String group() default "";
+
+    /**
+     * Limit of concurrent executions before any latency is measured.
+     *
+     * @return Initial limit of concurrent executions.
+     */
+    int initialLimit() default 20;
+
+    /**
+     * Minimum limit of concurrent executions.
+     *
+     * @return Minimum limit of concurrent executions.
+     */
+    int minLimit() default 1;
+
+    /**
+     * Maximum limit of concurrent executions.
+     *
+     * @return Maximum limit of concurrent executions.
+     */
+    int maxLimit() default 1000;
+}
@@ -0,0 +1,267 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.backend;
+
+import com.github.jonathanxd.interoute.exception.GenerationException;
+import com.github.jonathanxd.interoute.gen.ClassGenerationUtil;
+import com.github.jonathanxd.interoute.gen.GenerationUtil;
+import com.github.jonathanxd.interoute.gen.RouteSpec;
+import com.github.jonathanxd.interoute.gen.RouterSpec;
+import com.github.jonathanxd.interoute.route.RouteEntry;
+import com.github.jonathanxd.interoute.route.RouteTable;
+import com.github.jonathanxd.interoute.route.Router;
+import com.github.jonathanxd.iutils.object.result.Result;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Base class of backends which emits router classes directly with ASM, without building a Kores AST.
+ *
+ * Standard router skeleton (fields, constructor and {@link Router} getters, see
+ * {@link GenerationUtil#generateStandardRouterClass(java.lang.reflect.Type)}) is streamed by this class, implementations
+ * only emits the body of route methods in {@link #visitRoute(MethodVisitor, String, RouteSpec, RouteEntry,
+ * InterouteBackendConfiguration)}.
+ * Each route may produce a link object (of type {@link L}) which is passed to {@link #initialize(Class, List)} after the
+ * router class is loaded.
+ *
+ * @param <C> Configuration type.
+ * @param <L> Type of route links.
+ */
+public abstract class AbstractAsmInterouteBackend<C extends InterouteBackendConfiguration, L> implements InterouteBackend<C> {
+
+    private static final String OBJECT = Type.getInternalName(Object.class);
+    private static final String OPTIONAL = Type.getInternalName(Optional.class);
+    private static final String BACKEND = Type.getDescriptor(InterouteBackend.class);
+    private static final String CONFIGURATION = Type.getDescriptor(InterouteBackendConfiguration.class);
+    private static final String ROUTE_TABLE = Type.getDescriptor(RouteTable.class);
+
+    @NotNull
+    @Override
+    public <T> Result<? extends T, GenerationException> generate(@NotNull RouterSpec<C> routerSpec,
+                                                                 @Nullable ClassLoader loader) {
+        return this.generate(routerSpec, loader, RouteTable.of(routerSpec));
+    }
+
+    @NotNull
+    @Override
+    public <T> Result<? extends T, GenerationException> generate(@NotNull RouterSpec<C> routerSpec,
+                                                                 @Nullable ClassLoader loader,
+                                                                 @NotNull RouteTable routeTable) {
+        if (!(routerSpec.getRouterInterface() instanceof Class<?>))
+            return Result.error(new GenerationException(
+                    String.format("Router interface must be a class: %s.", routerSpec.getRouterInterface())));
+
+        Class<?> routerInterface = (Class<?>) routerSpec.getRouterInterface();
+        C configuration = routerSpec.getConfiguration();
+        List<RouteSpec> routeSpecList = routerSpec.getRouteSpecList();
+
+        String name = "com.github.jonathanxd.interoute.backend.live." + routerInterface.getSimpleName() + "$Router";
+        String internalName = name.replace('.', '/');
+
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+
+        cw.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER | Opcodes.ACC_SYNTHETIC, internalName, null, OBJECT,
+                new String[]{Type.getInternalName(routerInterface), Type.getInternalName(Router.class)});
+
+        this.visitSkeleton(cw, internalName);
+        this.visitMembers(cw, internalName, routerSpec);
+
+        List<L> links = new ArrayList<>(routeSpecList.size());
+        List<GenerationException> generationErrors = new ArrayList<>();
+
+        for (int i = 0; i < routeSpecList.size(); i++) {
+            Result<L, GenerationException> link = this.visitRouteMethod(cw, internalName, routeSpecList.get(i),
+                    routeTable.getRoute(i), configuration);
+
+            if (link instanceof Result.Ok<?, ?>)
+                links.add(((Result.Ok<L, GenerationException>) link).success());
+            else
+                generationErrors.add(((Result.Err<L, GenerationException>) link).error());
+        }
+
+        if (!generationErrors.isEmpty())
+            return Result.error(GenerationException.fromExceptionList(generationErrors));
+
+        cw.visitEnd();
+
+        Class<? extends T> generatedClass = ClassGenerationUtil.load(
+                name,
+                cw.toByteArray(),
+                loader != null ? loader : routerInterface.getClassLoader(),
+                configuration.getGenerationProfile()
+        );
+
+        return this.initialize(generatedClass, links)
+                .flatMap(
+                        initialized -> ClassGenerationUtil.create(generatedClass, this, configuration, routeTable)
+                                .mapError(GenerationException::new),
+                        Result::error
+                );
+    }
+
+    /**
+     * Visits additional members of router class, such as static fields used by route methods.
+     *
+     * @param cw           Class writer.
+     * @param internalName Internal name of router class.
+     * @param routerSpec   Router specification.
+     */
+    protected void visitMembers(@NotNull ClassWriter cw, @NotNull String internalName, @NotNull RouterSpec<C> routerSpec) {
+    }
+
+    /**
+     * Visits the body of route method. Method code is already visited when this method is called, and the
+     * {@link MethodVisitor#visitMaxs(int, int) maxs} and {@link MethodVisitor#visitEnd() end} are visited after.
+     *
+     * @param mv            Visitor of route method.
+     * @param internalName  Internal name of router class.
+     * @param routeSpec     Route specification.
+     * @param route         Entry of route in the {@link RouteTable route table} of the router, which {@link
+     *                      RouteEntry#getId() id} is the index of route in {@link RouterSpec#getRouteSpecList()}.
+     * @param configuration Backend configuration.
+     * @return Result with either the route link or the generation exception.
+     */
+    @NotNull
+    protected abstract Result<L, GenerationException> visitRoute(@NotNull MethodVisitor mv,
+                                                                 @NotNull String internalName,
+                                                                 @NotNull RouteSpec routeSpec,
+                                                                 @NotNull RouteEntry route,
+                                                                 @NotNull C configuration);
+
+    /**
+     * Initializes the loaded router class before it gets instantiated.
+     *
+     * @param generatedClass Loaded router class.
+     * @param links          Links of routes, in the same order as {@link RouterSpec#getRouteSpecList()}.
+     * @return Result with either {@code generatedClass} or the initialization exception.
+     */
+    @NotNull
+    protected Result<Class<?>, GenerationException> initialize(@NotNull Class<?> generatedClass, @NotNull List<L> links) {
+        return Result.ok(generatedClass);
+    }
+
+    /**
+     * Loads all arguments of method described by {@code descriptor} into operand stack.
+     *
+     * @param mv         Method visitor.
+     * @param descriptor Method descriptor.
+     */
+    protected static void loadArguments(@NotNull MethodVisitor mv, @NotNull String descriptor) {
+        AbstractAsmInterouteBackend.loadArguments(mv, descriptor, 1);
+    }
+
+    /**
+     * Loads all arguments of method described by {@code descriptor}, starting at local variable {@code slot}, into
+     * operand stack.
+     *
+     * @param mv         Method visitor.
+     * @param descriptor Method descriptor.
+     * @param slot       Local variable slot of first argument, {@code 0} for static methods.
+     */
+    protected static void loadArguments(@NotNull MethodVisitor mv, @NotNull String descriptor, int slot) {
+        for (Type argumentType : Type.getArgumentTypes(descriptor)) {
+            mv.visitVarInsn(argumentType.getOpcode(Opcodes.ILOAD), slot);
+            slot += argumentType.getSize();
+        }
+    }
+
+    private Result<L, GenerationException> visitRouteMethod(ClassWriter cw,
+                                                            String internalName,
+                                                            RouteSpec routeSpec,
+                                                            RouteEntry route,
+                                                            C configuration) {
+        Optional<Method> origin = routeSpec.getOriginMethod();
+
+        if (!origin.isPresent())
+            return Result.error(new GenerationException(String.format("Missing origin method in route spec: %s.", routeSpec)));
+
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, origin.get().getName(),
+                Type.getMethodDescriptor(origin.get()), null, null);
+
+        mv.visitCode();
+        Result<L, GenerationException> link = this.visitRoute(mv, internalName, routeSpec, route, configuration);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        return link;
+    }
+
+    private void visitSkeleton(ClassWriter cw, String internalName) {
+        String backend = GenerationUtil.backendProperty().getName();
+        String configuration = GenerationUtil.backendConfigurationProperty().getName();
+        String routeTable = GenerationUtil.routeTableProperty().getName();
+
+        cw.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, backend, BACKEND, null, null).visitEnd();
+        cw.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, configuration, CONFIGURATION, null, null).visitEnd();
+        cw.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, routeTable, ROUTE_TABLE, null, null).visitEnd();
+
+        MethodVisitor constructor = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "(" + BACKEND + CONFIGURATION + ROUTE_TABLE + ")V", null, null);
+        constructor.visitCode();
+        constructor.visitVarInsn(Opcodes.ALOAD, 0);
+        constructor.visitMethodInsn(Opcodes.INVOKESPECIAL, OBJECT, "<init>", "()V", false);
+        constructor.visitVarInsn(Opcodes.ALOAD, 0);
+        constructor.visitVarInsn(Opcodes.ALOAD, 1);
+        constructor.visitFieldInsn(Opcodes.PUTFIELD, internalName, backend, BACKEND);
+        constructor.visitVarInsn(Opcodes.ALOAD, 0);
+        constructor.visitVarInsn(Opcodes.ALOAD, 2);
+        constructor.visitFieldInsn(Opcodes.PUTFIELD, internalName, configuration, CONFIGURATION);
+        constructor.visitVarInsn(Opcodes.ALOAD, 0);
+        constructor.visitVarInsn(Opcodes.ALOAD, 3);
+        constructor.visitFieldInsn(Opcodes.PUTFIELD, internalName, routeTable, ROUTE_TABLE);
+        constructor.visitInsn(Opcodes.RETURN);
+        constructor.visitMaxs(0, 0);
+        constructor.visitEnd();
+
+        this.visitGetter(cw, internalName, backend, BACKEND);
+        this.visitGetter(cw, internalName, configuration, CONFIGURATION);
+        this.visitGetter(cw, internalName, routeTable, ROUTE_TABLE);
+    }
+
+    private void visitGetter(ClassWriter cw, String owner, String fieldName, String fieldDesc) {
+        String getterName = "get" + Character.toUpperCase(fieldName.charAt(0)) + fieldName.substring(1);
+
+        MethodVisitor getter = cw.visitMethod(Opcodes.ACC_PUBLIC, getterName, "()L" + OPTIONAL + ";", null, null);
+        getter.visitCode();
+        getter.visitVarInsn(Opcodes.ALOAD, 0);
+        getter.visitFieldInsn(Opcodes.GETFIELD, owner, fieldName, fieldDesc);
+        getter.visitMethodInsn(Opcodes.INVOKESTATIC, OPTIONAL, "of", "(L" + OBJECT + ";)L" + OPTIONAL + ";", false);
+        getter.visitInsn(Opcodes.ARETURN);
+        getter.visitMaxs(0, 0);
+        getter.visitEnd();
+    }
+}
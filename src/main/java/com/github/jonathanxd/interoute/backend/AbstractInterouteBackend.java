@@ -29,34 +29,50 @@ package com.github.jonathanxd.interoute.backend;
 
 import com.github.jonathanxd.interoute.exception.GenerationException;
 import com.github.jonathanxd.interoute.gen.ClassGenerationUtil;
+import com.github.jonathanxd.interoute.gen.GenerationProfile;
 import com.github.jonathanxd.interoute.gen.GenerationUtil;
 import com.github.jonathanxd.interoute.gen.RouteSpec;
 import com.github.jonathanxd.interoute.gen.RouterSpec;
+import com.github.jonathanxd.interoute.route.RouteTable;
 import com.github.jonathanxd.iutils.collection.Collections3;
 import com.github.jonathanxd.iutils.object.result.Result;
 import com.github.jonathanxd.kores.Instruction;
 import com.github.jonathanxd.kores.Instructions;
 import com.github.jonathanxd.kores.base.ClassDeclaration;
 import com.github.jonathanxd.kores.base.MethodDeclaration;
+import com.github.jonathanxd.kores.bytecode.BytecodeClass;
 import com.github.jonathanxd.kores.factory.Factories;
 import com.github.jonathanxd.kores.type.ImplicitKoresType;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public abstract class AbstractInterouteBackend<C extends InterouteBackendConfiguration> implements InterouteBackend<C> {
 
     @NotNull
     @Override
-    public <T> Result<? extends T, GenerationException> generate(@NotNull RouterSpec<C> routerSpec, @Nullable ClassLoader loader) {
+    public <T> Result<? extends T, GenerationException> generate(@NotNull RouterSpec<C> routerSpec,
+                                                                 @Nullable ClassLoader loader) {
+        return this.generate(routerSpec, loader, RouteTable.of(routerSpec));
+    }
+
+    @NotNull
+    @Override
+    public <T> Result<? extends T, GenerationException> generate(@NotNull RouterSpec<C> routerSpec,
+                                                                 @Nullable ClassLoader loader,
+                                                                 @NotNull RouteTable routeTable) {
         C configuration = routerSpec.getConfiguration();
+        String name = "com.github.jonathanxd.interoute.backend.live."
+                + ImplicitKoresType.getSimpleName(routerSpec.getRouterInterface())
+                + "$Router";
         ClassDeclaration.Builder classDeclaration = GenerationUtil.generateStandardRouterClass(routerSpec.getRouterInterface())
-                .specifiedName("com.github.jonathanxd.interoute.backend.live."
-                        + ImplicitKoresType.getSimpleName(routerSpec.getRouterInterface())
-                        + "$Router");
+                .specifiedName(name);
 
         List<Result<MethodDeclaration, GenerationException>> results =
                 this.getRouteImplementations(routerSpec.getRouteSpecList(), configuration);
@@ -67,16 +83,51 @@ public abstract class AbstractInterouteBackend<C extends InterouteBackendConfigu
             return Result.error(GenerationException.fromExceptionList(generationErrors));
         } else {
             List<MethodDeclaration> methods = this.getMethodList(results);
-            classDeclaration = classDeclaration.methods(Collections3.concat(classDeclaration.getMethods(), methods));
+            Class<? extends T> generatedClass;
+
+            int shardSize = configuration.getShardSize();
 
-            Class<? extends T> generatedClass = ClassGenerationUtil
-                    .load(ClassGenerationUtil.generate(classDeclaration.build()), loader);
+            if (methods.size() <= shardSize) {
+                classDeclaration = classDeclaration.methods(Collections3.concat(classDeclaration.getMethods(), methods));
 
-            return ClassGenerationUtil.create(generatedClass, this, configuration)
+                generatedClass = ClassGenerationUtil
+                        .load(ClassGenerationUtil.generate(classDeclaration.build()), loader,
+                                configuration.getGenerationProfile());
+            } else {
+                generatedClass = this.loadSharded(name, routerSpec.getRouterInterface(), classDeclaration, methods,
+                        shardSize, loader, configuration.getGenerationProfile());
+            }
+
+            return ClassGenerationUtil.create(generatedClass, this, configuration, routeTable)
                     .mapError(GenerationException::new);
         }
     }
 
+    private <T> Class<? extends T> loadSharded(String routerName,
+                                               Type routerInterface,
+                                               ClassDeclaration.Builder classDeclaration,
+                                               List<MethodDeclaration> methods,
+                                               int shardSize,
+                                               @Nullable ClassLoader loader,
+                                               GenerationProfile profile) {
+        List<BytecodeClass> shards = new ArrayList<>();
+        ClassDeclaration shard = null;
+
+        for (int from = 0, index = 0; from < methods.size(); from += shardSize, index++) {
+            int to = Math.min(from + shardSize, methods.size());
+
+            shard = GenerationUtil.generateShardClass(routerName, index, routerInterface, shard, methods.subList(from, to));
+            shards.addAll(ClassGenerationUtil.generate(shard));
+        }
+
+        return ClassGenerationUtil.loadSharded(
+                shards,
+                ClassGenerationUtil.generate(classDeclaration.superClass(shard).build()),
+                loader,
+                profile
+        );
+    }
+
     private List<GenerationException> getErrorList(List<Result<MethodDeclaration, GenerationException>> results) {
         return results.stream()
                 .filter(r -> r instanceof Result.Err<?, ?>)
@@ -95,14 +146,15 @@ public abstract class AbstractInterouteBackend<C extends InterouteBackendConfigu
 
     private List<Result<MethodDeclaration, GenerationException>> getRouteImplementations(List<RouteSpec> routeSpecList,
                                                                                          C configuration) {
-        return routeSpecList.stream()
-                .map(route -> this.getRouteImplementationMethod(route, configuration))
+        return IntStream.range(0, routeSpecList.size())
+                .mapToObj(routeId -> this.getRouteImplementationMethod(routeSpecList.get(routeId), routeId, configuration))
                 .collect(Collectors.toList());
     }
 
     private Result<MethodDeclaration, GenerationException> getRouteImplementationMethod(RouteSpec routeSpec,
+                                                                                        int routeId,
                                                                                         C configuration) {
-        return this.getRouteImplementation(routeSpec, configuration)
+        return this.getRouteImplementation(routeSpec, routeId, configuration)
                 .map(instructions ->
                         MethodDeclaration.Builder.builder()
                                 .annotations(Factories.overrideAnnotation())
@@ -116,10 +168,20 @@ public abstract class AbstractInterouteBackend<C extends InterouteBackendConfigu
     }
 
     private Result<Instructions, GenerationException> getRouteImplementation(RouteSpec routeSpec,
+                                                                             int routeId,
                                                                              C configuration) {
-        return this.route(routeSpec, configuration).map(Instructions::fromPart);
+        return this.route(routeSpec, routeId, configuration).map(Instructions::fromPart);
     }
 
-    protected abstract Result<Instruction, GenerationException> route(RouteSpec routeSpec, C configuration);
+    /**
+     * Generates the body of the implementation of {@code routeSpec}.
+     *
+     * @param routeSpec     Route specification.
+     * @param routeId       Index of route in {@link RouterSpec#getRouteSpecList()}, which is also its id in the {@link
+     *                      RouteTable route table}.
+     * @param configuration Backend configuration.
+     * @return Result with either the body of route implementation or the generation exception.
+     */
+    protected abstract Result<Instruction, GenerationException> route(RouteSpec routeSpec, int routeId, C configuration);
 
 }
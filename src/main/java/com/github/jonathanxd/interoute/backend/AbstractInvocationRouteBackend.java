@@ -27,10 +27,12 @@
  */
 package com.github.jonathanxd.interoute.backend;
 
+import com.github.jonathanxd.interoute.annotation.Batched;
 import com.github.jonathanxd.interoute.backend.def.DefaultBackendGenerationUtil;
 import com.github.jonathanxd.interoute.exception.GenerationException;
 import com.github.jonathanxd.interoute.gen.GenerationUtil;
 import com.github.jonathanxd.interoute.gen.RouteGenerationUtil;
+import com.github.jonathanxd.interoute.gen.RouteResource;
 import com.github.jonathanxd.interoute.gen.RouteSpec;
 import com.github.jonathanxd.interoute.route.Route;
 import com.github.jonathanxd.interoute.route.def.DestinationResolver;
@@ -49,28 +51,36 @@ import org.jetbrains.annotations.Nullable;
 
 import java.lang.reflect.Type;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 public abstract class AbstractInvocationRouteBackend<C extends InterouteBackendConfiguration> extends AbstractInterouteBackend<C> {
     @Override
-    protected Result<Instruction, GenerationException> route(RouteSpec routeSpec, C configuration) {
-        return SimpleTypeMethodDestinationNotation
-                .parseType(routeSpec.getDestination(), this.destinationResolver(routeSpec, configuration))
-                .flatMap(
-                        notation -> this.routeTargetInstruction(routeSpec, notation),
-                        destinationParseError -> Result.error(new GenerationException(destinationParseError))
-                );
+    protected Result<Instruction, GenerationException> route(RouteSpec routeSpec, int routeId, C configuration) {
+        return this.getRouteExecutor(routeSpec, configuration).flatMap(
+                executor -> SimpleTypeMethodDestinationNotation
+                        .parseType(routeSpec.getDestination(), this.destinationResolver(routeSpec, configuration))
+                        .flatMap(
+                                notation -> this.routeTargetInstruction(routeSpec, routeId, notation, executor.orElse(null), configuration),
+                                destinationParseError -> Result.error(new GenerationException(destinationParseError))
+                        ),
+                executorError -> Result.error(executorError)
+        );
     }
 
     protected abstract DestinationResolver<Type, MethodTypeSpec> destinationResolver(@NotNull RouteSpec routeSpec,
                                                                                      @NotNull C configuration);
 
     private Result<Instruction, GenerationException> routeTargetInstruction(RouteSpec routeSpec,
-                                                                            SimpleTypeMethodDestinationNotation destinationNotation) {
+                                                                            int routeId,
+                                                                            SimpleTypeMethodDestinationNotation destinationNotation,
+                                                                            @Nullable Instruction executor,
+                                                                            C configuration) {
         return destinationNotation.getRoot()
                 .<Result<Type, GenerationException>>map(Result::ok)
                 .orElseGet(() -> Result
                         .error(new GenerationException(String.format("Missing root type in route spec: %s.", routeSpec))))
+                .flatMap(type -> RouteGenerationUtil.checkBulkMethod(routeSpec, type))
                 .combineSuccess(Result.ok(destinationNotation.getTarget()), Combiners.pair())
                 .map((typeAndMethod) -> {
                     Type type = typeAndMethod.getFirst();
@@ -78,7 +88,8 @@ public abstract class AbstractInvocationRouteBackend<C extends InterouteBackendC
 
                     String rootString = destinationNotation.getRootString().orElseThrow(IllegalStateException::new);
 
-                    return this.generateRouteInstanceWithInvocation(rootString, type, spec, routeSpec);
+                    return this.generateRouteInstanceWithInvocation(rootString, type, spec, routeSpec, routeId, executor,
+                            configuration);
                 });
 
     }
@@ -86,6 +97,52 @@ public abstract class AbstractInvocationRouteBackend<C extends InterouteBackendC
     @NotNull
     protected abstract Instruction getInstance(@Nullable String root);
 
+    /**
+     * Gets the instruction which retrieves the instance of {@code root} for the route {@link
+     * com.github.jonathanxd.interoute.route.Destination destination}.
+     *
+     * @param root          Root of destination notation.
+     * @param configuration Backend configuration.
+     * @return Instruction which retrieves the instance of {@code root} for the route destination.
+     */
+    @NotNull
+    protected Instruction getDestinationInstance(@Nullable String root, @NotNull C configuration) {
+        return this.getInstance(root);
+    }
+
+    /**
+     * Gets the resource which provides the instance of {@code root} to every route invocation. When present, the
+     * instance is acquired before every invocation and released after it, instead of being retrieved with {@link
+     * #getInstance(String)}.
+     *
+     * @param root          Root of destination notation.
+     * @param routeSpec     Route specification.
+     * @param configuration Backend configuration.
+     * @return Resource which provides the instance of {@code root}, or {@code null} if the instance is retrieved with
+     * {@link #getInstance(String)}.
+     */
+    @Nullable
+    protected RouteResource getInstanceResource(@Nullable String root,
+                                                @NotNull RouteSpec routeSpec,
+                                                @NotNull C configuration) {
+        return null;
+    }
+
+    /**
+     * Gets the instruction which retrieves the {@link java.util.concurrent.Executor} which executes the route, evaluated
+     * with access to route arguments.
+     *
+     * @param routeSpec     Route specification.
+     * @param configuration Backend configuration.
+     * @return Result with either the optional instruction which retrieves the executor, empty to execute the route in
+     * {@link java.util.concurrent.ForkJoinPool#commonPool() common pool}, or the exception if the route cannot be executed
+     * with {@code configuration}.
+     */
+    protected Result<Optional<Instruction>, GenerationException> getRouteExecutor(@NotNull RouteSpec routeSpec,
+                                                                                 @NotNull C configuration) {
+        return Result.ok(Optional.empty());
+    }
+
     @NotNull
     protected abstract Instruction createInvocation(@NotNull MethodTypeSpec targetSpec,
                                                     @Nullable Type rootType,
@@ -95,15 +152,30 @@ public abstract class AbstractInvocationRouteBackend<C extends InterouteBackendC
     private Instruction generateRouteInstanceWithInvocation(@Nullable String rootString,
                                                             @Nullable Type rootType,
                                                             @NotNull MethodTypeSpec targetSpec,
-                                                            @NotNull RouteSpec routeSpec) {
-        Instruction getInstanceInstruction = this.getInstance(rootString);
+                                                            @NotNull RouteSpec routeSpec,
+                                                            int routeId,
+                                                            @Nullable Instruction executor,
+                                                            @NotNull C configuration) {
+        RouteResource resource = this.getInstanceResource(rootString, routeSpec, configuration);
+        Instruction getInstanceInstruction = resource != null
+                ? Factories.accessVariable(resource.getVariable())
+                : this.getInstance(rootString);
+
+        Instruction destinationInstance = resource != null
+                ? this.getDestinationInstance(rootString, configuration)
+                : getInstanceInstruction;
 
         Instruction routeInvocation = this.createInvocation(targetSpec, rootType, getInstanceInstruction, routeSpec);
 
         Instruction routeCreationInstruction = this.generateRouteCreationInstruction(
                 routeInvocation,
-                DefaultBackendGenerationUtil.createDestination(getInstanceInstruction, targetSpec),
-                routeSpec
+                resource,
+                executor,
+                destinationInstance,
+                DefaultBackendGenerationUtil.createDestination(destinationInstance, targetSpec),
+                routeSpec,
+                routeId,
+                RouteGenerationUtil.isRouterRoute(rootType, targetSpec.getTypeSpec().getReturnType())
         );
 
         if (ImplicitKoresType.is(GenerationUtil.getRouteOriginReturnType(routeSpec), Types.VOID)) {
@@ -114,14 +186,37 @@ public abstract class AbstractInvocationRouteBackend<C extends InterouteBackendC
     }
 
     private Instruction generateRouteCreationInstruction(Instruction routeTargetInvocation,
+                                                         @Nullable RouteResource resource,
+                                                         @Nullable Instruction executor,
+                                                         Instruction destinationInstance,
                                                          Instruction destination,
-                                                         RouteSpec routeSpec) {
-        return RouteGenerationUtil.createSuppliedExecutorRoute(
-                this.getVariables(routeSpec),
-                routeTargetInvocation,
-                destination,
-                routeSpec
-        );
+                                                         RouteSpec routeSpec,
+                                                         int routeId,
+                                                         boolean routerRoute) {
+        List<VariableRef> variables = this.getVariables(routeSpec);
+        boolean batched = routeSpec.getRouteSpecInfo(Batched.class).isPresent();
+        boolean direct = !batched && executor == null && !RouteGenerationUtil.isIntercepted(routeSpec);
+
+        if (direct && routerRoute)
+            return RouteGenerationUtil.createDirectRoute(
+                    RouteGenerationUtil.asyncSupplyLambda(variables, routeTargetInvocation, resource),
+                    destination,
+                    routeSpec
+            );
+
+        Instruction supplier = batched
+                ? RouteGenerationUtil.batchedSupplier(routeId, destinationInstance, variables)
+                : RouteGenerationUtil.generateSupplier(variables, routeTargetInvocation, resource, executor,
+                        RouteGenerationUtil.getCancellable(routeSpec));
+
+        if (RouteGenerationUtil.isIntercepted(routeSpec))
+            supplier = RouteGenerationUtil.interceptedSupplier(routeId, variables, supplier);
+
+        Instruction invoker = direct
+                ? RouteGenerationUtil.asyncSupplyLambda(variables, routeTargetInvocation, resource)
+                : null;
+
+        return RouteGenerationUtil.createSuppliedExecutorRoute(supplier, invoker, destination, routeSpec);
     }
 
     private List<VariableRef> getVariables(RouteSpec routeSpec) {
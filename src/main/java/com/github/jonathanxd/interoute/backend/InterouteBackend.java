@@ -29,6 +29,7 @@ package com.github.jonathanxd.interoute.backend;
 
 import com.github.jonathanxd.interoute.exception.GenerationException;
 import com.github.jonathanxd.interoute.gen.RouterSpec;
+import com.github.jonathanxd.interoute.route.RouteTable;
 import com.github.jonathanxd.iutils.object.result.Result;
 
 import org.jetbrains.annotations.NotNull;
@@ -54,6 +55,27 @@ public interface InterouteBackend<C extends InterouteBackendConfiguration> {
     @NotNull
     <T> Result<? extends T, GenerationException> generate(@NotNull RouterSpec<C> routerSpec, @Nullable ClassLoader classLoader);
 
+    /**
+     * Generate the router implementation with an existing route table, which allows the router to share the runtime
+     * state of routes (caches, limiters, circuit breakers and their statistics) with another router of the same
+     * specification.
+     *
+     * The default implementation ignores {@code routeTable} and delegates to {@link #generate(RouterSpec,
+     * ClassLoader)}, backends which supports route tables overrides this method.
+     *
+     * @param routerSpec Specification of the router.
+     * @param classLoader Class loader to load routing class.
+     * @param routeTable Route table of {@code routerSpec}.
+     * @param <T>        Type of the router.
+     * @return Router implementation instance.
+     */
+    @NotNull
+    default <T> Result<? extends T, GenerationException> generate(@NotNull RouterSpec<C> routerSpec,
+                                                                  @Nullable ClassLoader classLoader,
+                                                                  @NotNull RouteTable routeTable) {
+        return this.generate(routerSpec, classLoader);
+    }
+
     /**
      * Creates backend configuration instance.
      *
@@ -27,8 +27,34 @@
  */
 package com.github.jonathanxd.interoute.backend;
 
+import com.github.jonathanxd.interoute.gen.GenerationProfile;
+import com.github.jonathanxd.interoute.gen.GenerationUtil;
+
+import org.jetbrains.annotations.NotNull;
+
 /**
  * Stores configuration of {@link InterouteBackend}.
  */
 public interface InterouteBackendConfiguration {
+
+    /**
+     * Gets the maximum amount of route implementations in a single generated class, routers with more routes are split
+     * across {@link GenerationUtil#generateShardClass(String, int, java.lang.reflect.Type, java.lang.reflect.Type, java.util.List)
+     * shard classes}.
+     *
+     * @return Maximum amount of route implementations in a single generated class.
+     */
+    default int getShardSize() {
+        return GenerationUtil.DEFAULT_SHARD_SIZE;
+    }
+
+    /**
+     * Gets the profile of classes generated for routers of this configuration.
+     *
+     * @return Profile of classes generated for routers of this configuration.
+     */
+    @NotNull
+    default GenerationProfile getGenerationProfile() {
+        return GenerationProfile.getDefault();
+    }
 }
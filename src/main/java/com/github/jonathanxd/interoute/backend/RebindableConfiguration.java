@@ -0,0 +1,54 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.backend;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * {@link InterouteBackendConfiguration} which supports replacement of destination instances of live routers.
+ */
+public interface RebindableConfiguration extends InterouteBackendConfiguration {
+
+    /**
+     * Returns whether this configuration was built to support rebinding or not.
+     *
+     * @return Whether this configuration was built to support rebinding or not.
+     */
+    boolean isRebindable();
+
+    /**
+     * Atomically replaces the destination instance registered with {@code alias}.
+     *
+     * @param alias    Alias of destination instance.
+     * @param instance New instance.
+     * @throws IllegalStateException    If this configuration {@link #isRebindable() does not support rebinding}.
+     * @throws IllegalArgumentException If there is no instance registered with {@code alias} or if {@code instance} is not
+     *                                  compatible with the type used to generate the router.
+     */
+    void rebind(@NotNull String alias, @NotNull Object instance);
+}
@@ -27,22 +27,54 @@
  */
 package com.github.jonathanxd.interoute.backend.def;
 
-import com.github.jonathanxd.interoute.backend.InterouteBackendConfiguration;
+import com.github.jonathanxd.interoute.backend.RebindableConfiguration;
+import com.github.jonathanxd.interoute.gen.GenerationProfile;
+import com.github.jonathanxd.interoute.gen.GenerationUtil;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 /**
  * Configuration of {@link DefaultInterouteBackend}.
  *
  * This configuration store instances alias name and the instance itself. This is used to resolve the methods to route to.
+ *
+ * Instances could also be registered as {@link Builder#addProvider(String, Class, Supplier) providers}, which are only
+ * invoked when a route to the instance is used for the first time. Providers registered with an {@link InstanceScope} other
+ * than {@link InstanceScope#SINGLETON} supply a {@link ScopedInstance}, from which generated routes acquire an instance
+ * before invoking the destination and release it afterwards.
+ *
+ * When built as {@link Builder#rebindable(boolean) rebindable}, every instance and {@link InstanceScope#SINGLETON
+ * singleton} provider is bound through a {@link DestinationBinding} and could be replaced with {@link #rebind(String,
+ * Object)} without generating a new router. Scoped providers and groups are not rebindable.
  */
-public class DefaultBackendConfiguration implements InterouteBackendConfiguration {
+public class DefaultBackendConfiguration implements RebindableConfiguration {
+
+    /**
+     * Handle to {@link Supplier#get()}, used to retrieve lazily created instances from bindings.
+     */
+    private static final MethodHandle SUPPLIER_GET;
+
+    static {
+        try {
+            SUPPLIER_GET = MethodHandles.publicLookup()
+                    .findVirtual(Supplier.class, "get", MethodType.methodType(Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
 
     /**
      * Stores instance alias/type and the instance object. These values are used to resolve method to route. The alias is the root
@@ -50,13 +82,101 @@ public class DefaultBackendConfiguration implements InterouteBackendConfiguratio
      */
     private final Map<String, Object> instances;
 
+    /**
+     * Providers of lazily created instances.
+     */
+    private final Map<String, Supplier<?>> providers;
+
+    /**
+     * Scopes of {@link #providers}, providers without a scope are {@link InstanceScope#SINGLETON singletons}.
+     */
+    private final Map<String, InstanceScope> scopes;
+
+    /**
+     * Lazily created instances of {@link InstanceScope#SINGLETON singleton} {@link #providers}.
+     */
+    private final Map<String, LazyInstance<?>> lazyInstances;
+
+    /**
+     * Instances of {@link #providers} with scopes other than {@link InstanceScope#SINGLETON} and instances of {@link
+     * Builder#addGroup(String, Class, InstanceSelection, List) groups}.
+     */
+    private final Map<String, ScopedInstance<?>> scopedInstances;
+
+    /**
+     * Declared types of instances, instances without a declared type are resolved by their class.
+     */
+    private final Map<String, Class<?>> types;
+
+    /**
+     * Whether instances could be rebound or not.
+     */
+    private final boolean rebindable;
+
+    /**
+     * Bindings of instances, only present in {@link #rebindable} configurations.
+     */
+    private final Map<String, DestinationBinding> bindings;
+
+    /**
+     * Executor of {@link com.github.jonathanxd.interoute.annotation.Partitioned partitioned} routes, {@code null} if
+     * partitions are not configured.
+     */
+    @Nullable
+    private final PartitionedExecutor partitionedExecutor;
+
+    /**
+     * Maximum amount of route implementations in a single generated class.
+     */
+    private final int shardSize;
+
+    /**
+     * Profile of classes generated for routers of this configuration.
+     */
+    @NotNull
+    private final GenerationProfile generationProfile;
+
     /**
      * Constructs {@link DefaultBackendConfiguration} and register {@code instances} in this {@link #instances} map.
      *
      * @param instances Instances to register.
      */
     private DefaultBackendConfiguration(@NotNull Map<String, Object> instances) {
+        this(instances, Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap(), false, null,
+                GenerationUtil.DEFAULT_SHARD_SIZE, GenerationProfile.getDefault());
+    }
+
+    /**
+     * Constructs {@link DefaultBackendConfiguration} and register {@code instances} in this {@link #instances} map.
+     *
+     * @param instances           Instances to register.
+     * @param providers           Providers of lazily created instances.
+     * @param scopes              Scopes of providers.
+     * @param types               Declared types of instances.
+     * @param rebindable          Whether instances could be rebound or not.
+     * @param partitionedExecutor Executor of partitioned routes.
+     * @param shardSize           Maximum amount of route implementations in a single generated class.
+     * @param generationProfile   Profile of classes generated for routers of this configuration.
+     */
+    private DefaultBackendConfiguration(@NotNull Map<String, Object> instances,
+                                        @NotNull Map<String, Supplier<?>> providers,
+                                        @NotNull Map<String, InstanceScope> scopes,
+                                        @NotNull Map<String, Class<?>> types,
+                                        boolean rebindable,
+                                        @Nullable PartitionedExecutor partitionedExecutor,
+                                        int shardSize,
+                                        @NotNull GenerationProfile generationProfile) {
         this.instances = Collections.unmodifiableMap(Objects.requireNonNull(instances, "Instances map cannot be null."));
+        this.providers = Collections.unmodifiableMap(new HashMap<>(Objects.requireNonNull(providers, "Providers map cannot be null.")));
+        this.scopes = Collections.unmodifiableMap(new HashMap<>(Objects.requireNonNull(scopes, "Scopes map cannot be null.")));
+        this.types = Collections.unmodifiableMap(new HashMap<>(Objects.requireNonNull(types, "Types map cannot be null.")));
+        this.lazyInstances = this.createLazyInstances();
+        this.scopedInstances = this.createScopedInstances();
+        this.rebindable = rebindable;
+        this.bindings = rebindable ? this.createBindings() : Collections.emptyMap();
+        this.partitionedExecutor = partitionedExecutor;
+        this.shardSize = shardSize;
+        this.generationProfile = Objects.requireNonNull(generationProfile, "Generation profile cannot be null.");
     }
 
     /**
@@ -86,18 +206,149 @@ public class DefaultBackendConfiguration implements InterouteBackendConfiguratio
         return DefaultBackendConfiguration.Builder.builder();
     }
 
+    @SuppressWarnings("unchecked")
+    private Map<String, LazyInstance<?>> createLazyInstances() {
+        Map<String, LazyInstance<?>> lazyInstances = new HashMap<>();
+
+        for (Map.Entry<String, Supplier<?>> entry : this.providers.entrySet()) {
+            if (this.getScope(entry.getKey()) == InstanceScope.SINGLETON) {
+                lazyInstances.put(entry.getKey(), new LazyInstance<>(
+                        (Class<Object>) this.getInstanceType(entry.getKey()).orElseThrow(IllegalStateException::new),
+                        entry.getValue()
+                ));
+            }
+        }
+
+        return Collections.unmodifiableMap(lazyInstances);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, ScopedInstance<?>> createScopedInstances() {
+        Map<String, ScopedInstance<?>> scopedInstances = new HashMap<>();
+
+        for (Map.Entry<String, InstanceScope> entry : this.scopes.entrySet()) {
+            InstanceScope scope = entry.getValue();
+            Class<Object> type = (Class<Object>) this.getInstanceType(entry.getKey())
+                    .orElseThrow(IllegalStateException::new);
+
+            if (scope instanceof InstanceScope.Group) {
+                scopedInstances.put(entry.getKey(), ((InstanceScope.Group) scope).create(type));
+            } else if (scope != InstanceScope.SINGLETON) {
+                scopedInstances.put(entry.getKey(), scope.create(type, this.providers.get(entry.getKey())));
+            }
+        }
+
+        return Collections.unmodifiableMap(scopedInstances);
+    }
+
+    private Map<String, DestinationBinding> createBindings() {
+        Map<String, DestinationBinding> bindings = new HashMap<>();
+
+        for (Map.Entry<String, Object> entry : this.instances.entrySet()) {
+            bindings.put(entry.getKey(), new DestinationBinding(
+                    this.getInstanceType(entry.getKey()).orElseThrow(IllegalStateException::new),
+                    entry.getValue()
+            ));
+        }
+
+        for (Map.Entry<String, LazyInstance<?>> entry : this.lazyInstances.entrySet()) {
+            bindings.put(entry.getKey(), new DestinationBinding(
+                    this.getInstanceType(entry.getKey()).orElseThrow(IllegalStateException::new),
+                    SUPPLIER_GET.bindTo(entry.getValue())
+            ));
+        }
+
+        return Collections.unmodifiableMap(bindings);
+    }
+
     /**
-     * Gets the instance registered with {@code name}.
+     * Gets the instance registered with {@code name}. Instances of scopes other than {@link InstanceScope#SINGLETON} are
+     * only available through {@link #getScopedInstance(String)}.
      *
      * @param name Name of registered instance.
      * @return Optional with the instance object if found, or {@link Optional#empty()} otherwise.
      */
     public Optional<Object> getInstance(String name) {
+        DestinationBinding binding = this.bindings.get(name);
+
+        if (binding != null)
+            return Optional.of(binding.getInstance());
+
+        LazyInstance<?> lazyInstance = this.lazyInstances.get(name);
+
+        if (lazyInstance != null)
+            return Optional.of(lazyInstance.get());
+
         return Optional.ofNullable(this.getInstances().get(name));
     }
 
     /**
-     * Gets immutable map of registered instances.
+     * Gets the scoped instance registered with {@code name}. Routes to scoped instances {@link ScopedInstance#acquire()
+     * acquire} the instance on every execution and {@link ScopedInstance#release(Object) release} it afterwards, and
+     * {@link #getInstance(String)} does not resolve them.
+     *
+     * @param name Name of registered provider.
+     * @return Optional with the scoped instance, or {@link Optional#empty()} if there is no provider registered with {@code
+     * name} or the provider is a {@link InstanceScope#SINGLETON singleton}.
+     */
+    public Optional<ScopedInstance<?>> getScopedInstance(String name) {
+        return Optional.ofNullable(this.scopedInstances.get(name));
+    }
+
+    /**
+     * Gets the scope of instance registered with {@code name}.
+     *
+     * @param name Name of registered instance.
+     * @return Scope of the instance, instances which are not provided by a scoped provider are {@link
+     * InstanceScope#SINGLETON singletons}.
+     */
+    @NotNull
+    public InstanceScope getScope(String name) {
+        return this.scopes.getOrDefault(name, InstanceScope.SINGLETON);
+    }
+
+    /**
+     * Gets the supplier of lazily created instance registered with {@code name}. The supplier creates the instance on the
+     * first invocation and returns the same instance on subsequent invocations.
+     *
+     * @param name Name of registered provider.
+     * @return Optional with the supplier of lazily created instance, or {@link Optional#empty()} if there is no provider
+     * registered with {@code name}.
+     */
+    public Optional<Supplier<?>> getLazyInstance(String name) {
+        return Optional.ofNullable(this.lazyInstances.get(name));
+    }
+
+    /**
+     * Gets the type of instance registered with {@code name}. This is the type used to resolve methods to route to.
+     *
+     * @param name Name of registered instance.
+     * @return Optional with declared type of the instance or class of the instance if there is no declared type, or {@link
+     * Optional#empty()} if there is no instance registered with {@code name}.
+     */
+    public Optional<Class<?>> getInstanceType(String name) {
+        Class<?> type = this.types.get(name);
+
+        if (type != null)
+            return Optional.of(type);
+
+        return Optional.ofNullable(this.instances.get(name)).map(Object::getClass);
+    }
+
+    /**
+     * Gets the binding of instance registered with {@code name}.
+     *
+     * @param name Name of registered instance.
+     * @return Optional with the binding if this configuration is {@link #isRebindable() rebindable} and there is an instance
+     * registered with {@code name}, or {@link Optional#empty()} otherwise.
+     */
+    public Optional<DestinationBinding> getBinding(String name) {
+        return Optional.ofNullable(this.bindings.get(name));
+    }
+
+    /**
+     * Gets immutable map of registered instances. For {@link #isRebindable() rebindable} configurations, this is the map of
+     * instances registered at the configuration time.
      *
      * @return Immutable map of registered instances.
      */
@@ -106,12 +357,95 @@ public class DefaultBackendConfiguration implements InterouteBackendConfiguratio
     }
 
     /**
-     * Convert to a builder.
+     * Gets immutable map of providers of lazily created instances.
+     *
+     * @return Immutable map of providers of lazily created instances.
+     */
+    public Map<String, Supplier<?>> getProviders() {
+        return this.providers;
+    }
+
+    /**
+     * Gets immutable map of provider scopes.
+     *
+     * @return Immutable map of provider scopes.
+     */
+    public Map<String, InstanceScope> getScopes() {
+        return this.scopes;
+    }
+
+    /**
+     * Gets immutable map of declared instance types.
+     *
+     * @return Immutable map of declared instance types.
+     */
+    public Map<String, Class<?>> getTypes() {
+        return this.types;
+    }
+
+    /**
+     * Gets the executor of {@link com.github.jonathanxd.interoute.annotation.Partitioned partitioned} routes.
+     *
+     * @return Optional with the executor of partitioned routes, or {@link Optional#empty()} if partitions are not
+     * {@link Builder#partitions(int, int) configured}.
+     */
+    public Optional<PartitionedExecutor> getPartitionedExecutor() {
+        return Optional.ofNullable(this.partitionedExecutor);
+    }
+
+    @Override
+    public int getShardSize() {
+        return this.shardSize;
+    }
+
+    @NotNull
+    @Override
+    public GenerationProfile getGenerationProfile() {
+        return this.generationProfile;
+    }
+
+    @Override
+    public boolean isRebindable() {
+        return this.rebindable;
+    }
+
+    @Override
+    public void rebind(@NotNull String alias, @NotNull Object instance) {
+        if (!this.isRebindable())
+            throw new IllegalStateException("Configuration is not rebindable.");
+
+        DestinationBinding binding = this.bindings.get(alias);
+
+        if (binding == null) {
+            if (this.scopedInstances.containsKey(alias))
+                throw new IllegalArgumentException(String.format("Alias '%s' is not rebindable, it is registered with" +
+                        " a scoped provider or a group.", alias));
+
+            throw new IllegalArgumentException(String.format("There is no instance registered with alias '%s'.", alias));
+        }
+
+        binding.rebind(instance);
+    }
+
+    /**
+     * Convert to a builder. Aliases {@link #rebind(String, Object) rebound} in this configuration are registered with the
+     * currently bound instance instead of the originally registered instance or provider.
      *
      * @return Builder with a copy of values of this configuration.
      */
+    @SuppressWarnings("unchecked")
     public Builder toBuilder() {
-        return Builder.builder(this.getInstances());
+        Builder builder = Builder.builder(this.getInstances(), this.getProviders(), this.getScopes(), this.getTypes(),
+                this.isRebindable(), this.partitionedExecutor, this.getShardSize(), this.getGenerationProfile());
+
+        for (Map.Entry<String, DestinationBinding> entry : this.bindings.entrySet()) {
+            DestinationBinding binding = entry.getValue();
+
+            if (binding.isRebound())
+                builder.addInstance(entry.getKey(), (Class<Object>) binding.getType(), binding.getInstance());
+        }
+
+        return builder;
     }
 
     /**
@@ -123,16 +457,80 @@ public class DefaultBackendConfiguration implements InterouteBackendConfiguratio
          */
         private Map<String, Object> instances;
 
-        private Builder(Map<String, Object> instances) {
+        /**
+         * The {@link DefaultBackendConfiguration#providers providers map}.
+         */
+        private Map<String, Supplier<?>> providers;
+
+        /**
+         * The {@link DefaultBackendConfiguration#scopes scopes map}.
+         */
+        private Map<String, InstanceScope> scopes;
+
+        /**
+         * The {@link DefaultBackendConfiguration#types declared types map}.
+         */
+        private Map<String, Class<?>> types;
+
+        /**
+         * Whether instances could be rebound or not.
+         */
+        private boolean rebindable;
+
+        /**
+         * The {@link DefaultBackendConfiguration#partitionedExecutor executor of partitioned routes}.
+         */
+        private PartitionedExecutor partitionedExecutor;
+
+        /**
+         * The {@link DefaultBackendConfiguration#shardSize maximum amount of route implementations in a single generated
+         * class}.
+         */
+        private int shardSize;
+
+        /**
+         * The {@link DefaultBackendConfiguration#generationProfile profile of generated classes}.
+         */
+        private GenerationProfile generationProfile;
+
+        private Builder(Map<String, Object> instances,
+                        Map<String, Supplier<?>> providers,
+                        Map<String, InstanceScope> scopes,
+                        Map<String, Class<?>> types,
+                        boolean rebindable,
+                        PartitionedExecutor partitionedExecutor,
+                        int shardSize,
+                        GenerationProfile generationProfile) {
             this.instances = new HashMap<>(instances);
+            this.providers = new HashMap<>(providers);
+            this.scopes = new HashMap<>(scopes);
+            this.types = new HashMap<>(types);
+            this.rebindable = rebindable;
+            this.partitionedExecutor = partitionedExecutor;
+            this.shardSize = shardSize;
+            this.generationProfile = generationProfile;
         }
 
         static Builder builder() {
-            return new Builder(new HashMap<>());
+            return new Builder(new HashMap<>(), new HashMap<>(), new HashMap<>(), new HashMap<>(), false, null,
+                    GenerationUtil.DEFAULT_SHARD_SIZE, GenerationProfile.getDefault());
         }
 
         static Builder builder(Map<String, Object> instances) {
-            return new Builder(instances);
+            return new Builder(instances, new HashMap<>(), new HashMap<>(), new HashMap<>(), false, null,
+                    GenerationUtil.DEFAULT_SHARD_SIZE, GenerationProfile.getDefault());
+        }
+
+        static Builder builder(Map<String, Object> instances,
+                               Map<String, Supplier<?>> providers,
+                               Map<String, InstanceScope> scopes,
+                               Map<String, Class<?>> types,
+                               boolean rebindable,
+                               PartitionedExecutor partitionedExecutor,
+                               int shardSize,
+                               GenerationProfile generationProfile) {
+            return new Builder(instances, providers, scopes, types, rebindable, partitionedExecutor, shardSize,
+                    generationProfile);
         }
 
         /**
@@ -148,6 +546,99 @@ public class DefaultBackendConfiguration implements InterouteBackendConfiguratio
             Objects.requireNonNull(name, "Name cannot be null.");
             Objects.requireNonNull(instance, "Instance cannot be null.");
             this.instances.put(name, instance);
+            this.providers.remove(name);
+            this.scopes.remove(name);
+            this.types.remove(name);
+            return this;
+        }
+
+        /**
+         * Adds an instance to the instance registry with a declared {@code type}. Methods to route to are resolved against
+         * {@code type} instead of the instance class, this allows instances to be {@link #rebindable(boolean) rebound} to
+         * other implementations of {@code type}.
+         *
+         * @param name     Name/alias of the instance.
+         * @param type     Declared type of the instance.
+         * @param instance Instance.
+         * @param <T>      Declared type.
+         * @return {@code this} builder.
+         */
+        public <T> Builder addInstance(@NotNull String name, @NotNull Class<T> type, @NotNull T instance) {
+            Objects.requireNonNull(type, "Type cannot be null.");
+            this.addInstance(name, instance);
+            this.types.put(name, type);
+            return this;
+        }
+
+        /**
+         * Adds a provider of a lazily created instance to the instance registry. Methods to route to are resolved against
+         * {@code type}, and {@code provider} is only invoked when a route to the instance is used for the first time. The
+         * provider is invoked at most once per built configuration, even under concurrent route executions.
+         *
+         * @param name     Name/alias of the instance.
+         * @param type     Declared type of the instance.
+         * @param provider Provider of the instance.
+         * @param <T>      Declared type.
+         * @return {@code this} builder.
+         */
+        public <T> Builder addProvider(@NotNull String name, @NotNull Class<T> type, @NotNull Supplier<? extends T> provider) {
+            return this.addProvider(name, type, InstanceScope.SINGLETON, provider);
+        }
+
+        /**
+         * Adds a provider of instances of {@code scope} to the instance registry. Methods to route to are resolved against
+         * {@code type}, and {@code provider} is invoked whenever {@code scope} needs a new instance.
+         *
+         * @param name     Name/alias of the instance.
+         * @param type     Declared type of the instance.
+         * @param scope    Scope of provided instances.
+         * @param provider Provider of instances.
+         * @param <T>      Declared type.
+         * @return {@code this} builder.
+         */
+        public <T> Builder addProvider(@NotNull String name,
+                                       @NotNull Class<T> type,
+                                       @NotNull InstanceScope scope,
+                                       @NotNull Supplier<? extends T> provider) {
+            Objects.requireNonNull(name, "Name cannot be null.");
+            Objects.requireNonNull(type, "Type cannot be null.");
+            Objects.requireNonNull(scope, "Scope cannot be null.");
+            Objects.requireNonNull(provider, "Provider cannot be null.");
+            this.instances.remove(name);
+            this.providers.put(name, provider);
+            this.scopes.put(name, scope);
+            this.types.put(name, type);
+            return this;
+        }
+
+        /**
+         * Adds a group of {@code instances} to the instance registry. Route executions are spread across {@code instances}
+         * according to {@code selection}. Methods to route to are resolved against {@code type}. Unlike {@link
+         * InstanceScope#balanced(int, InstanceSelection) balanced providers}, the group is made of exactly {@code
+         * instances}, and every configuration built from this builder selects from the same instances.
+         *
+         * @param name      Name/alias of the group.
+         * @param type      Declared type of the instances.
+         * @param selection Strategy which selects the instance for each route execution.
+         * @param instances Instances of the group.
+         * @param <T>       Declared type.
+         * @return {@code this} builder.
+         * @see InstanceScope#balanced(int, InstanceSelection)
+         */
+        public <T> Builder addGroup(@NotNull String name,
+                                    @NotNull Class<T> type,
+                                    @NotNull InstanceSelection selection,
+                                    @NotNull List<? extends T> instances) {
+            Objects.requireNonNull(name, "Name cannot be null.");
+            Objects.requireNonNull(type, "Type cannot be null.");
+            Objects.requireNonNull(instances, "Instances cannot be null.");
+
+            List<T> group = Collections.unmodifiableList(new ArrayList<>(instances));
+
+            this.instances.remove(name);
+            this.providers.remove(name);
+            this.scopes.put(name, InstanceScope.group(group, selection));
+            this.types.put(name, type);
             return this;
         }
 
@@ -160,6 +651,77 @@ public class DefaultBackendConfiguration implements InterouteBackendConfiguratio
         public Builder removeInstance(@NotNull String name) {
             Objects.requireNonNull(name, "Name cannot be null.");
             this.instances.remove(name);
+            this.providers.remove(name);
+            this.scopes.remove(name);
+            this.types.remove(name);
+            return this;
+        }
+
+        /**
+         * Sets whether instances of built configuration could be {@link DefaultBackendConfiguration#rebind(String, Object)
+         * rebound} or not.
+         *
+         * @param rebindable Whether instances could be rebound or not.
+         * @return {@code this} builder.
+         */
+        public Builder rebindable(boolean rebindable) {
+            this.rebindable = rebindable;
+            return this;
+        }
+
+        /**
+         * Configures a new executor of {@link com.github.jonathanxd.interoute.annotation.Partitioned partitioned}
+         * routes. The executor is shared by configurations created from the built configuration {@link
+         * DefaultBackendConfiguration#toBuilder() builder}, unless partitions are configured again.
+         *
+         * Every call creates a new executor, configurers, which runs for every router creation, should create the
+         * executor once and configure it with {@link #partitions(PartitionedExecutor)} instead.
+         *
+         * @param partitions    Number of single-threaded partitions.
+         * @param queueCapacity Maximum number of pending executions of each partition, rounded up to a power of two.
+         *                      Executions of routes of a full partition are rejected.
+         * @return {@code this} builder.
+         */
+        public Builder partitions(int partitions, int queueCapacity) {
+            return this.partitions(new PartitionedExecutor(partitions, queueCapacity));
+        }
+
+        /**
+         * Configures the executor of {@link com.github.jonathanxd.interoute.annotation.Partitioned partitioned} routes,
+         * which may be shared by configurations of multiple routers.
+         *
+         * @param partitionedExecutor Executor of partitioned routes.
+         * @return {@code this} builder.
+         */
+        public Builder partitions(@NotNull PartitionedExecutor partitionedExecutor) {
+            this.partitionedExecutor = Objects.requireNonNull(partitionedExecutor, "Partitioned executor cannot be null.");
+            return this;
+        }
+
+        /**
+         * Sets the maximum amount of route implementations in a single generated class, routers with more routes are
+         * split across shard classes. Defaults to {@link GenerationUtil#DEFAULT_SHARD_SIZE}.
+         *
+         * @param shardSize Maximum amount of route implementations in a single generated class.
+         * @return {@code this} builder.
+         */
+        public Builder shardSize(int shardSize) {
+            if (shardSize < 1)
+                throw new IllegalArgumentException("Shard size must be positive.");
+
+            this.shardSize = shardSize;
+            return this;
+        }
+
+        /**
+         * Sets the profile of classes generated for routers of built configuration. Defaults to {@link
+         * GenerationProfile#getDefault()}.
+         *
+         * @param generationProfile Profile of generated classes.
+         * @return {@code this} builder.
+         */
+        public Builder generationProfile(@NotNull GenerationProfile generationProfile) {
+            this.generationProfile = Objects.requireNonNull(generationProfile, "Generation profile cannot be null.");
             return this;
         }
 
@@ -169,7 +731,8 @@ public class DefaultBackendConfiguration implements InterouteBackendConfiguratio
          * @return Configuration.
          */
         public DefaultBackendConfiguration build() {
-            return DefaultBackendConfiguration.newConfiguration(this.instances);
+            return new DefaultBackendConfiguration(this.instances, this.providers, this.scopes, this.types,
+                    this.rebindable, this.partitionedExecutor, this.shardSize, this.generationProfile);
         }
     }
 }
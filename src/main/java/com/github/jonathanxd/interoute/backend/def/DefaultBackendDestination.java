@@ -33,6 +33,7 @@ import com.github.jonathanxd.kores.common.MethodTypeSpec;
 import org.jetbrains.annotations.Contract;
 
 import java.util.Objects;
+import java.util.function.Supplier;
 
 /**
  * Default backend implementation of destination.
@@ -40,27 +41,53 @@ import java.util.Objects;
 public class DefaultBackendDestination implements Destination {
 
     /**
-     * Target instance.
+     * Target instance, {@code null} if the instance is resolved by {@link #supplier}.
      */
     private final Object instance;
 
+    /**
+     * Supplier of current target instance, {@code null} if the instance is constant.
+     */
+    private final Supplier<?> supplier;
+
     /**
      * Target method to invoke.
      */
     private final MethodTypeSpec methodTypeSpec;
 
     public DefaultBackendDestination(Object instance, MethodTypeSpec methodTypeSpec) {
+        this(instance, null, methodTypeSpec);
+    }
+
+    private DefaultBackendDestination(Object instance, Supplier<?> supplier, MethodTypeSpec methodTypeSpec) {
         this.instance = instance;
+        this.supplier = supplier;
         this.methodTypeSpec = methodTypeSpec;
     }
 
     /**
-     * Gets target instance.
+     * Creates the destination of the instance supplied by {@code supplier}, which is invoked whenever the {@link
+     * #getInstance() instance} is retrieved, so lazily created instances are not created by the destination itself and
+     * rebound instances are observed.
+     *
+     * @param supplier       Supplier of current target instance.
+     * @param methodTypeSpec Target method to invoke.
+     * @return Destination of the instance supplied by {@code supplier}.
+     */
+    static DefaultBackendDestination lazy(Supplier<?> supplier, MethodTypeSpec methodTypeSpec) {
+        return new DefaultBackendDestination(null, Objects.requireNonNull(supplier, "Supplier cannot be null."),
+                methodTypeSpec);
+    }
+
+    /**
+     * Gets target instance. For destinations with {@link InstanceScope scoped} instances, this is the {@link
+     * ScopedInstance} which provides the instances. For destinations of rebindable or lazily created instances, this is
+     * the current instance, which is created if it was not yet.
      *
      * @return Target instance.
      */
     public Object getInstance() {
-        return this.instance;
+        return this.supplier != null ? this.supplier.get() : this.instance;
     }
 
     /**
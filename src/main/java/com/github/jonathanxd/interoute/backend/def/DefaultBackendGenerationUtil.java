@@ -27,38 +27,185 @@
  */
 package com.github.jonathanxd.interoute.backend.def;
 
+import com.github.jonathanxd.interoute.annotation.Partitioned;
 import com.github.jonathanxd.interoute.backend.InterouteBackendConfiguration;
+import com.github.jonathanxd.interoute.exception.GenerationException;
 import com.github.jonathanxd.interoute.gen.GenerationUtil;
+import com.github.jonathanxd.interoute.gen.RouteResource;
+import com.github.jonathanxd.interoute.gen.RouteSpec;
 import com.github.jonathanxd.interoute.route.Router;
+import com.github.jonathanxd.interoute.util.RouteKeyUtil;
 import com.github.jonathanxd.iutils.collection.Collections3;
+import com.github.jonathanxd.iutils.object.result.Result;
 import com.github.jonathanxd.kores.Instruction;
 import com.github.jonathanxd.kores.base.InvokeType;
+import com.github.jonathanxd.kores.base.KoresParameter;
+import com.github.jonathanxd.kores.common.DynamicMethodSpec;
+import com.github.jonathanxd.kores.common.MethodInvokeHandle;
 import com.github.jonathanxd.kores.common.MethodTypeSpec;
+import com.github.jonathanxd.kores.common.VariableRef;
+import com.github.jonathanxd.kores.factory.DynamicInvocationFactory;
 import com.github.jonathanxd.kores.factory.Factories;
 import com.github.jonathanxd.kores.factory.InvocationFactory;
+import com.github.jonathanxd.kores.type.ImplicitKoresType;
 
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Type;
 import java.util.Collections;
 import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.Executor;
 
 /**
  * Utility of default backend generation.
  */
 public class DefaultBackendGenerationUtil {
     /**
-     * Invokes {@link DefaultBackendConfiguration#getInstance(String)}.
+     * Retrieves the {@link DefaultBackendConfiguration#getInstance(String) instance} of {@code instanceName} through an
+     * {@code invokedynamic} call site bootstrapped by {@link DestinationBootstrap}, which is linked to the instance on
+     * first invocation.
      *
-     * @param instanceName Instruction of instance name.
-     * @return Empty optional or optional with the instance.
+     * @param instanceName Instance name.
+     * @return Instruction which retrieves the instance.
      */
-    public static Instruction getInstance(Instruction instanceName) {
-        return GenerationUtil.invokeOptionalGet(InvocationFactory.invoke(
-                InvokeType.INVOKE_VIRTUAL,
-                DefaultBackendConfiguration.class,
-                DefaultBackendGenerationUtil.invokeGetterAsDefaultBackendConfiguration(),
-                "getInstance",
-                Factories.typeSpec(Optional.class, String.class),
+    public static Instruction getInstance(String instanceName) {
+        return DefaultBackendGenerationUtil.invokeDestinationBootstrap(DestinationBootstrap.INSTANCE, Object.class,
+                instanceName);
+    }
+
+    /**
+     * Retrieves the {@link DefaultBackendConfiguration#getScopedInstance(String) scoped instance} of {@code
+     * instanceName} through an {@code invokedynamic} call site bootstrapped by {@link DestinationBootstrap}.
+     *
+     * @param instanceName Instance name.
+     * @return Scoped instance.
+     */
+    public static Instruction getScopedInstance(String instanceName) {
+        return DefaultBackendGenerationUtil.invokeDestinationBootstrap(DestinationBootstrap.SCOPED_INSTANCE,
+                ScopedInstance.class, instanceName);
+    }
+
+    private static Instruction invokeDestinationBootstrap(String name, Class<?> type, String instanceName) {
+        return DynamicInvocationFactory.invokeDynamic(
+                new MethodInvokeHandle(
+                        InvokeType.INVOKE_STATIC,
+                        new MethodTypeSpec(
+                                DestinationBootstrap.class,
+                                "bootstrap",
+                                Factories.typeSpec(CallSite.class, MethodHandles.Lookup.class, String.class,
+                                        MethodType.class, String.class)
+                        )
+                ),
+                new DynamicMethodSpec(
+                        name,
+                        Factories.typeSpec(type, DefaultBackendConfiguration.class),
+                        Collections.singletonList(DefaultBackendGenerationUtil.invokeGetterAsDefaultBackendConfiguration())
+                ),
                 Collections.singletonList(instanceName)
-        ));
+        );
+    }
+
+    /**
+     * Creates the resource which {@link ScopedInstance#acquire() acquires} an instance of {@code scopedInstance} before
+     * the route invocation and {@link ScopedInstance#release(Object) releases} it afterwards.
+     *
+     * @param scopedInstance Instruction which retrieves the scoped instance.
+     * @param key            Instruction which hashes the routing key, or {@code null} if the route has no routing key.
+     * @return Resource which acquires and releases instances of {@code scopedInstance}.
+     */
+    public static RouteResource scopedInstanceResource(Instruction scopedInstance, @Nullable Instruction key) {
+        return new RouteResource(
+                new VariableRef(Object.class, "$instance"),
+                InvocationFactory.invoke(
+                        InvokeType.INVOKE_VIRTUAL,
+                        ScopedInstance.class,
+                        scopedInstance,
+                        "acquire",
+                        key != null ? Factories.typeSpec(Object.class, Long.TYPE) : Factories.typeSpec(Object.class),
+                        key != null ? Collections.singletonList(key) : Collections.emptyList()
+                ),
+                instance -> InvocationFactory.invoke(
+                        InvokeType.INVOKE_VIRTUAL,
+                        ScopedInstance.class,
+                        scopedInstance,
+                        "release",
+                        Factories.typeSpec(Void.TYPE, Object.class),
+                        Collections.singletonList(instance)
+                )
+        );
+    }
+
+    /**
+     * Invokes {@link RouteKeyUtil#hash(Object) hash} overload of {@code parameter} type, primitive keys are hashed
+     * without boxing.
+     *
+     * @param parameter Routing key parameter.
+     * @return Invocation of {@link RouteKeyUtil#hash(Object) hash} with {@code parameter} value.
+     */
+    public static Instruction hashKey(KoresParameter parameter) {
+        Type keyType = ImplicitKoresType.isPrimitive(parameter.getType()) ? parameter.getType() : Object.class;
+
+        return InvocationFactory.invokeStatic(
+                RouteKeyUtil.class,
+                "hash",
+                Factories.typeSpec(Long.TYPE, keyType),
+                Collections.singletonList(Factories.accessVariable(parameter.getType(), parameter.getName()))
+        );
+    }
+
+    /**
+     * Gets the index of routing key parameter of {@link Partitioned partitioned} {@code routeSpec}.
+     *
+     * @param routeSpec     Route specification.
+     * @param configuration Configuration of the route.
+     * @return Result with either the optional index of routing key parameter, empty if the route is not partitioned, or
+     * the exception if the route has no routing key or {@code configuration} has no partitions.
+     */
+    public static Result<OptionalInt, GenerationException> getPartitionKeyParameter(RouteSpec routeSpec,
+                                                                                    DefaultBackendConfiguration configuration) {
+        if (!routeSpec.getRouteSpecInfo(Partitioned.class).isPresent())
+            return Result.ok(OptionalInt.empty());
+
+        OptionalInt keyParameter = RouteKeyUtil.getKeyParameter(routeSpec);
+
+        if (!keyParameter.isPresent())
+            return Result.error(new GenerationException(
+                    String.format("Partitioned route requires a routing key parameter: %s.", routeSpec)));
+
+        if (!configuration.getPartitionedExecutor().isPresent())
+            return Result.error(new GenerationException(
+                    String.format("Partitions are not configured for partitioned route: %s.", routeSpec)));
+
+        return Result.ok(keyParameter);
+    }
+
+    /**
+     * Invokes {@link PartitionedExecutor#getPartition(long)} of {@link DefaultBackendConfiguration#getPartitionedExecutor()
+     * configured executor}.
+     *
+     * @param key Instruction which hashes the routing key.
+     * @return Executor of the partition of {@code key}.
+     */
+    public static Instruction getPartition(Instruction key) {
+        return InvocationFactory.invoke(
+                InvokeType.INVOKE_VIRTUAL,
+                PartitionedExecutor.class,
+                Factories.cast(Object.class, PartitionedExecutor.class, GenerationUtil.invokeOptionalGet(InvocationFactory.invoke(
+                        InvokeType.INVOKE_VIRTUAL,
+                        DefaultBackendConfiguration.class,
+                        DefaultBackendGenerationUtil.invokeGetterAsDefaultBackendConfiguration(),
+                        "getPartitionedExecutor",
+                        Factories.typeSpec(Optional.class),
+                        Collections.emptyList()
+                ))),
+                "getPartition",
+                Factories.typeSpec(Executor.class, Long.TYPE),
+                Collections.singletonList(key)
+        );
     }
 
     /**
@@ -30,9 +30,13 @@ package com.github.jonathanxd.interoute.backend.def;
 import com.github.jonathanxd.interoute.annotation.RequiresConfiguration;
 import com.github.jonathanxd.interoute.backend.AbstractInvocationRouteBackend;
 import com.github.jonathanxd.interoute.exception.DestinationParseException;
+import com.github.jonathanxd.interoute.exception.GenerationException;
 import com.github.jonathanxd.interoute.gen.GenerationUtil;
+import com.github.jonathanxd.interoute.gen.RouteResource;
 import com.github.jonathanxd.interoute.gen.RouteSpec;
 import com.github.jonathanxd.interoute.route.def.DestinationResolver;
+import com.github.jonathanxd.interoute.util.MethodResolutionIndex;
+import com.github.jonathanxd.interoute.util.RouteKeyUtil;
 import com.github.jonathanxd.iutils.object.EitherUtil;
 import com.github.jonathanxd.iutils.object.result.Result;
 import com.github.jonathanxd.kores.Instruction;
@@ -40,7 +44,6 @@ import com.github.jonathanxd.kores.base.InvokeType;
 import com.github.jonathanxd.kores.base.MethodDeclaration;
 import com.github.jonathanxd.kores.common.MethodTypeSpec;
 import com.github.jonathanxd.kores.factory.Factories;
-import com.github.jonathanxd.kores.literal.Literals;
 import com.github.jonathanxd.kores.type.Generic;
 import com.github.jonathanxd.kores.type.ImplicitKoresType;
 import com.github.jonathanxd.kores.util.conversion.ConversionsKt;
@@ -52,6 +55,7 @@ import java.lang.reflect.Type;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalInt;
 
 /**
  * Default backend. This backend generates Routes which destination are always methods of other instances (just like dependency
@@ -90,7 +94,55 @@ public class DefaultInterouteBackend extends AbstractInvocationRouteBackend<Defa
     @Override
     protected Instruction getInstance(@Nullable String root) {
         Objects.requireNonNull(root);
-        return DefaultBackendGenerationUtil.getInstance(Literals.STRING(root));
+        return DefaultBackendGenerationUtil.getInstance(root);
+    }
+
+    @NotNull
+    @Override
+    protected Instruction getDestinationInstance(@Nullable String root, @NotNull DefaultBackendConfiguration configuration) {
+        Objects.requireNonNull(root);
+
+        return configuration.getScopedInstance(root).isPresent()
+                ? DefaultBackendGenerationUtil.getScopedInstance(root)
+                : this.getInstance(root);
+    }
+
+    @Nullable
+    @Override
+    protected RouteResource getInstanceResource(@Nullable String root,
+                                                @NotNull RouteSpec routeSpec,
+                                                @NotNull DefaultBackendConfiguration configuration) {
+        Objects.requireNonNull(root);
+
+        if (!configuration.getScopedInstance(root).isPresent())
+            return null;
+
+        OptionalInt keyParameter = RouteKeyUtil.getKeyParameter(routeSpec);
+        Instruction key = null;
+
+        if (keyParameter.isPresent())
+            key = DefaultBackendGenerationUtil.hashKey(
+                    GenerationUtil.getRouteOriginParameters(routeSpec).get(keyParameter.getAsInt()));
+
+        return DefaultBackendGenerationUtil.scopedInstanceResource(
+                DefaultBackendGenerationUtil.getScopedInstance(root),
+                key
+        );
+    }
+
+    @Override
+    protected Result<Optional<Instruction>, GenerationException> getRouteExecutor(@NotNull RouteSpec routeSpec,
+                                                                                 @NotNull DefaultBackendConfiguration configuration) {
+        return DefaultBackendGenerationUtil.getPartitionKeyParameter(routeSpec, configuration)
+                .map(keyParameter -> this.getPartition(routeSpec, keyParameter));
+    }
+
+    private Optional<Instruction> getPartition(RouteSpec routeSpec, OptionalInt keyParameter) {
+        if (!keyParameter.isPresent())
+            return Optional.empty();
+
+        return Optional.of(DefaultBackendGenerationUtil.getPartition(DefaultBackendGenerationUtil.hashKey(
+                GenerationUtil.getRouteOriginParameters(routeSpec).get(keyParameter.getAsInt()))));
     }
 
     @NotNull
@@ -124,9 +176,9 @@ public class DefaultInterouteBackend extends AbstractInvocationRouteBackend<Defa
         @Override
         public RootResolver<Type> rootResolver() {
             return notation -> {
-                Optional<Object> instance = configuration.getInstance(notation);
+                Optional<Class<?>> instanceType = configuration.getInstanceType(notation);
 
-                return instance.<Result<Type, DestinationParseException>>map(o -> Result.ok(o.getClass()))
+                return instanceType.<Result<Type, DestinationParseException>>map(Result::ok)
                         .orElseGet(() -> Result.error(this.rootTypeResolutionFailException(notation)));
             };
         }
@@ -141,7 +193,20 @@ public class DefaultInterouteBackend extends AbstractInvocationRouteBackend<Defa
         @NotNull
         @Override
         public TargetResolver<Type, MethodTypeSpec> targetResolver() {
-            return (notation, root) -> EitherUtil.getLeftOrRight(ImplicitKoresType.getBindedDefaultResolver(root)
+            return (notation, root) -> root instanceof Class<?>
+                    ? this.indexedMatch((Class<?>) root, notation)
+                    : this.resolveMatch(root, notation);
+        }
+
+        private Result<MethodTypeSpec, DestinationParseException> indexedMatch(Class<?> root, String name) {
+            return MethodResolutionIndex.of(root)
+                    .find(name, this.routeSpec.getOrigin().getTypeSpec().getParameterTypes())
+                    .<Result<MethodTypeSpec, DestinationParseException>>map(Result::ok)
+                    .orElseGet(() -> Result.error(this.targetResolutionFailException(name, root)));
+        }
+
+        private Result<MethodTypeSpec, DestinationParseException> resolveMatch(Type root, String notation) {
+            return EitherUtil.getLeftOrRight(ImplicitKoresType.getBindedDefaultResolver(root)
                     .resolveMethods()
                     .map(
                             e -> Result.<MethodTypeSpec, DestinationParseException>error(
@@ -0,0 +1,176 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.backend.def;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.MutableCallSite;
+import java.util.Objects;
+
+/**
+ * Binding of a destination alias to an instance which could be replaced while the router is live.
+ *
+ * The instance is the constant target of a {@link MutableCallSite}, call sites linked to {@link #getCallSite()} are folded
+ * into the instance by the JIT and deoptimized only when the binding is {@link #rebind(Object) rebound}. Generated routers
+ * link their destination call sites to it (see {@link DestinationBootstrap} and {@link HandleRouteBootstrap}), {@link
+ * #getInstance()} is only used by code which has no call site of its own.
+ */
+public final class DestinationBinding {
+
+    /**
+     * Type of call site.
+     */
+    private static final MethodType TYPE = MethodType.methodType(Object.class);
+
+    /**
+     * Declared type of bound instances.
+     */
+    @NotNull
+    private final Class<?> type;
+
+    /**
+     * Call site which targets the bound instance.
+     */
+    @NotNull
+    private final MutableCallSite callSite;
+
+    /**
+     * Invoker of {@link #callSite}.
+     */
+    @NotNull
+    private final MethodHandle invoker;
+
+    /**
+     * Whether the initial target was replaced with {@link #rebind(Object)}.
+     */
+    private volatile boolean rebound;
+
+    /**
+     * Constructs the binding.
+     *
+     * @param type     Declared type of bound instances.
+     * @param instance Initial instance.
+     */
+    public DestinationBinding(@NotNull Class<?> type, @NotNull Object instance) {
+        this(type, DestinationBinding.constant(type, instance));
+    }
+
+    /**
+     * Constructs the binding.
+     *
+     * @param type   Declared type of bound instances.
+     * @param target Initial target of binding call site, must be of type {@code ()Object}.
+     */
+    DestinationBinding(@NotNull Class<?> type, @NotNull MethodHandle target) {
+        this.type = Objects.requireNonNull(type, "Type cannot be null.");
+        this.callSite = new MutableCallSite(target.asType(TYPE));
+        this.invoker = this.callSite.dynamicInvoker();
+    }
+
+    private static MethodHandle constant(Class<?> type, Object instance) {
+        Objects.requireNonNull(instance, "Instance cannot be null.");
+
+        if (!type.isInstance(instance))
+            throw new IllegalArgumentException(String.format("Instance '%s' is not an instance of declared type '%s'.",
+                    instance, type.getCanonicalName()));
+
+        return MethodHandles.constant(Object.class, instance);
+    }
+
+    /**
+     * Gets the declared type of bound instances.
+     *
+     * @return Declared type of bound instances.
+     */
+    @Contract(pure = true)
+    @NotNull
+    public Class<?> getType() {
+        return this.type;
+    }
+
+    /**
+     * Gets the call site which targets the bound instance. The call site type is {@code ()Object}.
+     *
+     * @return Call site which targets the bound instance.
+     */
+    @Contract(pure = true)
+    @NotNull
+    public MutableCallSite getCallSite() {
+        return this.callSite;
+    }
+
+    /**
+     * Gets the bound instance.
+     *
+     * @return Bound instance.
+     */
+    @NotNull
+    public Object getInstance() {
+        try {
+            return (Object) this.invoker.invokeExact();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    /**
+     * Atomically replaces the bound instance. Executions which already retrieved the old instance continue to use it, all
+     * subsequent executions uses the new {@code instance}.
+     *
+     * @param instance New instance, must be instance of {@link #getType() declared type}.
+     */
+    public synchronized void rebind(@NotNull Object instance) {
+        this.callSite.setTarget(DestinationBinding.constant(this.type, instance));
+        MutableCallSite.syncAll(new MutableCallSite[]{this.callSite});
+        this.rebound = true;
+    }
+
+    /**
+     * Returns whether the initial target was replaced with {@link #rebind(Object)}. The initial target of lazily created
+     * instances is their provider, which must not be invoked just to read the bound instance.
+     *
+     * @return Whether the initial target was replaced.
+     */
+    boolean isRebound() {
+        return this.rebound;
+    }
+
+    @Override
+    public String toString() {
+        return "DestinationBinding{" +
+                "type=" + this.getType() +
+                ", target=" + this.getCallSite().getTarget() +
+                '}';
+    }
+}
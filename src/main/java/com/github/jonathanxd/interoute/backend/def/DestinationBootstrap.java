@@ -0,0 +1,129 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.backend.def;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.MutableCallSite;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Bootstrap of destination instance call sites of routers generated by {@link DefaultInterouteBackend}.
+ *
+ * Each call site has type {@code (DefaultBackendConfiguration)T} and receives the alias of the destination as bootstrap
+ * argument. On first invocation, the call site links itself to the instance of the alias in the configuration and drops
+ * the configuration argument afterwards: to the {@link DestinationBinding#getCallSite() binding call site} of
+ * rebindable configurations, to the supplier of lazily created instances, or to the instance itself, as a constant.
+ * Thus routes do not look up instances in the configuration on every invocation.
+ */
+public final class DestinationBootstrap {
+
+    /**
+     * Name of call sites which retrieves the {@link DefaultBackendConfiguration#getInstance(String) instance} of alias.
+     */
+    public static final String INSTANCE = "instance";
+
+    /**
+     * Name of call sites which retrieves the {@link DefaultBackendConfiguration#getScopedInstance(String) scoped
+     * instance} of alias.
+     */
+    public static final String SCOPED_INSTANCE = "scopedInstance";
+
+    private static final MethodHandle LINK;
+    private static final MethodHandle SUPPLIER_GET;
+
+    static {
+        try {
+            LINK = MethodHandles.lookup().findStatic(DestinationBootstrap.class, "link",
+                    MethodType.methodType(Object.class, MutableCallSite.class, String.class, String.class,
+                            DefaultBackendConfiguration.class));
+            SUPPLIER_GET = MethodHandles.publicLookup()
+                    .findVirtual(Supplier.class, "get", MethodType.methodType(Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private DestinationBootstrap() {
+    }
+
+    /**
+     * Bootstraps the destination instance call site.
+     *
+     * @param lookup Lookup of the generated router.
+     * @param name   {@link #INSTANCE} or {@link #SCOPED_INSTANCE}.
+     * @param type   Type of the call site, {@code (DefaultBackendConfiguration)T}.
+     * @param alias  Alias of the destination instance.
+     * @return Call site which links itself to the destination instance on first invocation.
+     */
+    public static CallSite bootstrap(MethodHandles.Lookup lookup, String name, MethodType type, String alias) {
+        MutableCallSite callSite = new MutableCallSite(type);
+
+        callSite.setTarget(MethodHandles.insertArguments(LINK, 0, callSite, name, alias).asType(type));
+
+        return callSite;
+    }
+
+    private static Object link(MutableCallSite callSite,
+                               String name,
+                               String alias,
+                               DefaultBackendConfiguration configuration) throws Throwable {
+        MethodHandle instance = DestinationBootstrap.SCOPED_INSTANCE.equals(name)
+                ? DestinationBootstrap.scopedInstance(configuration, alias)
+                : DestinationBootstrap.instance(configuration, alias);
+
+        MethodType type = callSite.type();
+
+        callSite.setTarget(MethodHandles.dropArguments(instance, 0, type.parameterList()).asType(type));
+
+        return (Object) instance.invokeExact();
+    }
+
+    private static MethodHandle instance(DefaultBackendConfiguration configuration, String alias) {
+        Optional<DestinationBinding> binding = configuration.getBinding(alias);
+
+        if (binding.isPresent())
+            return binding.get().getCallSite().dynamicInvoker();
+
+        Optional<Supplier<?>> lazyInstance = configuration.getLazyInstance(alias);
+
+        if (lazyInstance.isPresent())
+            return DestinationBootstrap.SUPPLIER_GET.bindTo(lazyInstance.get());
+
+        return MethodHandles.constant(Object.class, configuration.getInstance(alias)
+                .orElseThrow(() -> new IllegalStateException(String.format("Missing instance '%s'.", alias))));
+    }
+
+    private static MethodHandle scopedInstance(DefaultBackendConfiguration configuration, String alias) {
+        return MethodHandles.constant(Object.class, configuration.getScopedInstance(alias)
+                .orElseThrow(() -> new IllegalStateException(String.format("Missing scoped instance '%s'.", alias))));
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.backend.def;
+
+import com.github.jonathanxd.interoute.route.Route;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.ConstantCallSite;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.function.Supplier;
+
+/**
+ * Bootstrap of call sites of routers generated by {@link MethodHandleInterouteBackend}.
+ *
+ * Generated routers stores their {@link HandleRouteLink links} in a {@code private static} field named {@link
+ * #LINKS_FIELD}, which is read through the lookup of the router. Each route has two {@code invokedynamic} call sites
+ * which bootstrap argument is the index of the link in this field. The invocation call site, bootstrapped by {@link
+ * #bootstrapInvoke(MethodHandles.Lookup, String, MethodType, int)} in the invoker method of the route, is linked to the
+ * exact typed {@link HandleRouteLink#getInvocation() invocation} of the destination. The route call site, bootstrapped
+ * by {@link #bootstrap(MethodHandles.Lookup, String, MethodType, int)} in the route method, receives the invoker (a
+ * {@link Supplier} which captures route arguments) and creates the route (or executes it, for eager routes).
+ */
+public final class HandleRouteBootstrap {
+
+    /**
+     * Name of the field which stores the links of a generated router.
+     */
+    public static final String LINKS_FIELD = "$links";
+
+    /**
+     * Prefix of names of invoker methods of a generated router, followed by the route id.
+     */
+    public static final String INVOKER_PREFIX = "$invoke$";
+
+    private static final MethodHandle CREATE_ROUTE;
+    private static final MethodHandle EXECUTE_AND_WAIT;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            CREATE_ROUTE = lookup.findVirtual(HandleRouteLink.class, "createRoute",
+                    MethodType.methodType(Route.class, Supplier.class, Object[].class));
+            EXECUTE_AND_WAIT = lookup.findVirtual(HandleRouteLink.class, "executeAndWait",
+                    MethodType.methodType(Void.TYPE, Supplier.class, Object[].class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private HandleRouteBootstrap() {
+    }
+
+    /**
+     * Bootstraps the route call site.
+     *
+     * @param lookup  Lookup of the generated router.
+     * @param name    Name of the route method.
+     * @param type    Type of the call site, {@code (Supplier)R} or, for links which {@link
+     *                HandleRouteLink#needsArguments() needs arguments}, {@code (Supplier, Object[])R}, where {@code R} is
+     *                the return type of the route method.
+     * @param routeId Index of the route link.
+     * @return Call site which creates (or executes, for eager routes) the route.
+     * @throws Throwable If links could not be retrieved from the generated router.
+     */
+    public static CallSite bootstrap(MethodHandles.Lookup lookup, String name, MethodType type, int routeId) throws Throwable {
+        HandleRouteLink link = HandleRouteBootstrap.getLink(lookup, routeId);
+        MethodHandle factory = (link.isEager() ? EXECUTE_AND_WAIT : CREATE_ROUTE).bindTo(link);
+
+        if (type.parameterCount() == 1)
+            factory = MethodHandles.insertArguments(factory, 1, (Object) null);
+
+        return new ConstantCallSite(factory.asType(type));
+    }
+
+    /**
+     * Bootstraps the invocation call site.
+     *
+     * @param lookup  Lookup of the generated router.
+     * @param name    Name of the invocation.
+     * @param type    Type of the call site, {@code (origin parameters)Result}.
+     * @param routeId Index of the route link.
+     * @return Call site linked to the invocation of the destination.
+     * @throws Throwable If links could not be retrieved from the generated router.
+     */
+    public static CallSite bootstrapInvoke(MethodHandles.Lookup lookup, String name, MethodType type, int routeId)
+            throws Throwable {
+        return new ConstantCallSite(HandleRouteBootstrap.getLink(lookup, routeId).getInvocation().asType(type));
+    }
+
+    private static HandleRouteLink getLink(MethodHandles.Lookup lookup, int routeId) throws Throwable {
+        HandleRouteLink[] links = (HandleRouteLink[]) lookup
+                .findStaticGetter(lookup.lookupClass(), LINKS_FIELD, HandleRouteLink[].class)
+                .invokeExact();
+
+        return links[routeId];
+    }
+}
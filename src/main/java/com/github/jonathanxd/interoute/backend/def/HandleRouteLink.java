@@ -0,0 +1,532 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.backend.def;
+
+import com.github.jonathanxd.interoute.annotation.Cancellable;
+import com.github.jonathanxd.interoute.exception.GenerationException;
+import com.github.jonathanxd.interoute.exception.RoutingException;
+import com.github.jonathanxd.interoute.gen.RouteGenerationUtil;
+import com.github.jonathanxd.interoute.gen.RouteSpec;
+import com.github.jonathanxd.interoute.route.Deadline;
+import com.github.jonathanxd.interoute.route.MethodTypeSpecOrigin;
+import com.github.jonathanxd.interoute.route.Origin;
+import com.github.jonathanxd.interoute.route.Route;
+import com.github.jonathanxd.interoute.route.RouteEntry;
+import com.github.jonathanxd.interoute.route.Routes;
+import com.github.jonathanxd.interoute.route.SuppliedExecutorRoute;
+import com.github.jonathanxd.interoute.route.batch.RouteBatcher;
+import com.github.jonathanxd.interoute.route.cancel.CancellableTask;
+import com.github.jonathanxd.interoute.route.def.SimpleTypeMethodDestinationNotation;
+import com.github.jonathanxd.interoute.util.ArgumentKey;
+import com.github.jonathanxd.interoute.util.RouteKeyUtil;
+import com.github.jonathanxd.iutils.object.result.Result;
+import com.github.jonathanxd.kores.base.MethodDeclaration;
+import com.github.jonathanxd.kores.common.MethodTypeSpec;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import kotlin.Unit;
+
+/**
+ * Link between a route method of a router generated by {@link MethodHandleInterouteBackend} and the destination method.
+ *
+ * Each link is bound to the {@code invokedynamic} call sites of its route in the generated router by {@link
+ * HandleRouteBootstrap}: the invocation call site, which invokes the destination, and the route call site, which
+ * creates the route.
+ */
+public final class HandleRouteLink {
+
+    private static final MethodHandle SUPPLIER_GET;
+    private static final MethodHandle SCOPED_ACQUIRE;
+    private static final MethodHandle SCOPED_ACQUIRE_KEYED;
+    private static final MethodHandle RELEASE;
+    private static final MethodHandle OK;
+    private static final MethodHandle ERROR;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            SUPPLIER_GET = MethodHandles.publicLookup()
+                    .findVirtual(Supplier.class, "get", MethodType.methodType(Object.class));
+            SCOPED_ACQUIRE = lookup.findVirtual(ScopedInstance.class, "acquire",
+                    MethodType.methodType(Object.class));
+            SCOPED_ACQUIRE_KEYED = lookup.findVirtual(ScopedInstance.class, "acquire",
+                    MethodType.methodType(Object.class, Long.TYPE));
+            RELEASE = lookup.findStatic(HandleRouteLink.class, "release",
+                    MethodType.methodType(Result.class, ScopedInstance.class, Object.class, Result.class));
+            OK = lookup.findStatic(HandleRouteLink.class, "ok", MethodType.methodType(Result.class, Object.class));
+            ERROR = lookup.findStatic(HandleRouteLink.class, "error", MethodType.methodType(Result.class, Throwable.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Route origin.
+     */
+    @NotNull
+    private final Origin origin;
+
+    /**
+     * Destination method.
+     */
+    @NotNull
+    private final MethodTypeSpec target;
+
+    /**
+     * Parameter types of the origin method, which {@link ArgumentKey#of(Class[], Object[]) keys} of route arguments are
+     * built from.
+     */
+    @NotNull
+    private final Class<?>[] parameterTypes;
+
+    /**
+     * Configuration which holds the destination instance.
+     */
+    @NotNull
+    private final DefaultBackendConfiguration configuration;
+
+    /**
+     * Invocation of destination method, of type {@code (origin parameters)Result}, which is linked to the invocation call
+     * site of the route.
+     */
+    @NotNull
+    private final MethodHandle invocation;
+
+    /**
+     * Destination of the route. Rebindable and lazily created destination instances are only resolved when the
+     * destination instance is retrieved, and for scoped instances the destination instance is the scope.
+     */
+    @NotNull
+    private final DefaultBackendDestination destination;
+
+    /**
+     * Whether the route is eager (returns {@code void}) or not.
+     */
+    private final boolean eager;
+
+    /**
+     * Index of routing key parameter of {@link com.github.jonathanxd.interoute.annotation.Partitioned partitioned}
+     * routes, {@code -1} if the route is not partitioned.
+     */
+    private final int partitionKey;
+
+    /**
+     * Route table entry of {@link RouteEntry#isIntercepted() intercepted} routes, {@code null} if the route is not
+     * intercepted.
+     */
+    @Nullable
+    private final RouteEntry route;
+
+    /**
+     * Batcher of {@link com.github.jonathanxd.interoute.annotation.Batched batched} routes.
+     */
+    @Nullable
+    private final RouteBatcher batcher;
+
+    /**
+     * Whether the destination is a route method of a {@link com.github.jonathanxd.interoute.route.Router router}, which
+     * only creates a route and thus is always invoked in the calling thread when the route is direct.
+     */
+    private final boolean routerRoute;
+
+    /**
+     * Cancellation specification of {@link Cancellable cancellable} routes, {@code null} if the route is not
+     * cancellable.
+     */
+    @Nullable
+    private final Cancellable cancellable;
+
+    private HandleRouteLink(@NotNull Origin origin,
+                            @NotNull MethodTypeSpec target,
+                            @NotNull Class<?>[] parameterTypes,
+                            @NotNull DefaultBackendConfiguration configuration,
+                            @NotNull MethodHandle invocation,
+                            @NotNull DefaultBackendDestination destination,
+                            boolean eager,
+                            int partitionKey,
+                            @Nullable RouteEntry route,
+                            @Nullable RouteBatcher batcher,
+                            boolean routerRoute,
+                            @Nullable Cancellable cancellable) {
+        this.origin = origin;
+        this.target = target;
+        this.parameterTypes = parameterTypes;
+        this.configuration = configuration;
+        this.invocation = invocation;
+        this.destination = destination;
+        this.eager = eager;
+        this.partitionKey = partitionKey;
+        this.route = route;
+        this.batcher = batcher;
+        this.routerRoute = routerRoute;
+        this.cancellable = cancellable;
+    }
+
+    /**
+     * Links {@code routeSpec} to destination specified by {@code notation}.
+     *
+     * @param routeSpec     Route specification.
+     * @param notation      Parsed destination notation.
+     * @param route         Route table entry of the route, {@code null} if the router has no route table.
+     * @param configuration Configuration which holds the destination instance.
+     * @return Result with either the link or the exception which occurred during destination method lookup.
+     */
+    @NotNull
+    static Result<HandleRouteLink, GenerationException> link(@NotNull RouteSpec routeSpec,
+                                                             @NotNull SimpleTypeMethodDestinationNotation notation,
+                                                             @Nullable RouteEntry route,
+                                                             @NotNull DefaultBackendConfiguration configuration) {
+        Optional<Method> originMethod = routeSpec.getOriginMethod();
+        Optional<String> alias = notation.getRootString();
+
+        if (!originMethod.isPresent())
+            return Result.error(new GenerationException(String.format("Missing origin method in route spec: %s.", routeSpec)));
+
+        if (!alias.isPresent() || !(notation.getRoot().orElse(null) instanceof Class<?>))
+            return Result.error(new GenerationException(String.format("Missing root type in route spec: %s.", routeSpec)));
+
+        Result<OptionalInt, GenerationException> partitionKey =
+                DefaultBackendGenerationUtil.getPartitionKeyParameter(routeSpec, configuration);
+
+        if (partitionKey instanceof Result.Err<?, ?>)
+            return Result.error(((Result.Err<OptionalInt, GenerationException>) partitionKey).error());
+
+        Class<?> rootType = (Class<?>) notation.getRoot().get();
+        MethodTypeSpec target = notation.getTarget();
+        Result<Type, GenerationException> bulkMethod = RouteGenerationUtil.checkBulkMethod(routeSpec, rootType);
+
+        if (bulkMethod instanceof Result.Err<?, ?>)
+            return Result.error(((Result.Err<Type, GenerationException>) bulkMethod).error());
+
+        try {
+            Method targetMethod = rootType.getMethod(target.getMethodName(), originMethod.get().getParameterTypes());
+            Optional<DestinationBinding> binding = configuration.getBinding(alias.get());
+            Optional<Supplier<?>> lazyInstance = configuration.getLazyInstance(alias.get());
+            Optional<ScopedInstance<?>> scopedInstance = configuration.getScopedInstance(alias.get());
+            Supplier<?> instance = binding.isPresent() ? binding.get()::getInstance : lazyInstance.orElse(null);
+
+            MethodHandle invocation = HandleRouteLink.bind(
+                    MethodHandles.publicLookup().unreflect(targetMethod),
+                    alias.get(),
+                    RouteKeyUtil.getKeyParameter(routeSpec),
+                    configuration
+            );
+
+            return Result.ok(new HandleRouteLink(
+                    new MethodTypeSpecOrigin(HandleRouteLink.createMethodTypeSpec(routeSpec.getOrigin())),
+                    target,
+                    originMethod.get().getParameterTypes(),
+                    configuration,
+                    invocation,
+                    instance != null ? DefaultBackendDestination.lazy(instance, target)
+                            : new DefaultBackendDestination(scopedInstance.isPresent()
+                            ? scopedInstance.get()
+                            : HandleRouteLink.getInstance(configuration, alias.get()), target),
+                    originMethod.get().getReturnType() == Void.TYPE,
+                    ((Result.Ok<OptionalInt, GenerationException>) partitionKey).success().orElse(-1),
+                    route != null && route.isIntercepted() ? route : null,
+                    route != null ? route.getBatcher().orElse(null) : null,
+                    RouteGenerationUtil.isRouterRoute(rootType, targetMethod.getReturnType()),
+                    RouteGenerationUtil.getCancellable(routeSpec)
+            ));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return Result.error(new GenerationException(String.format("Cannot link route spec: %s.", routeSpec), e));
+        }
+    }
+
+    /**
+     * Binds {@code target} method handle to destination instance and adapts it to the exact type of the origin method
+     * with {@link Result} return type: destination result is wrapped in {@link Result#ok(Object)} ({@link Unit#INSTANCE}
+     * for destination methods which returns {@code void}) and exceptions thrown by the destination are wrapped in a
+     * {@link RoutingException} {@link Result#error(Object) error}.
+     *
+     * When the configuration is {@link DefaultBackendConfiguration#isRebindable() rebindable}, the instance is retrieved
+     * from the {@link DestinationBinding#getCallSite() binding call site}, lazily created instances are retrieved from
+     * their {@link DefaultBackendConfiguration#getLazyInstance(String) supplier}, scoped instances are acquired from and
+     * released to their {@link DefaultBackendConfiguration#getScopedInstance(String) scope} around every invocation,
+     * otherwise the current instance is bound as a constant.
+     */
+    private static MethodHandle bind(MethodHandle target,
+                                     String alias,
+                                     OptionalInt keyParameter,
+                                     DefaultBackendConfiguration configuration) {
+        MethodHandle handle = target.asType(target.type().changeParameterType(0, Object.class));
+
+        if (handle.type().returnType() == Void.TYPE)
+            handle = MethodHandles.filterReturnValue(handle, MethodHandles.constant(Object.class, Unit.INSTANCE));
+
+        handle = HandleRouteLink.result(handle.asType(handle.type().changeReturnType(Object.class)));
+
+        List<Class<?>> parameterTypes = handle.type().dropParameterTypes(0, 1).parameterList();
+        Optional<DestinationBinding> binding = configuration.getBinding(alias);
+        Optional<Supplier<?>> lazyInstance = configuration.getLazyInstance(alias);
+        Optional<ScopedInstance<?>> scopedInstance = configuration.getScopedInstance(alias);
+
+        if (binding.isPresent()) {
+            handle = MethodHandles.foldArguments(handle, binding.get().getCallSite().dynamicInvoker());
+        } else if (lazyInstance.isPresent()) {
+            handle = MethodHandles.foldArguments(handle, SUPPLIER_GET.bindTo(lazyInstance.get()));
+        } else if (scopedInstance.isPresent()) {
+            // (result, instance, parameters...)result: releases the instance after the invocation, which never throws
+            MethodHandle release = MethodHandles.dropArguments(
+                    MethodHandles.permuteArguments(RELEASE.bindTo(scopedInstance.get()),
+                            MethodType.methodType(Result.class, Result.class, Object.class), 1, 0),
+                    2, parameterTypes);
+
+            MethodHandle acquire = SCOPED_ACQUIRE.bindTo(scopedInstance.get());
+
+            if (keyParameter.isPresent()) {
+                int keyIndex = keyParameter.getAsInt();
+                Class<?> keyType = parameterTypes.get(keyIndex);
+
+                acquire = MethodHandles.filterArguments(SCOPED_ACQUIRE_KEYED.bindTo(scopedInstance.get()), 0,
+                        HandleRouteLink.hash(keyType));
+                acquire = MethodHandles.dropArguments(acquire, 0, parameterTypes.subList(0, keyIndex));
+                acquire = MethodHandles.dropArguments(acquire, keyIndex + 1,
+                        parameterTypes.subList(keyIndex + 1, parameterTypes.size()));
+            }
+
+            handle = MethodHandles.foldArguments(MethodHandles.foldArguments(release, handle), acquire);
+        } else {
+            handle = handle.bindTo(HandleRouteLink.getInstance(configuration, alias));
+        }
+
+        // Failures to retrieve or acquire the instance are also route errors.
+        return HandleRouteLink.result(handle);
+    }
+
+    /**
+     * Wraps exceptions thrown by {@code handle} in a {@link Result#error(Object) result error}, wrapping the result of
+     * {@code handle} in {@link Result#ok(Object)} if it is not a {@link Result} already.
+     */
+    private static MethodHandle result(MethodHandle handle) {
+        if (handle.type().returnType() != Result.class)
+            handle = MethodHandles.filterReturnValue(handle, OK);
+
+        return MethodHandles.catchException(handle, Throwable.class,
+                MethodHandles.dropArguments(ERROR, 1, handle.type().parameterList()));
+    }
+
+    /**
+     * Gets the {@link RouteKeyUtil#hash(long) hash function} of routing key of type {@code keyType}.
+     */
+    private static MethodHandle hash(Class<?> keyType) {
+        Class<?> hashType = keyType.isPrimitive() ? keyType : Object.class;
+
+        try {
+            return MethodHandles.publicLookup()
+                    .findStatic(RouteKeyUtil.class, "hash", MethodType.methodType(Long.TYPE, hashType))
+                    .asType(MethodType.methodType(Long.TYPE, keyType));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Result<Object, RoutingException> ok(Object result) {
+        return Result.ok(result);
+    }
+
+    private static Result<Object, RoutingException> error(Throwable t) {
+        return Result.error(new RoutingException(t));
+    }
+
+    /**
+     * Releases {@code instance} to {@code scopedInstance} and returns {@code result}, or the release failure if the
+     * invocation succeeded.
+     */
+    private static Result<Object, RoutingException> release(ScopedInstance<?> scopedInstance,
+                                                            Object instance,
+                                                            Result<Object, RoutingException> result) {
+        try {
+            scopedInstance.release(instance);
+        } catch (Throwable t) {
+            if (result instanceof Result.Ok<?, ?>)
+                return Result.error(new RoutingException(t));
+        }
+
+        return result;
+    }
+
+    private static Object getInstance(DefaultBackendConfiguration configuration, String alias) {
+        return configuration.getInstance(alias)
+                .orElseThrow(() -> new IllegalStateException(String.format("Missing instance '%s'.", alias)));
+    }
+
+    private static MethodTypeSpec createMethodTypeSpec(MethodDeclaration declaration) {
+        return new MethodTypeSpec(declaration.getType(), declaration.getName(), declaration.getTypeSpec());
+    }
+
+    /**
+     * Gets the route origin.
+     *
+     * @return Route origin.
+     */
+    @Contract(pure = true)
+    @NotNull
+    public Origin getOrigin() {
+        return this.origin;
+    }
+
+    /**
+     * Gets the destination method.
+     *
+     * @return Destination method.
+     */
+    @Contract(pure = true)
+    @NotNull
+    public MethodTypeSpec getTarget() {
+        return this.target;
+    }
+
+    /**
+     * Gets the invocation of destination method, of type {@code (origin parameters)Result}.
+     *
+     * @return Invocation of destination method.
+     */
+    @Contract(pure = true)
+    @NotNull
+    MethodHandle getInvocation() {
+        return this.invocation;
+    }
+
+    /**
+     * Returns whether the route is eager (returns {@code void}) or not.
+     *
+     * @return Whether the route is eager (returns {@code void}) or not.
+     */
+    @Contract(pure = true)
+    public boolean isEager() {
+        return this.eager;
+    }
+
+    /**
+     * Returns whether routes of this link needs the route arguments, which is the case of routes which are partitioned,
+     * batched or intercepted. Route methods of routes which does not need the arguments only capture them in the invoker.
+     *
+     * @return Whether routes of this link needs the route arguments.
+     */
+    @Contract(pure = true)
+    public boolean needsArguments() {
+        return !this.isDirect();
+    }
+
+    /**
+     * Creates the route which invokes the destination through {@code invoker}, or submits {@code arguments} to the
+     * {@link RouteBatcher batcher} of batched routes, through the route table entry if the route is {@link
+     * RouteEntry#isIntercepted() intercepted}.
+     *
+     * @param invoker   Invoker of destination, which invokes the {@link #getInvocation() invocation} with route
+     *                  arguments.
+     * @param arguments Route arguments, {@code null} if the link does not {@link #needsArguments() need arguments}.
+     * @return Route which invokes the destination.
+     */
+    @NotNull
+    public Route<Object> createRoute(@NotNull Supplier<Result<Object, RoutingException>> invoker,
+                                     @Nullable Object[] arguments) {
+        if (this.routerRoute && this.isDirect())
+            return SuppliedExecutorRoute.direct(this.origin, this.destination, invoker);
+
+        Supplier<CompletableFuture<Result<Object, RoutingException>>> supplier = this.batcher != null
+                ? () -> this.batcher.submit(this.destination.getInstance(), arguments)
+                : () -> this.execute(invoker, arguments);
+
+        return new SuppliedExecutorRoute<>(
+                this.origin,
+                this.destination,
+                this.route != null ? this.route.supplier(ArgumentKey.of(this.parameterTypes, arguments), supplier) : supplier,
+                this.isDirect() ? invoker : null
+        );
+    }
+
+    /**
+     * Returns whether routes of this link may invoke the destination in the calling thread, which is the case of routes
+     * which are not partitioned, batched nor intercepted.
+     */
+    private boolean isDirect() {
+        return this.partitionKey < 0 && this.batcher == null && this.route == null;
+    }
+
+    /**
+     * Executes the destination through {@code invoker} asynchronously, in the partition of the routing key for {@link
+     * com.github.jonathanxd.interoute.annotation.Partitioned partitioned} routes, within the {@link Deadline deadline} of
+     * the current thread. {@link Cancellable Cancellable} routes are executed by a {@link CancellableTask}.
+     */
+    private CompletableFuture<Result<Object, RoutingException>> execute(Supplier<Result<Object, RoutingException>> invoker,
+                                                                        Object[] arguments) {
+        Supplier<Result<Object, RoutingException>> task = Deadline.bind(invoker);
+
+        if (this.partitionKey < 0) {
+            return this.cancellable != null
+                    ? CancellableTask.supplyAsync(task, this.cancellable.interrupt())
+                    : CompletableFuture.supplyAsync(task);
+        }
+
+        Executor executor = this.configuration.getPartitionedExecutor()
+                .orElseThrow(IllegalStateException::new)
+                .getPartition(RouteKeyUtil.hash(arguments[this.partitionKey]));
+
+        return this.cancellable != null
+                ? Routes.supplyAsync(task, executor, this.cancellable.interrupt())
+                : Routes.supplyAsync(task, executor);
+    }
+
+    /**
+     * Creates and executes the route which invokes the destination through {@code invoker} and waits the execution to
+     * complete.
+     *
+     * @param invoker   Invoker of destination.
+     * @param arguments Route arguments, {@code null} if the link does not {@link #needsArguments() need arguments}.
+     * @throws RoutingException If the execution is interrupted or fails.
+     */
+    public void executeAndWait(@NotNull Supplier<Result<Object, RoutingException>> invoker, @Nullable Object[] arguments) {
+        try {
+            this.createRoute(invoker, arguments).execute().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RoutingException(e);
+        } catch (ExecutionException e) {
+            throw new RoutingException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,448 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.backend.def;
+
+import com.github.jonathanxd.interoute.route.hedge.HedgeAttempt;
+import com.github.jonathanxd.interoute.util.RouteKeyUtil;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Group of instances of an alias which spreads route executions across the instances according to an {@link
+ * InstanceSelection}.
+ *
+ * Instances are either a fixed list or created by a provider on the first route execution, and selection does not lock.
+ * Instances are not confined to a single execution, so a group spreads executions across instances but does not make
+ * non thread-safe instances safe to use.
+ *
+ * The second attempt of a {@link com.github.jonathanxd.interoute.annotation.Hedged hedged} execution never selects the
+ * instance selected by the first attempt, unless the group has a single instance or selects instances by routing key.
+ *
+ * @param <T> Instance type.
+ */
+abstract class InstanceGroup<T> extends ScopedInstance<T> {
+
+    /**
+     * Distance between elements of striped and padded arrays, in elements, to keep hot counters in distinct cache lines.
+     */
+    static final int PADDING = 16;
+
+    /**
+     * Factory of the array of instances, invoked once on the first route execution.
+     */
+    private final Supplier<Object[]> factory;
+
+    /**
+     * Number of instances of the group.
+     */
+    final int size;
+
+    /**
+     * Instances of the group, {@code null} before the first route execution.
+     */
+    private volatile Object[] instances;
+
+    InstanceGroup(Class<T> type, int size, Supplier<Object[]> factory) {
+        super(type);
+        this.size = size;
+        this.factory = factory;
+    }
+
+    /**
+     * Creates a group of {@code size} instances created by {@code provider} which selects instances with {@code
+     * selection}.
+     *
+     * @param type      Declared type of instances.
+     * @param provider  Provider of instances, invoked {@code size} times on the first route execution.
+     * @param size      Number of instances.
+     * @param selection Selection strategy.
+     * @param <T>       Declared type.
+     * @return Group which selects instances with {@code selection}.
+     */
+    static <T> InstanceGroup<T> create(Class<T> type, Supplier<? extends T> provider, int size, InstanceSelection selection) {
+        return InstanceGroup.create(type, size, () -> {
+            Object[] instances = new Object[size];
+
+            for (int i = 0; i < size; ++i) {
+                instances[i] = InstanceScope.checkProvided(type, provider.get());
+            }
+
+            return instances;
+        }, selection);
+    }
+
+    /**
+     * Creates a group of {@code instances} which selects instances with {@code selection}.
+     *
+     * @param type      Declared type of instances.
+     * @param instances Instances of the group.
+     * @param selection Selection strategy.
+     * @param <T>       Declared type.
+     * @return Group which selects instances with {@code selection}.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> InstanceGroup<T> create(Class<T> type, List<?> instances, InstanceSelection selection) {
+        Object[] group = instances.toArray();
+
+        for (Object instance : group) {
+            InstanceScope.checkProvided(type, (T) instance);
+        }
+
+        return InstanceGroup.create(type, group.length, () -> group, selection);
+    }
+
+    private static <T> InstanceGroup<T> create(Class<T> type,
+                                               int size,
+                                               Supplier<Object[]> factory,
+                                               InstanceSelection selection) {
+        switch (selection) {
+            case ROUND_ROBIN:
+                return new RoundRobin<>(type, size, factory);
+            case POWER_OF_TWO_CHOICES:
+                return new PowerOfTwoChoices<>(type, size, factory);
+            case LEAST_LATENCY:
+                return new LeastLatency<>(type, size, factory);
+            case CONSISTENT_HASH:
+                return new ConsistentHash<>(type, size, factory);
+            default:
+                throw new IllegalArgumentException(String.format("Unsupported selection '%s'.", selection));
+        }
+    }
+
+    /**
+     * Selects the index of instance which handles the next execution.
+     *
+     * @param excluded Index of instance which must not be selected, or {@code -1}. Groups of a single instance select
+     *                 it anyway.
+     * @return Index of instance which handles the next execution.
+     */
+    abstract int select(int excluded);
+
+    /**
+     * Selects the index of instance which handles the next execution with routing {@code key}.
+     *
+     * @param key      Hash of routing key.
+     * @param excluded Index of instance which must not be selected, or {@code -1}, ignored by groups which select
+     *                 instances by routing key.
+     * @return Index of instance which handles the next execution.
+     */
+    int select(long key, int excluded) {
+        return this.select(excluded);
+    }
+
+    /**
+     * Called when the execution of instance at {@code index} completes.
+     *
+     * @param index Index of instance.
+     */
+    abstract void completed(int index);
+
+    @NotNull
+    @SuppressWarnings("unchecked")
+    @Override
+    public T acquire() {
+        Object[] instances = this.getInstances();
+        HedgeAttempt attempt = HedgeAttempt.take();
+        int index = this.select(attempt != null ? attempt.getExcluded(this) : -1);
+
+        if (attempt != null)
+            attempt.acquired(this, index);
+
+        return (T) instances[index];
+    }
+
+    @NotNull
+    @SuppressWarnings("unchecked")
+    @Override
+    public T acquire(long key) {
+        Object[] instances = this.getInstances();
+        HedgeAttempt attempt = HedgeAttempt.take();
+        int index = this.select(key, attempt != null ? attempt.getExcluded(this) : -1);
+
+        if (attempt != null)
+            attempt.acquired(this, index);
+
+        return (T) instances[index];
+    }
+
+    /**
+     * Maps {@code index} in {@code [0, size - 1)} to an index in {@code [0, size)} which is not {@code excluded}.
+     */
+    static int skip(int index, int excluded) {
+        return excluded >= 0 && index >= excluded ? index + 1 : index;
+    }
+
+    @Override
+    public void release(@NotNull Object instance) {
+        Object[] instances = this.getInstances();
+
+        for (int i = 0; i < instances.length; ++i) {
+            if (instances[i] == instance) {
+                this.completed(i);
+                return;
+            }
+        }
+    }
+
+    private Object[] getInstances() {
+        Object[] instances = this.instances;
+
+        if (instances != null)
+            return instances;
+
+        synchronized (this) {
+            instances = this.instances;
+
+            if (instances == null) {
+                instances = this.factory.get();
+                this.instances = instances;
+            }
+        }
+
+        return instances;
+    }
+
+    /**
+     * Index of the stripe of current thread in an array of {@code stripes} stripes.
+     */
+    static int stripe(int stripes) {
+        return (int) (Thread.currentThread().getId() % stripes);
+    }
+
+    static final class RoundRobin<T> extends InstanceGroup<T> {
+        private static final int STRIPES = Math.max(1, Integer.highestOneBit(Runtime.getRuntime().availableProcessors()));
+
+        private final AtomicLongArray counters = new AtomicLongArray(STRIPES * PADDING);
+
+        RoundRobin(Class<T> type, int size, Supplier<Object[]> factory) {
+            super(type, size, factory);
+        }
+
+        @Override
+        int select(int excluded) {
+            int stripe = InstanceGroup.stripe(STRIPES);
+            long count = this.counters.getAndIncrement(stripe * PADDING);
+            int index = (int) ((count + stripe) % this.size);
+
+            return index == excluded && this.size > 1 ? (index + 1) % this.size : index;
+        }
+
+        @Override
+        void completed(int index) {
+        }
+    }
+
+    static final class PowerOfTwoChoices<T> extends InstanceGroup<T> {
+        private final AtomicIntegerArray inFlight;
+
+        PowerOfTwoChoices(Class<T> type, int size, Supplier<Object[]> factory) {
+            super(type, size, factory);
+            this.inFlight = new AtomicIntegerArray(size * PADDING);
+        }
+
+        @Override
+        int select(int excluded) {
+            int index;
+            int candidates = excluded >= 0 ? this.size - 1 : this.size;
+
+            if (this.size == 1) {
+                index = 0;
+            } else if (candidates == 1) {
+                index = InstanceGroup.skip(0, excluded);
+            } else {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                int first = random.nextInt(candidates);
+                int second = random.nextInt(candidates - 1);
+
+                if (second >= first)
+                    ++second;
+
+                first = InstanceGroup.skip(first, excluded);
+                second = InstanceGroup.skip(second, excluded);
+
+                index = this.inFlight.get(first * PADDING) <= this.inFlight.get(second * PADDING) ? first : second;
+            }
+
+            this.inFlight.incrementAndGet(index * PADDING);
+            return index;
+        }
+
+        @Override
+        void completed(int index) {
+            this.inFlight.decrementAndGet(index * PADDING);
+        }
+    }
+
+    static final class LeastLatency<T> extends InstanceGroup<T> {
+
+        /**
+         * Weight of the latest sample in the moving average.
+         */
+        private static final double ALPHA = 0.2;
+
+        /**
+         * Start times of executions of current thread, executions on the same thread are always nested.
+         */
+        private static final ThreadLocal<StartTimes> START_TIMES = ThreadLocal.withInitial(StartTimes::new);
+
+        private final AtomicIntegerArray inFlight;
+        private final AtomicLongArray averages;
+
+        LeastLatency(Class<T> type, int size, Supplier<Object[]> factory) {
+            super(type, size, factory);
+            this.inFlight = new AtomicIntegerArray(size * PADDING);
+            this.averages = new AtomicLongArray(size * PADDING);
+        }
+
+        @Override
+        int select(int excluded) {
+            int index = 0;
+            double best = Double.MAX_VALUE;
+
+            for (int i = 0; i < this.size; ++i) {
+                if (i == excluded && this.size > 1)
+                    continue;
+
+                double score = Double.longBitsToDouble(this.averages.get(i * PADDING))
+                        * (this.inFlight.get(i * PADDING) + 1);
+
+                if (score < best) {
+                    best = score;
+                    index = i;
+                }
+            }
+
+            this.inFlight.incrementAndGet(index * PADDING);
+            START_TIMES.get().push(System.nanoTime());
+            return index;
+        }
+
+        @Override
+        void completed(int index) {
+            double sample = System.nanoTime() - START_TIMES.get().pop();
+            double average = Double.longBitsToDouble(this.averages.get(index * PADDING));
+
+            this.averages.lazySet(index * PADDING, Double.doubleToRawLongBits(
+                    average == 0.0 ? sample : average + ALPHA * (sample - average)));
+            this.inFlight.decrementAndGet(index * PADDING);
+        }
+    }
+
+    static final class ConsistentHash<T> extends InstanceGroup<T> {
+
+        /**
+         * Number of points of each instance in the ring.
+         */
+        private static final int VIRTUAL_NODES = 128;
+
+        /**
+         * Sorted points of the ring.
+         */
+        private final long[] points;
+
+        /**
+         * Index of instance which owns the point at the same position of {@link #points}.
+         */
+        private final int[] owners;
+
+        ConsistentHash(Class<T> type, int size, Supplier<Object[]> factory) {
+            super(type, size, factory);
+
+            int length = size * VIRTUAL_NODES;
+            long[] points = new long[length];
+            Integer[] order = new Integer[length];
+
+            for (int i = 0; i < length; ++i) {
+                points[i] = RouteKeyUtil.hash(((long) (i / VIRTUAL_NODES) << 32) | (i % VIRTUAL_NODES));
+                order[i] = i;
+            }
+
+            Arrays.sort(order, Comparator.comparingLong(i -> points[i]));
+
+            this.points = new long[length];
+            this.owners = new int[length];
+
+            for (int i = 0; i < length; ++i) {
+                this.points[i] = points[order[i]];
+                this.owners[i] = order[i] / VIRTUAL_NODES;
+            }
+        }
+
+        @Override
+        int select(int excluded) {
+            int index;
+
+            do {
+                index = this.select(ThreadLocalRandom.current().nextLong(), -1);
+            } while (index == excluded && this.size > 1);
+
+            return index;
+        }
+
+        @Override
+        int select(long key, int excluded) {
+            int index = Arrays.binarySearch(this.points, key);
+
+            if (index < 0)
+                index = -index - 1;
+
+            if (index == this.points.length)
+                index = 0;
+
+            return this.owners[index];
+        }
+
+        @Override
+        void completed(int index) {
+        }
+    }
+
+    static final class StartTimes {
+        private long[] times = new long[4];
+        private int size;
+
+        void push(long time) {
+            if (this.size == this.times.length)
+                this.times = Arrays.copyOf(this.times, this.size * 2);
+
+            this.times[this.size++] = time;
+        }
+
+        long pop() {
+            return this.times[--this.size];
+        }
+    }
+}
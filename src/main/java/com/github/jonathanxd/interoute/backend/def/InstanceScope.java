@@ -0,0 +1,322 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.backend.def;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * Scope of destination instances created by a {@link DefaultBackendConfiguration.Builder#addProvider(String, Class,
+ * InstanceScope, Supplier) provider}.
+ *
+ * Scopes other than {@link #SINGLETON} allow non thread-safe destinations to be used concurrently without synchronizing
+ * the routes which use them.
+ */
+public abstract class InstanceScope {
+
+    /**
+     * A single instance, created on the first route execution and shared by all routes.
+     */
+    public static final InstanceScope SINGLETON = new InstanceScope("singleton") {
+        @NotNull
+        @Override
+        public <T> ScopedInstance<T> create(@NotNull Class<T> type, @NotNull Supplier<? extends T> provider) {
+            return new Singleton<>(type, provider);
+        }
+    };
+
+    /**
+     * One instance per thread which executes the route.
+     */
+    public static final InstanceScope THREAD = new InstanceScope("thread") {
+        @NotNull
+        @Override
+        public <T> ScopedInstance<T> create(@NotNull Class<T> type, @NotNull Supplier<? extends T> provider) {
+            return new ThreadConfined<>(type, provider);
+        }
+    };
+
+    /**
+     * A new instance for every route execution.
+     */
+    public static final InstanceScope PROTOTYPE = new InstanceScope("prototype") {
+        @NotNull
+        @Override
+        public <T> ScopedInstance<T> create(@NotNull Class<T> type, @NotNull Supplier<? extends T> provider) {
+            return new Prototype<>(type, provider);
+        }
+    };
+
+    /**
+     * Name of the scope.
+     */
+    @NotNull
+    private final String name;
+
+    private InstanceScope(@NotNull String name) {
+        this.name = name;
+    }
+
+    /**
+     * Creates a scope which keeps up to {@code capacity} idle instances in a lock-free pool. Every route execution takes
+     * an idle instance or creates a new one when there is none, and returns it to the pool afterwards, discarding it when
+     * the pool is full.
+     *
+     * @param capacity Maximum number of idle instances.
+     * @return Pooled scope.
+     */
+    @NotNull
+    public static InstanceScope pooled(int capacity) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("Capacity must be positive.");
+
+        return new InstanceScope("pooled(" + capacity + ")") {
+            @NotNull
+            @Override
+            public <T> ScopedInstance<T> create(@NotNull Class<T> type, @NotNull Supplier<? extends T> provider) {
+                return new Pooled<>(type, provider, capacity);
+            }
+        };
+    }
+
+    /**
+     * Creates a scope which keeps a group of {@code size} instances and spreads route executions across them according to
+     * {@code selection}. Instances are created on the first route execution.
+     *
+     * @param size      Number of instances of the group.
+     * @param selection Strategy which selects the instance for each execution.
+     * @return Balanced scope.
+     */
+    @NotNull
+    public static InstanceScope balanced(int size, @NotNull InstanceSelection selection) {
+        if (size <= 0)
+            throw new IllegalArgumentException("Size must be positive.");
+
+        Objects.requireNonNull(selection, "Selection cannot be null.");
+
+        return new InstanceScope("balanced(" + size + ", " + selection + ")") {
+            @NotNull
+            @Override
+            public <T> ScopedInstance<T> create(@NotNull Class<T> type, @NotNull Supplier<? extends T> provider) {
+                return InstanceGroup.create(type, provider, size, selection);
+            }
+        };
+    }
+
+    /**
+     * Creates a scope which spreads route executions across {@code instances} according to {@code selection}. The scope
+     * does not use providers, all holders created by it select from {@code instances}.
+     *
+     * @param instances Instances of the group.
+     * @param selection Strategy which selects the instance for each execution.
+     * @return Group scope.
+     */
+    @NotNull
+    static InstanceScope group(@NotNull List<?> instances, @NotNull InstanceSelection selection) {
+        if (instances.isEmpty())
+            throw new IllegalArgumentException("Group must have at least one instance.");
+
+        Objects.requireNonNull(selection, "Selection cannot be null.");
+
+        return new Group(instances, selection);
+    }
+
+    /**
+     * Creates the holder of instances of this scope.
+     *
+     * @param type     Declared type of instances.
+     * @param provider Provider of instances.
+     * @param <T>      Declared type.
+     * @return Holder of instances of this scope.
+     */
+    @NotNull
+    public abstract <T> ScopedInstance<T> create(@NotNull Class<T> type, @NotNull Supplier<? extends T> provider);
+
+    @Override
+    public String toString() {
+        return "InstanceScope{" +
+                "name='" + this.name + '\'' +
+                '}';
+    }
+
+    /**
+     * Checks that {@code instance} provided by a provider is not {@code null} and is instance of {@code type}.
+     */
+    static <T> T checkProvided(Class<T> type, T instance) {
+        Objects.requireNonNull(instance, "Provider cannot supply null instances.");
+
+        if (!type.isInstance(instance))
+            throw new IllegalStateException(String.format("Provided instance '%s' is not an instance of declared type '%s'.",
+                    instance, type.getCanonicalName()));
+
+        return instance;
+    }
+
+    /**
+     * Scope of a fixed list of instances.
+     */
+    static final class Group extends InstanceScope {
+        private final List<?> instances;
+        private final InstanceSelection selection;
+
+        private Group(List<?> instances, InstanceSelection selection) {
+            super("group(" + instances.size() + ", " + selection + ")");
+            this.instances = instances;
+            this.selection = selection;
+        }
+
+        /**
+         * Creates the group of {@link #instances}.
+         *
+         * @param type Declared type of instances.
+         * @param <T>  Declared type.
+         * @return Group of {@link #instances}.
+         */
+        @NotNull
+        <T> ScopedInstance<T> create(@NotNull Class<T> type) {
+            return InstanceGroup.create(type, this.instances, this.selection);
+        }
+
+        @NotNull
+        @Override
+        public <T> ScopedInstance<T> create(@NotNull Class<T> type, @NotNull Supplier<? extends T> provider) {
+            return this.create(type);
+        }
+    }
+
+    static final class Singleton<T> extends ScopedInstance<T> {
+        private final LazyInstance<T> instance;
+
+        Singleton(Class<T> type, Supplier<? extends T> provider) {
+            super(type);
+            this.instance = new LazyInstance<>(type, provider);
+        }
+
+        @NotNull
+        @Override
+        public T acquire() {
+            return this.instance.get();
+        }
+
+        @Override
+        public void release(@NotNull Object instance) {
+        }
+    }
+
+    static final class ThreadConfined<T> extends ScopedInstance<T> {
+        private final ThreadLocal<T> instance;
+
+        ThreadConfined(Class<T> type, Supplier<? extends T> provider) {
+            super(type);
+            this.instance = ThreadLocal.withInitial(() -> InstanceScope.checkProvided(type, provider.get()));
+        }
+
+        @NotNull
+        @Override
+        public T acquire() {
+            return this.instance.get();
+        }
+
+        @Override
+        public void release(@NotNull Object instance) {
+        }
+    }
+
+    static final class Prototype<T> extends ScopedInstance<T> {
+        private final Supplier<? extends T> provider;
+
+        Prototype(Class<T> type, Supplier<? extends T> provider) {
+            super(type);
+            this.provider = provider;
+        }
+
+        @NotNull
+        @Override
+        public T acquire() {
+            return InstanceScope.checkProvided(this.getType(), this.provider.get());
+        }
+
+        @Override
+        public void release(@NotNull Object instance) {
+        }
+    }
+
+    /**
+     * Bounded pool of idle instances. Each slot is taken and returned with a single compare-and-set, scanning from a
+     * position derived from the current thread to spread contention across slots.
+     */
+    static final class Pooled<T> extends ScopedInstance<T> {
+        private final Supplier<? extends T> provider;
+        private final AtomicReferenceArray<T> slots;
+
+        Pooled(Class<T> type, Supplier<? extends T> provider, int capacity) {
+            super(type);
+            this.provider = provider;
+            this.slots = new AtomicReferenceArray<>(capacity);
+        }
+
+        @NotNull
+        @Override
+        public T acquire() {
+            int length = this.slots.length();
+            int start = Pooled.start(length);
+
+            for (int i = 0; i < length; ++i) {
+                int index = (start + i) % length;
+                T instance = this.slots.get(index);
+
+                if (instance != null && this.slots.compareAndSet(index, instance, null))
+                    return instance;
+            }
+
+            return InstanceScope.checkProvided(this.getType(), this.provider.get());
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public void release(@NotNull Object instance) {
+            int length = this.slots.length();
+            int start = Pooled.start(length);
+
+            for (int i = 0; i < length; ++i) {
+                int index = (start + i) % length;
+
+                if (this.slots.get(index) == null && this.slots.compareAndSet(index, null, (T) instance))
+                    return;
+            }
+        }
+
+        private static int start(int length) {
+            return (int) (Thread.currentThread().getId() % length);
+        }
+    }
+}
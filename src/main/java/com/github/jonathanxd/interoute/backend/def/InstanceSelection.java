@@ -0,0 +1,58 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.backend.def;
+
+/**
+ * Strategy used by {@link InstanceScope#balanced(int, InstanceSelection) balanced} scopes to select which instance of the
+ * group handles a route execution.
+ */
+public enum InstanceSelection {
+    /**
+     * Selects instances in turns. Threads increment distinct stripes of the counter, so selection does not contend on a
+     * single counter.
+     */
+    ROUND_ROBIN,
+
+    /**
+     * Selects the instance with less in-flight executions between two randomly chosen instances.
+     */
+    POWER_OF_TWO_CHOICES,
+
+    /**
+     * Selects the instance with the lowest exponentially weighted moving average of execution latency, weighted by its
+     * in-flight executions.
+     */
+    LEAST_LATENCY,
+
+    /**
+     * Selects instances by the {@link com.github.jonathanxd.interoute.annotation.RouteKey routing key} in a consistent
+     * hash ring with virtual nodes, so executions with equal keys reach the same instance and changing the number of
+     * instances only remaps about {@code 1/N} of the keys. Executions without routing key select a random instance.
+     */
+    CONSISTENT_HASH
+}
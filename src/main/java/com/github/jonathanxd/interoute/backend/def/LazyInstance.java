@@ -0,0 +1,107 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.backend.def;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Destination instance created by a provider on first use.
+ *
+ * The provider is invoked at most once, even when multiple routes are executed concurrently before the instance is
+ * created. After the creation, the instance is retrieved without locking.
+ *
+ * @param <T> Instance type.
+ */
+final class LazyInstance<T> implements Supplier<T> {
+
+    /**
+     * Declared type of the instance.
+     */
+    @NotNull
+    private final Class<T> type;
+
+    /**
+     * Provider of the instance, {@code null} after the instance is created.
+     */
+    private Supplier<? extends T> provider;
+
+    /**
+     * Created instance.
+     */
+    private volatile T instance;
+
+    LazyInstance(@NotNull Class<T> type, @NotNull Supplier<? extends T> provider) {
+        this.type = type;
+        this.provider = provider;
+    }
+
+    @Override
+    public T get() {
+        T instance = this.instance;
+
+        if (instance != null)
+            return instance;
+
+        synchronized (this) {
+            instance = this.instance;
+
+            if (instance == null) {
+                instance = Objects.requireNonNull(this.provider.get(), "Provider cannot supply null instances.");
+
+                if (!this.type.isInstance(instance))
+                    throw new IllegalStateException(String.format("Provided instance '%s' is not an instance of declared type '%s'.",
+                            instance, this.type.getCanonicalName()));
+
+                this.instance = instance;
+                this.provider = null;
+            }
+        }
+
+        return instance;
+    }
+
+    /**
+     * Returns whether the instance was already created or not.
+     *
+     * @return Whether the instance was already created or not.
+     */
+    boolean isInitialized() {
+        return this.instance != null;
+    }
+
+    @Override
+    public String toString() {
+        return "LazyInstance{" +
+                "type=" + this.type +
+                ", initialized=" + this.isInitialized() +
+                '}';
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.backend.def;
+
+import com.github.jonathanxd.interoute.annotation.RequiresConfiguration;
+import com.github.jonathanxd.interoute.backend.AbstractAsmInterouteBackend;
+import com.github.jonathanxd.interoute.exception.GenerationException;
+import com.github.jonathanxd.interoute.gen.RouteSpec;
+import com.github.jonathanxd.interoute.gen.RouterSpec;
+import com.github.jonathanxd.interoute.route.RouteEntry;
+import com.github.jonathanxd.interoute.route.def.SimpleTypeMethodDestinationNotation;
+import com.github.jonathanxd.iutils.object.result.Result;
+
+import org.jetbrains.annotations.NotNull;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Backend which generates routers which dispatches to destinations through {@code invokedynamic} call sites.
+ *
+ * Instead of generating an invocation of the destination method, each route has a synthetic invoker method which loads
+ * its arguments and executes an {@code invokedynamic} instruction bootstrapped by {@link HandleRouteBootstrap}, which
+ * links the call site to the exact typed {@link MethodHandle} of the destination method bound to the
+ * destination instance (no argument array is spread or collected). The route method captures its arguments in a
+ * {@link Supplier} of the invoker method, through {@link LambdaMetafactory}, and passes it to the route call site, which
+ * creates the route. Route arguments are only collected into an array for routes which {@link
+ * HandleRouteLink#needsArguments() needs them}. Both call sites are constant call sites, linked once.
+ *
+ * Uses same configuration and destination notation as {@link DefaultInterouteBackend}.
+ */
+@RequiresConfiguration(DefaultBackendConfiguration.class)
+public class MethodHandleInterouteBackend extends AbstractAsmInterouteBackend<DefaultBackendConfiguration, HandleRouteLink> {
+
+    public static final MethodHandleInterouteBackend INSTANCE = new MethodHandleInterouteBackend();
+
+    private static final String LINKS = Type.getDescriptor(HandleRouteLink[].class);
+    private static final String OBJECT = Type.getInternalName(Object.class);
+    private static final String SUPPLIER = Type.getDescriptor(Supplier.class);
+    private static final String OBJECT_ARRAY = Type.getDescriptor(Object[].class);
+    private static final Type INVOKER_TYPE = Type.getMethodType(Type.getType(Object.class));
+    private static final Type INSTANTIATED_INVOKER_TYPE = Type.getMethodType(Type.getType(Result.class));
+
+    private static final Handle BOOTSTRAP = MethodHandleInterouteBackend.bootstrap("bootstrap");
+    private static final Handle BOOTSTRAP_INVOKE = MethodHandleInterouteBackend.bootstrap("bootstrapInvoke");
+
+    private static final Handle METAFACTORY = new Handle(
+            Opcodes.H_INVOKESTATIC,
+            Type.getInternalName(LambdaMetafactory.class),
+            "metafactory",
+            MethodType.methodType(CallSite.class, MethodHandles.Lookup.class, String.class, MethodType.class,
+                    MethodType.class, MethodHandle.class, MethodType.class).toMethodDescriptorString(),
+            false
+    );
+
+    public static MethodHandleInterouteBackend create() {
+        return INSTANCE;
+    }
+
+    @NotNull
+    @Override
+    public DefaultBackendConfiguration createConfiguration() {
+        return DefaultBackendConfiguration.newConfiguration();
+    }
+
+    @Override
+    protected void visitMembers(@NotNull ClassWriter cw,
+                                @NotNull String internalName,
+                                @NotNull RouterSpec<DefaultBackendConfiguration> routerSpec) {
+        cw.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC | Opcodes.ACC_SYNTHETIC,
+                HandleRouteBootstrap.LINKS_FIELD, LINKS, null, null).visitEnd();
+
+        List<RouteSpec> routeSpecList = routerSpec.getRouteSpecList();
+
+        for (int i = 0; i < routeSpecList.size(); i++) {
+            Optional<Method> origin = routeSpecList.get(i).getOriginMethod();
+
+            if (!origin.isPresent())
+                continue;
+
+            String descriptor = MethodHandleInterouteBackend.invokerDescriptor(origin.get());
+            MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC | Opcodes.ACC_SYNTHETIC,
+                    HandleRouteBootstrap.INVOKER_PREFIX + i, descriptor, null, null);
+
+            mv.visitCode();
+            AbstractAsmInterouteBackend.loadArguments(mv, descriptor, 0);
+            mv.visitInvokeDynamicInsn("invoke", descriptor, BOOTSTRAP_INVOKE, i);
+            mv.visitInsn(Opcodes.ARETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+    }
+
+    @NotNull
+    @Override
+    protected Result<HandleRouteLink, GenerationException> visitRoute(@NotNull MethodVisitor mv,
+                                                                      @NotNull String internalName,
+                                                                      @NotNull RouteSpec routeSpec,
+                                                                      @NotNull RouteEntry route,
+                                                                      @NotNull DefaultBackendConfiguration configuration) {
+        return this.link(routeSpec, route, configuration).map(link -> {
+            Method origin = routeSpec.getOriginMethod().orElseThrow(IllegalStateException::new);
+            String descriptor = Type.getMethodDescriptor(origin);
+            String invokerDescriptor = MethodHandleInterouteBackend.invokerDescriptor(origin);
+            String arguments = invokerDescriptor.substring(0, invokerDescriptor.indexOf(')') + 1);
+
+            AbstractAsmInterouteBackend.loadArguments(mv, descriptor);
+            mv.visitInvokeDynamicInsn("get", arguments + SUPPLIER, METAFACTORY,
+                    INVOKER_TYPE,
+                    new Handle(Opcodes.H_INVOKESTATIC, internalName, HandleRouteBootstrap.INVOKER_PREFIX + route.getId(),
+                            invokerDescriptor, false),
+                    INSTANTIATED_INVOKER_TYPE);
+
+            String routeDescriptor = link.needsArguments()
+                    ? "(" + SUPPLIER + OBJECT_ARRAY + ")" + Type.getReturnType(descriptor).getDescriptor()
+                    : "(" + SUPPLIER + ")" + Type.getReturnType(descriptor).getDescriptor();
+
+            if (link.needsArguments())
+                MethodHandleInterouteBackend.loadArgumentArray(mv, descriptor);
+
+            mv.visitInvokeDynamicInsn(origin.getName(), routeDescriptor, BOOTSTRAP, route.getId());
+            mv.visitInsn(Type.getReturnType(descriptor).getOpcode(Opcodes.IRETURN));
+
+            return link;
+        });
+    }
+
+    @NotNull
+    @Override
+    protected Result<Class<?>, GenerationException> initialize(@NotNull Class<?> generatedClass,
+                                                               @NotNull List<HandleRouteLink> links) {
+        try {
+            Field field = generatedClass.getDeclaredField(HandleRouteBootstrap.LINKS_FIELD);
+            field.setAccessible(true);
+            field.set(null, links.toArray(new HandleRouteLink[0]));
+            return Result.ok(generatedClass);
+        } catch (NoSuchFieldException | IllegalAccessException | SecurityException e) {
+            return Result.error(new GenerationException("Cannot initialize route links.", e));
+        }
+    }
+
+    /**
+     * Descriptor of the invoker method of route with {@code origin} method, which has the same parameters and returns
+     * {@link Result}.
+     */
+    private static String invokerDescriptor(Method origin) {
+        return Type.getMethodDescriptor(Type.getType(Result.class), Type.getArgumentTypes(origin));
+    }
+
+    /**
+     * Loads an {@code Object[]} with all arguments (boxed) of method described by {@code descriptor} into operand stack.
+     */
+    private static void loadArgumentArray(MethodVisitor mv, String descriptor) {
+        Type[] argumentTypes = Type.getArgumentTypes(descriptor);
+        int slot = 1;
+
+        mv.visitLdcInsn(argumentTypes.length);
+        mv.visitTypeInsn(Opcodes.ANEWARRAY, OBJECT);
+
+        for (int i = 0; i < argumentTypes.length; i++) {
+            Type argumentType = argumentTypes[i];
+
+            mv.visitInsn(Opcodes.DUP);
+            mv.visitLdcInsn(i);
+            mv.visitVarInsn(argumentType.getOpcode(Opcodes.ILOAD), slot);
+            MethodHandleInterouteBackend.box(mv, argumentType);
+            mv.visitInsn(Opcodes.AASTORE);
+
+            slot += argumentType.getSize();
+        }
+    }
+
+    private static void box(MethodVisitor mv, Type type) {
+        Type boxType = MethodHandleInterouteBackend.getBoxType(type);
+
+        if (boxType != null)
+            mv.visitMethodInsn(Opcodes.INVOKESTATIC, boxType.getInternalName(), "valueOf",
+                    Type.getMethodDescriptor(boxType, type), false);
+    }
+
+    private static Type getBoxType(Type type) {
+        switch (type.getSort()) {
+            case Type.BOOLEAN:
+                return Type.getType(Boolean.class);
+            case Type.CHAR:
+                return Type.getType(Character.class);
+            case Type.BYTE:
+                return Type.getType(Byte.class);
+            case Type.SHORT:
+                return Type.getType(Short.class);
+            case Type.INT:
+                return Type.getType(Integer.class);
+            case Type.FLOAT:
+                return Type.getType(Float.class);
+            case Type.LONG:
+                return Type.getType(Long.class);
+            case Type.DOUBLE:
+                return Type.getType(Double.class);
+            default:
+                return null;
+        }
+    }
+
+    private static Handle bootstrap(String name) {
+        return new Handle(
+                Opcodes.H_INVOKESTATIC,
+                Type.getInternalName(HandleRouteBootstrap.class),
+                name,
+                MethodType.methodType(CallSite.class, MethodHandles.Lookup.class, String.class, MethodType.class, int.class)
+                        .toMethodDescriptorString(),
+                false
+        );
+    }
+
+    private Result<HandleRouteLink, GenerationException> link(RouteSpec routeSpec,
+                                                              RouteEntry route,
+                                                              DefaultBackendConfiguration configuration) {
+        return SimpleTypeMethodDestinationNotation
+                .parseType(routeSpec.getDestination(),
+                        new DefaultInterouteBackend.ConfigurationBasedResolver(routeSpec, configuration))
+                .flatMap(
+                        notation -> HandleRouteLink.link(routeSpec, notation, route, configuration),
+                        destinationParseError -> Result.error(new GenerationException(destinationParseError))
+                );
+    }
+}
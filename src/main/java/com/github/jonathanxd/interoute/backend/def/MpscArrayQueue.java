@@ -0,0 +1,124 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.backend.def;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue for multiple producers and a single consumer.
+ *
+ * Every slot has a sequence number which tells producers whether the slot is free and tells the consumer whether the
+ * slot was published. Producers claim slots with a compare-and-set on the tail, and the consumer advances the head
+ * without atomic operations.
+ *
+ * @param <E> Element type.
+ */
+final class MpscArrayQueue<E> {
+
+    private final AtomicReferenceArray<E> buffer;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Head of the queue, only accessed by the consumer.
+     */
+    private long head;
+
+    MpscArrayQueue(int capacity) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("Capacity must be positive.");
+
+        int length = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+
+        this.buffer = new AtomicReferenceArray<>(length);
+        this.sequences = new AtomicLongArray(length);
+        this.mask = length - 1;
+
+        for (int i = 0; i < length; ++i) {
+            this.sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Enqueues {@code element}.
+     *
+     * @param element Element to enqueue.
+     * @return Whether the element was enqueued or not, {@code false} if the queue is full.
+     */
+    boolean offer(E element) {
+        for (;;) {
+            long tail = this.tail.get();
+            int index = (int) (tail & this.mask);
+            long sequence = this.sequences.get(index);
+
+            if (sequence == tail) {
+                if (this.tail.compareAndSet(tail, tail + 1)) {
+                    this.buffer.lazySet(index, element);
+                    this.sequences.set(index, tail + 1);
+                    return true;
+                }
+            } else if (sequence < tail) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Dequeues the next element. Must only be called by the consumer.
+     *
+     * @return Next element or {@code null} if the queue is empty.
+     */
+    E poll() {
+        long head = this.head;
+        int index = (int) (head & this.mask);
+
+        if (this.sequences.get(index) != head + 1)
+            return null;
+
+        E element = this.buffer.get(index);
+
+        this.buffer.lazySet(index, null);
+        this.sequences.lazySet(index, head + this.mask + 1);
+        this.head = head + 1;
+
+        return element;
+    }
+
+    /**
+     * Returns whether the queue is empty, an element being enqueued makes the queue non-empty before it is published.
+     * Must only be called by the consumer.
+     *
+     * @return Whether the queue is empty.
+     */
+    boolean isEmpty() {
+        return this.tail.get() == this.head;
+    }
+}
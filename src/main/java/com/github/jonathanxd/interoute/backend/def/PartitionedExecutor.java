@@ -0,0 +1,214 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.backend.def;
+
+import com.github.jonathanxd.interoute.util.RouteKeyUtil;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Executor of {@link com.github.jonathanxd.interoute.annotation.Partitioned partitioned} routes.
+ *
+ * Each partition is a single daemon thread fed by a bounded {@link MpscArrayQueue lock-free queue}, so tasks of the same
+ * partition run in submission order without locks. Partition threads are started on their first task and terminate
+ * after being idle for {@link #KEEP_ALIVE_NANOS keep-alive}, being started again on the next task, so executors which
+ * are no longer used do not keep their threads. Configurations which are created repeatedly should still share one
+ * executor, see {@link DefaultBackendConfiguration.Builder#partitions(PartitionedExecutor)}.
+ */
+public final class PartitionedExecutor {
+
+    /**
+     * Time which an idle partition thread waits for tasks before terminating.
+     */
+    static final long KEEP_ALIVE_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    /**
+     * Partitions.
+     */
+    @NotNull
+    private final Partition[] partitions;
+
+    /**
+     * Capacity of queue of each partition.
+     */
+    private final int queueCapacity;
+
+    /**
+     * Creates a partitioned executor.
+     *
+     * @param partitions    Number of partitions.
+     * @param queueCapacity Capacity of queue of each partition, rounded up to a power of two. Tasks submitted to a full
+     *                      partition are rejected with {@link RejectedExecutionException}.
+     */
+    public PartitionedExecutor(int partitions, int queueCapacity) {
+        if (partitions <= 0)
+            throw new IllegalArgumentException("Partitions must be positive.");
+
+        this.partitions = new Partition[partitions];
+        this.queueCapacity = queueCapacity;
+
+        for (int i = 0; i < partitions; ++i) {
+            this.partitions[i] = new Partition("Interoute-Partition-" + i, queueCapacity);
+        }
+    }
+
+    /**
+     * Gets the executor of partition of {@code key}.
+     *
+     * @param key Hash of the routing key, see {@link RouteKeyUtil#hash(Object)}.
+     * @return Executor of partition of {@code key}.
+     */
+    @NotNull
+    public Executor getPartition(long key) {
+        return this.partitions[(int) Long.remainderUnsigned(key, this.partitions.length)];
+    }
+
+    /**
+     * Gets the number of partitions.
+     *
+     * @return Number of partitions.
+     */
+    public int getPartitions() {
+        return this.partitions.length;
+    }
+
+    /**
+     * Gets the capacity of queue of each partition.
+     *
+     * @return Capacity of queue of each partition.
+     */
+    public int getQueueCapacity() {
+        return this.queueCapacity;
+    }
+
+    @Override
+    public String toString() {
+        return "PartitionedExecutor{" +
+                "partitions=" + this.partitions.length +
+                ", queueCapacity=" + this.queueCapacity +
+                '}';
+    }
+
+    static final class Partition implements Executor, Runnable {
+        private final String name;
+        private final MpscArrayQueue<Runnable> queue;
+        private final AtomicBoolean started = new AtomicBoolean();
+        private volatile Thread thread;
+
+        /**
+         * Whether the partition thread is about to park or parked.
+         */
+        private volatile boolean waiting;
+
+        Partition(String name, int queueCapacity) {
+            this.name = name;
+            this.queue = new MpscArrayQueue<>(queueCapacity);
+        }
+
+        @Override
+        public void execute(@NotNull Runnable command) {
+            if (!this.queue.offer(command))
+                throw new RejectedExecutionException(String.format("Queue of partition '%s' is full.", this.name));
+
+            if (!this.started.get() && this.started.compareAndSet(false, true)) {
+                Thread thread = new Thread(this, this.name);
+                thread.setDaemon(true);
+                this.thread = thread;
+                thread.start();
+            } else if (this.waiting) {
+                LockSupport.unpark(this.thread);
+            }
+        }
+
+        @Override
+        public void run() {
+            long idleSince = System.nanoTime();
+
+            for (;;) {
+                Runnable task = this.queue.poll();
+
+                if (task == null) {
+                    this.waiting = true;
+                    task = this.queue.poll();
+
+                    if (task == null) {
+                        long idle = System.nanoTime() - idleSince;
+
+                        if (idle >= KEEP_ALIVE_NANOS) {
+                            this.waiting = false;
+
+                            if (this.terminate())
+                                return;
+
+                            idleSince = System.nanoTime();
+                            continue;
+                        }
+
+                        LockSupport.parkNanos(this, KEEP_ALIVE_NANOS - idle);
+                        this.waiting = false;
+                        continue;
+                    }
+
+                    this.waiting = false;
+                }
+
+                try {
+                    task.run();
+                } catch (Throwable t) {
+                    Thread current = Thread.currentThread();
+                    current.getUncaughtExceptionHandler().uncaughtException(current, t);
+                }
+
+                idleSince = System.nanoTime();
+            }
+        }
+
+        /**
+         * Stops the partition thread, unless a task was submitted meanwhile, which is the case when the thread of a
+         * submitter observed the partition as started before it stopped.
+         *
+         * @return Whether the partition thread must terminate.
+         */
+        private boolean terminate() {
+            this.thread = null;
+            this.started.set(false);
+
+            if (this.queue.isEmpty() || !this.started.compareAndSet(false, true))
+                return true;
+
+            this.thread = Thread.currentThread();
+            return false;
+        }
+    }
+}
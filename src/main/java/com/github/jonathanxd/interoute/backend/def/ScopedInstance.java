@@ -0,0 +1,91 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.backend.def;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Provides destination instances of an alias according to its {@link InstanceScope scope}.
+ *
+ * Generated routes {@link #acquire() acquire} an instance before invoking the destination and {@link #release(Object)
+ * release} it after the invocation completes, even when the invocation fails. Neither operation locks after the first
+ * instance is created.
+ *
+ * @param <T> Instance type.
+ */
+public abstract class ScopedInstance<T> {
+
+    /**
+     * Declared type of instances.
+     */
+    @NotNull
+    private final Class<T> type;
+
+    protected ScopedInstance(@NotNull Class<T> type) {
+        this.type = type;
+    }
+
+    /**
+     * Gets the declared type of instances.
+     *
+     * @return Declared type of instances.
+     */
+    @NotNull
+    public Class<T> getType() {
+        return this.type;
+    }
+
+    /**
+     * Acquires an instance to invoke the destination with. The instance must be {@link #release(Object) released} after
+     * the invocation.
+     *
+     * @return Instance to invoke the destination with.
+     */
+    @NotNull
+    public abstract T acquire();
+
+    /**
+     * Acquires an instance to invoke the destination with for an execution with routing {@code key}. Scopes which do not
+     * select instances by key ignore the {@code key}.
+     *
+     * @param key Hash of the {@link com.github.jonathanxd.interoute.annotation.RouteKey routing key}, see {@link
+     *            com.github.jonathanxd.interoute.util.RouteKeyUtil#hash(Object)}.
+     * @return Instance to invoke the destination with.
+     */
+    @NotNull
+    public T acquire(long key) {
+        return this.acquire();
+    }
+
+    /**
+     * Releases {@code instance} previously {@link #acquire() acquired} from this scope.
+     *
+     * @param instance Instance to release.
+     */
+    public abstract void release(@NotNull Object instance);
+}
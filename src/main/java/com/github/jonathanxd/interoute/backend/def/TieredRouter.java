@@ -0,0 +1,461 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.backend.def;
+
+import com.github.jonathanxd.interoute.exception.GenerationException;
+import com.github.jonathanxd.interoute.exception.RoutingException;
+import com.github.jonathanxd.interoute.gen.RouteSpec;
+import com.github.jonathanxd.interoute.gen.RouterSpec;
+import com.github.jonathanxd.interoute.route.RouteEntry;
+import com.github.jonathanxd.interoute.route.RouteTable;
+import com.github.jonathanxd.interoute.route.Router;
+import com.github.jonathanxd.interoute.route.WarmUpOptions;
+import com.github.jonathanxd.interoute.route.def.SimpleTypeMethodDestinationNotation;
+import com.github.jonathanxd.interoute.util.RouterWarmUp;
+import com.github.jonathanxd.iutils.object.result.Result;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Tiered router: starts as an interpreted {@link Proxy} router and is promoted to the router generated by the
+ * {@link RouterSpec#getBackend() backend} once any of its routes is invoked more than {@code threshold} times.
+ *
+ * The interpreted tier resolves each destination lazily, on first invocation of the route, through the same
+ * {@link com.github.jonathanxd.interoute.route.def.DestinationResolver} used by the generated routers, so creation
+ * cost tracks actual usage rather than interface size. Promoted router is generated in background, with the same
+ * {@link RouteTable route table} of the interpreted tier (thus route caches, limiters, breakers and their statistics
+ * survive the promotion), and all routes are switched to it at once.
+ *
+ * The proxy keeps forwarding route invocations to the promoted router, which still goes through the proxy dispatch.
+ * Callers in hot paths should re-fetch the router with {@link #current(Object)} (or from the {@link
+ * #getPromotion(Object) promotion}) once it is promoted and invoke the generated router directly.
+ *
+ * Failures to generate the promoted router are reported to the uncaught exception handler of the promoting thread and
+ * complete the promotion exceptionally, the router keeps working in interpreted tier.
+ *
+ * Only backends which uses {@link DefaultBackendConfiguration} are supported.
+ */
+public final class TieredRouter implements InvocationHandler {
+
+    /**
+     * Default amount of invocations of a single route which triggers the promotion.
+     */
+    public static final int DEFAULT_THRESHOLD = Integer.getInteger("interoute.tiered.threshold", 1000);
+
+    private static final Object[] NO_ARGUMENTS = new Object[0];
+
+    @NotNull
+    private final RouterSpec<DefaultBackendConfiguration> routerSpec;
+
+    @Nullable
+    private final ClassLoader classLoader;
+
+    private final int threshold;
+
+    /**
+     * Routes by origin method.
+     */
+    @NotNull
+    private final Map<Method, TieredRoute> routes;
+
+    /**
+     * Default methods of router interface, typed {@code (Object, Object[])Object}, which are invoked on the proxy.
+     */
+    @NotNull
+    private final Map<Method, MethodHandle> defaultMethods = new ConcurrentHashMap<>();
+
+    @NotNull
+    private final RouteTable routeTable;
+
+    @NotNull
+    private final AtomicBoolean promoting = new AtomicBoolean();
+
+    @NotNull
+    private final CompletableFuture<Object> promotion = new CompletableFuture<>();
+
+    /**
+     * Promoted router, {@code null} while interpreted.
+     */
+    @Nullable
+    private volatile Object promoted;
+
+    private TieredRouter(@NotNull RouterSpec<DefaultBackendConfiguration> routerSpec,
+                         @Nullable ClassLoader classLoader,
+                         int threshold) {
+        this.routerSpec = routerSpec;
+        this.classLoader = classLoader;
+        this.threshold = threshold;
+
+        Map<Method, TieredRoute> routes = new HashMap<>();
+
+        for (RouteSpec routeSpec : routerSpec.getRouteSpecList()) {
+            routeSpec.getOriginMethod().ifPresent(method -> routes.put(method, new TieredRoute(routeSpec)));
+        }
+
+        this.routes = Collections.unmodifiableMap(routes);
+        this.routeTable = RouteTable.of(routerSpec);
+    }
+
+    /**
+     * Creates the interpreted router of {@code routerSpec}.
+     *
+     * @param routerSpec  Router specification.
+     * @param classLoader Class loader to define the proxy and the promoted router, {@code null} to use the router
+     *                    interface loader.
+     * @param threshold   Amount of invocations of a single route which triggers the promotion.
+     * @param <T>         Router type.
+     * @return Interpreted router.
+     */
+    @SuppressWarnings("unchecked")
+    @NotNull
+    public static <T> T create(@NotNull RouterSpec<DefaultBackendConfiguration> routerSpec,
+                               @Nullable ClassLoader classLoader,
+                               int threshold) {
+        Class<?> routerInterface = (Class<?>) routerSpec.getRouterInterface();
+
+        return (T) Proxy.newProxyInstance(
+                classLoader != null ? classLoader : routerInterface.getClassLoader(),
+                new Class<?>[]{routerInterface, Router.class},
+                new TieredRouter(routerSpec, classLoader, threshold)
+        );
+    }
+
+    /**
+     * Gets the promotion of {@code router}, which completes with the generated router once {@code router} is promoted,
+     * or exceptionally if the generation fails.
+     *
+     * @param router Router instance.
+     * @return Promotion of {@code router} or {@link Optional#empty()} if {@code router} is not a tiered router.
+     */
+    @NotNull
+    public static Optional<CompletableFuture<Object>> getPromotion(@NotNull Object router) {
+        TieredRouter tieredRouter = TieredRouter.getTieredRouter(router);
+
+        return tieredRouter != null
+                ? Optional.of(tieredRouter.promotion)
+                : Optional.empty();
+    }
+
+    /**
+     * Gets the current tier of {@code router}: the generated router if {@code router} is a tiered router which was
+     * promoted, or {@code router} itself otherwise. This method does not block and is cheap enough to be used to
+     * re-fetch the router before invocations.
+     *
+     * @param router Router instance.
+     * @param <T>    Router type.
+     * @return Generated router if {@code router} was promoted, or {@code router} otherwise.
+     */
+    @SuppressWarnings("unchecked")
+    @NotNull
+    public static <T> T current(@NotNull T router) {
+        TieredRouter tieredRouter = TieredRouter.getTieredRouter(router);
+        Object promoted = tieredRouter != null ? tieredRouter.promoted : null;
+
+        return promoted != null ? (T) promoted : router;
+    }
+
+    @Nullable
+    private static TieredRouter getTieredRouter(Object router) {
+        if (!Proxy.isProxyClass(router.getClass()))
+            return null;
+
+        InvocationHandler handler = Proxy.getInvocationHandler(router);
+
+        return handler instanceof TieredRouter ? (TieredRouter) handler : null;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        Object[] arguments = args != null ? args : NO_ARGUMENTS;
+        TieredRoute route = this.routes.get(method);
+
+        if (route != null) {
+            MethodHandle promoted = route.promoted;
+
+            if (promoted != null)
+                return (Object) promoted.invokeExact(arguments);
+
+            return this.interpret(route, arguments);
+        }
+
+        return this.invokeNonRoute(proxy, method, arguments);
+    }
+
+    private Object interpret(TieredRoute tieredRoute, Object[] arguments) {
+        InterpretedRoute route = tieredRoute.interpreted;
+
+        if (route == null) {
+            synchronized (tieredRoute) {
+                route = tieredRoute.interpreted;
+
+                if (route == null)
+                    tieredRoute.interpreted = route = new InterpretedRoute(this.link(tieredRoute.routeSpec));
+            }
+        }
+
+        if (tieredRoute.invocations.incrementAndGet() == this.threshold)
+            this.promote();
+
+        Object[] routeArguments = route.link.needsArguments() ? arguments : null;
+
+        if (route.link.isEager()) {
+            route.link.executeAndWait(route.invoker(arguments), routeArguments);
+            return null;
+        }
+
+        return route.link.createRoute(route.invoker(arguments), routeArguments);
+    }
+
+    private HandleRouteLink link(RouteSpec routeSpec) {
+        DefaultBackendConfiguration configuration = this.routerSpec.getConfiguration();
+
+        Result<HandleRouteLink, GenerationException> link = SimpleTypeMethodDestinationNotation
+                .parseType(routeSpec.getDestination(),
+                        new DefaultInterouteBackend.ConfigurationBasedResolver(routeSpec, configuration))
+                .flatMap(
+                        notation -> HandleRouteLink.link(routeSpec, notation, this.getRoute(routeSpec), configuration),
+                        destinationParseError -> Result.error(new GenerationException(destinationParseError))
+                );
+
+        if (link instanceof Result.Err<?, ?>)
+            throw new IllegalStateException(String.format("Cannot link route: %s.", routeSpec),
+                    ((Result.Err<HandleRouteLink, GenerationException>) link).error());
+
+        return link.successOrNull();
+    }
+
+    /**
+     * Gets the entry of {@code routeSpec} in the route table, which is shared with the promoted router.
+     */
+    @Nullable
+    private RouteEntry getRoute(RouteSpec routeSpec) {
+        return routeSpec.getOriginMethod()
+                .flatMap(this.routeTable::find)
+                .orElse(null);
+    }
+
+    private Object invokeNonRoute(Object proxy, Method method, Object[] arguments) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == arguments[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return String.format("TieredRouter[interface=%s, promoted=%s]",
+                            this.routerSpec.getRouterInterface().getTypeName(), this.getTier());
+            }
+        }
+
+        if (method.getDeclaringClass() == Router.class) {
+            switch (method.getName()) {
+                case "getBackend":
+                    return Optional.of(this.routerSpec.getBackend());
+                case "getBackendConfiguration":
+                    return Optional.of(this.routerSpec.getConfiguration());
+                case "getRouteTable":
+                    return Optional.of(this.routeTable);
+                case "warmUp":
+                    return RouterWarmUp.warmUp((Router) proxy, (WarmUpOptions) arguments[0]);
+                case "rebind":
+                    this.routerSpec.getConfiguration().rebind((String) arguments[0], arguments[1]);
+                    return null;
+                default:
+                    break;
+            }
+        }
+
+        // Default methods are invoked on the proxy, so routes invoked by them go through the current tier.
+        if (method.isDefault())
+            return (Object) this.defaultMethods.computeIfAbsent(method, TieredRouter::defaultMethod)
+                    .invokeExact(proxy, arguments);
+
+        throw new AbstractMethodError(method.toString());
+    }
+
+    private String getTier() {
+        if (this.promoted != null)
+            return "true";
+
+        return this.promotion.isCompletedExceptionally() ? "failed" : "false";
+    }
+
+    /**
+     * Generates the router in background and switches all routes to it.
+     */
+    private void promote() {
+        if (!this.promoting.compareAndSet(false, true))
+            return;
+
+        CompletableFuture.runAsync(() -> {
+            try {
+                Result<Object, GenerationException> generated = this.routerSpec.getBackend()
+                        .<Object>generate(this.routerSpec, this.classLoader, this.routeTable)
+                        .map(router -> (Object) router);
+
+                if (generated instanceof Result.Err<?, ?>) {
+                    this.fail(((Result.Err<Object, GenerationException>) generated).error());
+                } else {
+                    Object router = generated.successOrNull();
+
+                    for (Map.Entry<Method, TieredRoute> route : this.routes.entrySet()) {
+                        route.getValue().promoted = TieredRouter.bind(route.getKey(), router);
+                    }
+
+                    this.promoted = router;
+                    this.promotion.complete(router);
+                }
+            } catch (Throwable t) {
+                this.fail(t);
+            }
+        });
+    }
+
+    /**
+     * Completes the promotion exceptionally with {@code failure} and reports it to the uncaught exception handler of
+     * current thread, without failing the interpreted tier.
+     */
+    private void fail(Throwable failure) {
+        this.promotion.completeExceptionally(failure);
+
+        Thread thread = Thread.currentThread();
+        thread.getUncaughtExceptionHandler().uncaughtException(thread, failure);
+    }
+
+    /**
+     * Binds route {@code method} to {@code router}, typed {@code (Object[])Object}.
+     */
+    private static MethodHandle bind(Method method, Object router) throws IllegalAccessException {
+        MethodHandle handle = MethodHandles.publicLookup().unreflect(method).bindTo(router);
+
+        return handle
+                .asType(handle.type().generic())
+                .asSpreader(Object[].class, method.getParameterCount());
+    }
+
+    /**
+     * Creates the handle which invokes default {@code method} body, typed {@code (Object, Object[])Object}.
+     */
+    private static MethodHandle defaultMethod(Method method) {
+        Class<?> declaringClass = method.getDeclaringClass();
+
+        try {
+            MethodHandle handle = TieredRouter.privateLookupIn(declaringClass).unreflectSpecial(method, declaringClass);
+
+            return handle
+                    .asType(handle.type().generic())
+                    .asSpreader(Object[].class, method.getParameterCount());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(String.format("Cannot invoke default method: %s.", method), e);
+        }
+    }
+
+    /**
+     * Gets a lookup with private access to {@code type}, which is required to invoke default methods of interfaces on a
+     * proxy, through {@code MethodHandles.privateLookupIn} when available (Java 9+).
+     */
+    private static MethodHandles.Lookup privateLookupIn(Class<?> type) throws ReflectiveOperationException {
+        try {
+            Method privateLookupIn = MethodHandles.class.getMethod("privateLookupIn",
+                    Class.class, MethodHandles.Lookup.class);
+
+            return (MethodHandles.Lookup) privateLookupIn.invoke(null, type, MethodHandles.lookup());
+        } catch (NoSuchMethodException e) {
+            Constructor<MethodHandles.Lookup> constructor =
+                    MethodHandles.Lookup.class.getDeclaredConstructor(Class.class, Integer.TYPE);
+
+            constructor.setAccessible(true);
+            return constructor.newInstance(type, MethodHandles.Lookup.PRIVATE);
+        }
+    }
+
+    private static final class TieredRoute {
+        private final RouteSpec routeSpec;
+        private final AtomicInteger invocations = new AtomicInteger();
+
+        /**
+         * Interpreted route, linked on first invocation.
+         */
+        private volatile InterpretedRoute interpreted;
+
+        /**
+         * Route method of promoted router, typed {@code (Object[])Object}, {@code null} while interpreted.
+         */
+        private volatile MethodHandle promoted;
+
+        TieredRoute(RouteSpec routeSpec) {
+            this.routeSpec = routeSpec;
+        }
+    }
+
+    private static final class InterpretedRoute {
+        private final HandleRouteLink link;
+
+        /**
+         * Invocation of the link spread over the proxy arguments, typed {@code (Object[])Result}.
+         */
+        private final MethodHandle invocation;
+
+        InterpretedRoute(HandleRouteLink link) {
+            MethodHandle invocation = link.getInvocation();
+
+            this.link = link;
+            this.invocation = invocation
+                    .asType(invocation.type().generic().changeReturnType(Result.class))
+                    .asSpreader(Object[].class, invocation.type().parameterCount());
+        }
+
+        @SuppressWarnings("unchecked")
+        Supplier<Result<Object, RoutingException>> invoker(Object[] arguments) {
+            return () -> {
+                try {
+                    return (Result<Object, RoutingException>) this.invocation.invokeExact(arguments);
+                } catch (Throwable t) {
+                    return Result.error(new RoutingException(t));
+                }
+            };
+        }
+    }
+}
@@ -43,4 +43,11 @@ public class RoutingException extends RuntimeException {
     public RoutingException(Throwable cause) {
         super(cause);
     }
+
+    protected RoutingException(String message,
+                               Throwable cause,
+                               boolean enableSuppression,
+                               boolean writableStackTrace) {
+        super(message, cause, enableSuppression, writableStackTrace);
+    }
 }
@@ -0,0 +1,227 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.gen;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Applies {@link GenerationProfile#PRODUCTION} profile to generated classes: strips debug information (line numbers,
+ * local variable tables, parameter names and source file) and removes synthetic route methods ({@code $resultHandler},
+ * {@code $completableFutureFactory}, etc) which are identical to another synthetic method, redirecting all references to
+ * the remaining one.
+ *
+ * Synthetic methods which invokes other synthetic methods only become identical after their callees are deduplicated,
+ * so deduplication runs until no new duplicates are found.
+ */
+final class BytecodeCompactor {
+
+    private BytecodeCompactor() {
+    }
+
+    /**
+     * Compacts {@code bytecode}.
+     *
+     * @param bytecode Class bytes.
+     * @return Compacted class.
+     */
+    static Compacted compact(byte[] bytecode) {
+        ClassReader reader = new ClassReader(bytecode);
+        String className = reader.getClassName();
+        Map<String, String> renames = new HashMap<>();
+
+        int previous;
+
+        do {
+            previous = renames.size();
+            reader.accept(new Fingerprinter(className, renames), ClassReader.SKIP_DEBUG);
+        } while (renames.size() != previous);
+
+        ClassWriter writer = new ClassWriter(0);
+        reader.accept(new Compactor(writer, className, renames), ClassReader.SKIP_DEBUG);
+
+        return new Compacted(writer.toByteArray(), renames.size());
+    }
+
+    /**
+     * Checks whether {@code bytecode} has line numbers or local variable tables.
+     *
+     * @param bytecode Class bytes.
+     * @return Whether {@code bytecode} has line numbers or local variable tables.
+     */
+    static boolean hasDebugInformation(byte[] bytecode) {
+        boolean[] found = new boolean[1];
+
+        new ClassReader(bytecode).accept(new ClassVisitor(Opcodes.ASM6) {
+            @Override
+            public MethodVisitor visitMethod(int access, String name, String desc, String signature, String[] exceptions) {
+                return new MethodVisitor(Opcodes.ASM6) {
+                    @Override
+                    public void visitLineNumber(int line, Label start) {
+                        found[0] = true;
+                    }
+
+                    @Override
+                    public void visitLocalVariable(String name, String desc, String signature, Label start, Label end,
+                                                   int index) {
+                        found[0] = true;
+                    }
+                };
+            }
+        }, ClassReader.SKIP_FRAMES);
+
+        return found[0];
+    }
+
+    private static boolean isCandidate(int access, String name) {
+        return (access & Opcodes.ACC_SYNTHETIC) != 0 && name.startsWith("$");
+    }
+
+    static final class Compacted {
+        final byte[] bytecode;
+        final int deduplicatedMethods;
+
+        Compacted(byte[] bytecode, int deduplicatedMethods) {
+            this.bytecode = bytecode;
+            this.deduplicatedMethods = deduplicatedMethods;
+        }
+    }
+
+    /**
+     * Computes fingerprints of candidate methods, with current renames applied, and registers a new rename for each
+     * method which fingerprint was already seen.
+     */
+    private static final class Fingerprinter extends ClassVisitor {
+        private final String className;
+        private final Map<String, String> renames;
+        private final Map<ByteBuffer, String> fingerprints = new HashMap<>();
+
+        Fingerprinter(String className, Map<String, String> renames) {
+            super(Opcodes.ASM6);
+            this.className = className;
+            this.renames = renames;
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String desc, String signature, String[] exceptions) {
+            if (!isCandidate(access, name) || this.renames.containsKey(name + desc))
+                return null;
+
+            ClassWriter scratch = new ClassWriter(0);
+            scratch.visit(Opcodes.V1_8, 0, this.className, null, "java/lang/Object", null);
+
+            MethodVisitor mv = scratch.visitMethod(access, "m", desc, signature, exceptions);
+
+            return new RenamingMethodVisitor(mv, this.className, this.renames) {
+                @Override
+                public void visitEnd() {
+                    super.visitEnd();
+                    scratch.visitEnd();
+
+                    String canonical = Fingerprinter.this.fingerprints
+                            .putIfAbsent(ByteBuffer.wrap(scratch.toByteArray()), name);
+
+                    if (canonical != null)
+                        Fingerprinter.this.renames.put(name + desc, canonical);
+                }
+            };
+        }
+    }
+
+    /**
+     * Removes renamed methods and redirects references to them.
+     */
+    private static final class Compactor extends ClassVisitor {
+        private final String className;
+        private final Map<String, String> renames;
+
+        Compactor(ClassVisitor cv, String className, Map<String, String> renames) {
+            super(Opcodes.ASM6, cv);
+            this.className = className;
+            this.renames = renames;
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String desc, String signature, String[] exceptions) {
+            if (this.renames.containsKey(name + desc))
+                return null;
+
+            return new RenamingMethodVisitor(super.visitMethod(access, name, desc, signature, exceptions),
+                    this.className, this.renames);
+        }
+    }
+
+    private static class RenamingMethodVisitor extends MethodVisitor {
+        private final String className;
+        private final Map<String, String> renames;
+
+        RenamingMethodVisitor(MethodVisitor mv, String className, Map<String, String> renames) {
+            super(Opcodes.ASM6, mv);
+            this.className = className;
+            this.renames = renames;
+        }
+
+        private String rename(String owner, String name, String desc) {
+            return this.className.equals(owner) ? this.renames.getOrDefault(name + desc, name) : name;
+        }
+
+        @Override
+        public void visitParameter(String name, int access) {
+        }
+
+        @Override
+        public void visitMethodInsn(int opcode, String owner, String name, String desc, boolean itf) {
+            super.visitMethodInsn(opcode, owner, this.rename(owner, name, desc), desc, itf);
+        }
+
+        @Override
+        public void visitInvokeDynamicInsn(String name, String desc, Handle bsm, Object... bsmArgs) {
+            Object[] args = bsmArgs.clone();
+
+            for (int i = 0; i < args.length; i++) {
+                if (args[i] instanceof Handle) {
+                    Handle handle = (Handle) args[i];
+                    args[i] = new Handle(handle.getTag(), handle.getOwner(),
+                            this.rename(handle.getOwner(), handle.getName(), handle.getDesc()),
+                            handle.getDesc(), handle.isInterface());
+                }
+            }
+
+            super.visitInvokeDynamicInsn(name, desc, bsm, args);
+        }
+    }
+}
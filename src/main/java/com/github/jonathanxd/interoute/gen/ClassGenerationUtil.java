@@ -30,6 +30,7 @@ package com.github.jonathanxd.interoute.gen;
 import com.github.jonathanxd.interoute.backend.InterouteBackend;
 import com.github.jonathanxd.interoute.backend.InterouteBackendConfiguration;
 import com.github.jonathanxd.interoute.exception.FactoryException;
+import com.github.jonathanxd.interoute.route.RouteTable;
 import com.github.jonathanxd.iutils.collection.Collections3;
 import com.github.jonathanxd.iutils.object.result.Result;
 import com.github.jonathanxd.kores.base.ClassDeclaration;
@@ -40,8 +41,13 @@ import com.github.jonathanxd.kores.bytecode.classloader.CodeClassLoader;
 import com.github.jonathanxd.kores.bytecode.processor.BytecodeGenerator;
 import com.github.jonathanxd.kores.bytecode.util.ClassSaveUtilKt;
 
+import org.objectweb.asm.ClassReader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
@@ -54,14 +60,18 @@ public final class ClassGenerationUtil {
     private static final MethodHandles.Lookup lookup = MethodHandles.publicLookup();
 
     /**
-     * Generates {@link BytecodeClass bytecode classes} from {@code classDeclaration}.
+     * Generates {@link BytecodeClass bytecode classes} from {@code classDeclaration}. Classes are always generated with
+     * debug information, which is stripped when they are loaded with {@link GenerationProfile#PRODUCTION} profile, so the
+     * {@link RouterClassReport report} of loaded classes compares the same generated bytes for both profiles.
      *
      * @param classDeclaration Class declaration to generate bytecode classes.
      * @return Generated bytecode classes.
      */
     public static List<BytecodeClass> generate(ClassDeclaration classDeclaration) {
         BytecodeGenerator bytecodeGenerator = new BytecodeGenerator(named -> named.getName() + ".interoute");
+
         bytecodeGenerator.getOptions().set(BytecodeOptions.VISIT_LINES, VisitLineType.GEN_LINE_INSTRUCTION);
+
         return bytecodeGenerator.process(classDeclaration);
     }
 
@@ -69,13 +79,35 @@ public final class ClassGenerationUtil {
      * Load {@link BytecodeClass bytecode classes} with a child classloader parenting to {@code classLoader} or directly into
      * {@code classLoader} if it is a {@link CodeClassLoader}.
      *
+     * When {@code profile} is {@link GenerationProfile#PRODUCTION}, classes are compacted and loaded with a {@link
+     * RouterClassLoader} parenting to {@code classLoader} instead.
+     *
      * @param bytecodeClasses Classes to load.
      * @param classLoader     Parent loader or {@link CodeClassLoader loader} to use.
+     * @param profile         Generation profile.
      * @param <T>             Expected class type.
      * @return Loaded class instance.
      */
     @SuppressWarnings("unchecked")
-    public static <T> Class<? extends T> load(List<BytecodeClass> bytecodeClasses, ClassLoader classLoader) {
+    public static <T> Class<? extends T> load(List<BytecodeClass> bytecodeClasses,
+                                              ClassLoader classLoader,
+                                              GenerationProfile profile) {
+        if (profile == GenerationProfile.PRODUCTION) {
+            RouterClassLoader loader = new RouterClassLoader(classLoader);
+            Class<?> mainClass = null;
+
+            for (BytecodeClass bytecodeClass : bytecodeClasses) {
+                byte[] bytecode = bytecodeClass.getBytecode();
+                String name = new ClassReader(bytecode).getClassName().replace('/', '.');
+                Class<?> loaded = ClassGenerationUtil.define(loader, name, bytecode, GenerationProfile.PRODUCTION);
+
+                if (mainClass == null)
+                    mainClass = loaded;
+            }
+
+            return (Class<? extends T>) mainClass;
+        }
+
         CodeClassLoader loader;
 
         if (classLoader == null) {
@@ -94,8 +126,110 @@ public final class ClassGenerationUtil {
             }
         }
 
+        Class<T> loaded = (Class<T>) loader.define(bytecodeClasses);
+
+        for (BytecodeClass bytecodeClass : bytecodeClasses) {
+            byte[] bytecode = bytecodeClass.getBytecode();
+            ClassReader reader = new ClassReader(bytecode);
+            String name = reader.getClassName().replace('/', '.');
+
+            if (name.equals(loaded.getName())) {
+                RouterClassReport.register(loaded, new RouterClassReport(name, GenerationProfile.DEBUG,
+                        bytecode.length, reader.getItemCount(), bytecode.length, reader.getItemCount(), 0,
+                        BytecodeCompactor.hasDebugInformation(bytecode)));
+            }
+        }
+
+        return loaded;
+    }
+
+    /**
+     * Load {@link GenerationUtil#generateShardClass(String, int, java.lang.reflect.Type, java.lang.reflect.Type, List) shards} and the router
+     * class which extends them with a {@link RouterClassLoader} parenting to {@code classLoader}. Shards are defined
+     * in the provided order, so each shard must come after the shard it extends.
+     *
+     * @param shards      Shard classes.
+     * @param router      Router classes, the first one is the router class.
+     * @param classLoader Parent loader.
+     * @param profile     Generation profile.
+     * @param <T>         Expected class type.
+     * @return Loaded router class.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Class<? extends T> loadSharded(List<BytecodeClass> shards,
+                                                     List<BytecodeClass> router,
+                                                     ClassLoader classLoader,
+                                                     GenerationProfile profile) {
+        RouterClassLoader loader = new RouterClassLoader(classLoader);
+        Class<?> routerClass = null;
+
+        for (BytecodeClass bytecodeClass : Collections3.concat(shards, router)) {
+            byte[] bytecode = bytecodeClass.getBytecode();
+            String name = new ClassReader(bytecode).getClassName().replace('/', '.');
+            Class<?> loaded = ClassGenerationUtil.define(loader, name, bytecode, profile);
+
+            if (routerClass == null && bytecodeClass == router.get(0))
+                routerClass = loaded;
+        }
+
+        return (Class<? extends T>) routerClass;
+    }
+
+    /**
+     * Load class {@code name} from {@code bytes} with a {@link RouterClassLoader} parenting to {@code classLoader}.
+     *
+     * @param name        Binary name of the class.
+     * @param bytes       Bytecode of the class.
+     * @param classLoader Parent loader.
+     * @param profile     Generation profile.
+     * @param <T>         Expected class type.
+     * @return Loaded class instance.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Class<? extends T> load(String name, byte[] bytes, ClassLoader classLoader, GenerationProfile profile) {
+        return (Class<? extends T>) ClassGenerationUtil.define(new RouterClassLoader(classLoader), name, bytes, profile);
+    }
+
+    /**
+     * Applies {@code profile} to {@code bytes}, defines the class in {@code loader} and registers its
+     * {@link RouterClassReport report}.
+     *
+     * @param loader  Loader to define class.
+     * @param name    Binary name of the class.
+     * @param bytes   Bytecode of the class.
+     * @param profile Generation profile.
+     * @return Defined class.
+     */
+    private static Class<?> define(RouterClassLoader loader, String name, byte[] bytes, GenerationProfile profile) {
+        ClassReader original = new ClassReader(bytes);
+        byte[] bytecode = bytes;
+        int deduplicatedMethods = 0;
+
+        if (profile == GenerationProfile.PRODUCTION) {
+            BytecodeCompactor.Compacted compacted = BytecodeCompactor.compact(bytes);
+            bytecode = compacted.bytecode;
+            deduplicatedMethods = compacted.deduplicatedMethods;
+        }
+
+        if (SAVE_PATH != null) {
+            Path path = Paths.get(SAVE_PATH, name.replace('.', '/') + ".class");
+
+            try {
+                Files.createDirectories(path.getParent());
+                Files.write(path, bytecode);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        Class<?> defined = loader.define(name, bytecode);
+
+        RouterClassReport.register(defined, new RouterClassReport(name, profile,
+                bytes.length, original.getItemCount(),
+                bytecode.length, new ClassReader(bytecode).getItemCount(),
+                deduplicatedMethods, BytecodeCompactor.hasDebugInformation(bytecode)));
 
-        return (Class<T>) loader.define(bytecodeClasses);
+        return defined;
     }
 
     /**
@@ -121,7 +255,8 @@ public final class ClassGenerationUtil {
     }
 
     /**
-     * Creates {@link T router instance} with {@code backend} and {@code configuration} as constructor arguments.
+     * Creates {@link T router instance} with {@code backend}, {@code configuration} and {@code routeTable} as constructor
+     * arguments.
      *
      * @param clazz Router implementation class.
      * @param <T>   Router type.
@@ -129,11 +264,12 @@ public final class ClassGenerationUtil {
      */
     @SuppressWarnings("unchecked")
     public static <T> Result<T, FactoryException> create(Class<T> clazz, InterouteBackend<?> backend,
-                                                         InterouteBackendConfiguration configuration) {
+                                                         InterouteBackendConfiguration configuration,
+                                                         RouteTable routeTable) {
         return ClassGenerationUtil.create(
                 clazz,
-                Collections3.listOf(InterouteBackend.class, InterouteBackendConfiguration.class),
-                Collections3.listOf(backend, configuration)
+                Collections3.listOf(InterouteBackend.class, InterouteBackendConfiguration.class, RouteTable.class),
+                Collections3.listOf(backend, configuration, routeTable)
         );
     }
 }
@@ -0,0 +1,72 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.gen;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Locale;
+
+/**
+ * Profile of generated router classes, selected per router by {@link
+ * com.github.jonathanxd.interoute.backend.InterouteBackendConfiguration#getGenerationProfile() backend configuration}.
+ *
+ * The {@link #getDefault() default profile} is read from {@code interoute.generation.profile} system property ({@code
+ * debug} or {@code production}), defaulting to {@link #DEBUG}.
+ */
+public enum GenerationProfile {
+    /**
+     * Keeps line numbers, local variable tables and parameter names in generated classes.
+     */
+    DEBUG,
+
+    /**
+     * Strips line numbers, local variable tables and parameter names from generated classes and deduplicates identical
+     * synthetic route methods.
+     */
+    PRODUCTION;
+
+    /**
+     * Gets the default generation profile, which is the profile named by {@code interoute.generation.profile} system
+     * property, or {@link #DEBUG} if the property is not set or does not name a profile.
+     *
+     * @return Default generation profile.
+     */
+    @NotNull
+    public static GenerationProfile getDefault() {
+        String name = System.getProperty("interoute.generation.profile");
+
+        if (name != null) {
+            for (GenerationProfile profile : GenerationProfile.values()) {
+                if (profile.name().equals(name.toUpperCase(Locale.ROOT)))
+                    return profile;
+            }
+        }
+
+        return GenerationProfile.DEBUG;
+    }
+}
@@ -31,7 +31,10 @@ import com.github.jonathanxd.interoute.backend.InterouteBackend;
 import com.github.jonathanxd.interoute.backend.InterouteBackendConfiguration;
 import com.github.jonathanxd.interoute.route.MethodTypeSpecOrigin;
 import com.github.jonathanxd.interoute.route.Route;
+import com.github.jonathanxd.interoute.route.RouteEntry;
+import com.github.jonathanxd.interoute.route.RouteTable;
 import com.github.jonathanxd.interoute.route.Router;
+import com.github.jonathanxd.interoute.util.ArgumentKey;
 import com.github.jonathanxd.iutils.collection.Collections3;
 import com.github.jonathanxd.kores.Instruction;
 import com.github.jonathanxd.kores.Instructions;
@@ -72,6 +75,14 @@ import kotlin.text.StringsKt;
 
 public final class GenerationUtil {
 
+    /**
+     * Default maximum amount of route implementations in a single generated class, routers with more routes are split
+     * across {@link #generateShardClass(String, int, Type, Type, List) shard classes}.
+     *
+     * @see com.github.jonathanxd.interoute.backend.InterouteBackendConfiguration#getShardSize()
+     */
+    public static final int DEFAULT_SHARD_SIZE = 256;
+
     /**
      * Creates a standard common router class, model:
      * <pre>
@@ -79,10 +90,13 @@ public final class GenerationUtil {
      *     public class StandardRouter implementes Router, [routerInterface] {
      *         private final InterouteBackend backend;
      *         private final InterouteBackendConfiguration backendConfiguration;
+     *         private final RouteTable routeTable;
      *
-     *         public StandardRouter(InterouteBackend backend, InterouteBackendConfiguration backendConfiguration) {
+     *         public StandardRouter(InterouteBackend backend, InterouteBackendConfiguration backendConfiguration,
+     *                               RouteTable routeTable) {
      *             this.backend = backend;
      *             this.backendConfiguration = backendConfiguration;
+     *             this.routeTable = routeTable;
      *         }
      *
      *         public InterouteBackend getBackend() {
@@ -92,6 +106,10 @@ public final class GenerationUtil {
      *         public InterouteBackendConfiguration getBackendConfiguration() {
      *             return this.backendConfiguration;
      *         }
+     *
+     *         public RouteTable getRouteTable() {
+     *             return this.routeTable;
+     *         }
      *     }
      *     }
      * </pre>
@@ -105,6 +123,49 @@ public final class GenerationUtil {
                 .methods(GenerationUtil.methods());
     }
 
+    /**
+     * Creates a shard class of a router class, which holds a subset of route implementations, model:
+     * <pre>
+     *     {@code
+     *     public abstract class StandardRouter$Shard[index] extends [superClass] implements Router, [routerInterface] {
+     *         public StandardRouter$Shard[index]() {
+     *         }
+     *
+     *         [methods]
+     *     }
+     *     }
+     * </pre>
+     *
+     * Shards of a router are chained through inheritance and the router class extends the last shard, so route
+     * implementations are inherited by the router class, and invocations of {@link Router} getters inside of route
+     * implementations are dispatched to the router class. Shards are abstract implementations of the router interface,
+     * so route implementations override the origin methods in the shard which declares them.
+     *
+     * @param routerName      Name of the router class.
+     * @param index           Index of the shard.
+     * @param routerInterface Router interface.
+     * @param superClass      Previous shard or {@code null} if this is the first shard.
+     * @param methods         Route implementations of the shard.
+     * @return Shard class declaration.
+     */
+    public static ClassDeclaration generateShardClass(String routerName,
+                                                      int index,
+                                                      Type routerInterface,
+                                                      Type superClass,
+                                                      List<MethodDeclaration> methods) {
+        ClassDeclaration.Builder builder = ClassDeclaration.Builder.builder()
+                .modifiers(KoresModifier.PUBLIC, KoresModifier.ABSTRACT, KoresModifier.SYNTHETIC)
+                .specifiedName(routerName + "$Shard" + index)
+                .implementations(routerInterface, Router.class)
+                .constructors(ConstructorDeclaration.Builder.builder()
+                        .publicModifier()
+                        .body(Instructions.fromVarArgs())
+                        .build())
+                .methods(methods);
+
+        return superClass != null ? builder.superClass(superClass).build() : builder.build();
+    }
+
     /**
      * Gets the name of {@code routeSpec} origin method.
      *
@@ -321,7 +382,8 @@ public final class GenerationUtil {
     private static List<VariableRef> getProperties() {
         return Collections3.listOf(
                 GenerationUtil.backendProperty(),
-                GenerationUtil.backendConfigurationProperty()
+                GenerationUtil.backendConfigurationProperty(),
+                GenerationUtil.routeTableProperty()
         );
     }
 
@@ -343,6 +405,68 @@ public final class GenerationUtil {
         return new VariableRef(InterouteBackendConfiguration.class, "backendConfiguration");
     }
 
+    /**
+     * Gets the route table property.
+     *
+     * @return Route table property.
+     */
+    public static VariableRef routeTableProperty() {
+        return new VariableRef(RouteTable.class, "routeTable");
+    }
+
+    /**
+     * Invokes the getter of {@link #routeTableProperty() route table} and gets the route with {@code routeId}.
+     *
+     * @param routeId Route id.
+     * @return Instruction which gets the {@link RouteEntry route} with {@code routeId}.
+     */
+    public static Instruction getRoute(int routeId) {
+        return InvocationFactory.invokeVirtual(
+                RouteTable.class,
+                Factories.cast(Object.class, RouteTable.class,
+                        GenerationUtil.invokeOptionalGet(GenerationUtil.invokeOptionalGetter(GenerationUtil.routeTableProperty()))),
+                "getRoute",
+                Factories.typeSpec(RouteEntry.class, Integer.TYPE),
+                Collections.singletonList(Literals.INT(routeId))
+        );
+    }
+
+    /**
+     * Creates instruction which constructs the {@link ArgumentKey} of {@code variables}, primitive variables are added
+     * with the overload of their own type, so they are not boxed, example: <br/>
+     * <pre>
+     *     {@code
+     *     new ArgumentKey(1, 1).add(a).add(b)
+     *     }
+     * </pre>
+     *
+     * @param variables Route arguments.
+     * @return Instruction which constructs the {@link ArgumentKey} of {@code variables}.
+     */
+    public static Instruction createArgumentKey(List<VariableRef> variables) {
+        int primitives = (int) variables.stream().filter(variable -> ImplicitKoresType.isPrimitive(variable.getType())).count();
+
+        Instruction key = InvocationFactory.invokeConstructor(
+                ArgumentKey.class,
+                Factories.constructorTypeSpec(Integer.TYPE, Integer.TYPE),
+                Collections3.listOf(Literals.INT(primitives), Literals.INT(variables.size() - primitives))
+        );
+
+        for (VariableRef variable : variables) {
+            Type type = ImplicitKoresType.isPrimitive(variable.getType()) ? variable.getType() : Object.class;
+
+            key = InvocationFactory.invokeVirtual(
+                    ArgumentKey.class,
+                    key,
+                    "add",
+                    Factories.typeSpec(ArgumentKey.class, type),
+                    Collections.singletonList(Factories.accessVariable(variable))
+            );
+        }
+
+        return key;
+    }
+
     /**
      * Creates declaration of getter of {@code variableRef}
      *
@@ -27,10 +27,27 @@
  */
 package com.github.jonathanxd.interoute.gen;
 
+import com.github.jonathanxd.interoute.annotation.Batched;
+import com.github.jonathanxd.interoute.annotation.Cached;
+import com.github.jonathanxd.interoute.annotation.Cancellable;
+import com.github.jonathanxd.interoute.annotation.CircuitBreaker;
+import com.github.jonathanxd.interoute.annotation.Coalesced;
+import com.github.jonathanxd.interoute.annotation.Hedged;
+import com.github.jonathanxd.interoute.annotation.Limited;
+import com.github.jonathanxd.interoute.annotation.RouterInterface;
+import com.github.jonathanxd.interoute.annotation.Timeout;
+import com.github.jonathanxd.interoute.exception.GenerationException;
 import com.github.jonathanxd.interoute.exception.RoutingException;
+import com.github.jonathanxd.interoute.route.Deadline;
 import com.github.jonathanxd.interoute.route.Destination;
 import com.github.jonathanxd.interoute.route.Origin;
+import com.github.jonathanxd.interoute.route.RouteEntry;
+import com.github.jonathanxd.interoute.route.Router;
+import com.github.jonathanxd.interoute.route.Routes;
 import com.github.jonathanxd.interoute.route.SuppliedExecutorRoute;
+import com.github.jonathanxd.interoute.route.batch.RouteBatcher;
+import com.github.jonathanxd.interoute.route.cancel.CancellableTask;
+import com.github.jonathanxd.interoute.util.ArgumentKey;
 import com.github.jonathanxd.iutils.collection.Collections3;
 import com.github.jonathanxd.iutils.object.result.Result;
 import com.github.jonathanxd.kores.Instruction;
@@ -51,14 +68,19 @@ import com.github.jonathanxd.kores.factory.DynamicInvocationFactory;
 import com.github.jonathanxd.kores.factory.Factories;
 import com.github.jonathanxd.kores.factory.InvocationFactory;
 import com.github.jonathanxd.kores.factory.VariableFactory;
+import com.github.jonathanxd.kores.literal.Literals;
 import com.github.jonathanxd.kores.type.Generic;
 import com.github.jonathanxd.kores.type.ImplicitKoresType;
 
+import org.jetbrains.annotations.Nullable;
+
 import java.lang.reflect.Type;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -81,35 +103,278 @@ public final class RouteGenerationUtil {
                                                           Instruction invocation,
                                                           Instruction destination,
                                                           RouteSpec routeSpec) {
+        return RouteGenerationUtil.createSuppliedExecutorRoute(variables, invocation, null, null, destination, routeSpec);
+    }
+
+    /**
+     * Creates the {@link SuppliedExecutorRoute} which will be returned by the routing method, acquiring {@code resource}
+     * before every {@code invocation} and releasing it afterwards, and executing the route in {@code executor}.
+     *
+     * @param variables   Variables to be used in the supplier.
+     * @param invocation  Route invocation instruction.
+     * @param resource    Resource to acquire for every invocation, or {@code null} if there is none.
+     * @param executor    Instruction which retrieves the executor of the route, or {@code null} to use the common pool.
+     * @param destination {@link Destination} creation or retrieval instruction.
+     * @param routeSpec   Route specification.
+     * @return {@link SuppliedExecutorRoute} which will be returned by the routing method.
+     */
+    public static Instruction createSuppliedExecutorRoute(List<VariableRef> variables,
+                                                          Instruction invocation,
+                                                          @Nullable RouteResource resource,
+                                                          @Nullable Instruction executor,
+                                                          Instruction destination,
+                                                          RouteSpec routeSpec) {
+        return RouteGenerationUtil.createSuppliedExecutorRoute(
+                RouteGenerationUtil.generateSupplier(variables, invocation, resource, executor,
+                        RouteGenerationUtil.getCancellable(routeSpec)),
+                executor == null ? RouteGenerationUtil.asyncSupplyLambda(variables, invocation, resource) : null,
+                destination,
+                routeSpec
+        );
+    }
+
+    /**
+     * Creates the {@link SuppliedExecutorRoute} which will be returned by the routing method, with {@code supplier} as
+     * supplier of route future.
+     *
+     * @param supplier    Supplier of route future.
+     * @param destination {@link Destination} creation or retrieval instruction.
+     * @param routeSpec   Route specification.
+     * @return {@link SuppliedExecutorRoute} which will be returned by the routing method.
+     */
+    public static Instruction createSuppliedExecutorRoute(Instruction supplier,
+                                                          Instruction destination,
+                                                          RouteSpec routeSpec) {
+        return RouteGenerationUtil.createSuppliedExecutorRoute(supplier, null, destination, routeSpec);
+    }
+
+    /**
+     * Creates the {@link SuppliedExecutorRoute} which will be returned by the routing method, with {@code supplier} as
+     * supplier of route future and {@code invoker} as supplier of route result in the calling thread.
+     *
+     * @param supplier    Supplier of route future.
+     * @param invoker     Supplier of route result, or {@code null} if the route cannot execute in the calling thread.
+     * @param destination {@link Destination} creation or retrieval instruction.
+     * @param routeSpec   Route specification.
+     * @return {@link SuppliedExecutorRoute} which will be returned by the routing method.
+     */
+    public static Instruction createSuppliedExecutorRoute(Instruction supplier,
+                                                          @Nullable Instruction invoker,
+                                                          Instruction destination,
+                                                          RouteSpec routeSpec) {
+        if (invoker == null) {
+            return InvocationFactory.invokeConstructor(
+                    SuppliedExecutorRoute.class,
+                    Factories.constructorTypeSpec(Origin.class, Destination.class, Supplier.class),
+                    Collections3.listOf(
+                            GenerationUtil.createMethodTypeSpecOrigin(routeSpec),
+                            destination,
+                            supplier
+                    )
+            );
+        }
+
         return InvocationFactory.invokeConstructor(
                 SuppliedExecutorRoute.class,
-                Factories.constructorTypeSpec(Origin.class, Destination.class, Supplier.class),
+                Factories.constructorTypeSpec(Origin.class, Destination.class, Supplier.class, Supplier.class),
+                Collections3.listOf(
+                        GenerationUtil.createMethodTypeSpecOrigin(routeSpec),
+                        destination,
+                        supplier,
+                        invoker
+                )
+        );
+    }
+
+    /**
+     * Creates the {@link SuppliedExecutorRoute#direct(Origin, Destination, Supplier) direct route} which will be returned
+     * by the routing method, with {@code invoker} as supplier of route result in the calling thread.
+     *
+     * @param invoker     Supplier of route result.
+     * @param destination {@link Destination} creation or retrieval instruction.
+     * @param routeSpec   Route specification.
+     * @return {@link SuppliedExecutorRoute} which will be returned by the routing method.
+     */
+    public static Instruction createDirectRoute(Instruction invoker,
+                                                Instruction destination,
+                                                RouteSpec routeSpec) {
+        return InvocationFactory.invokeStatic(
+                SuppliedExecutorRoute.class,
+                "direct",
+                Factories.typeSpec(SuppliedExecutorRoute.class, Origin.class, Destination.class, Supplier.class),
                 Collections3.listOf(
                         GenerationUtil.createMethodTypeSpecOrigin(routeSpec),
                         destination,
-                        RouteGenerationUtil.generateSupplier(variables, invocation)
+                        invoker
+                )
+        );
+    }
+
+    /**
+     * Returns whether the destination method of {@code rootType}, which returns {@code returnType}, is a route method of
+     * a {@link Router router}. Invoking such method only creates the route, so routes to it are executed in the calling
+     * thread instead of being dispatched to an executor.
+     *
+     * @param rootType   Type of destination instance.
+     * @param returnType Return type of destination method.
+     * @return Whether the destination method is a route method of a {@link Router router} which returns a route.
+     */
+    public static boolean isRouterRoute(@Nullable Type rootType, Type returnType) {
+        if (!(rootType instanceof Class<?>) || ImplicitKoresType.is(returnType, Types.VOID))
+            return false;
+
+        Class<?> rootClass = (Class<?>) rootType;
+
+        return Router.class.isAssignableFrom(rootClass) || rootClass.isAnnotationPresent(RouterInterface.class);
+    }
+
+    /**
+     * Checks whether {@code rootType} declares the bulk method of route specified by {@code routeSpec}, if the route is
+     * {@link Batched batched}.
+     *
+     * @param routeSpec Route specification.
+     * @param rootType  Type of destination instance.
+     * @return Result with either {@code rootType} or the exception if {@code rootType} does not declare the bulk method.
+     */
+    public static Result<Type, GenerationException> checkBulkMethod(RouteSpec routeSpec, Type rootType) {
+        Optional<RouteSpecInfo<? extends Batched>> batched = routeSpec.getRouteSpecInfo(Batched.class);
+
+        if (!batched.isPresent() || !(rootType instanceof Class<?>))
+            return Result.ok(rootType);
+
+        String method = batched.get().getInstance().value();
+
+        if (!RouteBatcher.findBulkMethod((Class<?>) rootType, method).isPresent())
+            return Result.error(new GenerationException(String.format("Missing bulk method '%s' in '%s' of batched route: %s.",
+                    method, rootType.getTypeName(), routeSpec)));
+
+        return Result.ok(rootType);
+    }
+
+    /**
+     * Creates the supplier which submits the route execution to the {@link RouteBatcher batcher} of route with {@code
+     * routeId}, example: <br/>
+     * <pre>
+     *     {@code
+     *     this.getRouteTable().get().getRoute([routeId]).getBatcher().get().supplier([instance], new Object[]{a, b})
+     *     }
+     * </pre>
+     *
+     * @param routeId   Route id.
+     * @param instance  Instruction which retrieves the destination instance.
+     * @param variables Route arguments.
+     * @return Supplier which submits the route execution to the batcher of the route.
+     */
+    public static Instruction batchedSupplier(int routeId, Instruction instance, List<VariableRef> variables) {
+        return InvocationFactory.invokeVirtual(
+                RouteBatcher.class,
+                Factories.cast(Object.class, RouteBatcher.class, GenerationUtil.invokeOptionalGet(InvocationFactory.invokeVirtual(
+                        RouteEntry.class,
+                        GenerationUtil.getRoute(routeId),
+                        "getBatcher",
+                        Factories.typeSpec(Optional.class),
+                        Collections.emptyList()
+                ))),
+                "supplier",
+                Factories.typeSpec(Supplier.class, Object.class, Object[].class),
+                Collections3.listOf(
+                        instance,
+                        Factories.createArray(
+                                Object[].class,
+                                Collections.singletonList(Literals.INT(variables.size())),
+                                variables.stream()
+                                        .map(variable -> Factories.cast(variable.getType(), Object.class,
+                                                Factories.accessVariable(variable)))
+                                        .collect(Collectors.toList())
+                        )
                 )
         );
     }
 
+    /**
+     * Returns whether executions of route specified by {@code routeSpec} are {@link RouteEntry#isIntercepted()
+     * intercepted} by its route table entry.
+     *
+     * @param routeSpec Route specification.
+     * @return Whether executions of the route are intercepted.
+     */
+    public static boolean isIntercepted(RouteSpec routeSpec) {
+        return routeSpec.getRouteSpecInfo(Cached.class).isPresent()
+                || routeSpec.getRouteSpecInfo(Coalesced.class).isPresent()
+                || routeSpec.getRouteSpecInfo(Limited.class).isPresent()
+                || routeSpec.getRouteSpecInfo(Hedged.class).isPresent()
+                || routeSpec.getRouteSpecInfo(Timeout.class).isPresent()
+                || routeSpec.getRouteSpecInfo(CircuitBreaker.class).isPresent();
+    }
+
+    /**
+     * Gets the cancellation specification of the route specified by {@code routeSpec}.
+     *
+     * @param routeSpec Route specification.
+     * @return Cancellation specification of the route, or {@code null} if the route is not {@link Cancellable
+     * cancellable}.
+     */
+    @Nullable
+    public static Cancellable getCancellable(RouteSpec routeSpec) {
+        return routeSpec.getRouteSpecInfo(Cancellable.class)
+                .map(RouteSpecInfo::getInstance)
+                .orElse(null);
+    }
+
+    /**
+     * Wraps {@code supplier} into the {@link RouteEntry#supplier(ArgumentKey, Supplier) supplier} of the route table
+     * entry of route with {@code routeId}, keyed by {@code variables}, example: <br/>
+     * <pre>
+     *     {@code
+     *     this.getRouteTable().get().getRoute([routeId]).supplier(new ArgumentKey(...)..., [supplier])
+     *     }
+     * </pre>
+     *
+     * @param routeId   Route id.
+     * @param variables Route arguments.
+     * @param supplier  Supplier of route future.
+     * @return Supplier which executes the route through its route table entry.
+     */
+    public static Instruction interceptedSupplier(int routeId, List<VariableRef> variables, Instruction supplier) {
+        return InvocationFactory.invokeVirtual(
+                RouteEntry.class,
+                GenerationUtil.getRoute(routeId),
+                "supplier",
+                Factories.typeSpec(Supplier.class, ArgumentKey.class, Supplier.class),
+                Collections3.listOf(GenerationUtil.createArgumentKey(variables), supplier)
+        );
+    }
+
     /**
      * Creates the {@link Supplier} which creates the future that evaluates to {@link Result} of route {@code invocation}
      * execution.
      *
      * @param variables  Variables which lambda should have access to.
      * @param invocation Route invocation instruction.
+     * @param resource   Resource to acquire for every invocation, or {@code null} if there is none.
+     * @param executor    Instruction which retrieves the executor of the route, or {@code null} to use the common pool.
+     * @param cancellable Cancellation specification of the route, or {@code null} if the route is not cancellable.
      * @return {@link Supplier} which creates the future that evaluates to {@link Result} of route {@code invocation} execution.
      */
-    public static Instruction generateSupplier(List<VariableRef> variables, Instruction invocation) {
+    public static Instruction generateSupplier(List<VariableRef> variables,
+                                               Instruction invocation,
+                                               @Nullable RouteResource resource,
+                                               @Nullable Instruction executor,
+                                               @Nullable Cancellable cancellable) {
         return RouteGenerationUtil.generateSupplierWithVariableAccess(
                 CompletableFuture.class,
-                RouteGenerationUtil.completableFutureSupplier(variables, invocation),
+                RouteGenerationUtil.completableFutureSupplier(variables, invocation, resource, executor, cancellable),
                 variables
         );
     }
 
-    public static LocalCode completableFutureSupplier(List<VariableRef> variables, Instruction invocation) {
-        return RouteGenerationUtil.localCode(RouteGenerationUtil.completableFutureSupplierDeclaration(variables, invocation));
+    public static LocalCode completableFutureSupplier(List<VariableRef> variables,
+                                                      Instruction invocation,
+                                                      @Nullable RouteResource resource,
+                                                      @Nullable Instruction executor,
+                                                      @Nullable Cancellable cancellable) {
+        return RouteGenerationUtil.localCode(RouteGenerationUtil.completableFutureSupplierDeclaration(
+                variables, invocation, resource, executor, cancellable));
     }
 
     /**
@@ -124,15 +389,23 @@ public final class RouteGenerationUtil {
      *
      * @param variables  Variables which lambda should have access to.
      * @param invocation Route invocation instruction.
+     * @param resource   Resource to acquire for every invocation, or {@code null} if there is none.
+     * @param executor    Instruction which retrieves the executor of the route, or {@code null} to use the common pool.
+     * @param cancellable Cancellation specification of the route, or {@code null} if the route is not cancellable.
      * @return {@link MethodDeclaration method declaration} of the body of completable future supplier.
      */
-    public static MethodDeclaration completableFutureSupplierDeclaration(List<VariableRef> variables, Instruction invocation) {
+    public static MethodDeclaration completableFutureSupplierDeclaration(List<VariableRef> variables,
+                                                                         Instruction invocation,
+                                                                         @Nullable RouteResource resource,
+                                                                         @Nullable Instruction executor,
+                                                                         @Nullable Cancellable cancellable) {
         return RouteGenerationUtil.routePartSupplierDeclaration(
                 CompletableFuture.class,
                 "$completableFutureFactory",
                 variables,
                 Instructions.fromPart(Factories.returnValue(CompletableFuture.class,
-                        RouteGenerationUtil.completableFutureSupplyAsyncResult(variables, invocation)))
+                        RouteGenerationUtil.completableFutureSupplyAsyncResult(variables, invocation, resource, executor,
+                                cancellable)))
         );
     }
 
@@ -141,19 +414,64 @@ public final class RouteGenerationUtil {
      * <br/>
      * <pre>
      *     {@code
-     *     CompletableFuture.supplyAsync(...)
+     *     CompletableFuture.supplyAsync(Deadline.bind(...))
      *     }
      * </pre>
      *
+     * Routes with an executor are executed by {@link Routes#supplyAsync(Supplier, Executor)}, which completes executions
+     * rejected by the executor with a {@link com.github.jonathanxd.interoute.exception.RouteRejectedException} error.
+     *
+     * The supplier is {@link Deadline#bind(Supplier) bound} to the deadline of the thread which executes the route.
+     * {@link Cancellable Cancellable} routes are executed by a {@link CancellableTask} instead.
+     *
      * @param variables  Variables which lambda should have access to.
      * @param invocation Route invocation instruction.
+     * @param resource   Resource to acquire for every invocation, or {@code null} if there is none.
+     * @param executor    Instruction which retrieves the executor of the route, or {@code null} to use the common pool.
+     * @param cancellable Cancellation specification of the route, or {@code null} if the route is not cancellable.
      * @return Instruction which constructs the future which executes the route {@code invocation} instruction.
      */
-    public static Instruction completableFutureSupplyAsyncResult(List<VariableRef> variables, Instruction invocation) {
+    public static Instruction completableFutureSupplyAsyncResult(List<VariableRef> variables,
+                                                                 Instruction invocation,
+                                                                 @Nullable RouteResource resource,
+                                                                 @Nullable Instruction executor,
+                                                                 @Nullable Cancellable cancellable) {
+        Instruction supplier = InvocationFactory.invokeStatic(Deadline.class,
+                "bind",
+                Factories.typeSpec(Supplier.class, Supplier.class),
+                Collections.singletonList(RouteGenerationUtil.asyncSupplyLambda(variables, invocation, resource))
+        );
+
+        if (cancellable != null) {
+            Instruction interrupt = Literals.BOOLEAN(cancellable.interrupt());
+
+            if (executor != null) {
+                return InvocationFactory.invokeStatic(Routes.class,
+                        "supplyAsync",
+                        Factories.typeSpec(CompletableFuture.class, Supplier.class, Executor.class, Boolean.TYPE),
+                        Collections3.listOf(supplier, executor, interrupt)
+                );
+            }
+
+            return InvocationFactory.invokeStatic(CancellableTask.class,
+                    "supplyAsync",
+                    Factories.typeSpec(CancellableTask.class, Supplier.class, Boolean.TYPE),
+                    Collections3.listOf(supplier, interrupt)
+            );
+        }
+
+        if (executor != null) {
+            return InvocationFactory.invokeStatic(Routes.class,
+                    "supplyAsync",
+                    Factories.typeSpec(CompletableFuture.class, Supplier.class, Executor.class),
+                    Collections3.listOf(supplier, executor)
+            );
+        }
+
         return InvocationFactory.invokeStatic(CompletableFuture.class,
                 "supplyAsync",
                 Factories.typeSpec(CompletableFuture.class, Supplier.class),
-                Collections.singletonList(RouteGenerationUtil.asyncSupplyLambda(variables, invocation))
+                Collections.singletonList(supplier)
         );
     }
 
@@ -167,12 +485,15 @@ public final class RouteGenerationUtil {
      *
      * @param variables  Variables which lambda should have access to.
      * @param invocation Route invocation instruction.
+     * @param resource   Resource to acquire for every invocation, or {@code null} if there is none.
      * @return lambda of {@link CompletableFuture#supplyAsync(Supplier)}.
      */
-    public static Instruction asyncSupplyLambda(List<VariableRef> variables, Instruction invocation) {
+    public static Instruction asyncSupplyLambda(List<VariableRef> variables,
+                                                Instruction invocation,
+                                                @Nullable RouteResource resource) {
         return RouteGenerationUtil.generateSupplierWithVariableAccess(
                 Result.class,
-                RouteGenerationUtil.resultSupplier(variables, invocation),
+                RouteGenerationUtil.resultSupplier(variables, invocation, resource),
                 variables
         );
     }
@@ -183,11 +504,14 @@ public final class RouteGenerationUtil {
      *
      * @param variables  Variable which the method should have access to.
      * @param invocation Route invocation instruction.
+     * @param resource   Resource to acquire for every invocation, or {@code null} if there is none.
      * @return {@link LocalCode local code} of {@link com.github.jonathanxd.interoute.route.Route route} {@link Result result}
      * supplier.
      */
-    public static LocalCode resultSupplier(List<VariableRef> variables, Instruction invocation) {
-        return RouteGenerationUtil.localCode(RouteGenerationUtil.resultSupplierDeclaration(variables, invocation));
+    public static LocalCode resultSupplier(List<VariableRef> variables,
+                                           Instruction invocation,
+                                           @Nullable RouteResource resource) {
+        return RouteGenerationUtil.localCode(RouteGenerationUtil.resultSupplierDeclaration(variables, invocation, resource));
     }
 
     /**
@@ -203,14 +527,17 @@ public final class RouteGenerationUtil {
      *
      * @param variables  Variable which the method should have access to.
      * @param invocation Route invocation instruction.
+     * @param resource   Resource to acquire for every invocation, or {@code null} if there is none.
      * @return Declaration of route result supplier method.
      */
-    public static MethodDeclaration resultSupplierDeclaration(List<VariableRef> variables, Instruction invocation) {
+    public static MethodDeclaration resultSupplierDeclaration(List<VariableRef> variables,
+                                                              Instruction invocation,
+                                                              @Nullable RouteResource resource) {
         return RouteGenerationUtil.routePartSupplierDeclaration(
                 Result.class,
                 "$resultHandler",
                 variables,
-                Instructions.fromPart(RouteGenerationUtil.resultFactoryExpression(invocation))
+                RouteGenerationUtil.resultFactoryExpression(invocation, resource)
         );
     }
 
@@ -228,6 +555,44 @@ public final class RouteGenerationUtil {
      * </pre>
      */
     public static Instruction resultFactoryExpression(Instruction invocation) {
+        return RouteGenerationUtil.resultTryStatement(invocation).build();
+    }
+
+    /**
+     * Handle {@code invocation} exceptions and create {@link com.github.jonathanxd.interoute.route.Route route} {@link Result
+     * result}, acquiring {@code resource} before {@code invocation} and releasing it afterwards: <br/>
+     * <pre>
+     *     {@code
+     *     Object $instance = [acquire];
+     *     try {
+     *         Result.ok([invocation]);
+     *     } catch(Throwable t) {
+     *         Result.error(new RoutingException(t));
+     *     } finally {
+     *         [release($instance)];
+     *     }
+     *     }
+     * </pre>
+     */
+    public static Instructions resultFactoryExpression(Instruction invocation, @Nullable RouteResource resource) {
+        if (resource == null)
+            return Instructions.fromPart(RouteGenerationUtil.resultFactoryExpression(invocation));
+
+        VariableRef variable = resource.getVariable();
+
+        return Instructions.fromVarArgs(
+                VariableFactory.variable(variable.getType(), variable.getName(), resource.getAcquire()),
+                RouteGenerationUtil.resultTryStatement(invocation)
+                        .finallyStatement(Instructions.fromPart(resource.release(Factories.accessVariable(variable))))
+                        .build()
+        );
+    }
+
+    /**
+     * Creates the builder of try statement which handles {@code invocation} exceptions, see {@link
+     * #resultFactoryExpression(Instruction)}.
+     */
+    private static TryStatement.Builder resultTryStatement(Instruction invocation) {
         VariableRef exceptionVariable = new VariableRef(Throwable.class, "exception");
         return TryStatement.Builder.builder()
                 .body(RouteGenerationUtil.execute(invocation))
@@ -239,7 +604,7 @@ public final class RouteGenerationUtil {
                                         RouteGenerationUtil.resultRoutingException(Factories.accessVariable(exceptionVariable)))
                         ))
                         .build()
-                ).build();
+                );
     }
 
     /**
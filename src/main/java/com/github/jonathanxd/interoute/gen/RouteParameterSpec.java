@@ -34,6 +34,7 @@ import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 
 /**
  * Specification of parameters of {@link RouteSpec#getOrigin() route spec origin}.
@@ -51,10 +52,17 @@ public final class RouteParameterSpec {
     @NotNull
     private final List<RouteSpecInfo<?>> routeSpecInfos;
 
+    /**
+     * Index of parameter specifications by unification type.
+     */
+    @NotNull
+    private final RouteSpecInfoIndex routeSpecInfoIndex;
+
     public RouteParameterSpec(@NotNull KoresParameter parameter,
                               @NotNull List<RouteSpecInfo<?>> routeSpecInfos) {
         this.parameter = parameter;
         this.routeSpecInfos = routeSpecInfos;
+        this.routeSpecInfoIndex = RouteSpecInfoIndex.of(routeSpecInfos);
     }
 
     /**
@@ -79,6 +87,45 @@ public final class RouteParameterSpec {
         return this.routeSpecInfos;
     }
 
+    /**
+     * Gets the spec infos which {@link RouteSpecInfo#getInstance() unified instance} is instance of {@code
+     * unificationType}.
+     *
+     * @param unificationType Unification type.
+     * @param <T>             Unification type.
+     * @return Spec infos which unified instance is instance of {@code unificationType}.
+     */
+    @Contract(pure = true)
+    @NotNull
+    public <T> List<RouteSpecInfo<? extends T>> getRouteSpecInfos(@NotNull Class<T> unificationType) {
+        return this.routeSpecInfoIndex.get(unificationType);
+    }
+
+    /**
+     * Gets the first spec info which {@link RouteSpecInfo#getInstance() unified instance} is instance of {@code
+     * unificationType}.
+     *
+     * @param unificationType Unification type.
+     * @param <T>             Unification type.
+     * @return First spec info which unified instance is instance of {@code unificationType}.
+     */
+    @Contract(pure = true)
+    @NotNull
+    public <T> Optional<RouteSpecInfo<? extends T>> getRouteSpecInfo(@NotNull Class<T> unificationType) {
+        return this.routeSpecInfoIndex.getFirst(unificationType);
+    }
+
+    /**
+     * Gets the index of spec infos by unification type.
+     *
+     * @return Index of spec infos by unification type.
+     */
+    @Contract(pure = true)
+    @NotNull
+    public RouteSpecInfoIndex getRouteSpecInfoIndex() {
+        return this.routeSpecInfoIndex;
+    }
+
     @Contract(value = "null -> false", pure = true)
     @Override
     public boolean equals(Object o) {
@@ -0,0 +1,108 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.gen;
+
+import com.github.jonathanxd.kores.Instruction;
+import com.github.jonathanxd.kores.common.VariableRef;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.Function;
+
+/**
+ * Resource acquired before every route invocation and released after the invocation completes, example: <br/>
+ * <pre>
+ *     {@code
+ *     Object $instance = [acquire];
+ *     try {
+ *         ...
+ *     } finally {
+ *         [release($instance)];
+ *     }
+ *     }
+ * </pre>
+ */
+public final class RouteResource {
+
+    /**
+     * Variable which holds the acquired resource.
+     */
+    @NotNull
+    private final VariableRef variable;
+
+    /**
+     * Instruction which acquires the resource.
+     */
+    @NotNull
+    private final Instruction acquire;
+
+    /**
+     * Creates the instruction which releases the resource from the access to {@link #variable}.
+     */
+    @NotNull
+    private final Function<Instruction, Instruction> release;
+
+    public RouteResource(@NotNull VariableRef variable,
+                         @NotNull Instruction acquire,
+                         @NotNull Function<Instruction, Instruction> release) {
+        this.variable = variable;
+        this.acquire = acquire;
+        this.release = release;
+    }
+
+    /**
+     * Gets the variable which holds the acquired resource.
+     *
+     * @return Variable which holds the acquired resource.
+     */
+    @NotNull
+    public VariableRef getVariable() {
+        return this.variable;
+    }
+
+    /**
+     * Gets the instruction which acquires the resource.
+     *
+     * @return Instruction which acquires the resource.
+     */
+    @NotNull
+    public Instruction getAcquire() {
+        return this.acquire;
+    }
+
+    /**
+     * Creates the instruction which releases the acquired resource.
+     *
+     * @param resource Access to the acquired resource.
+     * @return Instruction which releases the acquired resource.
+     */
+    @NotNull
+    public Instruction release(@NotNull Instruction resource) {
+        return this.release.apply(resource);
+    }
+}
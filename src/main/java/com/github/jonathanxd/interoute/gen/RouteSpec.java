@@ -31,11 +31,14 @@ import com.github.jonathanxd.kores.base.MethodDeclaration;
 
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 
 /**
  * Specification of {@link com.github.jonathanxd.interoute.annotation.RouteTo}.
@@ -65,14 +68,33 @@ public final class RouteSpec {
     @NotNull
     private final List<RouteSpecInfo<?>> routeSpecInfoList;
 
+    /**
+     * Reflected origin method, only present when the specification was parsed from a loaded router interface.
+     */
+    @Nullable
+    private final Method originMethod;
+
+    @NotNull
+    private final RouteSpecInfoIndex routeSpecInfoIndex;
+
     public RouteSpec(@NotNull MethodDeclaration origin,
                      @NotNull List<RouteParameterSpec> originParameterSpecs,
                      @NotNull String destination,
                      @NotNull List<RouteSpecInfo<?>> routeSpecInfoList) {
+        this(origin, originParameterSpecs, destination, routeSpecInfoList, null);
+    }
+
+    public RouteSpec(@NotNull MethodDeclaration origin,
+                     @NotNull List<RouteParameterSpec> originParameterSpecs,
+                     @NotNull String destination,
+                     @NotNull List<RouteSpecInfo<?>> routeSpecInfoList,
+                     @Nullable Method originMethod) {
         this.origin = origin;
         this.originParameterSpecs = originParameterSpecs;
         this.destination = destination;
         this.routeSpecInfoList = Collections.unmodifiableList(new ArrayList<>(routeSpecInfoList));
+        this.originMethod = originMethod;
+        this.routeSpecInfoIndex = RouteSpecInfoIndex.of(this.routeSpecInfoList);
     }
 
     /**
@@ -119,6 +141,36 @@ public final class RouteSpec {
         return this.routeSpecInfoList;
     }
 
+    /**
+     * Gets the reflected origin method.
+     *
+     * @return Optional with reflected origin method, or {@link Optional#empty()} if this specification was not parsed from a
+     * loaded router interface.
+     */
+    @Contract(pure = true)
+    @NotNull
+    public Optional<Method> getOriginMethod() {
+        return Optional.ofNullable(this.originMethod);
+    }
+
+    @Contract(pure = true)
+    @NotNull
+    public <T> List<RouteSpecInfo<? extends T>> getRouteSpecInfos(@NotNull Class<T> unificationType) {
+        return this.routeSpecInfoIndex.get(unificationType);
+    }
+
+    @Contract(pure = true)
+    @NotNull
+    public <T> Optional<RouteSpecInfo<? extends T>> getRouteSpecInfo(@NotNull Class<T> unificationType) {
+        return this.routeSpecInfoIndex.getFirst(unificationType);
+    }
+
+    @Contract(pure = true)
+    @NotNull
+    public RouteSpecInfoIndex getRouteSpecInfoIndex() {
+        return this.routeSpecInfoIndex;
+    }
+
     @Contract(value = "null -> false", pure = true)
     @Override
     public boolean equals(Object o) {
@@ -0,0 +1,151 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.gen;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Immutable index of {@link RouteSpecInfo route spec infos} by unification type. A spec info is indexed under every
+ * superclass and interface of its {@link RouteSpecInfo#getInstance() unified instance}, so lookups are equivalent to
+ * {@link com.github.jonathanxd.interoute.util.RouteSpecInfoUtil#filterByUnificationType(java.util.stream.Stream, Class)}
+ * but does not scan the spec info list.
+ */
+public final class RouteSpecInfoIndex {
+
+    private static final RouteSpecInfoIndex EMPTY = new RouteSpecInfoIndex(Collections.emptyMap());
+
+    /**
+     * Cache of all super types of unified instance types.
+     */
+    private static final ClassValue<Set<Class<?>>> SUPER_TYPES = new ClassValue<Set<Class<?>>>() {
+        @Override
+        protected Set<Class<?>> computeValue(Class<?> type) {
+            Set<Class<?>> types = new LinkedHashSet<>();
+            RouteSpecInfoIndex.collectSuperTypes(type, types);
+            return Collections.unmodifiableSet(types);
+        }
+    };
+
+    /**
+     * Spec infos by unification type, in declaration order.
+     */
+    @NotNull
+    private final Map<Class<?>, List<RouteSpecInfo<?>>> byUnificationType;
+
+    private RouteSpecInfoIndex(@NotNull Map<Class<?>, List<RouteSpecInfo<?>>> byUnificationType) {
+        this.byUnificationType = byUnificationType;
+    }
+
+    /**
+     * Creates the index of {@code routeSpecInfoList}.
+     *
+     * @param routeSpecInfoList Spec infos to index.
+     * @return Index of {@code routeSpecInfoList}.
+     */
+    @NotNull
+    public static RouteSpecInfoIndex of(@NotNull List<RouteSpecInfo<?>> routeSpecInfoList) {
+        if (routeSpecInfoList.isEmpty())
+            return EMPTY;
+
+        Map<Class<?>, List<RouteSpecInfo<?>>> byUnificationType = new HashMap<>();
+
+        for (RouteSpecInfo<?> routeSpecInfo : routeSpecInfoList) {
+            for (Class<?> type : SUPER_TYPES.get(routeSpecInfo.getInstance().getClass())) {
+                byUnificationType.computeIfAbsent(type, t -> new ArrayList<>()).add(routeSpecInfo);
+            }
+        }
+
+        byUnificationType.replaceAll((type, infos) -> Collections.unmodifiableList(infos));
+
+        return new RouteSpecInfoIndex(byUnificationType);
+    }
+
+    private static void collectSuperTypes(Class<?> type, Set<Class<?>> types) {
+        if (type == null || !types.add(type))
+            return;
+
+        RouteSpecInfoIndex.collectSuperTypes(type.getSuperclass(), types);
+
+        for (Class<?> itf : type.getInterfaces()) {
+            RouteSpecInfoIndex.collectSuperTypes(itf, types);
+        }
+    }
+
+    /**
+     * Gets all spec infos which {@link RouteSpecInfo#getInstance() unified instance} is instance of {@code
+     * unificationType}.
+     *
+     * @param unificationType Unification type.
+     * @param <T>             Unification type.
+     * @return Spec infos which unified instance is instance of {@code unificationType}, in declaration order.
+     */
+    @SuppressWarnings("unchecked")
+    @Contract(pure = true)
+    @NotNull
+    public <T> List<RouteSpecInfo<? extends T>> get(@NotNull Class<T> unificationType) {
+        return (List<RouteSpecInfo<? extends T>>) (List<?>)
+                this.byUnificationType.getOrDefault(unificationType, Collections.emptyList());
+    }
+
+    /**
+     * Gets the first spec info which {@link RouteSpecInfo#getInstance() unified instance} is instance of {@code
+     * unificationType}.
+     *
+     * @param unificationType Unification type.
+     * @param <T>             Unification type.
+     * @return First spec info which unified instance is instance of {@code unificationType}.
+     */
+    @Contract(pure = true)
+    @NotNull
+    public <T> Optional<RouteSpecInfo<? extends T>> getFirst(@NotNull Class<T> unificationType) {
+        List<RouteSpecInfo<? extends T>> infos = this.get(unificationType);
+        return infos.isEmpty() ? Optional.empty() : Optional.of(infos.get(0));
+    }
+
+    /**
+     * Returns whether there is any spec info which {@link RouteSpecInfo#getInstance() unified instance} is instance of
+     * {@code unificationType}.
+     *
+     * @param unificationType Unification type.
+     * @return Whether there is any spec info which unified instance is instance of {@code unificationType}.
+     */
+    @Contract(pure = true)
+    public boolean contains(@NotNull Class<?> unificationType) {
+        return this.byUnificationType.containsKey(unificationType);
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.gen;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+
+/**
+ * Footprint report of a generated router class.
+ */
+public final class RouterClassReport {
+
+    private static final Map<Class<?>, RouterClassReport> REPORTS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Binary name of the class.
+     */
+    @NotNull
+    private final String className;
+
+    /**
+     * Profile used to generate the class.
+     */
+    @NotNull
+    private final GenerationProfile profile;
+
+    /**
+     * Size of class bytes before the profile is applied.
+     */
+    private final int originalSize;
+
+    /**
+     * Size of constant pool before the profile is applied.
+     */
+    private final int originalConstantPoolSize;
+
+    /**
+     * Size of loaded class bytes.
+     */
+    private final int classSize;
+
+    /**
+     * Size of constant pool of loaded class.
+     */
+    private final int constantPoolSize;
+
+    /**
+     * Amount of synthetic methods removed because they were identical to other method.
+     */
+    private final int deduplicatedMethods;
+
+    /**
+     * Whether loaded class has line numbers or local variable tables.
+     */
+    private final boolean debugInformation;
+
+    RouterClassReport(@NotNull String className,
+                      @NotNull GenerationProfile profile,
+                      int originalSize,
+                      int originalConstantPoolSize,
+                      int classSize,
+                      int constantPoolSize,
+                      int deduplicatedMethods,
+                      boolean debugInformation) {
+        this.className = className;
+        this.profile = profile;
+        this.originalSize = originalSize;
+        this.originalConstantPoolSize = originalConstantPoolSize;
+        this.classSize = classSize;
+        this.constantPoolSize = constantPoolSize;
+        this.deduplicatedMethods = deduplicatedMethods;
+        this.debugInformation = debugInformation;
+    }
+
+    /**
+     * Gets the report of {@code generatedClass}.
+     *
+     * @param generatedClass Generated router class.
+     * @return Report of {@code generatedClass} or {@link Optional#empty()} if it was not generated by Interoute.
+     */
+    @NotNull
+    public static Optional<RouterClassReport> of(@NotNull Class<?> generatedClass) {
+        return Optional.ofNullable(REPORTS.get(generatedClass));
+    }
+
+    static void register(@NotNull Class<?> generatedClass, @NotNull RouterClassReport report) {
+        REPORTS.put(generatedClass, report);
+    }
+
+    /**
+     * Gets the binary name of the class.
+     *
+     * @return Binary name of the class.
+     */
+    @Contract(pure = true)
+    @NotNull
+    public String getClassName() {
+        return this.className;
+    }
+
+    /**
+     * Gets the profile used to generate the class.
+     *
+     * @return Profile used to generate the class.
+     */
+    @Contract(pure = true)
+    @NotNull
+    public GenerationProfile getProfile() {
+        return this.profile;
+    }
+
+    /**
+     * Gets the size of class bytes before the profile is applied.
+     *
+     * @return Size of class bytes before the profile is applied.
+     */
+    @Contract(pure = true)
+    public int getOriginalSize() {
+        return this.originalSize;
+    }
+
+    /**
+     * Gets the size of constant pool before the profile is applied.
+     *
+     * @return Size of constant pool before the profile is applied.
+     */
+    @Contract(pure = true)
+    public int getOriginalConstantPoolSize() {
+        return this.originalConstantPoolSize;
+    }
+
+    /**
+     * Gets the size of loaded class bytes.
+     *
+     * @return Size of loaded class bytes.
+     */
+    @Contract(pure = true)
+    public int getClassSize() {
+        return this.classSize;
+    }
+
+    /**
+     * Gets the size of constant pool of loaded class.
+     *
+     * @return Size of constant pool of loaded class.
+     */
+    @Contract(pure = true)
+    public int getConstantPoolSize() {
+        return this.constantPoolSize;
+    }
+
+    /**
+     * Gets the amount of synthetic methods removed because they were identical to other method.
+     *
+     * @return Amount of synthetic methods removed because they were identical to other method.
+     */
+    @Contract(pure = true)
+    public int getDeduplicatedMethods() {
+        return this.deduplicatedMethods;
+    }
+
+    /**
+     * Gets whether loaded class has line numbers or local variable tables.
+     *
+     * @return Whether loaded class has line numbers or local variable tables.
+     */
+    @Contract(pure = true)
+    public boolean hasDebugInformation() {
+        return this.debugInformation;
+    }
+
+    @Override
+    public String toString() {
+        return "RouterClassReport{" +
+                "className=" + className +
+                ", profile=" + profile +
+                ", originalSize=" + originalSize +
+                ", originalConstantPoolSize=" + originalConstantPoolSize +
+                ", classSize=" + classSize +
+                ", constantPoolSize=" + constantPoolSize +
+                ", deduplicatedMethods=" + deduplicatedMethods +
+                ", debugInformation=" + debugInformation +
+                '}';
+    }
+}
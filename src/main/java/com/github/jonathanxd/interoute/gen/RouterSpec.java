@@ -36,6 +36,7 @@ import org.jetbrains.annotations.NotNull;
 import java.lang.reflect.Type;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 
 /**
  * Specification of {@link com.github.jonathanxd.interoute.annotation.RouterInterface}.
@@ -74,6 +75,12 @@ public final class RouterSpec<C extends InterouteBackendConfiguration> {
     @NotNull
     private final List<RouteSpecInfo<?>> routeSpecInfoList;
 
+    /**
+     * Index of route spec infos by unification type.
+     */
+    @NotNull
+    private final RouteSpecInfoIndex routeSpecInfoIndex;
+
     public RouterSpec(@NotNull Type routerInterface,
                       @NotNull InterouteBackend<C> backend,
                       @NotNull C configuration,
@@ -84,6 +91,7 @@ public final class RouterSpec<C extends InterouteBackendConfiguration> {
         this.configuration = configuration;
         this.routeSpecList = routeSpecList;
         this.routeSpecInfoList = routeSpecInfoList;
+        this.routeSpecInfoIndex = RouteSpecInfoIndex.of(routeSpecInfoList);
     }
 
     /**
@@ -141,6 +149,45 @@ public final class RouterSpec<C extends InterouteBackendConfiguration> {
         return this.routeSpecInfoList;
     }
 
+    /**
+     * Gets the spec infos which {@link RouteSpecInfo#getInstance() unified instance} is instance of {@code
+     * unificationType}.
+     *
+     * @param unificationType Unification type.
+     * @param <T>             Unification type.
+     * @return Spec infos which unified instance is instance of {@code unificationType}.
+     */
+    @Contract(pure = true)
+    @NotNull
+    public <T> List<RouteSpecInfo<? extends T>> getRouteSpecInfos(@NotNull Class<T> unificationType) {
+        return this.routeSpecInfoIndex.get(unificationType);
+    }
+
+    /**
+     * Gets the first spec info which {@link RouteSpecInfo#getInstance() unified instance} is instance of {@code
+     * unificationType}.
+     *
+     * @param unificationType Unification type.
+     * @param <T>             Unification type.
+     * @return First spec info which unified instance is instance of {@code unificationType}.
+     */
+    @Contract(pure = true)
+    @NotNull
+    public <T> Optional<RouteSpecInfo<? extends T>> getRouteSpecInfo(@NotNull Class<T> unificationType) {
+        return this.routeSpecInfoIndex.getFirst(unificationType);
+    }
+
+    /**
+     * Gets the index of spec infos by unification type.
+     *
+     * @return Index of spec infos by unification type.
+     */
+    @Contract(pure = true)
+    @NotNull
+    public RouteSpecInfoIndex getRouteSpecInfoIndex() {
+        return this.routeSpecInfoIndex;
+    }
+
     @Contract(value = "null -> false", pure = true)
     @Override
     public boolean equals(Object o) {
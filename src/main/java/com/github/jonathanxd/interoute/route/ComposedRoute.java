@@ -0,0 +1,252 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.route;
+
+import com.github.jonathanxd.interoute.exception.RoutingException;
+import com.github.jonathanxd.iutils.object.result.Result;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Route which executes a {@link Route#then(Function) continuation} or a {@link Route#map(Function) mapping} of the
+ * result of another route, with the origin and the destination of the first route.
+ *
+ * Steps are fused: when the first route is {@link Route#isDirect() direct}, the whole pipeline is executed by a single
+ * task, which {@link Route#invoke() invokes} each direct route in the same worker, so a pipeline of {@code n} direct routes
+ * costs one dispatch. Routes which are not direct are {@link Route#execute() executed} and the next steps run in the
+ * thread which completes them. Failed results are propagated without applying the next steps.
+ *
+ * Only {@link Route#map(Function) mappings} of direct routes are direct: routes created by a {@link Route#then(Function)
+ * continuation} are only known after the first step, and may not be direct, thus invoking them in the calling thread
+ * could block the worker of an enclosing pipeline.
+ *
+ * @param <R> Result type of the first route.
+ * @param <S> Result type.
+ */
+public final class ComposedRoute<R, S> extends AbstractRoute<S> {
+
+    /**
+     * First route of the pipeline.
+     */
+    @NotNull
+    private final Route<R> route;
+
+    /**
+     * Step applied to the successful result of {@link #route}.
+     */
+    @NotNull
+    private final Step<R, S> step;
+
+    private ComposedRoute(@NotNull Route<R> route, @NotNull Step<R, S> step) {
+        super(route.getOrigin(), route.getDestination());
+        this.route = route;
+        this.step = step;
+    }
+
+    /**
+     * Creates the route which executes the route created by {@code function} from the successful result of {@code
+     * route}.
+     *
+     * @param route    First route.
+     * @param function Function which creates the next route from the result of {@code route}.
+     * @param <R>      Result type of {@code route}.
+     * @param <S>      Result type of the next route.
+     * @return Route which executes the route created by {@code function} from the successful result of {@code route}.
+     */
+    @NotNull
+    public static <R, S> ComposedRoute<R, S> then(@NotNull Route<R> route,
+                                                  @NotNull Function<? super R, ? extends Route<S>> function) {
+        return new ComposedRoute<>(route, new ThenStep<>(function));
+    }
+
+    /**
+     * Creates the route which maps the successful result of {@code route} with {@code function}.
+     *
+     * @param route    First route.
+     * @param function Function which maps the result of {@code route}.
+     * @param <R>      Result type of {@code route}.
+     * @param <S>      Type of mapped result.
+     * @return Route which maps the successful result of {@code route} with {@code function}.
+     */
+    @NotNull
+    public static <R, S> ComposedRoute<R, S> map(@NotNull Route<R> route,
+                                                 @NotNull Function<? super R, ? extends S> function) {
+        return new ComposedRoute<>(route, new MapStep<>(function));
+    }
+
+    @Override
+    public CompletableFuture<Result<S, RoutingException>> execute() {
+        if (!this.route.isDirect())
+            return this.route.execute().thenCompose(this::proceed);
+
+        return CompletableFuture.supplyAsync(Deadline.propagate(() -> this.proceed(this.route.invoke())))
+                .thenCompose(Function.identity());
+    }
+
+    /**
+     * Invokes the first route and applies the step in the calling thread. Routes created by a {@link Route#then(Function)
+     * continuation} which are not direct are executed and waited for, which is why continuations are never {@link
+     * #isDirect() direct}.
+     *
+     * @return Result of the pipeline.
+     */
+    @Override
+    public Result<S, RoutingException> invoke() {
+        Result<R, RoutingException> result = this.route.invoke();
+
+        if (!(result instanceof Result.Ok<?, ?>))
+            return ComposedRoute.error(result);
+
+        try {
+            return this.step.invoke(((Result.Ok<R, RoutingException>) result).success());
+        } catch (Throwable t) {
+            return Result.error(new RoutingException(t));
+        }
+    }
+
+    @Override
+    public boolean isDirect() {
+        return this.route.isDirect() && this.step.isDirect();
+    }
+
+    /**
+     * Applies the step to {@code result} without leaving the current thread, unless the step creates a route which is
+     * not direct.
+     */
+    private CompletableFuture<Result<S, RoutingException>> proceed(Result<R, RoutingException> result) {
+        if (!(result instanceof Result.Ok<?, ?>))
+            return CompletableFuture.completedFuture(ComposedRoute.error(result));
+
+        try {
+            return this.step.proceed(((Result.Ok<R, RoutingException>) result).success());
+        } catch (Throwable t) {
+            return CompletableFuture.completedFuture(Result.error(new RoutingException(t)));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <S> Result<S, RoutingException> error(Result<?, RoutingException> result) {
+        return (Result<S, RoutingException>) result;
+    }
+
+    @Override
+    public String toString() {
+        return "ComposedRoute{" +
+                "route=" + route +
+                ", step=" + step +
+                '}';
+    }
+
+    /**
+     * Step of a composed route.
+     */
+    private interface Step<R, S> {
+
+        /**
+         * Applies the step to {@code value} in the calling thread.
+         */
+        Result<S, RoutingException> invoke(R value);
+
+        /**
+         * Applies the step to {@code value}, in the calling thread when possible.
+         */
+        CompletableFuture<Result<S, RoutingException>> proceed(R value);
+
+        /**
+         * Returns whether {@link #invoke(Object)} never waits for another route.
+         */
+        boolean isDirect();
+    }
+
+    private static final class ThenStep<R, S> implements Step<R, S> {
+
+        private final Function<? super R, ? extends Route<S>> function;
+
+        ThenStep(Function<? super R, ? extends Route<S>> function) {
+            this.function = function;
+        }
+
+        @Override
+        public Result<S, RoutingException> invoke(R value) {
+            return this.function.apply(value).invoke();
+        }
+
+        @Override
+        public CompletableFuture<Result<S, RoutingException>> proceed(R value) {
+            Route<S> next = this.function.apply(value);
+
+            return next.isDirect() ? CompletableFuture.completedFuture(next.invoke()) : next.execute();
+        }
+
+        @Override
+        public boolean isDirect() {
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return "ThenStep{" +
+                    "function=" + function +
+                    '}';
+        }
+    }
+
+    private static final class MapStep<R, S> implements Step<R, S> {
+
+        private final Function<? super R, ? extends S> function;
+
+        MapStep(Function<? super R, ? extends S> function) {
+            this.function = function;
+        }
+
+        @Override
+        public Result<S, RoutingException> invoke(R value) {
+            return Result.ok(this.function.apply(value));
+        }
+
+        @Override
+        public CompletableFuture<Result<S, RoutingException>> proceed(R value) {
+            return CompletableFuture.completedFuture(this.invoke(value));
+        }
+
+        @Override
+        public boolean isDirect() {
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return "MapStep{" +
+                    "function=" + function +
+                    '}';
+        }
+    }
+}
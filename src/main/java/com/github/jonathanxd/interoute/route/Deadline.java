@@ -0,0 +1,236 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.route;
+
+import com.github.jonathanxd.interoute.exception.RouteTimeoutException;
+import com.github.jonathanxd.interoute.exception.RoutingException;
+import com.github.jonathanxd.interoute.route.hedge.HedgeAttempt;
+import com.github.jonathanxd.iutils.object.result.Result;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Point in time which route executions must complete before, carried from the thread which executes a route to the
+ * thread which invokes its destination, so routes executed by the destination inherit the deadline of their caller.
+ *
+ * Routes executed after the current deadline has expired complete with a {@link RouteTimeoutException} without invoking
+ * their destination. Deadlines are started by {@link com.github.jonathanxd.interoute.annotation.Timeout timeouts} of
+ * routes, or by callers with {@link #call(Supplier)}.
+ */
+public final class Deadline {
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Deadline in {@link System#nanoTime()} time.
+     */
+    private final long nanos;
+
+    private Deadline(long nanos) {
+        this.nanos = nanos;
+    }
+
+    /**
+     * Creates the deadline which expires after {@code duration} from now.
+     *
+     * @param duration Duration until the deadline.
+     * @param unit     Unit of {@code duration}.
+     * @return Deadline which expires after {@code duration} from now.
+     */
+    @NotNull
+    public static Deadline after(long duration, @NotNull TimeUnit unit) {
+        return new Deadline(System.nanoTime() + unit.toNanos(duration));
+    }
+
+    /**
+     * Gets the deadline of the current thread.
+     *
+     * @return Deadline of the current thread, or {@link Optional#empty()} if there is none.
+     */
+    @NotNull
+    public static Optional<Deadline> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    /**
+     * Gets the earliest of the deadline of the current thread and the deadline which expires after {@code timeoutNanos}.
+     *
+     * @param timeoutNanos Timeout in nanoseconds.
+     * @return Earliest of the deadline of the current thread and the deadline which expires after {@code timeoutNanos}.
+     */
+    @NotNull
+    public static Deadline within(long timeoutNanos) {
+        Deadline current = CURRENT.get();
+        long nanos = System.nanoTime() + timeoutNanos;
+
+        return current != null && current.nanos - nanos <= 0 ? current : new Deadline(nanos);
+    }
+
+    /**
+     * Returns whether the deadline of the current thread has expired.
+     *
+     * @return Whether the deadline of the current thread has expired, {@code false} if there is no deadline.
+     */
+    public static boolean isCurrentExpired() {
+        Deadline current = CURRENT.get();
+        return current != null && current.isExpired();
+    }
+
+    /**
+     * Creates the result of executions which were not started because the deadline of the current thread has expired.
+     *
+     * @param <R> Result type.
+     * @return Failed result with a {@link RouteTimeoutException}.
+     */
+    @NotNull
+    public static <R> Result<R, RoutingException> expiredResult() {
+        return Result.error(new RouteTimeoutException("Deadline expired before the route was executed."));
+    }
+
+    /**
+     * Creates the supplier which invokes {@code supplier} with the deadline of the current thread, or which fails with a
+     * {@link RouteTimeoutException} if the deadline expires before the invocation. Generated routes bind the supplier of
+     * route results before dispatching it to the executor of the route. The {@link HedgeAttempt hedge attempt} of the
+     * current thread is carried along with the deadline.
+     *
+     * @param supplier Supplier of route result.
+     * @param <R>      Result type.
+     * @return Supplier which invokes {@code supplier} with the deadline of the current thread.
+     */
+    @NotNull
+    public static <R> Supplier<Result<R, RoutingException>> bind(@NotNull Supplier<Result<R, RoutingException>> supplier) {
+        Supplier<Result<R, RoutingException>> attempt = HedgeAttempt.propagate(supplier);
+        Deadline deadline = CURRENT.get();
+
+        if (deadline == null)
+            return attempt;
+
+        return () -> deadline.isExpired() ? Deadline.expiredResult() : deadline.call(attempt);
+    }
+
+    /**
+     * Creates the supplier which invokes {@code supplier} with the deadline of the current thread.
+     *
+     * @param supplier Supplier to invoke.
+     * @param <T>      Value type.
+     * @return Supplier which invokes {@code supplier} with the deadline of the current thread.
+     */
+    @NotNull
+    public static <T> Supplier<T> propagate(@NotNull Supplier<T> supplier) {
+        Deadline deadline = CURRENT.get();
+
+        if (deadline == null)
+            return supplier;
+
+        return () -> deadline.call(supplier);
+    }
+
+    /**
+     * Creates the task which runs {@code task} with the deadline of the current thread.
+     *
+     * @param task Task to run.
+     * @return Task which runs {@code task} with the deadline of the current thread.
+     */
+    @NotNull
+    public static Runnable wrap(@NotNull Runnable task) {
+        Deadline deadline = CURRENT.get();
+
+        if (deadline == null)
+            return task;
+
+        return () -> deadline.call(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Invokes {@code supplier} with this deadline as deadline of the current thread, or the deadline of the current
+     * thread if it is earlier.
+     *
+     * @param supplier Supplier to invoke.
+     * @param <T>      Value type.
+     * @return Value supplied by {@code supplier}.
+     */
+    public <T> T call(@NotNull Supplier<T> supplier) {
+        Deadline previous = CURRENT.get();
+
+        if (previous != null && previous.nanos - this.nanos <= 0)
+            return supplier.get();
+
+        CURRENT.set(this);
+
+        try {
+            return supplier.get();
+        } finally {
+            Deadline.restore(previous);
+        }
+    }
+
+    private static void restore(@Nullable Deadline previous) {
+        if (previous == null)
+            CURRENT.remove();
+        else
+            CURRENT.set(previous);
+    }
+
+    /**
+     * Gets the time remaining until the deadline.
+     *
+     * @param unit Unit of remaining time.
+     * @return Time remaining until the deadline, negative if the deadline has expired.
+     */
+    public long remaining(@NotNull TimeUnit unit) {
+        return unit.convert(this.remainingNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    long remainingNanos() {
+        return this.nanos - System.nanoTime();
+    }
+
+    /**
+     * Returns whether the deadline has expired.
+     *
+     * @return Whether the deadline has expired.
+     */
+    public boolean isExpired() {
+        return this.remainingNanos() <= 0;
+    }
+
+    @Override
+    public String toString() {
+        return "Deadline{" +
+                "remaining=" + this.remaining(TimeUnit.MILLISECONDS) + "ms" +
+                '}';
+    }
+}
@@ -31,6 +31,8 @@ import com.github.jonathanxd.interoute.exception.RoutingException;
 import com.github.jonathanxd.iutils.object.result.Result;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
 
 /**
  * Base interface of route implementation, routes always have an {@link #getOrigin() Origin} and a {@link #getDestination()
@@ -50,6 +52,57 @@ public interface Route<R> {
      */
     CompletableFuture<Result<R, RoutingException>> execute();
 
+    /**
+     * Executes the route in the calling thread if the route is {@link #isDirect() direct}, otherwise {@link #execute()
+     * executes} the route and waits for its result.
+     *
+     * @return {@link Result} responded by {@link #getDestination() Destination}.
+     */
+    default Result<R, RoutingException> invoke() {
+        try {
+            return this.execute().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.error(new RoutingException(e));
+        } catch (ExecutionException e) {
+            return Result.error(new RoutingException(e.getCause()));
+        }
+    }
+
+    /**
+     * Returns whether {@link #invoke()} executes the route in the calling thread. Routes which must execute in a specific
+     * executor, or which results are shared with other executions, are not direct.
+     *
+     * @return Whether {@link #invoke()} executes the route in the calling thread.
+     */
+    default boolean isDirect() {
+        return false;
+    }
+
+    /**
+     * Creates the route which executes the route created by {@code function} from the successful result of this route.
+     * Both steps are fused in one task when this route is {@link #isDirect() direct}, see {@link ComposedRoute}.
+     *
+     * @param function Function which creates the next route from the result of this route.
+     * @param <S>      Result type of the next route.
+     * @return Route which executes the route created by {@code function} from the successful result of this route.
+     */
+    default <S> Route<S> then(Function<? super R, ? extends Route<S>> function) {
+        return ComposedRoute.then(this, function);
+    }
+
+    /**
+     * Creates the route which maps the successful result of this route with {@code function}, in the same task which
+     * executes this route, see {@link ComposedRoute}.
+     *
+     * @param function Function which maps the result of this route.
+     * @param <S>      Type of mapped result.
+     * @return Route which maps the successful result of this route with {@code function}.
+     */
+    default <S> Route<S> map(Function<? super R, ? extends S> function) {
+        return ComposedRoute.map(this, function);
+    }
+
     /**
      * Gets the origin of the route.
      *
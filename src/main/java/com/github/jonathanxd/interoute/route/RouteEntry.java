@@ -0,0 +1,444 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.route;
+
+import com.github.jonathanxd.interoute.exception.RoutingException;
+import com.github.jonathanxd.interoute.gen.RouteSpecInfo;
+import com.github.jonathanxd.interoute.gen.RouteSpecInfoIndex;
+import com.github.jonathanxd.interoute.route.batch.RouteBatcher;
+import com.github.jonathanxd.interoute.route.breaker.RouteCircuitBreaker;
+import com.github.jonathanxd.interoute.route.cache.RouteCache;
+import com.github.jonathanxd.interoute.route.cache.SingleFlight;
+import com.github.jonathanxd.interoute.route.hedge.RouteHedger;
+import com.github.jonathanxd.interoute.route.limit.ConcurrencyLimiter;
+import com.github.jonathanxd.interoute.route.timeout.RouteTimeout;
+import com.github.jonathanxd.interoute.util.ArgumentKey;
+import com.github.jonathanxd.iutils.object.result.Result;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Entry of a {@link RouteTable}. The route and its specification never change, but the runtime state of the route, such
+ * as its cache, limiter and circuit breaker, is mutable, see {@link RouteTable}.
+ */
+public final class RouteEntry {
+
+    /**
+     * Dense route id, index of this entry in the {@link RouteTable}.
+     */
+    private final int id;
+
+    /**
+     * Route origin.
+     */
+    @NotNull
+    private final Origin origin;
+
+    /**
+     * Origin method.
+     */
+    @Nullable
+    private final Method originMethod;
+
+    /**
+     * Destination notation.
+     */
+    @NotNull
+    private final String destination;
+
+    /**
+     * Unified specifications of origin method.
+     */
+    @NotNull
+    private final List<RouteSpecInfo<?>> routeSpecInfoList;
+
+    /**
+     * Unified specifications of each parameter of origin method.
+     */
+    @NotNull
+    private final List<List<RouteSpecInfo<?>>> parameterSpecInfoList;
+
+    /**
+     * Index of specifications of origin method by unification type.
+     */
+    @NotNull
+    private final RouteSpecInfoIndex routeSpecInfoIndex;
+
+    /**
+     * Index of specifications of each parameter of origin method by unification type.
+     */
+    @NotNull
+    private final List<RouteSpecInfoIndex> parameterSpecInfoIndexList;
+
+    /**
+     * Cache of {@link com.github.jonathanxd.interoute.annotation.Cached cached} route.
+     */
+    @Nullable
+    private final RouteCache cache;
+
+    /**
+     * In-flight executions of {@link com.github.jonathanxd.interoute.annotation.Coalesced coalesced} route.
+     */
+    @Nullable
+    private final SingleFlight singleFlight;
+
+    /**
+     * Batcher of {@link com.github.jonathanxd.interoute.annotation.Batched batched} route.
+     */
+    @Nullable
+    private final RouteBatcher batcher;
+
+    /**
+     * Concurrency limiter of {@link com.github.jonathanxd.interoute.annotation.Limited limited} route.
+     */
+    @Nullable
+    private final ConcurrencyLimiter limiter;
+
+    /**
+     * Hedger of {@link com.github.jonathanxd.interoute.annotation.Hedged hedged} route.
+     */
+    @Nullable
+    private final RouteHedger hedger;
+
+    /**
+     * Timeout of {@link com.github.jonathanxd.interoute.annotation.Timeout timed out} route.
+     */
+    @Nullable
+    private final RouteTimeout timeout;
+
+    /**
+     * Circuit breaker of the destination of {@link com.github.jonathanxd.interoute.annotation.CircuitBreaker guarded}
+     * route.
+     */
+    @Nullable
+    private final RouteCircuitBreaker breaker;
+
+    RouteEntry(int id,
+               @NotNull Origin origin,
+               @Nullable Method originMethod,
+               @NotNull String destination,
+               @NotNull List<RouteSpecInfo<?>> routeSpecInfoList,
+               @NotNull List<List<RouteSpecInfo<?>>> parameterSpecInfoList,
+               @NotNull RouteSpecInfoIndex routeSpecInfoIndex,
+               @NotNull List<RouteSpecInfoIndex> parameterSpecInfoIndexList,
+               @Nullable RouteCache cache,
+               @Nullable SingleFlight singleFlight,
+               @Nullable RouteBatcher batcher,
+               @Nullable ConcurrencyLimiter limiter,
+               @Nullable RouteHedger hedger,
+               @Nullable RouteTimeout timeout,
+               @Nullable RouteCircuitBreaker breaker) {
+        this.id = id;
+        this.origin = origin;
+        this.originMethod = originMethod;
+        this.destination = destination;
+        this.routeSpecInfoList = routeSpecInfoList;
+        this.parameterSpecInfoList = parameterSpecInfoList;
+        this.routeSpecInfoIndex = routeSpecInfoIndex;
+        this.parameterSpecInfoIndexList = parameterSpecInfoIndexList;
+        this.cache = cache;
+        this.singleFlight = singleFlight;
+        this.batcher = batcher;
+        this.limiter = limiter;
+        this.hedger = hedger;
+        this.timeout = timeout;
+        this.breaker = breaker;
+    }
+
+    /**
+     * Gets the dense route id, index of this entry in the {@link RouteTable}.
+     *
+     * @return Dense route id.
+     */
+    @Contract(pure = true)
+    public int getId() {
+        return this.id;
+    }
+
+    /**
+     * Gets the route origin.
+     *
+     * @return Route origin.
+     */
+    @Contract(pure = true)
+    @NotNull
+    public Origin getOrigin() {
+        return this.origin;
+    }
+
+    /**
+     * Gets the origin method.
+     *
+     * @return Origin method.
+     */
+    @Contract(pure = true)
+    @NotNull
+    public Optional<Method> getOriginMethod() {
+        return Optional.ofNullable(this.originMethod);
+    }
+
+    /**
+     * Gets the destination notation.
+     *
+     * @return Destination notation.
+     */
+    @Contract(pure = true)
+    @NotNull
+    public String getDestination() {
+        return this.destination;
+    }
+
+    /**
+     * Gets the unified specifications of origin method.
+     *
+     * @return Unified specifications of origin method.
+     */
+    @Contract(pure = true)
+    @NotNull
+    public List<RouteSpecInfo<?>> getRouteSpecInfoList() {
+        return this.routeSpecInfoList;
+    }
+
+    /**
+     * Gets the unified specifications of parameter at {@code index}.
+     *
+     * @param index Parameter index.
+     * @return Unified specifications of parameter at {@code index}.
+     */
+    @Contract(pure = true)
+    @NotNull
+    public List<RouteSpecInfo<?>> getParameterSpecInfoList(int index) {
+        return this.parameterSpecInfoList.get(index);
+    }
+
+    /**
+     * Gets the specifications of origin method which {@link RouteSpecInfo#getInstance() unified instance} is instance of
+     * {@code unificationType}.
+     *
+     * @param unificationType Unification type.
+     * @param <T>             Unification type.
+     * @return Specifications of origin method which unified instance is instance of {@code unificationType}.
+     */
+    @Contract(pure = true)
+    @NotNull
+    public <T> List<RouteSpecInfo<? extends T>> getRouteSpecInfos(@NotNull Class<T> unificationType) {
+        return this.routeSpecInfoIndex.get(unificationType);
+    }
+
+    /**
+     * Gets the specifications of parameter at {@code index} which {@link RouteSpecInfo#getInstance() unified instance} is
+     * instance of {@code unificationType}.
+     *
+     * @param index           Parameter index.
+     * @param unificationType Unification type.
+     * @param <T>             Unification type.
+     * @return Specifications of parameter at {@code index} which unified instance is instance of {@code unificationType}.
+     */
+    @Contract(pure = true)
+    @NotNull
+    public <T> List<RouteSpecInfo<? extends T>> getParameterSpecInfos(int index, @NotNull Class<T> unificationType) {
+        return this.parameterSpecInfoIndexList.get(index).get(unificationType);
+    }
+
+    /**
+     * Gets the amount of parameters of origin method.
+     *
+     * @return Amount of parameters of origin method.
+     */
+    @Contract(pure = true)
+    public int getParameterCount() {
+        return this.parameterSpecInfoList.size();
+    }
+
+    /**
+     * Gets the cache of the route, which holds the results and statistics of the route.
+     *
+     * @return Cache of the route, or {@link Optional#empty()} if the route is not {@link
+     * com.github.jonathanxd.interoute.annotation.Cached cached}.
+     */
+    @Contract(pure = true)
+    @NotNull
+    public Optional<RouteCache> getCache() {
+        return Optional.ofNullable(this.cache);
+    }
+
+    /**
+     * Gets the in-flight executions of the route.
+     *
+     * @return In-flight executions of the route, or {@link Optional#empty()} if the route is not {@link
+     * com.github.jonathanxd.interoute.annotation.Coalesced coalesced}.
+     */
+    @Contract(pure = true)
+    @NotNull
+    public Optional<SingleFlight> getSingleFlight() {
+        return Optional.ofNullable(this.singleFlight);
+    }
+
+    /**
+     * Gets the batcher of the route.
+     *
+     * @return Batcher of the route, or {@link Optional#empty()} if the route is not {@link
+     * com.github.jonathanxd.interoute.annotation.Batched batched}.
+     */
+    @Contract(pure = true)
+    @NotNull
+    public Optional<RouteBatcher> getBatcher() {
+        return Optional.ofNullable(this.batcher);
+    }
+
+    /**
+     * Gets the concurrency limiter of the route, which may be shared with other routes of the same {@link
+     * com.github.jonathanxd.interoute.annotation.Limited#group() group}.
+     *
+     * @return Concurrency limiter of the route, or {@link Optional#empty()} if the route is not {@link
+     * com.github.jonathanxd.interoute.annotation.Limited limited}.
+     */
+    @Contract(pure = true)
+    @NotNull
+    public Optional<ConcurrencyLimiter> getLimiter() {
+        return Optional.ofNullable(this.limiter);
+    }
+
+    /**
+     * Gets the hedger of the route.
+     *
+     * @return Hedger of the route, or {@link Optional#empty()} if the route is not {@link
+     * com.github.jonathanxd.interoute.annotation.Hedged hedged}.
+     */
+    @Contract(pure = true)
+    @NotNull
+    public Optional<RouteHedger> getHedger() {
+        return Optional.ofNullable(this.hedger);
+    }
+
+    /**
+     * Gets the timeout of the route.
+     *
+     * @return Timeout of the route, or {@link Optional#empty()} if the route is not {@link
+     * com.github.jonathanxd.interoute.annotation.Timeout timed out}.
+     */
+    @Contract(pure = true)
+    @NotNull
+    public Optional<RouteTimeout> getTimeout() {
+        return Optional.ofNullable(this.timeout);
+    }
+
+    /**
+     * Gets the circuit breaker of the destination of the route.
+     *
+     * @return Circuit breaker of the destination of the route, or {@link Optional#empty()} if the route is not {@link
+     * com.github.jonathanxd.interoute.annotation.CircuitBreaker guarded}.
+     */
+    @Contract(pure = true)
+    @NotNull
+    public Optional<RouteCircuitBreaker> getBreaker() {
+        return Optional.ofNullable(this.breaker);
+    }
+
+    /**
+     * Returns whether executions of the route are intercepted by {@link #supplier(ArgumentKey, Supplier)}.
+     *
+     * @return Whether executions of the route are intercepted.
+     */
+    @Contract(pure = true)
+    public boolean isIntercepted() {
+        return this.cache != null
+                || this.singleFlight != null
+                || this.limiter != null
+                || this.hedger != null
+                || this.timeout != null
+                || this.breaker != null;
+    }
+
+    /**
+     * Creates the supplier which executes the route through its {@link #getCache() cache}, {@link #getBreaker() circuit
+     * breaker}, {@link #getTimeout() timeout}, {@link #getSingleFlight() single flight}, {@link #getHedger() hedger} and
+     * {@link #getLimiter() limiter}, in this order, with {@code key} as key of route arguments. Routes which are not
+     * {@link #isIntercepted() intercepted} returns {@code loader}.
+     *
+     * @param key    Key of route arguments.
+     * @param loader Supplier of the future which executes the route.
+     * @param <R>    Result type.
+     * @return Supplier which executes the route through its cache, circuit breaker, timeout, single flight, hedger and
+     * limiter.
+     */
+    @NotNull
+    public <R> Supplier<CompletableFuture<Result<R, RoutingException>>> supplier(
+            @NotNull ArgumentKey key,
+            @NotNull Supplier<CompletableFuture<Result<R, RoutingException>>> loader) {
+        Supplier<CompletableFuture<Result<R, RoutingException>>> supplier = loader;
+
+        if (this.limiter != null)
+            supplier = this.limiter.supplier(supplier);
+
+        if (this.hedger != null)
+            supplier = this.hedger.supplier(supplier);
+
+        if (this.singleFlight != null)
+            supplier = this.singleFlight.supplier(key, supplier);
+
+        if (this.timeout != null)
+            supplier = this.timeout.supplier(supplier);
+
+        if (this.breaker != null)
+            supplier = this.breaker.supplier(supplier);
+
+        if (this.cache != null)
+            supplier = this.cache.supplier(key, supplier);
+
+        return supplier;
+    }
+
+    @Contract(pure = true)
+    @NotNull
+    @Override
+    public String toString() {
+        return "RouteEntry{" +
+                "id=" + id +
+                ", origin=" + origin +
+                ", destination='" + destination + '\'' +
+                ", routeSpecInfoList=" + routeSpecInfoList +
+                ", parameterSpecInfoList=" + parameterSpecInfoList +
+                ", cache=" + cache +
+                ", singleFlight=" + singleFlight +
+                ", batcher=" + batcher +
+                ", limiter=" + limiter +
+                ", hedger=" + hedger +
+                ", timeout=" + timeout +
+                ", breaker=" + breaker +
+                '}';
+    }
+}
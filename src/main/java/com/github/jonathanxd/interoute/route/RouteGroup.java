@@ -0,0 +1,196 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.route;
+
+import com.github.jonathanxd.interoute.exception.RoutingException;
+import com.github.jonathanxd.iutils.object.result.Result;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Group of independent routes executed together, completing a single future with the results of all routes in the order
+ * of the group.
+ *
+ * {@link Route#isDirect() Direct} routes are split in at most {@code parallelism} chunks and each chunk is executed as one
+ * task, which {@link Route#invoke() invokes} its routes in sequence, so a group of {@code n} direct routes costs at most
+ * {@code parallelism} dispatches instead of {@code n}. Other routes are {@link Route#execute() executed} individually.
+ *
+ * @param <R> Type of route results.
+ */
+public final class RouteGroup<R> {
+
+    /**
+     * Routes of the group.
+     */
+    @NotNull
+    private final List<Route<? extends R>> routes;
+
+    private RouteGroup(@NotNull List<Route<? extends R>> routes) {
+        this.routes = routes;
+    }
+
+    /**
+     * Creates a group of {@code routes}.
+     *
+     * @param routes Routes of the group.
+     * @param <R>    Type of route results.
+     * @return Group of {@code routes}.
+     */
+    @NotNull
+    public static <R> RouteGroup<R> of(@NotNull Collection<? extends Route<? extends R>> routes) {
+        return new RouteGroup<>(Collections.unmodifiableList(new ArrayList<>(routes)));
+    }
+
+    /**
+     * Gets the routes of the group.
+     *
+     * @return Routes of the group.
+     */
+    @Contract(pure = true)
+    @NotNull
+    public List<Route<? extends R>> getRoutes() {
+        return this.routes;
+    }
+
+    /**
+     * Executes all routes of the group in the {@link ForkJoinPool#commonPool() common pool}, with {@link
+     * ForkJoinPool#getCommonPoolParallelism() common pool parallelism}.
+     *
+     * @return Future completed with results of all routes, in the order of the group.
+     */
+    @NotNull
+    public CompletableFuture<List<Result<R, RoutingException>>> execute() {
+        return this.execute(ForkJoinPool.commonPool(), ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    /**
+     * Executes all routes of the group, direct routes are executed in at most {@code parallelism} tasks submitted to
+     * {@code executor}.
+     *
+     * @param executor    Executor of direct route chunks.
+     * @param parallelism Maximum amount of chunks, {@code 1} executes all direct routes in one task.
+     * @return Future completed with results of all routes, in the order of the group.
+     */
+    @SuppressWarnings("unchecked")
+    @NotNull
+    public CompletableFuture<List<Result<R, RoutingException>>> execute(@NotNull Executor executor, int parallelism) {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("Parallelism must be positive.");
+
+        int size = this.routes.size();
+        CompletableFuture<List<Result<R, RoutingException>>> future = new CompletableFuture<>();
+
+        if (size == 0) {
+            future.complete(Collections.emptyList());
+            return future;
+        }
+
+        Result<R, RoutingException>[] results = new Result[size];
+        AtomicInteger remaining = new AtomicInteger(size);
+        int[] direct = new int[size];
+        int directCount = 0;
+
+        for (int i = 0; i < size; ++i) {
+            Route<? extends R> route = this.routes.get(i);
+
+            if (route.isDirect()) {
+                direct[directCount++] = i;
+                continue;
+            }
+
+            int index = i;
+
+            route.execute().whenComplete((result, throwable) -> {
+                results[index] = throwable != null
+                        ? Result.error(new RoutingException(throwable))
+                        : (Result<R, RoutingException>) result;
+
+                RouteGroup.complete(future, results, remaining, 1);
+            });
+        }
+
+        int chunks = Math.min(parallelism, directCount);
+
+        for (int chunk = 0; chunk < chunks; ++chunk) {
+            int from = (int) ((long) directCount * chunk / chunks);
+            int to = (int) ((long) directCount * (chunk + 1) / chunks);
+
+            try {
+                executor.execute(Deadline.wrap(() -> {
+                    for (int i = from; i < to; ++i) {
+                        results[direct[i]] = this.invoke(this.routes.get(direct[i]));
+                    }
+
+                    RouteGroup.complete(future, results, remaining, to - from);
+                }));
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        }
+
+        return future;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Result<R, RoutingException> invoke(Route<? extends R> route) {
+        try {
+            return (Result<R, RoutingException>) route.invoke();
+        } catch (Throwable t) {
+            return Result.error(new RoutingException(t));
+        }
+    }
+
+    /**
+     * Completes {@code future} with {@code results} when the last of the {@code count} routes completes.
+     */
+    private static <R> void complete(CompletableFuture<List<Result<R, RoutingException>>> future,
+                                     Result<R, RoutingException>[] results,
+                                     AtomicInteger remaining,
+                                     int count) {
+        if (remaining.addAndGet(-count) == 0)
+            future.complete(Collections.unmodifiableList(Arrays.asList(results)));
+    }
+
+    @Override
+    public String toString() {
+        return "RouteGroup{" +
+                "routes=" + routes +
+                '}';
+    }
+}
@@ -0,0 +1,286 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.route;
+
+import com.github.jonathanxd.interoute.annotation.Batched;
+import com.github.jonathanxd.interoute.annotation.Cached;
+import com.github.jonathanxd.interoute.annotation.CircuitBreaker;
+import com.github.jonathanxd.interoute.annotation.Coalesced;
+import com.github.jonathanxd.interoute.annotation.Hedged;
+import com.github.jonathanxd.interoute.annotation.Limited;
+import com.github.jonathanxd.interoute.annotation.Timeout;
+import com.github.jonathanxd.interoute.gen.RouteParameterSpec;
+import com.github.jonathanxd.interoute.gen.RouteSpec;
+import com.github.jonathanxd.interoute.gen.RouteSpecInfo;
+import com.github.jonathanxd.interoute.gen.RouterSpec;
+import com.github.jonathanxd.interoute.route.batch.RouteBatcher;
+import com.github.jonathanxd.interoute.route.breaker.RouteCircuitBreaker;
+import com.github.jonathanxd.interoute.route.cache.RouteCache;
+import com.github.jonathanxd.interoute.route.cache.SingleFlight;
+import com.github.jonathanxd.interoute.route.hedge.RouteHedger;
+import com.github.jonathanxd.interoute.route.limit.ConcurrencyLimiter;
+import com.github.jonathanxd.interoute.route.timeout.RouteTimeout;
+import com.github.jonathanxd.kores.base.MethodDeclaration;
+import com.github.jonathanxd.kores.common.MethodTypeSpec;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Table of routes of a {@link Router}, addressed by dense int route ids.
+ *
+ * Route ids are the index of the route in {@link RouterSpec#getRouteSpecList()}, the table is computed once, when the
+ * router is generated, and is carried by the generated router, so instrumentation and caches can key on route ids
+ * instead of strings or {@link Method} objects.
+ *
+ * Each table owns the {@link RouteEntry#getCache() caches} of the {@link Cached cached} routes and the {@link
+ * RouteEntry#getSingleFlight() flights} of the {@link Coalesced coalesced} routes, the {@link RouteEntry#getBatcher()
+ * batchers} of the {@link Batched batched} routes, the {@link RouteEntry#getLimiter() limiters} of the {@link Limited
+ * limited} routes, the {@link RouteEntry#getHedger() hedgers} of the {@link Hedged hedged} routes, the {@link
+ * RouteEntry#getTimeout() timeouts} of the {@link Timeout timed out} routes and the {@link RouteEntry#getBreaker()
+ * circuit breakers} of the destination instances of the {@link CircuitBreaker guarded} routes of its router.
+ *
+ * The set of routes and their specifications never change after the table is computed, but the runtime state owned by
+ * the table, such as cached values, limits, statistics and circuit states, is mutable and shared by all threads which
+ * execute routes of the router.
+ */
+public final class RouteTable {
+
+    private static final RouteTable EMPTY = new RouteTable(Collections.emptyList(), Collections.emptyList());
+
+    /**
+     * Entries by route id.
+     */
+    @NotNull
+    private final RouteEntry[] entries;
+
+    /**
+     * Unmodifiable view of {@link #entries}.
+     */
+    @NotNull
+    private final List<RouteEntry> entryList;
+
+    /**
+     * Unified specifications of router interface.
+     */
+    @NotNull
+    private final List<RouteSpecInfo<?>> routerSpecInfoList;
+
+    /**
+     * Entries by origin method.
+     */
+    @NotNull
+    private final Map<Method, RouteEntry> byMethod;
+
+    private RouteTable(@NotNull List<RouteEntry> entries, @NotNull List<RouteSpecInfo<?>> routerSpecInfoList) {
+        this.entries = entries.toArray(new RouteEntry[0]);
+        this.entryList = Collections.unmodifiableList(new ArrayList<>(entries));
+        this.routerSpecInfoList = Collections.unmodifiableList(new ArrayList<>(routerSpecInfoList));
+
+        Map<Method, RouteEntry> byMethod = new HashMap<>();
+
+        for (RouteEntry entry : this.entries) {
+            entry.getOriginMethod().ifPresent(method -> byMethod.put(method, entry));
+        }
+
+        this.byMethod = Collections.unmodifiableMap(byMethod);
+    }
+
+    /**
+     * Gets the empty route table.
+     *
+     * @return Empty route table.
+     */
+    @Contract(pure = true)
+    @NotNull
+    public static RouteTable empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates the route table of {@code routerSpec}.
+     *
+     * Guarded routes to the same destination alias share the circuit breaker created from the configuration of the
+     * first of them. The configurations are not checked here, {@code routerSpec} is expected to be created by {@link
+     * com.github.jonathanxd.interoute.InterouteAnnotationParse}, which rejects routers whose routes to the same alias
+     * have different breaker configurations.
+     *
+     * @param routerSpec Router specification.
+     * @return Route table of {@code routerSpec}.
+     */
+    @NotNull
+    public static RouteTable of(@NotNull RouterSpec<?> routerSpec) {
+        List<RouteSpec> routeSpecList = routerSpec.getRouteSpecList();
+        List<RouteEntry> entries = new ArrayList<>(routeSpecList.size());
+        Map<String, ConcurrencyLimiter> limiterGroups = new HashMap<>();
+        Map<String, RouteCircuitBreaker> breakers = new HashMap<>();
+
+        for (int id = 0; id < routeSpecList.size(); id++) {
+            RouteSpec routeSpec = routeSpecList.get(id);
+            MethodDeclaration origin = routeSpec.getOrigin();
+
+            entries.add(new RouteEntry(
+                    id,
+                    new MethodTypeSpecOrigin(new MethodTypeSpec(origin.getType(), origin.getName(), origin.getTypeSpec())),
+                    routeSpec.getOriginMethod().orElse(null),
+                    routeSpec.getDestination(),
+                    routeSpec.getRouteSpecInfoList(),
+                    Collections.unmodifiableList(routeSpec.getOriginParameterSpecs().stream()
+                            .map(RouteParameterSpec::getRouteSpecInfos)
+                            .map(Collections::unmodifiableList)
+                            .collect(Collectors.toList())),
+                    routeSpec.getRouteSpecInfoIndex(),
+                    Collections.unmodifiableList(routeSpec.getOriginParameterSpecs().stream()
+                            .map(RouteParameterSpec::getRouteSpecInfoIndex)
+                            .collect(Collectors.toList())),
+                    routeSpec.getRouteSpecInfo(Cached.class)
+                            .map(info -> RouteCache.of(info.getInstance()))
+                            .orElse(null),
+                    routeSpec.getRouteSpecInfo(Coalesced.class).isPresent() ? SingleFlight.create() : null,
+                    routeSpec.getRouteSpecInfo(Batched.class)
+                            .map(info -> RouteBatcher.of(info.getInstance()))
+                            .orElse(null),
+                    routeSpec.getRouteSpecInfo(Limited.class)
+                            .map(info -> RouteTable.limiter(info.getInstance(), limiterGroups))
+                            .orElse(null),
+                    routeSpec.getRouteSpecInfo(Hedged.class)
+                            .map(info -> RouteHedger.of(info.getInstance()))
+                            .orElse(null),
+                    routeSpec.getRouteSpecInfo(Timeout.class)
+                            .map(info -> RouteTimeout.of(info.getInstance()))
+                            .orElse(null),
+                    routeSpec.getRouteSpecInfo(CircuitBreaker.class)
+                            .map(info -> breakers.computeIfAbsent(RouteTable.getBreakerKey(routeSpec.getDestination()),
+                                    key -> RouteCircuitBreaker.of(info.getInstance())))
+                            .orElse(null)
+            ));
+        }
+
+        return new RouteTable(entries, routerSpec.getRouteSpecInfoList());
+    }
+
+    /**
+     * Gets the key of the circuit breaker which guards routes to {@code destination}. Breakers guard destination
+     * instances, so the key is the alias of the instance, which is the root of the {@link
+     * com.github.jonathanxd.interoute.route.def.SimpleRouteDestinationNotation destination notation}, or the whole
+     * notation if it has no root.
+     *
+     * @param destination Destination notation.
+     * @return Key of the circuit breaker which guards routes to {@code destination}.
+     */
+    @Contract(pure = true)
+    @NotNull
+    public static String getBreakerKey(@NotNull String destination) {
+        int separator = destination.indexOf('.');
+
+        return separator < 0 ? destination : destination.substring(0, separator);
+    }
+
+    private static ConcurrencyLimiter limiter(Limited limited, Map<String, ConcurrencyLimiter> groups) {
+        if (limited.group().isEmpty())
+            return ConcurrencyLimiter.of(limited);
+
+        return groups.computeIfAbsent(limited.group(), group -> ConcurrencyLimiter.of(limited));
+    }
+
+    /**
+     * Gets the route with {@code id}.
+     *
+     * @param id Route id.
+     * @return Route with {@code id}.
+     * @throws IndexOutOfBoundsException If there is no route with {@code id}.
+     */
+    @Contract(pure = true)
+    @NotNull
+    public RouteEntry getRoute(int id) {
+        return this.entries[id];
+    }
+
+    /**
+     * Finds the route of {@code originMethod}.
+     *
+     * @param originMethod Origin method.
+     * @return Route of {@code originMethod} or {@link Optional#empty()} if {@code originMethod} is not a route.
+     */
+    @Contract(pure = true)
+    @NotNull
+    public Optional<RouteEntry> find(@NotNull Method originMethod) {
+        return Optional.ofNullable(this.byMethod.get(originMethod));
+    }
+
+    /**
+     * Gets the amount of routes.
+     *
+     * @return Amount of routes.
+     */
+    @Contract(pure = true)
+    public int size() {
+        return this.entries.length;
+    }
+
+    /**
+     * Gets all routes, ordered by id.
+     *
+     * @return All routes, ordered by id.
+     */
+    @Contract(pure = true)
+    @NotNull
+    public List<RouteEntry> getRoutes() {
+        return this.entryList;
+    }
+
+    /**
+     * Gets the unified specifications of router interface.
+     *
+     * @return Unified specifications of router interface.
+     */
+    @Contract(pure = true)
+    @NotNull
+    public List<RouteSpecInfo<?>> getRouterSpecInfoList() {
+        return this.routerSpecInfoList;
+    }
+
+    @Contract(pure = true)
+    @NotNull
+    @Override
+    public String toString() {
+        return "RouteTable{" +
+                "routes=" + entryList +
+                ", routerSpecInfoList=" + routerSpecInfoList +
+                '}';
+    }
+}
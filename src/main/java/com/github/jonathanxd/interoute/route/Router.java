@@ -29,6 +29,12 @@ package com.github.jonathanxd.interoute.route;
 
 import com.github.jonathanxd.interoute.backend.InterouteBackend;
 import com.github.jonathanxd.interoute.backend.InterouteBackendConfiguration;
+import com.github.jonathanxd.interoute.backend.RebindableConfiguration;
+import com.github.jonathanxd.interoute.exception.RoutingException;
+import com.github.jonathanxd.interoute.util.RouterWarmUp;
+import com.github.jonathanxd.iutils.object.result.Result;
+
+import org.jetbrains.annotations.NotNull;
 
 import java.util.Optional;
 
@@ -49,4 +55,48 @@ public interface Router {
      * @return Configuration used by the {@link #getBackend() backend} to generate this router implementation.
      */
     Optional<InterouteBackendConfiguration> getBackendConfiguration();
+
+    /**
+     * Gets the immutable {@link RouteTable route table} of this router, computed when this router was generated.
+     *
+     * @return Route table of this router, or {@link Optional#empty()} if this router does not carry a route table.
+     */
+    default Optional<RouteTable> getRouteTable() {
+        return Optional.empty();
+    }
+
+    /**
+     * Warm-up this router before it receives traffic. This links call sites of route methods, loads classes involved in route
+     * execution and optionally executes synthetic invocations until routes reaches the {@link WarmUpOptions#getTier()
+     * configured compilation tier}.
+     *
+     * @param options Warm-up options.
+     * @return Result with either amount of synthetic invocations or the exception which interrupted the warm-up.
+     */
+    @NotNull
+    default Result<Integer, RoutingException> warmUp(@NotNull WarmUpOptions options) {
+        return RouterWarmUp.warmUp(this, options);
+    }
+
+    /**
+     * Atomically replaces the destination instance registered with {@code alias} in the {@link #getBackendConfiguration()
+     * backend configuration} of this router, without generating a new router.
+     *
+     * @param alias    Alias of the destination instance.
+     * @param instance New instance.
+     * @throws UnsupportedOperationException If the backend configuration is not a {@link RebindableConfiguration}.
+     * @throws IllegalStateException         If the backend configuration does not support rebinding.
+     * @throws IllegalArgumentException      If there is no instance registered with {@code alias} or if {@code instance} is
+     *                                       not compatible with the type used to generate this router.
+     */
+    default void rebind(@NotNull String alias, @NotNull Object instance) {
+        InterouteBackendConfiguration configuration = this.getBackendConfiguration()
+                .orElseThrow(() -> new UnsupportedOperationException("Router does not have a backend configuration."));
+
+        if (!(configuration instanceof RebindableConfiguration))
+            throw new UnsupportedOperationException(String.format("Backend configuration '%s' does not support rebinding.",
+                    configuration));
+
+        ((RebindableConfiguration) configuration).rebind(alias, instance);
+    }
 }
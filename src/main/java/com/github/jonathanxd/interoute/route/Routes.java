@@ -0,0 +1,115 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.route;
+
+import com.github.jonathanxd.interoute.exception.RouteRejectedException;
+import com.github.jonathanxd.interoute.exception.RoutingException;
+import com.github.jonathanxd.interoute.route.cancel.CancellableTask;
+import com.github.jonathanxd.iutils.object.result.Result;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Utilities of {@link Route routes}.
+ */
+public final class Routes {
+
+    private Routes() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Executes all {@code routes} as one {@link RouteGroup group}, instead of executing each route and joining all
+     * futures with {@link CompletableFuture#allOf(CompletableFuture[])}.
+     *
+     * @param routes Routes to execute.
+     * @param <R>    Type of route results.
+     * @return Future completed with results of all {@code routes}, in iteration order of {@code routes}.
+     */
+    @NotNull
+    public static <R> CompletableFuture<List<Result<R, RoutingException>>> executeAll(
+            @NotNull Collection<? extends Route<? extends R>> routes) {
+        return RouteGroup.<R>of(routes).execute();
+    }
+
+    /**
+     * Executes {@code supplier} asynchronously in {@code executor}, like {@link CompletableFuture#supplyAsync(Supplier,
+     * Executor)}, but executions rejected by {@code executor}, such as executions submitted to a full partition, complete
+     * with a {@link RouteRejectedException} error instead of throwing {@link RejectedExecutionException}. Used by
+     * generated routes which executes in a route executor.
+     *
+     * @param supplier Supplier of the route result.
+     * @param executor Executor of the route.
+     * @param <R>      Type of route result.
+     * @return Future completed with the result of {@code supplier}, or with a {@link RouteRejectedException} error.
+     */
+    @NotNull
+    public static <R> CompletableFuture<Result<R, RoutingException>> supplyAsync(
+            @NotNull Supplier<Result<R, RoutingException>> supplier,
+            @NotNull Executor executor) {
+        try {
+            return CompletableFuture.supplyAsync(supplier, executor);
+        } catch (RejectedExecutionException e) {
+            return Routes.rejected(e);
+        }
+    }
+
+    /**
+     * Executes {@code supplier} asynchronously in {@code executor} with a {@link CancellableTask}, executions rejected by
+     * {@code executor} complete with a {@link RouteRejectedException} error, see {@link #supplyAsync(Supplier,
+     * Executor)}.
+     *
+     * @param supplier  Supplier of the route result.
+     * @param executor  Executor of the route.
+     * @param interrupt Whether the worker thread is interrupted when the task is cancelled while running.
+     * @param <R>       Type of route result.
+     * @return Future completed with the result of {@code supplier}, or with a {@link RouteRejectedException} error.
+     */
+    @NotNull
+    public static <R> CompletableFuture<Result<R, RoutingException>> supplyAsync(
+            @NotNull Supplier<Result<R, RoutingException>> supplier,
+            @NotNull Executor executor,
+            boolean interrupt) {
+        try {
+            return CancellableTask.supplyAsync(supplier, executor, interrupt);
+        } catch (RejectedExecutionException e) {
+            return Routes.rejected(e);
+        }
+    }
+
+    private static <R> CompletableFuture<Result<R, RoutingException>> rejected(RejectedExecutionException e) {
+        return CompletableFuture.completedFuture(Result.error(new RouteRejectedException(e.getMessage())));
+    }
+}
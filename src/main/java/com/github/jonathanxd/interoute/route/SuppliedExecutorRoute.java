@@ -31,6 +31,7 @@ import com.github.jonathanxd.interoute.exception.RoutingException;
 import com.github.jonathanxd.iutils.object.result.Result;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
@@ -46,6 +47,13 @@ public final class SuppliedExecutorRoute<R> extends AbstractRoute<R> {
     @NotNull
     private final Supplier<CompletableFuture<Result<R, RoutingException>>> supplier;
 
+    /**
+     * Supplier which executes the route in the calling thread, {@code null} if the route is not {@link #isDirect()
+     * direct}.
+     */
+    @Nullable
+    private final Supplier<Result<R, RoutingException>> invoker;
+
     /**
      * Constructs the {@link SuppliedExecutorRoute}.
      *
@@ -56,12 +64,66 @@ public final class SuppliedExecutorRoute<R> extends AbstractRoute<R> {
     public SuppliedExecutorRoute(@NotNull Origin origin,
                                  @NotNull Destination destination,
                                  @NotNull Supplier<CompletableFuture<Result<R, RoutingException>>> supplier) {
+        this(origin, destination, supplier, null);
+    }
+
+    /**
+     * Constructs the {@link SuppliedExecutorRoute}.
+     *
+     * @param origin      Route origin.
+     * @param destination Route destination.
+     * @param supplier    Supplier of {@link Route} {@link CompletableFuture}.
+     * @param invoker     Supplier which executes the route in the calling thread, {@code null} if the route is not
+     *                    {@link #isDirect() direct}.
+     */
+    public SuppliedExecutorRoute(@NotNull Origin origin,
+                                 @NotNull Destination destination,
+                                 @NotNull Supplier<CompletableFuture<Result<R, RoutingException>>> supplier,
+                                 @Nullable Supplier<Result<R, RoutingException>> invoker) {
         super(origin, destination);
         this.supplier = supplier;
+        this.invoker = invoker;
+    }
+
+    /**
+     * Creates the {@link SuppliedExecutorRoute} which is always executed in the calling thread, used by routes which
+     * destination only creates another route, such as routes to a {@link Router router}.
+     *
+     * @param origin      Route origin.
+     * @param destination Route destination.
+     * @param invoker     Supplier which executes the route in the calling thread.
+     * @param <R>         Result type.
+     * @return {@link SuppliedExecutorRoute} which is always executed in the calling thread.
+     */
+    @NotNull
+    public static <R> SuppliedExecutorRoute<R> direct(@NotNull Origin origin,
+                                                      @NotNull Destination destination,
+                                                      @NotNull Supplier<Result<R, RoutingException>> invoker) {
+        return new SuppliedExecutorRoute<>(origin, destination,
+                () -> CompletableFuture.completedFuture(Deadline.bind(invoker).get()), invoker);
     }
 
     @Override
     public CompletableFuture<Result<R, RoutingException>> execute() {
         return this.supplier.get();
     }
+
+    /**
+     * Invokes the route in the calling thread if the route is {@link #isDirect() direct}, or fails without invoking the
+     * destination if the {@link Deadline deadline} of the calling thread has expired.
+     *
+     * @return {@link Result} responded by {@link #getDestination() Destination}.
+     */
+    @Override
+    public Result<R, RoutingException> invoke() {
+        if (this.invoker == null)
+            return super.invoke();
+
+        return Deadline.isCurrentExpired() ? Deadline.expiredResult() : this.invoker.get();
+    }
+
+    @Override
+    public boolean isDirect() {
+        return this.invoker != null;
+    }
 }
@@ -0,0 +1,297 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.route;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Options of {@link Router#warmUp(WarmUpOptions) router warm-up}.
+ *
+ * Warm-up always links call sites and loads classes involved in route creation, synthetic invocations are only executed when
+ * {@link #isInvokeRoutes()} is {@code true}, this is disabled by default because synthetic invocations reaches the route
+ * destination.
+ */
+public final class WarmUpOptions {
+
+    /**
+     * Primitive types and their default values, used as sample values when no sample is registered for these types.
+     */
+    private static final Map<Class<?>, Object> DEFAULT_VALUES;
+
+    static {
+        Map<Class<?>, Object> defaults = new HashMap<>();
+        defaults.put(Boolean.TYPE, false);
+        defaults.put(Byte.TYPE, (byte) 0);
+        defaults.put(Short.TYPE, (short) 0);
+        defaults.put(Character.TYPE, '\0');
+        defaults.put(Integer.TYPE, 0);
+        defaults.put(Long.TYPE, 0L);
+        defaults.put(Float.TYPE, 0F);
+        defaults.put(Double.TYPE, 0D);
+        DEFAULT_VALUES = Collections.unmodifiableMap(defaults);
+    }
+
+    /**
+     * Whether synthetic invocations should be executed or not.
+     */
+    private final boolean invokeRoutes;
+
+    /**
+     * Compilation tier to reach with synthetic invocations.
+     */
+    @NotNull
+    private final CompilationTier tier;
+
+    /**
+     * Amount of synthetic invocations per route, a negative value means that the amount is derived from {@link #tier}.
+     */
+    private final int invocations;
+
+    /**
+     * Sample argument suppliers.
+     */
+    @NotNull
+    private final Map<Class<?>, Supplier<?>> samples;
+
+    private WarmUpOptions(boolean invokeRoutes,
+                          @NotNull CompilationTier tier,
+                          int invocations,
+                          @NotNull Map<Class<?>, Supplier<?>> samples) {
+        this.invokeRoutes = invokeRoutes;
+        this.tier = Objects.requireNonNull(tier, "Tier cannot be null.");
+        this.invocations = invocations;
+        this.samples = Collections.unmodifiableMap(new HashMap<>(samples));
+    }
+
+    /**
+     * Creates default warm-up options, which only links call sites and loads route classes.
+     *
+     * @return Default warm-up options.
+     */
+    public static WarmUpOptions linkOnly() {
+        return WarmUpOptions.builder().build();
+    }
+
+    /**
+     * Creates a builder of {@link WarmUpOptions}.
+     *
+     * @return Builder of {@link WarmUpOptions}.
+     */
+    public static WarmUpOptions.Builder builder() {
+        return new WarmUpOptions.Builder();
+    }
+
+    /**
+     * Returns whether synthetic invocations should be executed or not.
+     *
+     * @return Whether synthetic invocations should be executed or not.
+     */
+    public boolean isInvokeRoutes() {
+        return this.invokeRoutes;
+    }
+
+    /**
+     * Gets the compilation tier to reach with synthetic invocations.
+     *
+     * @return Compilation tier to reach with synthetic invocations.
+     */
+    @NotNull
+    public CompilationTier getTier() {
+        return this.tier;
+    }
+
+    /**
+     * Gets the amount of synthetic invocations to execute per route. When not explicitly configured, this amount is the
+     * {@link CompilationTier#getInvocationThreshold() invocation threshold} of {@link #getTier() tier}.
+     *
+     * @return Amount of synthetic invocations to execute per route.
+     */
+    public int getInvocations() {
+        return this.invocations < 0 ? this.getTier().getInvocationThreshold() : this.invocations;
+    }
+
+    /**
+     * Gets sample argument supplier of {@code type}. Primitive types always have a sample value, which is the default value
+     * of the type, unless a sample is registered for the type.
+     *
+     * @param type Type of argument.
+     * @return Optional with sample supplier if found, or {@link Optional#empty()} otherwise.
+     */
+    @NotNull
+    public Optional<Supplier<?>> getSample(@NotNull Class<?> type) {
+        Supplier<?> supplier = this.samples.get(type);
+
+        if (supplier != null)
+            return Optional.of(supplier);
+
+        if (DEFAULT_VALUES.containsKey(type)) {
+            Object value = DEFAULT_VALUES.get(type);
+            return Optional.of(() -> value);
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Compilation tier to reach with synthetic invocations. Thresholds are read from HotSpot flags when available.
+     */
+    public enum CompilationTier {
+        /**
+         * Only link call sites.
+         */
+        NONE(null, 0),
+
+        /**
+         * Reach C1 compiler (with full profiling) threshold.
+         */
+        C1("Tier3InvocationThreshold", 200),
+
+        /**
+         * Reach C2 compiler threshold.
+         */
+        C2("Tier4InvocationThreshold", 5000);
+
+        private final int invocationThreshold;
+
+        CompilationTier(String flag, int defaultThreshold) {
+            this.invocationThreshold = CompilationTier.readThreshold(flag, defaultThreshold);
+        }
+
+        private static int readThreshold(String flag, int defaultThreshold) {
+            if (flag == null)
+                return defaultThreshold;
+
+            try {
+                HotSpotDiagnosticMXBean bean = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+
+                if (bean != null)
+                    return Integer.parseInt(bean.getVMOption(flag).getValue());
+            } catch (Throwable ignored) {
+            }
+
+            return defaultThreshold;
+        }
+
+        /**
+         * Gets the amount of invocations needed to reach this tier.
+         *
+         * @return Amount of invocations needed to reach this tier.
+         */
+        public int getInvocationThreshold() {
+            return this.invocationThreshold;
+        }
+    }
+
+    /**
+     * Builder of {@link WarmUpOptions}.
+     */
+    public static class Builder {
+        private final Map<Class<?>, Supplier<?>> samples = new HashMap<>();
+        private boolean invokeRoutes = false;
+        private CompilationTier tier = CompilationTier.NONE;
+        private int invocations = -1;
+
+        private Builder() {
+        }
+
+        /**
+         * Enables synthetic invocations until routes reach {@code tier}.
+         *
+         * @param tier Compilation tier to reach.
+         * @return {@code this} builder.
+         */
+        public Builder invokeRoutes(@NotNull CompilationTier tier) {
+            this.tier = Objects.requireNonNull(tier, "Tier cannot be null.");
+            this.invokeRoutes = tier != CompilationTier.NONE;
+            return this;
+        }
+
+        /**
+         * Sets the amount of synthetic invocations per route, overriding the {@link CompilationTier#getInvocationThreshold()
+         * tier threshold}.
+         *
+         * @param invocations Amount of synthetic invocations per route.
+         * @return {@code this} builder.
+         */
+        public Builder invocations(int invocations) {
+            if (invocations < 0)
+                throw new IllegalArgumentException("Invocations cannot be negative.");
+
+            this.invocations = invocations;
+            return this;
+        }
+
+        /**
+         * Registers a sample argument of {@code type}. Routes which have a parameter with no sample registered are only
+         * invoked if all parameters are primitive.
+         *
+         * @param type   Type of argument.
+         * @param sample Sample argument supplier.
+         * @param <T>    Argument type.
+         * @return {@code this} builder.
+         */
+        public <T> Builder sample(@NotNull Class<T> type, @NotNull Supplier<? extends T> sample) {
+            Objects.requireNonNull(type, "Type cannot be null.");
+            Objects.requireNonNull(sample, "Sample cannot be null.");
+            this.samples.put(type, sample);
+            return this;
+        }
+
+        /**
+         * Registers a sample argument of {@code type}.
+         *
+         * @param type   Type of argument.
+         * @param sample Sample argument.
+         * @param <T>    Argument type.
+         * @return {@code this} builder.
+         */
+        public <T> Builder sampleValue(@NotNull Class<T> type, @NotNull T sample) {
+            Objects.requireNonNull(sample, "Sample cannot be null.");
+            return this.sample(type, (Supplier<T>) () -> sample);
+        }
+
+        /**
+         * Build the options.
+         *
+         * @return Options.
+         */
+        public WarmUpOptions build() {
+            return new WarmUpOptions(this.invokeRoutes, this.tier, this.invocations, this.samples);
+        }
+    }
+}
@@ -0,0 +1,375 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.route.batch;
+
+import com.github.jonathanxd.interoute.annotation.Batched;
+import com.github.jonathanxd.interoute.backend.def.ScopedInstance;
+import com.github.jonathanxd.interoute.exception.RoutingException;
+import com.github.jonathanxd.interoute.util.HashedWheelTimer;
+import com.github.jonathanxd.iutils.object.result.Result;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Collects executions of a {@link Batched batched} route into batches and dispatches each batch once to the bulk method
+ * of the destination instance, splitting its results back into the future of each execution.
+ *
+ * Batches are dispatched in the {@link java.util.concurrent.ForkJoinPool#commonPool() common pool}. Executions with a
+ * destination instance distinct from the instance of the pending batch dispatch the pending batch first, so a batch
+ * never mixes instances.
+ */
+public final class RouteBatcher {
+
+    private static final MethodType BULK_TYPE = MethodType.methodType(Object.class, Object.class, List.class);
+
+    /**
+     * Name of the bulk method.
+     */
+    @NotNull
+    private final String method;
+
+    private final int maxSize;
+    private final long maxDelayNanos;
+
+    /**
+     * Pending batch, guarded by {@code this}.
+     */
+    @Nullable
+    private Batch pending;
+
+    /**
+     * Last resolved bulk method, by destination type.
+     */
+    @Nullable
+    private volatile BulkMethod bulkMethod;
+
+    private final LongAdder batchCount = new LongAdder();
+    private final LongAdder executionCount = new LongAdder();
+
+    private RouteBatcher(@NotNull String method, int maxSize, long maxDelayNanos) {
+        this.method = method;
+        this.maxSize = maxSize;
+        this.maxDelayNanos = maxDelayNanos;
+    }
+
+    /**
+     * Creates a route batcher.
+     *
+     * @param method   Name of the bulk method of the destination type.
+     * @param maxSize  Maximum amount of executions of a batch.
+     * @param maxDelay Maximum duration which the first execution of a batch waits for other executions.
+     * @param unit     Unit of {@code maxDelay}.
+     * @return Route batcher.
+     * @throws IllegalArgumentException If {@code maxSize} is not positive or {@code maxDelay} is negative.
+     */
+    @NotNull
+    public static RouteBatcher create(@NotNull String method, int maxSize, long maxDelay, @NotNull TimeUnit unit) {
+        if (maxSize <= 0)
+            throw new IllegalArgumentException("Maximum size must be positive: " + maxSize);
+
+        if (maxDelay < 0)
+            throw new IllegalArgumentException("Maximum delay must not be negative: " + maxDelay);
+
+        return new RouteBatcher(method, maxSize, unit.toNanos(maxDelay));
+    }
+
+    /**
+     * Creates the route batcher specified by {@code batched}.
+     *
+     * @param batched Batch specification.
+     * @return Route batcher specified by {@code batched}.
+     */
+    @NotNull
+    public static RouteBatcher of(@NotNull Batched batched) {
+        return RouteBatcher.create(batched.value(), batched.maxSize(), batched.maxDelay(), batched.unit());
+    }
+
+    /**
+     * Finds the bulk method named {@code name} in {@code type}.
+     *
+     * @param type Destination type.
+     * @param name Name of bulk method.
+     * @return Public bulk method named {@code name} which receives a single {@link List} and returns a {@link List}, or
+     * {@link Optional#empty()} if there is no such method.
+     */
+    @NotNull
+    public static Optional<Method> findBulkMethod(@NotNull Class<?> type, @NotNull String name) {
+        try {
+            Method method = type.getMethod(name, List.class);
+
+            return List.class.isAssignableFrom(method.getReturnType()) ? Optional.of(method) : Optional.empty();
+        } catch (NoSuchMethodException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Creates the supplier which submits an execution with {@code arguments} to the batch of {@code instance}.
+     *
+     * @param instance  Destination instance or {@link ScopedInstance scoped instance}.
+     * @param arguments Route arguments.
+     * @param <R>       Result type.
+     * @return Supplier which submits an execution with {@code arguments}.
+     */
+    @NotNull
+    public <R> Supplier<CompletableFuture<Result<R, RoutingException>>> supplier(@NotNull Object instance,
+                                                                                @NotNull Object[] arguments) {
+        return () -> this.submit(instance, arguments);
+    }
+
+    /**
+     * Submits an execution with {@code arguments} to the batch of {@code instance}.
+     *
+     * @param instance  Destination instance or {@link ScopedInstance scoped instance}.
+     * @param arguments Route arguments.
+     * @param <R>       Result type.
+     * @return Future which completes with the result of the execution once its batch is dispatched.
+     */
+    @SuppressWarnings("unchecked")
+    @NotNull
+    public <R> CompletableFuture<Result<R, RoutingException>> submit(@NotNull Object instance,
+                                                                     @NotNull Object[] arguments) {
+        CompletableFuture<Result<Object, RoutingException>> future = new CompletableFuture<>();
+        Batch dispatch = null;
+        Batch displaced = null;
+
+        this.executionCount.increment();
+
+        synchronized (this) {
+            Batch batch = this.pending;
+
+            if (batch != null && batch.instance != instance) {
+                displaced = batch;
+                batch = null;
+            }
+
+            if (batch == null) {
+                batch = new Batch(instance, this.maxSize);
+                this.pending = batch;
+
+                if (this.maxSize > 1 && this.maxDelayNanos > 0) {
+                    Batch scheduled = batch;
+                    batch.timer = HashedWheelTimer.shared()
+                            .schedule(() -> this.flush(scheduled), this.maxDelayNanos, TimeUnit.NANOSECONDS);
+                }
+            }
+
+            batch.arguments.add(arguments.length == 1 ? arguments[0] : arguments);
+            batch.futures.add(future);
+
+            if (batch.arguments.size() >= this.maxSize || batch.timer == null) {
+                this.pending = null;
+                dispatch = batch;
+            }
+        }
+
+        if (displaced != null)
+            this.dispatch(displaced);
+
+        if (dispatch != null)
+            this.dispatch(dispatch);
+
+        return (CompletableFuture<Result<R, RoutingException>>) (CompletableFuture<?>) future;
+    }
+
+    /**
+     * Dispatches the pending batch if it is still {@code batch}.
+     */
+    private void flush(Batch batch) {
+        synchronized (this) {
+            if (this.pending != batch)
+                return;
+
+            this.pending = null;
+        }
+
+        this.dispatch(batch);
+    }
+
+    private void dispatch(Batch batch) {
+        if (batch.timer != null)
+            batch.timer.cancel();
+
+        this.batchCount.increment();
+        CompletableFuture.runAsync(() -> this.execute(batch));
+    }
+
+    private void execute(Batch batch) {
+        List<?> results;
+
+        try {
+            results = this.invoke(batch);
+        } catch (Throwable t) {
+            RoutingException exception = new RoutingException(t);
+
+            for (CompletableFuture<Result<Object, RoutingException>> future : batch.futures) {
+                future.complete(Result.error(exception));
+            }
+
+            return;
+        }
+
+        for (int i = 0; i < batch.futures.size(); ++i) {
+            batch.futures.get(i).complete(RouteBatcher.toResult(results.get(i)));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<?> invoke(Batch batch) throws Throwable {
+        Object instance = batch.instance;
+        ScopedInstance<Object> scopedInstance = null;
+
+        if (instance instanceof ScopedInstance<?>) {
+            scopedInstance = (ScopedInstance<Object>) instance;
+            instance = scopedInstance.acquire();
+        }
+
+        try {
+            Object results = this.getBulkMethod(instance.getClass()).invokeExact(instance, (List) batch.arguments);
+
+            if (!(results instanceof List<?>) || ((List<?>) results).size() != batch.arguments.size())
+                throw new IllegalStateException(String.format("Bulk method '%s' returned %s for %d executions.",
+                        this.method, results, batch.arguments.size()));
+
+            return (List<?>) results;
+        } finally {
+            if (scopedInstance != null)
+                scopedInstance.release(instance);
+        }
+    }
+
+    private MethodHandle getBulkMethod(Class<?> type) throws IllegalAccessException {
+        BulkMethod bulkMethod = this.bulkMethod;
+
+        if (bulkMethod == null || bulkMethod.type != type) {
+            Method method = RouteBatcher.findBulkMethod(type, this.method)
+                    .orElseThrow(() -> new IllegalStateException(String.format("Missing bulk method '%s' in '%s'.",
+                            this.method, type)));
+
+            bulkMethod = new BulkMethod(type, MethodHandles.publicLookup().unreflect(method).asType(BULK_TYPE));
+            this.bulkMethod = bulkMethod;
+        }
+
+        return bulkMethod.handle;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Result<Object, RoutingException> toResult(Object result) {
+        if (result instanceof Result<?, ?>)
+            return (Result<Object, RoutingException>) result;
+
+        return Result.ok(result);
+    }
+
+    /**
+     * Gets the name of the bulk method.
+     *
+     * @return Name of the bulk method.
+     */
+    @Contract(pure = true)
+    @NotNull
+    public String getMethod() {
+        return this.method;
+    }
+
+    /**
+     * Gets the maximum amount of executions of a batch.
+     *
+     * @return Maximum amount of executions of a batch.
+     */
+    @Contract(pure = true)
+    public int getMaxSize() {
+        return this.maxSize;
+    }
+
+    /**
+     * Gets the amount of dispatched batches.
+     *
+     * @return Amount of dispatched batches.
+     */
+    public long getBatchCount() {
+        return this.batchCount.sum();
+    }
+
+    /**
+     * Gets the amount of submitted executions.
+     *
+     * @return Amount of submitted executions.
+     */
+    public long getExecutionCount() {
+        return this.executionCount.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "RouteBatcher{" +
+                "method='" + method + '\'' +
+                ", maxSize=" + maxSize +
+                ", maxDelayNanos=" + maxDelayNanos +
+                ", batchCount=" + this.getBatchCount() +
+                ", executionCount=" + this.getExecutionCount() +
+                '}';
+    }
+
+    private static final class Batch {
+        private final Object instance;
+        private final List<Object> arguments;
+        private final List<CompletableFuture<Result<Object, RoutingException>>> futures;
+        private HashedWheelTimer.Handle timer;
+
+        Batch(Object instance, int maxSize) {
+            this.instance = instance;
+            this.arguments = new ArrayList<>(Math.min(maxSize, 16));
+            this.futures = new ArrayList<>(Math.min(maxSize, 16));
+        }
+    }
+
+    private static final class BulkMethod {
+        private final Class<?> type;
+        private final MethodHandle handle;
+
+        BulkMethod(Class<?> type, MethodHandle handle) {
+            this.type = type;
+            this.handle = handle;
+        }
+    }
+}
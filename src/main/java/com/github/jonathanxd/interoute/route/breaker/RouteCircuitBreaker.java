@@ -0,0 +1,437 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.route.breaker;
+
+import com.github.jonathanxd.interoute.annotation.CircuitBreaker;
+import com.github.jonathanxd.interoute.exception.RouteCircuitOpenException;
+import com.github.jonathanxd.interoute.exception.RouteRejectedException;
+import com.github.jonathanxd.interoute.exception.RoutingException;
+import com.github.jonathanxd.iutils.object.result.Result;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker of the destination of {@link CircuitBreaker guarded} routes.
+ *
+ * While {@link State#CLOSED closed}, the outcome of every execution is recorded in a sliding window of the last
+ * executions, and the circuit opens when the failure rate of the window reaches the threshold. Executions which complete
+ * exceptionally or with an error are failures, except {@link RouteRejectedException rejections} by a limiter and
+ * cancellations. While {@link State#OPEN open}, executions complete with a preallocated {@link
+ * RouteCircuitOpenException} without invoking the destination. After the open duration, the circuit is {@link
+ * State#HALF_OPEN half-open} and lets a fixed amount of trial executions through, closing when all of them succeed and
+ * opening again on the first failure.
+ *
+ * Executions of a closed circuit only read the state once, transitions are serialized by a lock.
+ */
+public final class RouteCircuitBreaker {
+
+    private static final int CLOSED = 0;
+    private static final int OPEN = 1;
+    private static final int HALF_OPEN = 2;
+
+    private final double failureRate;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final long openDurationNanos;
+    private final int halfOpenCalls;
+
+    /**
+     * Result of executions short-circuited while the circuit is open.
+     */
+    @NotNull
+    private final Result<?, RoutingException> openResult;
+
+    private final AtomicInteger state = new AtomicInteger(CLOSED);
+    private final AtomicInteger trialPermits = new AtomicInteger();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder openCount = new LongAdder();
+    private final ReentrantLock transitionLock = new ReentrantLock();
+
+    /**
+     * Outcomes of executions of the closed circuit, replaced when the circuit closes.
+     */
+    private volatile Window window;
+
+    /**
+     * Time which the circuit opened, in {@link System#nanoTime()} time.
+     */
+    private volatile long openedAt;
+
+    /**
+     * Successful trial executions of the half-open circuit, guarded by {@link #transitionLock}.
+     */
+    private int trialSuccesses;
+
+    private RouteCircuitBreaker(double failureRate,
+                                int windowSize,
+                                int minimumCalls,
+                                long openDurationNanos,
+                                int halfOpenCalls) {
+        this.failureRate = failureRate;
+        this.windowSize = windowSize;
+        this.minimumCalls = minimumCalls;
+        this.openDurationNanos = openDurationNanos;
+        this.halfOpenCalls = halfOpenCalls;
+        this.openResult = Result.error(new RouteCircuitOpenException("Circuit of the destination is open."));
+        this.window = new Window(windowSize);
+    }
+
+    /**
+     * Creates a circuit breaker.
+     *
+     * @param failureRate   Failure rate of the window which opens the circuit, between {@code 0} and {@code 1}.
+     * @param window        Amount of last executions which the failure rate is computed from.
+     * @param minimumCalls  Amount of executions recorded in the window before the circuit may open.
+     * @param openDuration  Duration which the circuit stays open before trial executions are let through.
+     * @param unit          Unit of {@code openDuration}.
+     * @param halfOpenCalls Amount of trial executions let through while the circuit is half-open.
+     * @return Circuit breaker.
+     * @throws IllegalArgumentException If any argument is out of range.
+     */
+    @NotNull
+    public static RouteCircuitBreaker create(double failureRate,
+                                             int window,
+                                             int minimumCalls,
+                                             long openDuration,
+                                             @NotNull TimeUnit unit,
+                                             int halfOpenCalls) {
+        if (failureRate <= 0 || failureRate > 1)
+            throw new IllegalArgumentException("Failure rate must be in (0, 1]: " + failureRate);
+
+        if (window < 1 || minimumCalls < 1 || halfOpenCalls < 1)
+            throw new IllegalArgumentException("Window, minimum calls and half-open calls must be positive.");
+
+        if (openDuration < 0)
+            throw new IllegalArgumentException("Open duration must not be negative: " + openDuration);
+
+        return new RouteCircuitBreaker(failureRate, window, Math.min(window, minimumCalls), unit.toNanos(openDuration),
+                halfOpenCalls);
+    }
+
+    /**
+     * Creates the circuit breaker configured by {@code circuitBreaker}.
+     *
+     * @param circuitBreaker Circuit breaker configuration.
+     * @return Circuit breaker configured by {@code circuitBreaker}.
+     */
+    @NotNull
+    public static RouteCircuitBreaker of(@NotNull CircuitBreaker circuitBreaker) {
+        return RouteCircuitBreaker.create(
+                circuitBreaker.failureRate(),
+                circuitBreaker.window(),
+                circuitBreaker.minimumCalls(),
+                circuitBreaker.openDuration(),
+                circuitBreaker.unit(),
+                circuitBreaker.halfOpenCalls()
+        );
+    }
+
+    /**
+     * Creates the supplier which executes {@code loader} through the circuit.
+     *
+     * @param loader Supplier of the future which executes the route.
+     * @param <R>    Result type.
+     * @return Supplier which executes {@code loader} through the circuit.
+     */
+    @NotNull
+    public <R> Supplier<CompletableFuture<Result<R, RoutingException>>> supplier(
+            @NotNull Supplier<CompletableFuture<Result<R, RoutingException>>> loader) {
+        return () -> this.execute(loader);
+    }
+
+    /**
+     * Executes the future of {@code loader} if the circuit lets the execution through, and records its outcome.
+     *
+     * @param loader Supplier of the future which executes the route.
+     * @param <R>    Result type.
+     * @return Future of {@code loader}, or a completed future with a {@link RouteCircuitOpenException} if the circuit is
+     * open.
+     */
+    @SuppressWarnings("unchecked")
+    @NotNull
+    public <R> CompletableFuture<Result<R, RoutingException>> execute(
+            @NotNull Supplier<CompletableFuture<Result<R, RoutingException>>> loader) {
+        int state = this.state.get();
+        boolean trial = state != CLOSED;
+
+        if (trial && !this.tryAcquireTrial(state)) {
+            this.rejectedCount.increment();
+            return CompletableFuture.completedFuture((Result<R, RoutingException>) this.openResult);
+        }
+
+        CompletableFuture<Result<R, RoutingException>> future;
+
+        try {
+            future = loader.get();
+        } catch (Throwable t) {
+            this.record(trial, true);
+            throw t;
+        }
+
+        future.whenComplete((result, throwable) -> {
+            if (RouteCircuitBreaker.isIgnored(result, throwable)) {
+                if (trial)
+                    this.releaseTrial();
+            } else {
+                this.record(trial, throwable != null || !(result instanceof Result.Ok<?, ?>));
+            }
+        });
+
+        return future;
+    }
+
+    /**
+     * Acquires a trial execution of the half-open circuit, moving the circuit from open to half-open once the open
+     * duration has elapsed.
+     */
+    private boolean tryAcquireTrial(int state) {
+        if (state == OPEN) {
+            if (System.nanoTime() - this.openedAt < this.openDurationNanos)
+                return false;
+
+            this.transitionLock.lock();
+
+            try {
+                if (this.state.get() == OPEN && System.nanoTime() - this.openedAt >= this.openDurationNanos) {
+                    this.trialSuccesses = 0;
+                    this.trialPermits.set(this.halfOpenCalls);
+                    this.state.set(HALF_OPEN);
+                }
+            } finally {
+                this.transitionLock.unlock();
+            }
+        }
+
+        for (;;) {
+            int permits = this.trialPermits.get();
+
+            if (permits <= 0)
+                return false;
+
+            if (this.trialPermits.compareAndSet(permits, permits - 1))
+                return true;
+        }
+    }
+
+    /**
+     * Returns whether the outcome is not recorded, which is the case of cancellations and rejections by a limiter.
+     */
+    private static boolean isIgnored(Result<?, RoutingException> result, Throwable throwable) {
+        return throwable instanceof CancellationException
+                || result instanceof Result.Err<?, ?>
+                && ((Result.Err<?, RoutingException>) result).error() instanceof RouteRejectedException;
+    }
+
+    /**
+     * Gives back the permit of a trial execution which outcome is not recorded.
+     */
+    private void releaseTrial() {
+        this.transitionLock.lock();
+
+        try {
+            if (this.state.get() == HALF_OPEN)
+                this.trialPermits.incrementAndGet();
+        } finally {
+            this.transitionLock.unlock();
+        }
+    }
+
+    private void record(boolean trial, boolean failure) {
+        if (trial) {
+            this.transitionLock.lock();
+
+            try {
+                if (this.state.get() != HALF_OPEN)
+                    return;
+
+                if (failure)
+                    this.open();
+                else if (++this.trialSuccesses >= this.halfOpenCalls)
+                    this.close();
+            } finally {
+                this.transitionLock.unlock();
+            }
+
+            return;
+        }
+
+        Window window = this.window;
+        window.record(failure);
+
+        if (!failure || this.state.get() != CLOSED || !window.isTripped(this.minimumCalls, this.failureRate))
+            return;
+
+        this.transitionLock.lock();
+
+        try {
+            if (this.state.get() == CLOSED && this.window == window)
+                this.open();
+        } finally {
+            this.transitionLock.unlock();
+        }
+    }
+
+    /**
+     * Opens the circuit, must hold {@link #transitionLock}.
+     */
+    private void open() {
+        this.trialPermits.set(0);
+        this.openedAt = System.nanoTime();
+        this.state.set(OPEN);
+        this.openCount.increment();
+    }
+
+    /**
+     * Closes the circuit with an empty window, must hold {@link #transitionLock}.
+     */
+    private void close() {
+        this.trialPermits.set(0);
+        this.window = new Window(this.windowSize);
+        this.state.set(CLOSED);
+    }
+
+    /**
+     * Gets the state of the circuit.
+     *
+     * @return State of the circuit.
+     */
+    @NotNull
+    public State getState() {
+        switch (this.state.get()) {
+            case OPEN:
+                return State.OPEN;
+            case HALF_OPEN:
+                return State.HALF_OPEN;
+            default:
+                return State.CLOSED;
+        }
+    }
+
+    /**
+     * Gets the failure rate of the executions in the window of the closed circuit.
+     *
+     * @return Failure rate of the executions in the window, {@code 0} if there is no execution.
+     */
+    public double getFailureRate() {
+        return this.window.failureRate();
+    }
+
+    /**
+     * Gets the amount of executions short-circuited because the circuit was open.
+     *
+     * @return Amount of executions short-circuited because the circuit was open.
+     */
+    public long getRejectedCount() {
+        return this.rejectedCount.sum();
+    }
+
+    /**
+     * Gets the amount of times the circuit opened.
+     *
+     * @return Amount of times the circuit opened.
+     */
+    public long getOpenCount() {
+        return this.openCount.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "RouteCircuitBreaker{" +
+                "state=" + this.getState() +
+                ", failureRate=" + this.getFailureRate() +
+                ", rejectedCount=" + this.getRejectedCount() +
+                ", openCount=" + this.getOpenCount() +
+                '}';
+    }
+
+    /**
+     * State of a circuit.
+     */
+    public enum State {
+        /**
+         * Executions are let through and their outcomes are recorded.
+         */
+        CLOSED,
+
+        /**
+         * Executions are short-circuited.
+         */
+        OPEN,
+
+        /**
+         * Trial executions are let through, other executions are short-circuited.
+         */
+        HALF_OPEN
+    }
+
+    /**
+     * Sliding window of outcomes of the last executions, {@code 1} for failures and {@code 0} for successes.
+     */
+    private static final class Window {
+
+        private final AtomicIntegerArray outcomes;
+        private final AtomicLong cursor = new AtomicLong();
+        private final AtomicInteger failures = new AtomicInteger();
+
+        Window(int size) {
+            this.outcomes = new AtomicIntegerArray(size);
+        }
+
+        void record(boolean failure) {
+            int outcome = failure ? 1 : 0;
+            long index = this.cursor.getAndIncrement();
+            int previous = this.outcomes.getAndSet((int) (index % this.outcomes.length()), outcome);
+
+            if (outcome != previous)
+                this.failures.addAndGet(outcome - previous);
+        }
+
+        @Contract(pure = true)
+        boolean isTripped(int minimumCalls, double failureRate) {
+            long calls = Math.min(this.cursor.get(), this.outcomes.length());
+            return calls >= minimumCalls && this.failures.get() >= failureRate * calls;
+        }
+
+        @Contract(pure = true)
+        double failureRate() {
+            long calls = Math.min(this.cursor.get(), this.outcomes.length());
+            return calls == 0 ? 0 : (double) this.failures.get() / calls;
+        }
+    }
+}
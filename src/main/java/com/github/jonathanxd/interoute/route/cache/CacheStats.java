@@ -0,0 +1,106 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.route.cache;
+
+import org.jetbrains.annotations.Contract;
+
+/**
+ * Snapshot of the statistics of a {@link RouteCache}.
+ */
+public final class CacheStats {
+
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+
+    CacheStats(long hitCount, long missCount, long evictionCount) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+    }
+
+    /**
+     * Gets the amount of executions which returned a cached result.
+     *
+     * @return Amount of executions which returned a cached result.
+     */
+    @Contract(pure = true)
+    public long getHitCount() {
+        return this.hitCount;
+    }
+
+    /**
+     * Gets the amount of executions which invoked the destination.
+     *
+     * @return Amount of executions which invoked the destination.
+     */
+    @Contract(pure = true)
+    public long getMissCount() {
+        return this.missCount;
+    }
+
+    /**
+     * Gets the amount of results evicted by size or expiration.
+     *
+     * @return Amount of results evicted by size or expiration.
+     */
+    @Contract(pure = true)
+    public long getEvictionCount() {
+        return this.evictionCount;
+    }
+
+    /**
+     * Gets the amount of executions.
+     *
+     * @return Amount of executions.
+     */
+    @Contract(pure = true)
+    public long getRequestCount() {
+        return this.hitCount + this.missCount;
+    }
+
+    /**
+     * Gets the ratio of executions which returned a cached result, {@code 1.0} if there was no execution.
+     *
+     * @return Ratio of executions which returned a cached result.
+     */
+    @Contract(pure = true)
+    public double getHitRate() {
+        long requestCount = this.getRequestCount();
+        return requestCount == 0 ? 1.0 : (double) this.hitCount / requestCount;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{" +
+                "hitCount=" + hitCount +
+                ", missCount=" + missCount +
+                ", evictionCount=" + evictionCount +
+                '}';
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.route.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Bookkeeping of {@link CacheEviction eviction policies}. Not thread-safe, guarded by the cache eviction lock.
+ */
+abstract class EvictionPolicy {
+
+    final long maximumSize;
+
+    EvictionPolicy(long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    static EvictionPolicy create(CacheEviction eviction, long maximumSize) {
+        switch (eviction) {
+            case LRU:
+                return new Lru(maximumSize);
+            case TINY_LFU:
+                return new WindowTinyLfu(maximumSize);
+            default:
+                throw new IllegalArgumentException("Unknown eviction: " + eviction);
+        }
+    }
+
+    /**
+     * Records the access to cached {@code node}.
+     */
+    abstract void onAccess(CacheNode node);
+
+    /**
+     * Records the addition of {@code node}, passing nodes to evict to {@code evict}, which may include {@code node}.
+     */
+    abstract void onAdd(CacheNode node, Consumer<CacheNode> evict);
+
+    /**
+     * Records the removal of cached {@code node}.
+     */
+    abstract void onRemove(CacheNode node);
+
+    static final class Lru extends EvictionPolicy {
+
+        private final NodeQueue queue = new NodeQueue();
+
+        Lru(long maximumSize) {
+            super(maximumSize);
+        }
+
+        @Override
+        void onAccess(CacheNode node) {
+            this.queue.moveToBack(node);
+        }
+
+        @Override
+        void onAdd(CacheNode node, Consumer<CacheNode> evict) {
+            this.queue.add(node);
+
+            if (this.queue.size > this.maximumSize)
+                evict.accept(this.queue.poll());
+        }
+
+        @Override
+        void onRemove(CacheNode node) {
+            this.queue.remove(node);
+        }
+    }
+
+    /**
+     * Window TinyLFU: a LRU window of 1% of the maximum size in front of a segmented LRU main space, 20% probation and
+     * 80% protected. Candidates evicted by the window are only admitted to the main space if they are more frequent than
+     * its victim.
+     */
+    static final class WindowTinyLfu extends EvictionPolicy {
+
+        private final FrequencySketch sketch;
+        private final NodeQueue window = new NodeQueue();
+        private final NodeQueue probation = new NodeQueue();
+        private final NodeQueue protect = new NodeQueue();
+        private final long windowMaximum;
+        private final long mainMaximum;
+        private final long protectedMaximum;
+
+        WindowTinyLfu(long maximumSize) {
+            super(maximumSize);
+            this.sketch = new FrequencySketch(maximumSize);
+            this.windowMaximum = Math.max(1, maximumSize / 100);
+            this.mainMaximum = maximumSize - this.windowMaximum;
+            this.protectedMaximum = this.mainMaximum * 4 / 5;
+        }
+
+        @Override
+        void onAccess(CacheNode node) {
+            this.sketch.increment(node.key.hash());
+
+            switch (node.queue) {
+                case CacheNode.WINDOW:
+                    this.window.moveToBack(node);
+                    break;
+                case CacheNode.PROBATION:
+                    this.probation.remove(node);
+                    node.queue = CacheNode.PROTECTED;
+                    this.protect.add(node);
+
+                    if (this.protect.size > this.protectedMaximum) {
+                        CacheNode demoted = this.protect.poll();
+                        demoted.queue = CacheNode.PROBATION;
+                        this.probation.add(demoted);
+                    }
+                    break;
+                default:
+                    this.protect.moveToBack(node);
+                    break;
+            }
+        }
+
+        @Override
+        void onAdd(CacheNode node, Consumer<CacheNode> evict) {
+            this.sketch.increment(node.key.hash());
+
+            node.queue = CacheNode.WINDOW;
+            this.window.add(node);
+
+            if (this.window.size <= this.windowMaximum)
+                return;
+
+            CacheNode candidate = this.window.poll();
+
+            if (this.probation.size + this.protect.size < this.mainMaximum) {
+                candidate.queue = CacheNode.PROBATION;
+                this.probation.add(candidate);
+                return;
+            }
+
+            CacheNode victim = this.probation.peek() != null ? this.probation.peek() : this.protect.peek();
+
+            if (victim != null && this.sketch.frequency(candidate.key.hash()) > this.sketch.frequency(victim.key.hash())) {
+                this.onRemove(victim);
+                evict.accept(victim);
+                candidate.queue = CacheNode.PROBATION;
+                this.probation.add(candidate);
+            } else {
+                evict.accept(candidate);
+            }
+        }
+
+        @Override
+        void onRemove(CacheNode node) {
+            switch (node.queue) {
+                case CacheNode.WINDOW:
+                    this.window.remove(node);
+                    break;
+                case CacheNode.PROBATION:
+                    this.probation.remove(node);
+                    break;
+                default:
+                    this.protect.remove(node);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Doubly linked queue of nodes, ordered from least to most recently used.
+     */
+    static final class NodeQueue {
+
+        private CacheNode first;
+        private CacheNode last;
+        long size;
+
+        CacheNode peek() {
+            return this.first;
+        }
+
+        CacheNode poll() {
+            CacheNode node = this.first;
+
+            if (node != null)
+                this.remove(node);
+
+            return node;
+        }
+
+        void add(CacheNode node) {
+            node.previous = this.last;
+            node.next = null;
+
+            if (this.last == null)
+                this.first = node;
+            else
+                this.last.next = node;
+
+            this.last = node;
+            ++this.size;
+        }
+
+        void remove(CacheNode node) {
+            if (node.previous == null)
+                this.first = node.next;
+            else
+                node.previous.next = node.next;
+
+            if (node.next == null)
+                this.last = node.previous;
+            else
+                node.next.previous = node.previous;
+
+            node.previous = null;
+            node.next = null;
+            --this.size;
+        }
+
+        void moveToBack(CacheNode node) {
+            if (node != this.last) {
+                this.remove(node);
+                this.add(node);
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.route.cache;
+
+import com.github.jonathanxd.interoute.util.RouteKeyUtil;
+
+/**
+ * Count-min sketch of 4-bit counters which estimates how frequently keys were requested. Each {@code long} of the table
+ * holds 16 counters, 4 for each of the 4 hash functions. Counters are halved after {@code 10} increments per table
+ * entry, so old frequencies age out.
+ *
+ * Not thread-safe, guarded by the cache eviction lock.
+ */
+final class FrequencySketch {
+
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    private final long[] table;
+    private final int sampleSize;
+    private int size;
+
+    FrequencySketch(long maximumSize) {
+        int length = Integer.highestOneBit((int) Math.max(2, Math.min(maximumSize, 1 << 30)) - 1) << 1;
+
+        this.table = new long[length];
+        this.sampleSize = length > Integer.MAX_VALUE / 10 ? Integer.MAX_VALUE : length * 10;
+    }
+
+    /**
+     * Estimates how many times {@code hash} was {@link #increment(long) incremented}, up to {@code 15}.
+     */
+    int frequency(long hash) {
+        int frequency = 15;
+
+        for (int i = 0; i < SEEDS.length; ++i) {
+            frequency = Math.min(frequency, (int) (this.table[this.index(hash, i)] >>> this.offset(hash, i)) & 0xF);
+        }
+
+        return frequency;
+    }
+
+    /**
+     * Increments the counters of {@code hash}, aging all counters when the sample size is reached.
+     */
+    void increment(long hash) {
+        boolean incremented = false;
+
+        for (int i = 0; i < SEEDS.length; ++i) {
+            int index = this.index(hash, i);
+            int offset = this.offset(hash, i);
+
+            if (((this.table[index] >>> offset) & 0xF) != 0xF) {
+                this.table[index] += 1L << offset;
+                incremented = true;
+            }
+        }
+
+        if (incremented && ++this.size == this.sampleSize)
+            this.reset();
+    }
+
+    private void reset() {
+        for (int i = 0; i < this.table.length; ++i) {
+            this.table[i] = (this.table[i] >>> 1) & RESET_MASK;
+        }
+
+        this.size >>>= 1;
+    }
+
+    private int index(long hash, int i) {
+        return (int) RouteKeyUtil.hash(hash + SEEDS[i]) & (this.table.length - 1);
+    }
+
+    private int offset(long hash, int i) {
+        return ((i << 2) + ((int) (hash >>> (i << 3)) & 3)) << 2;
+    }
+}
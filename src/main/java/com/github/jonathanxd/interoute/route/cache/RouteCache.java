@@ -0,0 +1,292 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.route.cache;
+
+import com.github.jonathanxd.interoute.annotation.Cached;
+import com.github.jonathanxd.interoute.exception.RoutingException;
+import com.github.jonathanxd.interoute.util.ArgumentKey;
+import com.github.jonathanxd.iutils.object.result.Result;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Cache of successful results of a {@link Cached cached} route, keyed by {@link ArgumentKey route arguments}.
+ *
+ * Lookups only read a {@link ConcurrentHashMap}. Accesses are recorded in the {@link CacheEviction eviction policy} only
+ * when its lock is free, so contended reads never block, at the cost of a slightly less precise eviction order.
+ */
+public final class RouteCache {
+
+    @NotNull
+    private final ConcurrentHashMap<ArgumentKey, CacheNode> data = new ConcurrentHashMap<>();
+
+    @NotNull
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    /**
+     * Eviction policy, guarded by {@link #evictionLock}.
+     */
+    @NotNull
+    private final EvictionPolicy policy;
+
+    @NotNull
+    private final CacheEviction eviction;
+
+    private final long maximumSize;
+    private final long expireAfterWriteNanos;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    private RouteCache(long maximumSize, long expireAfterWriteNanos, @NotNull CacheEviction eviction) {
+        this.maximumSize = maximumSize;
+        this.expireAfterWriteNanos = expireAfterWriteNanos;
+        this.eviction = eviction;
+        this.policy = EvictionPolicy.create(eviction, maximumSize);
+    }
+
+    /**
+     * Creates a route cache.
+     *
+     * @param maximumSize      Maximum amount of cached results.
+     * @param expireAfterWrite Duration which cached results are valid, non-positive values never expires results.
+     * @param unit             Unit of {@code expireAfterWrite}.
+     * @param eviction         Policy which evicts results when the cache exceeds {@code maximumSize}.
+     * @return Route cache.
+     * @throws IllegalArgumentException If {@code maximumSize} is not positive.
+     */
+    @NotNull
+    public static RouteCache create(long maximumSize,
+                                    long expireAfterWrite,
+                                    @NotNull TimeUnit unit,
+                                    @NotNull CacheEviction eviction) {
+        if (maximumSize <= 0)
+            throw new IllegalArgumentException("Maximum size must be positive: " + maximumSize);
+
+        return new RouteCache(maximumSize, expireAfterWrite > 0 ? unit.toNanos(expireAfterWrite) : 0L, eviction);
+    }
+
+    /**
+     * Creates the route cache specified by {@code cached}.
+     *
+     * @param cached Cache specification.
+     * @return Route cache specified by {@code cached}.
+     */
+    @NotNull
+    public static RouteCache of(@NotNull Cached cached) {
+        return RouteCache.create(cached.maximumSize(), cached.expireAfterWrite(), cached.unit(), cached.eviction());
+    }
+
+    /**
+     * Creates the supplier which returns an already completed future with the cached result of {@code key} or, if
+     * there is none, the future of {@code loader}, caching its result if it succeeds.
+     *
+     * @param key    Key of route arguments.
+     * @param loader Supplier of the future which executes the route.
+     * @param <R>    Result type.
+     * @return Supplier which returns the cached result of {@code key} or the future of {@code loader}.
+     */
+    @NotNull
+    public <R> Supplier<CompletableFuture<Result<R, RoutingException>>> supplier(
+            @NotNull ArgumentKey key,
+            @NotNull Supplier<CompletableFuture<Result<R, RoutingException>>> loader) {
+        return () -> this.get(key, loader);
+    }
+
+    /**
+     * Gets an already completed future with the cached result of {@code key} or, if there is none, the future of {@code
+     * loader}, caching its result if it succeeds.
+     *
+     * @param key    Key of route arguments.
+     * @param loader Supplier of the future which executes the route.
+     * @param <R>    Result type.
+     * @return Completed future with cached result of {@code key} or the future of {@code loader}.
+     */
+    @SuppressWarnings("unchecked")
+    @NotNull
+    public <R> CompletableFuture<Result<R, RoutingException>> get(
+            @NotNull ArgumentKey key,
+            @NotNull Supplier<CompletableFuture<Result<R, RoutingException>>> loader) {
+        CacheNode node = this.data.get(key);
+
+        if (node != null) {
+            if (!this.isExpired(node)) {
+                this.hitCount.increment();
+                this.afterRead(node);
+                return CompletableFuture.completedFuture((Result<R, RoutingException>) node.result);
+            }
+
+            this.remove(node, true);
+        }
+
+        this.missCount.increment();
+
+        return loader.get().thenApply(result -> {
+            if (result instanceof Result.Ok<?, ?>)
+                this.put(key, result);
+
+            return result;
+        });
+    }
+
+    /**
+     * Removes all cached results.
+     */
+    public void invalidateAll() {
+        this.evictionLock.lock();
+
+        try {
+            for (CacheNode node : this.data.values()) {
+                this.remove(node, false);
+            }
+        } finally {
+            this.evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Gets the amount of cached results, which may include expired results not yet removed.
+     *
+     * @return Amount of cached results.
+     */
+    @Contract(pure = true)
+    public long size() {
+        return this.data.size();
+    }
+
+    /**
+     * Gets the maximum amount of cached results.
+     *
+     * @return Maximum amount of cached results.
+     */
+    @Contract(pure = true)
+    public long getMaximumSize() {
+        return this.maximumSize;
+    }
+
+    /**
+     * Gets the eviction policy.
+     *
+     * @return Eviction policy.
+     */
+    @Contract(pure = true)
+    @NotNull
+    public CacheEviction getEviction() {
+        return this.eviction;
+    }
+
+    /**
+     * Gets a snapshot of the statistics of this cache.
+     *
+     * @return Snapshot of the statistics of this cache.
+     */
+    @NotNull
+    public CacheStats getStats() {
+        return new CacheStats(this.hitCount.sum(), this.missCount.sum(), this.evictionCount.sum());
+    }
+
+    private boolean isExpired(CacheNode node) {
+        return this.expireAfterWriteNanos > 0 && System.nanoTime() - node.writeTime >= this.expireAfterWriteNanos;
+    }
+
+    private void afterRead(CacheNode node) {
+        if (!this.evictionLock.tryLock())
+            return;
+
+        try {
+            if (node.queue != CacheNode.REMOVED)
+                this.policy.onAccess(node);
+        } finally {
+            this.evictionLock.unlock();
+        }
+    }
+
+    private void put(ArgumentKey key, Result<?, RoutingException> result) {
+        CacheNode node = new CacheNode(key, result, System.nanoTime());
+
+        this.evictionLock.lock();
+
+        try {
+            CacheNode previous = this.data.put(key, node);
+
+            if (previous != null && previous.queue != CacheNode.REMOVED) {
+                this.policy.onRemove(previous);
+                previous.queue = CacheNode.REMOVED;
+            }
+
+            this.policy.onAdd(node, this::evict);
+        } finally {
+            this.evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Removes {@code node} evicted by the policy, which already unlinked it.
+     */
+    private void evict(CacheNode node) {
+        node.queue = CacheNode.REMOVED;
+
+        if (this.data.remove(node.key, node))
+            this.evictionCount.increment();
+    }
+
+    private void remove(CacheNode node, boolean expired) {
+        this.evictionLock.lock();
+
+        try {
+            if (node.queue != CacheNode.REMOVED && this.data.remove(node.key, node)) {
+                this.policy.onRemove(node);
+                node.queue = CacheNode.REMOVED;
+
+                if (expired)
+                    this.evictionCount.increment();
+            }
+        } finally {
+            this.evictionLock.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RouteCache{" +
+                "maximumSize=" + maximumSize +
+                ", eviction=" + eviction +
+                ", size=" + this.size() +
+                ", stats=" + this.getStats() +
+                '}';
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.route.cache;
+
+import com.github.jonathanxd.interoute.exception.RoutingException;
+import com.github.jonathanxd.interoute.util.ArgumentKey;
+import com.github.jonathanxd.iutils.object.result.Result;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * In-flight executions of a {@link com.github.jonathanxd.interoute.annotation.Coalesced coalesced} route, keyed by
+ * {@link ArgumentKey route arguments}.
+ *
+ * Flights are tracked in stripes selected by the key hash, so bursts of distinct keys do not contend on the same map,
+ * and are removed from their stripe before they complete. Every execution receives its own dependent future, so
+ * completing or cancelling it does not affect other executions of the flight.
+ */
+public final class SingleFlight {
+
+    @NotNull
+    private final ConcurrentHashMap<ArgumentKey, CompletableFuture<?>>[] stripes;
+
+    private final LongAdder flightCount = new LongAdder();
+    private final LongAdder coalescedCount = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    private SingleFlight(int stripes) {
+        this.stripes = new ConcurrentHashMap[stripes];
+
+        for (int i = 0; i < stripes; ++i) {
+            this.stripes[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    /**
+     * Creates a single flight with one stripe for each available processor, rounded up to a power of two.
+     *
+     * @return Single flight.
+     */
+    @NotNull
+    public static SingleFlight create() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        return new SingleFlight(processors <= 1 ? 1 : Integer.highestOneBit(processors - 1) << 1);
+    }
+
+    /**
+     * Creates the supplier which joins the in-flight execution of {@code key} or, if there is none, starts a flight with
+     * the future of {@code loader}.
+     *
+     * @param key    Key of route arguments.
+     * @param loader Supplier of the future which executes the route.
+     * @param <R>    Result type.
+     * @return Supplier which joins or starts the flight of {@code key}.
+     */
+    @NotNull
+    public <R> Supplier<CompletableFuture<Result<R, RoutingException>>> supplier(
+            @NotNull ArgumentKey key,
+            @NotNull Supplier<CompletableFuture<Result<R, RoutingException>>> loader) {
+        return () -> this.get(key, loader);
+    }
+
+    /**
+     * Joins the in-flight execution of {@code key} or, if there is none, starts a flight with the future of {@code
+     * loader}.
+     *
+     * @param key    Key of route arguments.
+     * @param loader Supplier of the future which executes the route.
+     * @param <R>    Result type.
+     * @return Future which completes with the result of the flight of {@code key}.
+     */
+    @SuppressWarnings("unchecked")
+    @NotNull
+    public <R> CompletableFuture<Result<R, RoutingException>> get(
+            @NotNull ArgumentKey key,
+            @NotNull Supplier<CompletableFuture<Result<R, RoutingException>>> loader) {
+        ConcurrentHashMap<ArgumentKey, CompletableFuture<?>> stripe = this.stripe(key);
+        CompletableFuture<Result<R, RoutingException>> flight = new CompletableFuture<>();
+        CompletableFuture<?> current = stripe.putIfAbsent(key, flight);
+
+        if (current != null) {
+            this.coalescedCount.increment();
+            return ((CompletableFuture<Result<R, RoutingException>>) current).thenApply(result -> result);
+        }
+
+        this.flightCount.increment();
+
+        try {
+            loader.get().whenComplete((result, throwable) -> {
+                stripe.remove(key, flight);
+
+                if (throwable != null)
+                    flight.completeExceptionally(throwable);
+                else
+                    flight.complete(result);
+            });
+        } catch (Throwable t) {
+            stripe.remove(key, flight);
+            flight.completeExceptionally(t);
+        }
+
+        return flight.thenApply(result -> result);
+    }
+
+    /**
+     * Gets the amount of flights which invoked the destination.
+     *
+     * @return Amount of flights which invoked the destination.
+     */
+    public long getFlightCount() {
+        return this.flightCount.sum();
+    }
+
+    /**
+     * Gets the amount of executions which joined a flight started by another execution.
+     *
+     * @return Amount of executions which joined a flight started by another execution.
+     */
+    public long getCoalescedCount() {
+        return this.coalescedCount.sum();
+    }
+
+    /**
+     * Gets the amount of flights in progress.
+     *
+     * @return Amount of flights in progress.
+     */
+    public int getInFlight() {
+        int inFlight = 0;
+
+        for (ConcurrentHashMap<ArgumentKey, CompletableFuture<?>> stripe : this.stripes) {
+            inFlight += stripe.size();
+        }
+
+        return inFlight;
+    }
+
+    private ConcurrentHashMap<ArgumentKey, CompletableFuture<?>> stripe(ArgumentKey key) {
+        return this.stripes[(int) (key.hash() >>> 32) & (this.stripes.length - 1)];
+    }
+
+    @Override
+    public String toString() {
+        return "SingleFlight{" +
+                "flightCount=" + this.getFlightCount() +
+                ", coalescedCount=" + this.getCoalescedCount() +
+                ", inFlight=" + this.getInFlight() +
+                '}';
+    }
+}
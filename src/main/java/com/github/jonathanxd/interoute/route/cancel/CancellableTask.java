@@ -0,0 +1,181 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.route.cancel;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Future of an asynchronous execution which stops the execution when it is cancelled, used instead of {@link
+ * CompletableFuture#supplyAsync(Supplier, Executor)} by {@link com.github.jonathanxd.interoute.annotation.Cancellable
+ * cancellable} routes.
+ *
+ * Cancelling a task which has not started removes it from the queue of {@link ThreadPoolExecutor} executors, tasks
+ * queued in other executors are skipped when dequeued. Cancelling a running task cancels its {@link CancellationToken
+ * token} and, if the task interrupts, interrupts the worker thread. The interrupt never leaks to tasks which the worker
+ * runs afterwards.
+ *
+ * @param <T> Result type.
+ */
+public final class CancellableTask<T> extends CompletableFuture<T> implements Runnable {
+
+    private static final int NEW = 0;
+    private static final int RUNNING = 1;
+    private static final int INTERRUPTING = 2;
+    private static final int DONE = 3;
+
+    @NotNull
+    private final Supplier<T> supplier;
+
+    @NotNull
+    private final Executor executor;
+
+    private final boolean interrupt;
+
+    private final CancellationToken token = new CancellationToken();
+    private final AtomicInteger state = new AtomicInteger(NEW);
+
+    private volatile Thread runner;
+
+    private CancellableTask(@NotNull Supplier<T> supplier, @NotNull Executor executor, boolean interrupt) {
+        this.supplier = supplier;
+        this.executor = executor;
+        this.interrupt = interrupt;
+    }
+
+    /**
+     * Executes {@code supplier} asynchronously in the {@link ForkJoinPool#commonPool() common pool}.
+     *
+     * @param supplier  Supplier to execute.
+     * @param interrupt Whether the worker thread is interrupted when the task is cancelled while running.
+     * @param <T>       Result type.
+     * @return Task which completes with the value of {@code supplier}.
+     */
+    @NotNull
+    public static <T> CancellableTask<T> supplyAsync(@NotNull Supplier<T> supplier, boolean interrupt) {
+        return CancellableTask.supplyAsync(supplier, ForkJoinPool.commonPool(), interrupt);
+    }
+
+    /**
+     * Executes {@code supplier} asynchronously in {@code executor}.
+     *
+     * @param supplier  Supplier to execute.
+     * @param executor  Executor to execute {@code supplier} in.
+     * @param interrupt Whether the worker thread is interrupted when the task is cancelled while running.
+     * @param <T>       Result type.
+     * @return Task which completes with the value of {@code supplier}.
+     */
+    @NotNull
+    public static <T> CancellableTask<T> supplyAsync(@NotNull Supplier<T> supplier,
+                                                     @NotNull Executor executor,
+                                                     boolean interrupt) {
+        CancellableTask<T> task = new CancellableTask<>(supplier, executor, interrupt);
+        executor.execute(task);
+        return task;
+    }
+
+    @Override
+    public void run() {
+        if (!this.state.compareAndSet(NEW, RUNNING))
+            return;
+
+        this.runner = Thread.currentThread();
+        CancellationToken previous = CancellationToken.enter(this.token);
+
+        try {
+            if (!this.isDone())
+                this.complete(this.supplier.get());
+        } catch (Throwable t) {
+            this.completeExceptionally(t);
+        } finally {
+            CancellationToken.exit(previous);
+            this.runner = null;
+
+            if (!this.state.compareAndSet(RUNNING, DONE)) {
+                while (this.state.get() == INTERRUPTING)
+                    Thread.yield();
+
+                Thread.interrupted();
+            }
+        }
+    }
+
+    /**
+     * Cancels the task, removing it from the executor queue if it has not started, or cancelling its {@link
+     * CancellationToken token} and interrupting the worker thread if it is running.
+     *
+     * @param mayInterruptIfRunning Whether the worker thread may be interrupted, only if the task interrupts.
+     * @return Whether the task was cancelled.
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        if (!super.cancel(mayInterruptIfRunning))
+            return false;
+
+        this.token.cancel();
+
+        if (this.state.compareAndSet(NEW, DONE)) {
+            if (this.executor instanceof ThreadPoolExecutor)
+                ((ThreadPoolExecutor) this.executor).remove(this);
+        } else if (mayInterruptIfRunning && this.interrupt && this.state.compareAndSet(RUNNING, INTERRUPTING)) {
+            Thread runner = this.runner;
+
+            if (runner != null)
+                runner.interrupt();
+
+            this.state.set(DONE);
+        }
+
+        return true;
+    }
+
+    /**
+     * Gets the cancellation token of the task.
+     *
+     * @return Cancellation token of the task.
+     */
+    @NotNull
+    public CancellationToken getToken() {
+        return this.token;
+    }
+
+    @Override
+    public String toString() {
+        return "CancellableTask{" +
+                "interrupt=" + interrupt +
+                ", token=" + token +
+                ", future=" + super.toString() +
+                '}';
+    }
+}
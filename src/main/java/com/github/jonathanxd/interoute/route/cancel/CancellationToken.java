@@ -0,0 +1,136 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.route.cancel;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Token which destinations of {@link com.github.jonathanxd.interoute.annotation.Cancellable cancellable} routes check to
+ * stop work cooperatively once their execution is cancelled, example:
+ *
+ * <pre>
+ *     {@code
+ *     for (Item item : items) {
+ *         CancellationToken.current().throwIfCancelled();
+ *         process(item);
+ *     }
+ *     }
+ * </pre>
+ *
+ * The token of the execution is the {@link #current() current token} while its {@link CancellableTask task} runs,
+ * other threads have a token which is never cancelled.
+ */
+public final class CancellationToken {
+
+    private static final ThreadLocal<CancellationToken> CURRENT = new ThreadLocal<>();
+    private static final CancellationToken NONE = new CancellationToken();
+
+    private volatile boolean cancelled;
+
+    CancellationToken() {
+    }
+
+    /**
+     * Gets the token of the execution which runs in the current thread.
+     *
+     * @return Token of the execution which runs in the current thread, or a token which is never cancelled if the
+     * current thread does not run a cancellable execution.
+     */
+    @NotNull
+    public static CancellationToken current() {
+        CancellationToken current = CURRENT.get();
+        return current != null ? current : NONE;
+    }
+
+    /**
+     * Returns whether the execution which runs in the current thread is cancelled.
+     *
+     * @return Whether the execution which runs in the current thread is cancelled.
+     */
+    public static boolean isCurrentCancelled() {
+        CancellationToken current = CURRENT.get();
+        return current != null && current.cancelled;
+    }
+
+    /**
+     * Returns whether the execution is cancelled.
+     *
+     * @return Whether the execution is cancelled.
+     */
+    @Contract(pure = true)
+    public boolean isCancelled() {
+        return this.cancelled;
+    }
+
+    /**
+     * Throws a {@link CancellationException} if the execution is cancelled.
+     *
+     * @throws CancellationException If the execution is cancelled.
+     */
+    public void throwIfCancelled() {
+        if (this.cancelled)
+            throw new CancellationException("Route execution was cancelled.");
+    }
+
+    void cancel() {
+        this.cancelled = true;
+    }
+
+    /**
+     * Sets {@code token} as the token of the current thread.
+     *
+     * @return Previous token of the current thread.
+     */
+    @Nullable
+    static CancellationToken enter(@NotNull CancellationToken token) {
+        CancellationToken previous = CURRENT.get();
+        CURRENT.set(token);
+        return previous;
+    }
+
+    /**
+     * Restores {@code previous} token of the current thread.
+     */
+    static void exit(@Nullable CancellationToken previous) {
+        if (previous == null)
+            CURRENT.remove();
+        else
+            CURRENT.set(previous);
+    }
+
+    @Override
+    public String toString() {
+        return "CancellationToken{" +
+                "cancelled=" + cancelled +
+                '}';
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.route.hedge;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.Supplier;
+
+/**
+ * Attempt of a {@link com.github.jonathanxd.interoute.annotation.Hedged hedged} execution, which lets groups of
+ * instances send the second attempt to another instance than the first attempt.
+ *
+ * The attempt is current while {@link RouteHedger} starts it, is carried with the {@link
+ * com.github.jonathanxd.interoute.route.Deadline#bind(Supplier) deadline} to the thread which invokes the destination
+ * and is {@link #take() taken} by the group which acquires the destination instance, so routes executed by the
+ * destination do not observe it.
+ */
+public final class HedgeAttempt {
+
+    private static final ThreadLocal<HedgeAttempt> CURRENT = new ThreadLocal<>();
+
+    /**
+     * First attempt of the execution, {@code null} if this is the first attempt.
+     */
+    @Nullable
+    private final HedgeAttempt first;
+
+    /**
+     * Group which this attempt acquired its instance from, {@code null} before it is acquired.
+     */
+    @Nullable
+    private volatile Object group;
+
+    /**
+     * Index of the instance acquired by this attempt in its {@link #group}, {@code -1} before it is acquired.
+     */
+    private volatile int index = -1;
+
+    HedgeAttempt(@Nullable HedgeAttempt first) {
+        this.first = first;
+    }
+
+    /**
+     * Takes the attempt of the current thread, which is no longer current afterwards.
+     *
+     * @return Attempt of the current thread, or {@code null} if the current thread does not start a hedged attempt.
+     */
+    @Nullable
+    public static HedgeAttempt take() {
+        HedgeAttempt current = CURRENT.get();
+
+        if (current != null)
+            CURRENT.remove();
+
+        return current;
+    }
+
+    /**
+     * Creates the supplier which invokes {@code supplier} with the attempt of the current thread as current attempt.
+     *
+     * @param supplier Supplier to invoke.
+     * @param <T>      Value type.
+     * @return Supplier which invokes {@code supplier} with the attempt of the current thread.
+     */
+    @NotNull
+    public static <T> Supplier<T> propagate(@NotNull Supplier<T> supplier) {
+        HedgeAttempt attempt = CURRENT.get();
+
+        if (attempt == null)
+            return supplier;
+
+        return () -> attempt.call(supplier);
+    }
+
+    /**
+     * Gets the index of the instance of {@code group} which this attempt must not acquire.
+     *
+     * @param group Group to acquire the instance from.
+     * @return Index of the instance acquired by the first attempt from {@code group} if this is the second attempt, or
+     * {@code -1} if there is no such instance, which is also the case when the first attempt has not acquired its
+     * instance yet.
+     */
+    public int getExcluded(@NotNull Object group) {
+        HedgeAttempt first = this.first;
+
+        if (first == null)
+            return -1;
+
+        return first.group == group ? first.index : -1;
+    }
+
+    /**
+     * Records the instance acquired by this attempt.
+     *
+     * @param group Group which the instance was acquired from.
+     * @param index Index of the instance in {@code group}.
+     */
+    public void acquired(@NotNull Object group, int index) {
+        this.index = index;
+        this.group = group;
+    }
+
+    /**
+     * Invokes {@code supplier} with this attempt as current attempt.
+     */
+    <T> T call(Supplier<T> supplier) {
+        HedgeAttempt previous = CURRENT.get();
+        CURRENT.set(this);
+
+        try {
+            return supplier.get();
+        } finally {
+            if (previous == null)
+                CURRENT.remove();
+            else
+                CURRENT.set(previous);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "HedgeAttempt{" +
+                "second=" + (this.first != null) +
+                ", index=" + this.index +
+                '}';
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.route.hedge;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Window of the most recent latencies of a route, which periodically computes a percentile of the window.
+ *
+ * Recording is lock-free, the percentile is recomputed every {@link #REFRESH} samples by the recording thread which
+ * acquires the refresh lock, other threads skip the refresh.
+ */
+final class LatencyWindow {
+
+    /**
+     * Amount of latencies of the window, a power of two.
+     */
+    private static final int SIZE = 1024;
+
+    /**
+     * Amount of samples between percentile refreshes, a power of two.
+     */
+    private static final int REFRESH = 64;
+
+    /**
+     * Minimum amount of samples to compute the percentile.
+     */
+    private static final int MIN_SAMPLES = 32;
+
+    private final double percentile;
+    private final AtomicLongArray latencies = new AtomicLongArray(SIZE);
+    private final AtomicLong count = new AtomicLong();
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    /**
+     * Sorting buffer, guarded by {@link #refreshLock}.
+     */
+    private final long[] buffer = new long[SIZE];
+
+    /**
+     * Last computed percentile in nanoseconds, {@code -1} before {@link #MIN_SAMPLES} samples.
+     */
+    private volatile long value = -1L;
+
+    LatencyWindow(double percentile) {
+        this.percentile = percentile;
+    }
+
+    void record(long latency) {
+        long count = this.count.getAndIncrement();
+
+        this.latencies.lazySet((int) (count & (SIZE - 1)), latency);
+
+        if (count + 1 >= MIN_SAMPLES && ((count + 1) & (REFRESH - 1)) == 0 && this.refreshLock.tryLock()) {
+            try {
+                this.refresh((int) Math.min(count + 1, SIZE));
+            } finally {
+                this.refreshLock.unlock();
+            }
+        }
+    }
+
+    private void refresh(int samples) {
+        for (int i = 0; i < samples; ++i) {
+            this.buffer[i] = this.latencies.get(i);
+        }
+
+        Arrays.sort(this.buffer, 0, samples);
+        this.value = this.buffer[Math.min(samples - 1, (int) (this.percentile * samples))];
+    }
+
+    /**
+     * Gets the percentile of the window in nanoseconds.
+     *
+     * @return Percentile of the window in nanoseconds, or {@code -1} if there are not enough samples.
+     */
+    long get() {
+        return this.value;
+    }
+}
@@ -0,0 +1,369 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.route.hedge;
+
+import com.github.jonathanxd.interoute.annotation.Hedged;
+import com.github.jonathanxd.interoute.exception.RoutingException;
+import com.github.jonathanxd.interoute.route.Deadline;
+import com.github.jonathanxd.interoute.util.HashedWheelTimer;
+import com.github.jonathanxd.iutils.object.result.Result;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Hedges executions of a {@link Hedged hedged} route.
+ *
+ * Every execution starts an attempt and schedules a second attempt after the configured percentile of the latencies of
+ * recent first attempts. The second attempt only starts if the first attempt has not completed and the budget allows
+ * it. The budget is a token bucket, each execution deposits {@code budget} tokens and each second attempt withdraws one
+ * token, so second attempts never exceed the {@code budget} ratio of executions over time, with bursts of at most {@link
+ * #MAX_TOKENS} second attempts.
+ *
+ * Each attempt is a {@link HedgeAttempt}, groups of instances exclude the instance acquired by the first attempt when
+ * selecting the instance of the second attempt. The first attempt to complete completes the execution and the other
+ * attempt is {@link CompletableFuture#cancel(boolean) cancelled}. Failed second attempts, for example second attempts
+ * rejected by a {@link com.github.jonathanxd.interoute.route.limit.ConcurrencyLimiter limiter}, never complete the
+ * execution.
+ */
+public final class RouteHedger {
+
+    /**
+     * Scale of tokens in {@link #tokens}.
+     */
+    private static final long TOKEN = 1000L;
+
+    /**
+     * Maximum amount of tokens of the budget.
+     */
+    private static final long MAX_TOKENS = 10L;
+
+    @NotNull
+    private final LatencyWindow latencies;
+
+    private final long deposit;
+    private final long initialDelayNanos;
+
+    /**
+     * Tokens of the budget, scaled by {@link #TOKEN}.
+     */
+    private final AtomicLong tokens = new AtomicLong(MAX_TOKENS * TOKEN);
+
+    private final LongAdder executionCount = new LongAdder();
+    private final LongAdder hedgeCount = new LongAdder();
+    private final LongAdder hedgeWinCount = new LongAdder();
+
+    private RouteHedger(double percentile, double budget, long initialDelayNanos) {
+        this.latencies = new LatencyWindow(percentile);
+        this.deposit = Math.round(budget * TOKEN);
+        this.initialDelayNanos = initialDelayNanos;
+    }
+
+    /**
+     * Creates a route hedger.
+     *
+     * @param percentile   Percentile of recent latencies after which the second attempt is started.
+     * @param budget       Maximum ratio of second attempts to executions.
+     * @param initialDelay Delay of the second attempt before enough latencies are measured.
+     * @param unit         Unit of {@code initialDelay}.
+     * @return Route hedger.
+     * @throws IllegalArgumentException If {@code percentile} or {@code budget} are not between {@code 0} and {@code 1},
+     *                                  or {@code initialDelay} is negative.
+     */
+    @NotNull
+    public static RouteHedger create(double percentile, double budget, long initialDelay, @NotNull TimeUnit unit) {
+        if (percentile < 0.0 || percentile > 1.0)
+            throw new IllegalArgumentException("Percentile must be between 0 and 1: " + percentile);
+
+        if (budget < 0.0 || budget > 1.0)
+            throw new IllegalArgumentException("Budget must be between 0 and 1: " + budget);
+
+        if (initialDelay < 0)
+            throw new IllegalArgumentException("Initial delay must not be negative: " + initialDelay);
+
+        return new RouteHedger(percentile, budget, unit.toNanos(initialDelay));
+    }
+
+    /**
+     * Creates the route hedger specified by {@code hedged}.
+     *
+     * @param hedged Hedge specification.
+     * @return Route hedger specified by {@code hedged}.
+     */
+    @NotNull
+    public static RouteHedger of(@NotNull Hedged hedged) {
+        return RouteHedger.create(hedged.percentile(), hedged.budget(), hedged.initialDelay(), hedged.unit());
+    }
+
+    /**
+     * Creates the supplier which hedges the attempts created by {@code loader}.
+     *
+     * @param loader Supplier of the future of an attempt.
+     * @param <R>    Result type.
+     * @return Supplier which hedges the attempts created by {@code loader}.
+     */
+    @NotNull
+    public <R> Supplier<CompletableFuture<Result<R, RoutingException>>> supplier(
+            @NotNull Supplier<CompletableFuture<Result<R, RoutingException>>> loader) {
+        return () -> this.execute(loader);
+    }
+
+    /**
+     * Starts an attempt created by {@code loader} and schedules the second attempt.
+     *
+     * @param loader Supplier of the future of an attempt.
+     * @param <R>    Result type.
+     * @return Future completed with the result of the first attempt to complete.
+     */
+    @NotNull
+    public <R> CompletableFuture<Result<R, RoutingException>> execute(
+            @NotNull Supplier<CompletableFuture<Result<R, RoutingException>>> loader) {
+        this.executionCount.increment();
+        this.deposit();
+
+        long start = System.nanoTime();
+        HedgeAttempt attempt = new HedgeAttempt(null);
+        CompletableFuture<Result<R, RoutingException>> first = attempt.call(loader);
+
+        if (first.isDone()) {
+            this.latencies.record(System.nanoTime() - start);
+            return first;
+        }
+
+        Execution<R> execution = new Execution<>(first, attempt, start);
+
+        first.whenComplete((result, throwable) -> execution.complete(first, result, throwable));
+
+        if (!execution.result.isDone())
+            execution.timer = HashedWheelTimer.shared()
+                    .scheduleAsync(Deadline.wrap(() -> this.hedge(execution, loader)), this.getDelay(),
+                            TimeUnit.NANOSECONDS);
+
+        return execution.result;
+    }
+
+    private <R> void hedge(Execution<R> execution,
+                           Supplier<CompletableFuture<Result<R, RoutingException>>> loader) {
+        if (execution.result.isDone() || !this.withdraw())
+            return;
+
+        this.hedgeCount.increment();
+
+        CompletableFuture<Result<R, RoutingException>> second;
+
+        try {
+            second = new HedgeAttempt(execution.attempt).call(loader);
+        } catch (Throwable t) {
+            return;
+        }
+
+        execution.second = second;
+        second.whenComplete((result, throwable) -> execution.complete(second, result, throwable));
+
+        if (execution.result.isDone())
+            second.cancel(true);
+    }
+
+    /**
+     * Gets the delay of the second attempt.
+     *
+     * @return Delay of the second attempt in nanoseconds.
+     */
+    public long getDelay() {
+        long delay = this.latencies.get();
+        return delay < 0 ? this.initialDelayNanos : delay;
+    }
+
+    private void deposit() {
+        long max = MAX_TOKENS * TOKEN;
+
+        for (;;) {
+            long current = this.tokens.get();
+
+            if (current >= max || this.tokens.compareAndSet(current, Math.min(max, current + this.deposit)))
+                return;
+        }
+    }
+
+    private boolean withdraw() {
+        for (;;) {
+            long current = this.tokens.get();
+
+            if (current < TOKEN)
+                return false;
+
+            if (this.tokens.compareAndSet(current, current - TOKEN))
+                return true;
+        }
+    }
+
+    /**
+     * Gets the amount of executions.
+     *
+     * @return Amount of executions.
+     */
+    public long getExecutionCount() {
+        return this.executionCount.sum();
+    }
+
+    /**
+     * Gets the amount of second attempts.
+     *
+     * @return Amount of second attempts.
+     */
+    public long getHedgeCount() {
+        return this.hedgeCount.sum();
+    }
+
+    /**
+     * Gets the amount of second attempts which completed before the first attempt.
+     *
+     * @return Amount of second attempts which completed before the first attempt.
+     */
+    public long getHedgeWinCount() {
+        return this.hedgeWinCount.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "RouteHedger{" +
+                "delay=" + this.getDelay() +
+                ", executionCount=" + this.getExecutionCount() +
+                ", hedgeCount=" + this.getHedgeCount() +
+                ", hedgeWinCount=" + this.getHedgeWinCount() +
+                '}';
+    }
+
+    /**
+     * Hedged execution.
+     */
+    private final class Execution<R> {
+
+        final CompletableFuture<Result<R, RoutingException>> result = new CompletableFuture<Result<R, RoutingException>>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                if (!super.cancel(mayInterruptIfRunning))
+                    return false;
+
+                Execution.this.cancelAttempts(mayInterruptIfRunning);
+                return true;
+            }
+        };
+
+        @NotNull
+        final CompletableFuture<Result<R, RoutingException>> first;
+
+        /**
+         * Attempt of {@link #first}.
+         */
+        @NotNull
+        final HedgeAttempt attempt;
+
+        /**
+         * Start of the first attempt, in {@link System#nanoTime()}.
+         */
+        final long start;
+
+        @Nullable
+        volatile CompletableFuture<Result<R, RoutingException>> second;
+
+        @Nullable
+        volatile HashedWheelTimer.Handle timer;
+
+        Execution(@NotNull CompletableFuture<Result<R, RoutingException>> first,
+                  @NotNull HedgeAttempt attempt,
+                  long start) {
+            this.first = first;
+            this.attempt = attempt;
+            this.start = start;
+        }
+
+        /**
+         * Completes the execution with the result of {@code attempt}, if it is the first attempt to complete, and cancels
+         * the other attempt.
+         *
+         * Latencies are sampled from the first attempt only, on every completion (including its cancellation when the
+         * second attempt wins, which samples a lower bound of its latency), so the delay is not biased towards the
+         * fastest of both attempts. Executions cancelled by the caller are not sampled.
+         */
+        void complete(CompletableFuture<Result<R, RoutingException>> attempt,
+                      Result<R, RoutingException> result,
+                      Throwable throwable) {
+            if (attempt == this.first && !this.result.isCancelled())
+                RouteHedger.this.latencies.record(System.nanoTime() - this.start);
+
+            if (attempt != this.first && (throwable != null || !(result instanceof Result.Ok<?, ?>)))
+                return;
+
+            boolean won = throwable != null
+                    ? this.result.completeExceptionally(throwable)
+                    : this.result.complete(result);
+
+            if (!won)
+                return;
+
+            HashedWheelTimer.Handle timer = this.timer;
+
+            if (timer != null)
+                timer.cancel();
+
+            if (attempt == this.first) {
+                CompletableFuture<Result<R, RoutingException>> second = this.second;
+
+                if (second != null)
+                    second.cancel(true);
+            } else {
+                RouteHedger.this.hedgeWinCount.increment();
+                this.first.cancel(true);
+            }
+        }
+
+        /**
+         * Cancels the timer and both attempts, when the execution is cancelled.
+         */
+        void cancelAttempts(boolean mayInterruptIfRunning) {
+            HashedWheelTimer.Handle timer = this.timer;
+
+            if (timer != null)
+                timer.cancel();
+
+            this.first.cancel(mayInterruptIfRunning);
+
+            CompletableFuture<Result<R, RoutingException>> second = this.second;
+
+            if (second != null)
+                second.cancel(mayInterruptIfRunning);
+        }
+    }
+}
@@ -0,0 +1,287 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.route.limit;
+
+import com.github.jonathanxd.interoute.annotation.Limited;
+import com.github.jonathanxd.interoute.exception.RouteRejectedException;
+import com.github.jonathanxd.interoute.exception.RoutingException;
+import com.github.jonathanxd.iutils.object.result.Result;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Adaptive limiter of concurrent executions of {@link Limited limited} routes.
+ *
+ * The limit is adjusted from the latency of every execution, as in TCP Vegas: the queue size is estimated as {@code limit
+ * * (1 - minLatency / latency)}, where {@code minLatency} is the lowest latency observed, which approximates the latency
+ * without load. The limit grows while the estimated queue is small and shrinks when it is large, so the destination is
+ * kept busy without building a queue. Executions which exceed the limit are rejected immediately with a {@link
+ * RouteRejectedException}.
+ *
+ * The lowest latency is measured again after a number of samples proportional to the limit, so the limiter recovers when
+ * the latency without load increases. Samples are skipped while another thread updates the limit, so updates never block
+ * executions.
+ */
+public final class ConcurrencyLimiter {
+
+    /**
+     * Amount of samples, per unit of limit, before the lowest latency is measured again.
+     */
+    private static final int PROBE_MULTIPLIER = 30;
+
+    private final int minLimit;
+    private final int maxLimit;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final ReentrantLock updateLock = new ReentrantLock();
+
+    /**
+     * Current limit, written only while holding {@link #updateLock}.
+     */
+    private volatile int limit;
+
+    /**
+     * Estimated limit, guarded by {@link #updateLock}.
+     */
+    private double estimatedLimit;
+
+    /**
+     * Lowest latency observed in nanoseconds, {@code 0} if there is no sample, guarded by {@link #updateLock}.
+     */
+    private long minLatency;
+
+    /**
+     * Samples since {@link #minLatency} was last measured, guarded by {@link #updateLock}.
+     */
+    private long samples;
+
+    private ConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+    }
+
+    /**
+     * Creates a limiter.
+     *
+     * @param initialLimit Limit of concurrent executions before any latency is measured.
+     * @param minLimit     Minimum limit of concurrent executions.
+     * @param maxLimit     Maximum limit of concurrent executions.
+     * @return Limiter.
+     */
+    @NotNull
+    public static ConcurrencyLimiter create(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || maxLimit < minLimit)
+            throw new IllegalArgumentException("Limits must satisfy 1 <= minLimit <= maxLimit.");
+
+        return new ConcurrencyLimiter(Math.max(minLimit, Math.min(maxLimit, initialLimit)), minLimit, maxLimit);
+    }
+
+    /**
+     * Creates a limiter configured by {@code limited}.
+     *
+     * @param limited Limiter configuration.
+     * @return Limiter configured by {@code limited}.
+     */
+    @NotNull
+    public static ConcurrencyLimiter of(@NotNull Limited limited) {
+        return ConcurrencyLimiter.create(limited.initialLimit(), limited.minLimit(), limited.maxLimit());
+    }
+
+    /**
+     * Creates the supplier which executes the future of {@code loader} if the limit is not exceeded, or rejects the
+     * execution otherwise.
+     *
+     * @param loader Supplier of the future which executes the route.
+     * @param <R>    Result type.
+     * @return Supplier which executes or rejects the future of {@code loader}.
+     */
+    @NotNull
+    public <R> Supplier<CompletableFuture<Result<R, RoutingException>>> supplier(
+            @NotNull Supplier<CompletableFuture<Result<R, RoutingException>>> loader) {
+        return () -> this.execute(loader);
+    }
+
+    /**
+     * Executes the future of {@code loader} if the limit is not exceeded, or rejects the execution otherwise.
+     *
+     * @param loader Supplier of the future which executes the route.
+     * @param <R>    Result type.
+     * @return Future of {@code loader}, or a future completed with a {@link RouteRejectedException} if the execution is
+     * rejected.
+     */
+    @NotNull
+    public <R> CompletableFuture<Result<R, RoutingException>> execute(
+            @NotNull Supplier<CompletableFuture<Result<R, RoutingException>>> loader) {
+        int inFlight = this.tryAcquire();
+
+        if (inFlight < 0) {
+            this.rejectedCount.increment();
+            return CompletableFuture.completedFuture(Result.error(
+                    new RouteRejectedException(String.format("Concurrency limit %d exceeded.", this.limit))));
+        }
+
+        long start = System.nanoTime();
+
+        try {
+            CompletableFuture<Result<R, RoutingException>> future = loader.get();
+
+            // Returns the future of the loader itself, so cancellation reaches the execution
+            future.whenComplete((result, throwable) -> {
+                // Cancelled executions (such as the losing attempt of hedged routes) are neither drops nor samples
+                if (throwable instanceof CancellationException)
+                    this.inFlight.decrementAndGet();
+                else
+                    this.release(System.nanoTime() - start, inFlight, throwable != null);
+            });
+
+            return future;
+        } catch (Throwable t) {
+            this.release(System.nanoTime() - start, inFlight, true);
+            throw t;
+        }
+    }
+
+    /**
+     * Acquires an execution slot.
+     *
+     * @return Amount of executions in flight including the acquired one, or {@code -1} if the limit is exceeded.
+     */
+    private int tryAcquire() {
+        for (;;) {
+            int current = this.inFlight.get();
+
+            if (current >= this.limit)
+                return -1;
+
+            if (this.inFlight.compareAndSet(current, current + 1))
+                return current + 1;
+        }
+    }
+
+    private void release(long latency, int inFlight, boolean dropped) {
+        this.inFlight.decrementAndGet();
+
+        if (!this.updateLock.tryLock())
+            return;
+
+        try {
+            this.update(latency, inFlight, dropped);
+        } finally {
+            this.updateLock.unlock();
+        }
+    }
+
+    private void update(long latency, int inFlight, boolean dropped) {
+        if (++this.samples >= (long) PROBE_MULTIPLIER * this.limit) {
+            this.samples = 0;
+            this.minLatency = 0;
+        }
+
+        double limit = this.estimatedLimit;
+        double threshold = Math.max(1.0, Math.log10(limit));
+
+        if (dropped) {
+            this.setLimit(limit - threshold);
+            return;
+        }
+
+        if (latency <= 0)
+            return;
+
+        if (this.minLatency == 0 || latency < this.minLatency) {
+            this.minLatency = latency;
+            return;
+        }
+
+        // Executions which do not use at least half of the limit do not tell whether the limit could be higher.
+        if (inFlight * 2 < limit)
+            return;
+
+        double queue = Math.ceil(limit * (1.0 - (double) this.minLatency / latency));
+        double alpha = 3 * threshold;
+        double beta = 6 * threshold;
+
+        if (queue <= threshold)
+            this.setLimit(limit + beta);
+        else if (queue < alpha)
+            this.setLimit(limit + threshold);
+        else if (queue > beta)
+            this.setLimit(limit - threshold);
+    }
+
+    private void setLimit(double limit) {
+        this.estimatedLimit = Math.max(this.minLimit, Math.min(this.maxLimit, limit));
+        this.limit = (int) this.estimatedLimit;
+    }
+
+    /**
+     * Gets the current limit of concurrent executions.
+     *
+     * @return Current limit of concurrent executions.
+     */
+    public int getLimit() {
+        return this.limit;
+    }
+
+    /**
+     * Gets the amount of executions in flight.
+     *
+     * @return Amount of executions in flight.
+     */
+    public int getInFlight() {
+        return this.inFlight.get();
+    }
+
+    /**
+     * Gets the amount of rejected executions.
+     *
+     * @return Amount of rejected executions.
+     */
+    public long getRejectedCount() {
+        return this.rejectedCount.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrencyLimiter{" +
+                "limit=" + this.getLimit() +
+                ", inFlight=" + this.getInFlight() +
+                ", rejectedCount=" + this.getRejectedCount() +
+                '}';
+    }
+}
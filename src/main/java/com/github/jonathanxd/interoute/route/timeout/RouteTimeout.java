@@ -0,0 +1,196 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.route.timeout;
+
+import com.github.jonathanxd.interoute.annotation.Timeout;
+import com.github.jonathanxd.interoute.exception.RouteTimeoutException;
+import com.github.jonathanxd.interoute.exception.RoutingException;
+import com.github.jonathanxd.interoute.route.Deadline;
+import com.github.jonathanxd.interoute.util.HashedWheelTimer;
+import com.github.jonathanxd.iutils.object.result.Result;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Timeout of executions of a {@link Timeout timed out} route.
+ *
+ * Every execution runs within the earliest of the {@link Deadline deadline} of the caller and the timeout of the route,
+ * executions which deadline has already expired complete immediately without invoking the destination. Other executions
+ * are bounded by an {@link HashedWheelTimer#scheduleAsync(Runnable, long, TimeUnit) asynchronous task} of the {@link
+ * HashedWheelTimer#shared() shared timer}, which completes the execution with a {@link RouteTimeoutException} and
+ * cancels the destination future when the deadline expires. Continuations of the caller run in the timer pool, never in
+ * the worker of the timer.
+ */
+public final class RouteTimeout {
+
+    private final long timeoutNanos;
+
+    private final LongAdder timeoutCount = new LongAdder();
+    private final LongAdder expiredCount = new LongAdder();
+
+    private RouteTimeout(long timeoutNanos) {
+        this.timeoutNanos = timeoutNanos;
+    }
+
+    /**
+     * Creates a route timeout.
+     *
+     * @param timeout Timeout of executions.
+     * @param unit    Unit of {@code timeout}.
+     * @return Route timeout.
+     * @throws IllegalArgumentException If {@code timeout} is not positive.
+     */
+    @NotNull
+    public static RouteTimeout create(long timeout, @NotNull TimeUnit unit) {
+        if (timeout <= 0)
+            throw new IllegalArgumentException("Timeout must be positive: " + timeout);
+
+        return new RouteTimeout(unit.toNanos(timeout));
+    }
+
+    /**
+     * Creates the route timeout specified by {@code timeout}.
+     *
+     * @param timeout Timeout specification.
+     * @return Route timeout specified by {@code timeout}.
+     */
+    @NotNull
+    public static RouteTimeout of(@NotNull Timeout timeout) {
+        return RouteTimeout.create(timeout.value(), timeout.unit());
+    }
+
+    /**
+     * Creates the supplier which bounds the future of {@code loader} by the deadline of the execution.
+     *
+     * @param loader Supplier of the future which executes the route.
+     * @param <R>    Result type.
+     * @return Supplier which bounds the future of {@code loader} by the deadline of the execution.
+     */
+    @NotNull
+    public <R> Supplier<CompletableFuture<Result<R, RoutingException>>> supplier(
+            @NotNull Supplier<CompletableFuture<Result<R, RoutingException>>> loader) {
+        return () -> this.execute(loader);
+    }
+
+    /**
+     * Executes the future of {@code loader} within the deadline of the execution, the deadline is the deadline of the
+     * current thread while {@code loader} creates the future.
+     *
+     * @param loader Supplier of the future which executes the route.
+     * @param <R>    Result type.
+     * @return Future which completes with the result of {@code loader} future, or with a {@link RouteTimeoutException} if
+     * the deadline expires first.
+     */
+    @NotNull
+    public <R> CompletableFuture<Result<R, RoutingException>> execute(
+            @NotNull Supplier<CompletableFuture<Result<R, RoutingException>>> loader) {
+        Deadline deadline = Deadline.within(this.timeoutNanos);
+        long remaining = deadline.remaining(TimeUnit.NANOSECONDS);
+
+        if (remaining <= 0) {
+            this.expiredCount.increment();
+            return CompletableFuture.completedFuture(Deadline.expiredResult());
+        }
+
+        CompletableFuture<Result<R, RoutingException>> future = deadline.call(loader);
+
+        if (future.isDone())
+            return future;
+
+        CompletableFuture<Result<R, RoutingException>> result = new CompletableFuture<Result<R, RoutingException>>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                if (!super.cancel(mayInterruptIfRunning))
+                    return false;
+
+                future.cancel(mayInterruptIfRunning);
+                return true;
+            }
+        };
+        HashedWheelTimer.Handle handle = HashedWheelTimer.shared().scheduleAsync(() -> {
+            if (result.complete(Result.error(new RouteTimeoutException(
+                    String.format("Route timed out after %d ms.", TimeUnit.NANOSECONDS.toMillis(remaining)))))) {
+                this.timeoutCount.increment();
+                future.cancel(true);
+            }
+        }, remaining, TimeUnit.NANOSECONDS);
+
+        future.whenComplete((value, throwable) -> {
+            handle.cancel();
+
+            if (throwable != null)
+                result.completeExceptionally(throwable);
+            else
+                result.complete(value);
+        });
+
+        return result;
+    }
+
+    /**
+     * Gets the timeout of executions.
+     *
+     * @param unit Unit of timeout.
+     * @return Timeout of executions.
+     */
+    public long getTimeout(@NotNull TimeUnit unit) {
+        return unit.convert(this.timeoutNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the amount of executions which timed out.
+     *
+     * @return Amount of executions which timed out.
+     */
+    public long getTimeoutCount() {
+        return this.timeoutCount.sum();
+    }
+
+    /**
+     * Gets the amount of executions which were not started because their deadline had already expired.
+     *
+     * @return Amount of executions which were not started because their deadline had already expired.
+     */
+    public long getExpiredCount() {
+        return this.expiredCount.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "RouteTimeout{" +
+                "timeoutNanos=" + timeoutNanos +
+                ", timeoutCount=" + this.getTimeoutCount() +
+                ", expiredCount=" + this.getExpiredCount() +
+                '}';
+    }
+}
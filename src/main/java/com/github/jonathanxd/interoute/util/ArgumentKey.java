@@ -0,0 +1,213 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.util;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Key of route arguments, equal when all arguments are equal.
+ *
+ * Generated routes {@link #add(int) add} primitive arguments with the overload of their own type, so primitive
+ * arguments are stored without boxing. Arguments given to {@link #of(Class[], Object[])} are stored as primitive values
+ * only when their parameter is primitive, arguments of reference parameters are always compared with {@link
+ * Object#equals(Object)}, so {@code 1} and {@code 1L} given to an {@code Object} parameter are different keys. Keys
+ * must not be modified after they are used.
+ */
+public final class ArgumentKey {
+
+    private static final long[] NO_PRIMITIVES = new long[0];
+    private static final Object[] NO_REFERENCES = new Object[0];
+
+    /**
+     * Raw bits of primitive arguments.
+     */
+    @NotNull
+    private final long[] primitives;
+
+    /**
+     * Reference arguments.
+     */
+    @NotNull
+    private final Object[] references;
+
+    private int primitiveCount;
+    private int referenceCount;
+    private long hash = 1L;
+
+    /**
+     * Creates an empty key with room for {@code primitives} primitive arguments and {@code references} reference
+     * arguments.
+     *
+     * @param primitives Amount of primitive arguments.
+     * @param references Amount of reference arguments.
+     */
+    public ArgumentKey(int primitives, int references) {
+        this.primitives = primitives == 0 ? NO_PRIMITIVES : new long[primitives];
+        this.references = references == 0 ? NO_REFERENCES : new Object[references];
+    }
+
+    /**
+     * Creates the key of {@code arguments} of parameters of types {@code parameterTypes}, arguments of primitive
+     * parameters are stored as their primitive values, as generated routes do.
+     *
+     * @param parameterTypes Types of route parameters.
+     * @param arguments      Route arguments.
+     * @return Key of {@code arguments}.
+     */
+    @NotNull
+    public static ArgumentKey of(@NotNull Class<?>[] parameterTypes, @NotNull Object[] arguments) {
+        if (parameterTypes.length != arguments.length)
+            throw new IllegalArgumentException(String.format("Expected %d arguments, found %d.",
+                    parameterTypes.length, arguments.length));
+
+        int primitives = 0;
+
+        for (Class<?> parameterType : parameterTypes) {
+            if (parameterType.isPrimitive())
+                ++primitives;
+        }
+
+        ArgumentKey key = new ArgumentKey(primitives, arguments.length - primitives);
+
+        for (int i = 0; i < arguments.length; i++) {
+            if (parameterTypes[i].isPrimitive())
+                key.addBoxed(arguments[i]);
+            else
+                key.add(arguments[i]);
+        }
+
+        return key;
+    }
+
+    public ArgumentKey add(boolean argument) {
+        return this.addPrimitive(argument ? 1L : 0L, RouteKeyUtil.hash(argument));
+    }
+
+    public ArgumentKey add(byte argument) {
+        return this.addPrimitive(argument, RouteKeyUtil.hash(argument));
+    }
+
+    public ArgumentKey add(short argument) {
+        return this.addPrimitive(argument, RouteKeyUtil.hash(argument));
+    }
+
+    public ArgumentKey add(char argument) {
+        return this.addPrimitive(argument, RouteKeyUtil.hash(argument));
+    }
+
+    public ArgumentKey add(int argument) {
+        return this.addPrimitive(argument, RouteKeyUtil.hash(argument));
+    }
+
+    public ArgumentKey add(long argument) {
+        return this.addPrimitive(argument, RouteKeyUtil.hash(argument));
+    }
+
+    public ArgumentKey add(float argument) {
+        return this.addPrimitive(Float.floatToIntBits(argument), RouteKeyUtil.hash(argument));
+    }
+
+    public ArgumentKey add(double argument) {
+        return this.addPrimitive(Double.doubleToLongBits(argument), RouteKeyUtil.hash(argument));
+    }
+
+    public ArgumentKey add(Object argument) {
+        this.references[this.referenceCount++] = argument;
+        this.hash = 31L * this.hash + RouteKeyUtil.hash(argument);
+        return this;
+    }
+
+    private ArgumentKey addPrimitive(long bits, long hash) {
+        this.primitives[this.primitiveCount++] = bits;
+        this.hash = 31L * this.hash + hash;
+        return this;
+    }
+
+    /**
+     * Adds boxed argument of a primitive parameter.
+     */
+    private void addBoxed(Object argument) {
+        if (argument instanceof Integer)
+            this.add((int) (Integer) argument);
+        else if (argument instanceof Long)
+            this.add((long) (Long) argument);
+        else if (argument instanceof Character)
+            this.add((char) (Character) argument);
+        else if (argument instanceof Short)
+            this.add((short) (Short) argument);
+        else if (argument instanceof Byte)
+            this.add((byte) (Byte) argument);
+        else if (argument instanceof Boolean)
+            this.add((boolean) (Boolean) argument);
+        else if (argument instanceof Float)
+            this.add((float) (Float) argument);
+        else
+            this.add((double) (Double) argument);
+    }
+
+    /**
+     * Gets the 64-bit hash of this key, {@link #hashCode()} is derived from it.
+     *
+     * @return 64-bit hash of this key.
+     */
+    @Contract(pure = true)
+    public long hash() {
+        return this.hash;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (this.hash ^ (this.hash >>> 32));
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+
+        if (!(obj instanceof ArgumentKey))
+            return false;
+
+        ArgumentKey other = (ArgumentKey) obj;
+
+        return this.hash == other.hash
+                && Arrays.equals(this.primitives, other.primitives)
+                && Arrays.equals(this.references, other.references);
+    }
+
+    @Override
+    public String toString() {
+        return "ArgumentKey{" +
+                "primitives=" + Arrays.toString(primitives) +
+                ", references=" + Arrays.toString(references) +
+                '}';
+    }
+}
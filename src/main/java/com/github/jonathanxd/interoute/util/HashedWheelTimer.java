@@ -0,0 +1,469 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.util;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Timer which keeps scheduled tasks in a wheel of buckets, one bucket for each tick, so scheduling and cancelling a task
+ * are constant time operations regardless of the amount of scheduled tasks.
+ *
+ * A single daemon worker thread advances the wheel once per tick and runs expired tasks, so tasks run up to one tick
+ * after their delay and must be short and must not block, for example submitting work to an executor. Completing a future
+ * of a caller runs the continuations of the caller on the completing thread, so tasks which complete futures or start
+ * route executions are {@link #scheduleAsync(Runnable, long, TimeUnit) scheduled asynchronously} instead, and run in a
+ * pool of daemon threads of the timer. Tasks scheduled by other threads are transferred to the wheel by the worker.
+ * Cancelling a task releases it immediately, and the worker removes its handle from the wheel on the next tick, or
+ * before parking while there are no scheduled tasks.
+ *
+ * All routes share the {@link #shared() shared timer}, instead of scheduling one task per execution in a {@link
+ * java.util.concurrent.ScheduledExecutorService}.
+ */
+public final class HashedWheelTimer {
+
+    private static final HashedWheelTimer SHARED =
+            new HashedWheelTimer("Interoute-Timer", 1, TimeUnit.MILLISECONDS, 512);
+
+    private final long tickNanos;
+
+    /**
+     * Buckets of the wheel, only accessed by the worker.
+     */
+    @NotNull
+    private final Bucket[] wheel;
+
+    private final int mask;
+
+    /**
+     * Tasks scheduled but not yet transferred to the wheel.
+     */
+    @NotNull
+    private final Queue<Handle> pending = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Tasks cancelled but not yet removed from the wheel.
+     */
+    @NotNull
+    private final Queue<Handle> cancelled = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Amount of tasks which are neither expired nor cancelled.
+     */
+    private final AtomicInteger scheduled = new AtomicInteger();
+
+    private final long startTime;
+
+    @NotNull
+    private final Thread worker;
+
+    /**
+     * Executor of {@link #scheduleAsync(Runnable, long, TimeUnit) asynchronous tasks}.
+     */
+    @NotNull
+    private final ExecutorService executor;
+
+    /**
+     * Current tick, only accessed by the worker.
+     */
+    private long tick;
+
+    private HashedWheelTimer(@NotNull String name, long tickDuration, @NotNull TimeUnit unit, int wheelSize) {
+        int length = wheelSize == 1 ? 1 : Integer.highestOneBit(wheelSize - 1) << 1;
+
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.wheel = new Bucket[length];
+        this.mask = length - 1;
+
+        for (int i = 0; i < length; ++i) {
+            this.wheel[i] = new Bucket();
+        }
+
+        this.executor = Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, name + "-Async");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.startTime = System.nanoTime();
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Creates a timer with its own worker thread.
+     *
+     * @param name         Name of the worker thread.
+     * @param tickDuration Duration of a tick.
+     * @param unit         Unit of {@code tickDuration}.
+     * @param wheelSize    Amount of buckets of the wheel, rounded up to a power of two.
+     * @return Timer.
+     * @throws IllegalArgumentException If {@code tickDuration} or {@code wheelSize} is not positive.
+     */
+    @NotNull
+    public static HashedWheelTimer create(@NotNull String name, long tickDuration, @NotNull TimeUnit unit, int wheelSize) {
+        if (tickDuration <= 0)
+            throw new IllegalArgumentException("Tick duration must be positive: " + tickDuration);
+
+        if (wheelSize <= 0)
+            throw new IllegalArgumentException("Wheel size must be positive: " + wheelSize);
+
+        return new HashedWheelTimer(name, tickDuration, unit, wheelSize);
+    }
+
+    /**
+     * Gets the timer shared by all routes, which ticks every millisecond.
+     *
+     * @return Timer shared by all routes.
+     */
+    @Contract(pure = true)
+    @NotNull
+    public static HashedWheelTimer shared() {
+        return SHARED;
+    }
+
+    /**
+     * Schedules {@code task} to run after {@code delay}.
+     *
+     * @param task  Task to run.
+     * @param delay Delay of the task.
+     * @param unit  Unit of {@code delay}.
+     * @return Handle of the scheduled task.
+     */
+    @NotNull
+    public Handle schedule(@NotNull Runnable task, long delay, @NotNull TimeUnit unit) {
+        Handle handle = new Handle(this, task, System.nanoTime() + Math.max(0L, unit.toNanos(delay)));
+
+        this.pending.add(handle);
+
+        if (this.scheduled.getAndIncrement() == 0)
+            LockSupport.unpark(this.worker);
+
+        return handle;
+    }
+
+    /**
+     * Schedules {@code task} to run after {@code delay} in a thread of the timer pool instead of the worker thread.
+     * Tasks which may block or which complete futures, and therefore run continuations of other threads, must be
+     * scheduled with this method.
+     *
+     * @param task  Task to run.
+     * @param delay Delay of the task.
+     * @param unit  Unit of {@code delay}.
+     * @return Handle of the scheduled task.
+     */
+    @NotNull
+    public Handle scheduleAsync(@NotNull Runnable task, long delay, @NotNull TimeUnit unit) {
+        return this.schedule(new AsyncTask(this.executor, task), delay, unit);
+    }
+
+    /**
+     * Gets the amount of scheduled tasks which are neither expired nor cancelled.
+     *
+     * @return Amount of scheduled tasks which are neither expired nor cancelled.
+     */
+    public int getScheduledCount() {
+        return this.scheduled.get();
+    }
+
+    private void run() {
+        for (;;) {
+            this.awaitTick();
+            this.transferPending();
+            this.removeCancelled();
+            this.wheel[(int) (this.tick & this.mask)].expire(this.tick);
+            ++this.tick;
+        }
+    }
+
+    private void awaitTick() {
+        for (;;) {
+            long now = System.nanoTime();
+
+            if (this.scheduled.get() == 0) {
+                // Cancelled tasks would otherwise stay in the wheel until the next task is scheduled.
+                this.pending.removeIf(Handle::isCancelled);
+                this.removeCancelled();
+                LockSupport.park(this);
+                // Empty buckets are not visited while the timer is idle.
+                this.tick = Math.max(this.tick, (System.nanoTime() - this.startTime) / this.tickNanos);
+                continue;
+            }
+
+            long sleep = this.startTime + (this.tick + 1) * this.tickNanos - now;
+
+            if (sleep <= 0)
+                return;
+
+            LockSupport.parkNanos(this, sleep);
+        }
+    }
+
+    private void transferPending() {
+        Handle handle;
+
+        while ((handle = this.pending.poll()) != null) {
+            if (handle.state.get() != Handle.SCHEDULED)
+                continue;
+
+            long expiration = Math.max(this.tick, (handle.deadline - this.startTime + this.tickNanos - 1) / this.tickNanos);
+
+            handle.expiration = expiration;
+            this.wheel[(int) (expiration & this.mask)].add(handle);
+        }
+    }
+
+    private void removeCancelled() {
+        Handle handle;
+
+        while ((handle = this.cancelled.poll()) != null) {
+            // Handles cancelled before their transfer are dropped by the transfer instead.
+            if (handle.bucket != null)
+                handle.bucket.remove(handle);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "HashedWheelTimer{" +
+                "worker=" + worker.getName() +
+                ", tickNanos=" + tickNanos +
+                ", wheelSize=" + wheel.length +
+                ", scheduled=" + this.getScheduledCount() +
+                '}';
+    }
+
+    /**
+     * Handle of a task scheduled in a {@link HashedWheelTimer}.
+     */
+    public static final class Handle {
+
+        private static final int SCHEDULED = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        @NotNull
+        private final HashedWheelTimer timer;
+
+        /**
+         * Task to run, {@code null} once the task is cancelled or expired so the handle does not retain it.
+         */
+        @Nullable
+        private volatile Runnable task;
+
+        /**
+         * Deadline of the task, in {@link System#nanoTime()} time.
+         */
+        private final long deadline;
+
+        private final AtomicInteger state = new AtomicInteger(SCHEDULED);
+
+        /**
+         * Tick which the task expires, bucket which holds the handle and links of the bucket, only accessed by the
+         * worker.
+         */
+        private long expiration;
+
+        @Nullable
+        private Bucket bucket;
+
+        @Nullable
+        private Handle prev;
+
+        @Nullable
+        private Handle next;
+
+        Handle(@NotNull HashedWheelTimer timer, @NotNull Runnable task, long deadline) {
+            this.timer = timer;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancels the task if it has not run yet.
+         *
+         * @return Whether the task was cancelled by this invocation.
+         */
+        public boolean cancel() {
+            if (!this.state.compareAndSet(SCHEDULED, CANCELLED))
+                return false;
+
+            this.task = null;
+            this.timer.cancelled.add(this);
+
+            // Wakes the idle worker, which removes cancelled handles before parking again.
+            if (this.timer.scheduled.decrementAndGet() == 0)
+                LockSupport.unpark(this.timer.worker);
+
+            return true;
+        }
+
+        /**
+         * Returns whether the task was cancelled.
+         *
+         * @return Whether the task was cancelled.
+         */
+        public boolean isCancelled() {
+            return this.state.get() == CANCELLED;
+        }
+
+        /**
+         * Returns whether the task has run or is running.
+         *
+         * @return Whether the task has run or is running.
+         */
+        public boolean isExpired() {
+            return this.state.get() == EXPIRED;
+        }
+
+        private void expire() {
+            if (!this.state.compareAndSet(SCHEDULED, EXPIRED))
+                return;
+
+            this.timer.scheduled.decrementAndGet();
+
+            Runnable task = this.task;
+            this.task = null;
+
+            try {
+                task.run();
+            } catch (Throwable ignored) {
+                // Tasks report their own failures, a failing task must not stop the worker.
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "Handle{" +
+                    "task=" + task +
+                    ", deadline=" + deadline +
+                    ", state=" + state +
+                    '}';
+        }
+    }
+
+    /**
+     * Task which submits {@link #task} to {@link #executor} when it expires.
+     */
+    private static final class AsyncTask implements Runnable {
+
+        @NotNull
+        private final Executor executor;
+
+        @NotNull
+        private final Runnable task;
+
+        AsyncTask(@NotNull Executor executor, @NotNull Runnable task) {
+            this.executor = executor;
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            this.executor.execute(this.task);
+        }
+
+        @Override
+        public String toString() {
+            return "AsyncTask{" +
+                    "task=" + task +
+                    '}';
+        }
+    }
+
+    /**
+     * Doubly linked list of tasks of a bucket, only accessed by the worker.
+     */
+    private static final class Bucket {
+
+        @Nullable
+        private Handle head;
+
+        @Nullable
+        private Handle tail;
+
+        void add(Handle handle) {
+            handle.bucket = this;
+            handle.prev = this.tail;
+            handle.next = null;
+
+            if (this.tail == null)
+                this.head = handle;
+            else
+                this.tail.next = handle;
+
+            this.tail = handle;
+        }
+
+        /**
+         * Runs tasks which expire at {@code tick} or before and removes cancelled tasks.
+         */
+        void expire(long tick) {
+            Handle handle = this.head;
+
+            while (handle != null) {
+                Handle next = handle.next;
+
+                if (handle.isCancelled()) {
+                    this.remove(handle);
+                } else if (handle.expiration <= tick) {
+                    this.remove(handle);
+                    handle.expire();
+                }
+
+                handle = next;
+            }
+        }
+
+        private void remove(Handle handle) {
+            if (handle.prev == null)
+                this.head = handle.next;
+            else
+                handle.prev.next = handle.next;
+
+            if (handle.next == null)
+                this.tail = handle.prev;
+            else
+                handle.next.prev = handle.prev;
+
+            handle.bucket = null;
+            handle.prev = null;
+            handle.next = null;
+        }
+    }
+}
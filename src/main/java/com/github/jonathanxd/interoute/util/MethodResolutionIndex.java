@@ -0,0 +1,193 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.util;
+
+import com.github.jonathanxd.iutils.object.EitherUtil;
+import com.github.jonathanxd.kores.base.MethodDeclaration;
+import com.github.jonathanxd.kores.common.MethodTypeSpec;
+import com.github.jonathanxd.kores.type.ImplicitKoresType;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Index of methods of a destination type, indexed by method name and parameter types.
+ *
+ * Indexes are shared between all routers and are built at most once per class, resolution of destination methods is a
+ * constant time lookup instead of a linear scan over {@link ImplicitKoresType#getBindedDefaultResolver(Type) resolved
+ * methods}.
+ */
+public final class MethodResolutionIndex {
+
+    /**
+     * Index of each destination class.
+     */
+    private static final ClassValue<MethodResolutionIndex> INDEX = new ClassValue<MethodResolutionIndex>() {
+        @Override
+        protected MethodResolutionIndex computeValue(Class<?> type) {
+            return MethodResolutionIndex.create(type);
+        }
+    };
+
+    /**
+     * Indexed type.
+     */
+    @NotNull
+    private final Class<?> type;
+
+    /**
+     * Whether methods of {@link #type} was successfully resolved or not.
+     */
+    private final boolean resolved;
+
+    /**
+     * Methods of {@link #type}. When more than one method has the same name and parameter types, the first resolved is
+     * indexed.
+     */
+    @NotNull
+    private final Map<Key, MethodTypeSpec> methods;
+
+    private MethodResolutionIndex(@NotNull Class<?> type,
+                                  boolean resolved,
+                                  @NotNull Map<Key, MethodTypeSpec> methods) {
+        this.type = type;
+        this.resolved = resolved;
+        this.methods = Collections.unmodifiableMap(methods);
+    }
+
+    /**
+     * Gets the method index of {@code type}.
+     *
+     * @param type Type to get index.
+     * @return Method index of {@code type}.
+     */
+    @NotNull
+    public static MethodResolutionIndex of(@NotNull Class<?> type) {
+        return INDEX.get(type);
+    }
+
+    /**
+     * Creates method index of {@code type}.
+     *
+     * @param type Type to index.
+     * @return Method index of {@code type}.
+     */
+    private static MethodResolutionIndex create(Class<?> type) {
+        return EitherUtil.getLeftOrRight(ImplicitKoresType.getBindedDefaultResolver(type)
+                .resolveMethods()
+                .map(
+                        e -> new MethodResolutionIndex(type, false, Collections.emptyMap()),
+                        declarations -> new MethodResolutionIndex(type, true, MethodResolutionIndex.index(type, declarations))
+                ));
+    }
+
+    private static Map<Key, MethodTypeSpec> index(Class<?> type, List<MethodDeclaration> declarations) {
+        Map<Key, MethodTypeSpec> methods = new HashMap<>(declarations.size() * 2);
+
+        for (MethodDeclaration declaration : declarations) {
+            methods.putIfAbsent(
+                    new Key(declaration.getName(), declaration.getTypeSpec().getParameterTypes()),
+                    new MethodTypeSpec(type, declaration.getName(), declaration.getTypeSpec())
+            );
+        }
+
+        return methods;
+    }
+
+    /**
+     * Gets the indexed type.
+     *
+     * @return Indexed type.
+     */
+    @Contract(pure = true)
+    @NotNull
+    public Class<?> getType() {
+        return this.type;
+    }
+
+    /**
+     * Returns whether methods of {@link #getType() indexed type} was successfully resolved or not.
+     *
+     * @return Whether methods of {@link #getType() indexed type} was successfully resolved or not.
+     */
+    @Contract(pure = true)
+    public boolean isResolved() {
+        return this.resolved;
+    }
+
+    /**
+     * Finds method with {@code name} and {@code parameterTypes}.
+     *
+     * @param name           Name of the method.
+     * @param parameterTypes Parameter types of the method.
+     * @return Optional with found method or {@link Optional#empty()} if there is no method with provided {@code name} and
+     * {@code parameterTypes}.
+     */
+    @NotNull
+    public Optional<MethodTypeSpec> find(@NotNull String name, @NotNull List<Type> parameterTypes) {
+        return Optional.ofNullable(this.methods.get(new Key(name, parameterTypes)));
+    }
+
+    /**
+     * Index key.
+     */
+    private static final class Key {
+        private final String name;
+        private final List<Type> parameterTypes;
+        private final int hash;
+
+        Key(String name, List<Type> parameterTypes) {
+            this.name = name;
+            this.parameterTypes = parameterTypes;
+            this.hash = Objects.hash(name, parameterTypes);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return this.hash == key.hash
+                    && Objects.equals(this.name, key.name)
+                    && Objects.equals(this.parameterTypes, key.parameterTypes);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.util;
+
+import com.github.jonathanxd.interoute.annotation.RouteKey;
+import com.github.jonathanxd.interoute.gen.RouteParameterSpec;
+import com.github.jonathanxd.interoute.gen.RouteSpec;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.OptionalInt;
+
+/**
+ * Utilities of {@link RouteKey routing keys}.
+ *
+ * Generated routes hash primitive keys with the overload of their own type, so keys are never boxed. Hashes of boxed
+ * keys are equal to hashes of their primitive values.
+ */
+public final class RouteKeyUtil {
+
+    private RouteKeyUtil() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Gets the index of the {@link RouteKey routing key} parameter of {@code routeSpec}.
+     *
+     * @param routeSpec Route specification.
+     * @return Index of the first parameter annotated with {@link RouteKey}, or {@link OptionalInt#empty()} if there is no
+     * routing key parameter.
+     */
+    @NotNull
+    public static OptionalInt getKeyParameter(@NotNull RouteSpec routeSpec) {
+        List<RouteParameterSpec> parameterSpecs = routeSpec.getOriginParameterSpecs();
+
+        for (int i = 0; i < parameterSpecs.size(); ++i) {
+            if (parameterSpecs.get(i).getRouteSpecInfo(RouteKey.class).isPresent())
+                return OptionalInt.of(i);
+        }
+
+        return OptionalInt.empty();
+    }
+
+    public static long hash(boolean key) {
+        return RouteKeyUtil.hash(key ? 1L : 0L);
+    }
+
+    public static long hash(byte key) {
+        return RouteKeyUtil.hash((long) key);
+    }
+
+    public static long hash(short key) {
+        return RouteKeyUtil.hash((long) key);
+    }
+
+    public static long hash(char key) {
+        return RouteKeyUtil.hash((long) key);
+    }
+
+    public static long hash(int key) {
+        return RouteKeyUtil.hash((long) key);
+    }
+
+    public static long hash(float key) {
+        return RouteKeyUtil.hash((long) Float.floatToIntBits(key));
+    }
+
+    public static long hash(double key) {
+        return RouteKeyUtil.hash(Double.doubleToLongBits(key));
+    }
+
+    /**
+     * Hashes {@code key} with the finalization step of MurmurHash3, which spreads close keys across the whole range.
+     *
+     * @param key Key to hash.
+     * @return Hash of {@code key}.
+     */
+    public static long hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    /**
+     * Hashes {@code key}, boxed primitives are hashed as their primitive values.
+     *
+     * @param key Key to hash.
+     * @return Hash of {@code key}.
+     */
+    public static long hash(Object key) {
+        if (key == null)
+            return RouteKeyUtil.hash(0L);
+        if (key instanceof Integer)
+            return RouteKeyUtil.hash((int) (Integer) key);
+        if (key instanceof Long)
+            return RouteKeyUtil.hash((long) (Long) key);
+        if (key instanceof Character)
+            return RouteKeyUtil.hash((char) (Character) key);
+        if (key instanceof Short)
+            return RouteKeyUtil.hash((short) (Short) key);
+        if (key instanceof Byte)
+            return RouteKeyUtil.hash((byte) (Byte) key);
+        if (key instanceof Boolean)
+            return RouteKeyUtil.hash((boolean) (Boolean) key);
+        if (key instanceof Float)
+            return RouteKeyUtil.hash((float) (Float) key);
+        if (key instanceof Double)
+            return RouteKeyUtil.hash((double) (Double) key);
+
+        return RouteKeyUtil.hash((long) key.hashCode());
+    }
+}
@@ -38,6 +38,10 @@ public class RouteSpecInfoUtil {
      * Filter all route spec info instances which {@link RouteSpecInfo#getInstance() unified instance} is instance of {@code
      * unificationType}.
      *
+     * Specifications are already indexed by unification type in {@link com.github.jonathanxd.interoute.gen.RouteSpec},
+     * {@link com.github.jonathanxd.interoute.gen.RouteParameterSpec} and {@link com.github.jonathanxd.interoute.gen.RouterSpec},
+     * prefer their {@link com.github.jonathanxd.interoute.gen.RouteSpecInfoIndex indexed} accessors.
+     *
      * @param stream          Stream to apply filter.
      * @param unificationType Unification type instance.
      * @param <T>             Unification type.
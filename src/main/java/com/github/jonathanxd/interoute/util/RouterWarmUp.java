@@ -0,0 +1,247 @@
+/*
+ *      Interoute - Interface routing framework. <https://github.com/JonathanxD/Interoute>
+ *
+ *         The MIT License (MIT)
+ *
+ *      Copyright (c) 2018 TheRealBuggy/JonathanxD (https://github.com/JonathanxD/) <jonathan.scripter@programmer.net>
+ *      Copyright (c) contributors
+ *
+ *
+ *      Permission is hereby granted, free of charge, to any person obtaining a copy
+ *      of this software and associated documentation files (the "Software"), to deal
+ *      in the Software without restriction, including without limitation the rights
+ *      to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *      copies of the Software, and to permit persons to whom the Software is
+ *      furnished to do so, subject to the following conditions:
+ *
+ *      The above copyright notice and this permission notice shall be included in
+ *      all copies or substantial portions of the Software.
+ *
+ *      THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *      IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *      FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *      AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *      LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *      OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *      THE SOFTWARE.
+ */
+package com.github.jonathanxd.interoute.util;
+
+import com.github.jonathanxd.interoute.annotation.RouteTo;
+import com.github.jonathanxd.interoute.annotation.RouterInterface;
+import com.github.jonathanxd.interoute.exception.RoutingException;
+import com.github.jonathanxd.interoute.route.AbstractRoute;
+import com.github.jonathanxd.interoute.route.MethodTypeSpecOrigin;
+import com.github.jonathanxd.interoute.route.Route;
+import com.github.jonathanxd.interoute.route.Router;
+import com.github.jonathanxd.interoute.route.SuppliedExecutorRoute;
+import com.github.jonathanxd.interoute.route.WarmUpOptions;
+import com.github.jonathanxd.iutils.object.result.Result;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import kotlin.Unit;
+
+/**
+ * Warm-up of {@link Router routers}, see {@link Router#warmUp(WarmUpOptions)}.
+ */
+public final class RouterWarmUp {
+
+    /**
+     * Amount of pending route executions to wait before dispatching more synthetic invocations.
+     */
+    private static final int JOIN_BATCH = 64;
+
+    /**
+     * Classes involved in route creation and execution.
+     */
+    private static final List<Class<?>> ROUTE_CLASSES = Arrays.asList(
+            AbstractRoute.class,
+            SuppliedExecutorRoute.class,
+            MethodTypeSpecOrigin.class,
+            Result.class,
+            Result.Ok.class,
+            Result.Err.class,
+            RoutingException.class,
+            CompletableFuture.class,
+            Unit.class
+    );
+
+    private RouterWarmUp() {
+    }
+
+    /**
+     * Warm-up {@code router}. Loads and initializes route classes, links call sites of route methods and executes synthetic
+     * invocations if {@link WarmUpOptions#isInvokeRoutes() enabled}.
+     *
+     * Call sites of routes which returns {@code void} and call sites of route execution are only linked by synthetic
+     * invocations, because linking them requires the destination to be reached.
+     *
+     * @param router  Router to warm-up.
+     * @param options Warm-up options.
+     * @return Result with either amount of synthetic invocations or the exception which interrupted the warm-up.
+     */
+    @NotNull
+    public static Result<Integer, RoutingException> warmUp(@NotNull Router router, @NotNull WarmUpOptions options) {
+        try {
+            RouterWarmUp.initializeRouteClasses();
+
+            int invocations = 0;
+
+            for (Method method : RouterWarmUp.getRouteMethods(router.getClass())) {
+                Optional<List<Supplier<?>>> arguments = RouterWarmUp.getArgumentSuppliers(method, options);
+
+                if (!arguments.isPresent())
+                    continue;
+
+                if (method.getReturnType() != Void.TYPE)
+                    RouterWarmUp.invoke(router, method, arguments.get());
+
+                if (options.isInvokeRoutes())
+                    invocations += RouterWarmUp.invokeRoute(router, method, arguments.get(), options.getInvocations());
+            }
+
+            return Result.ok(invocations);
+        } catch (RoutingException e) {
+            return Result.error(e);
+        }
+    }
+
+    /**
+     * Executes {@code amount} synthetic invocations of route {@code method}.
+     *
+     * @return Amount of synthetic invocations.
+     */
+    private static int invokeRoute(Router router, Method method, List<Supplier<?>> arguments, int amount) {
+        List<CompletableFuture<?>> pending = new ArrayList<>(JOIN_BATCH);
+
+        for (int i = 0; i < amount; i++) {
+            Object route = RouterWarmUp.invoke(router, method, arguments);
+
+            if (route instanceof Route<?>)
+                pending.add(((Route<?>) route).execute());
+
+            if (pending.size() >= JOIN_BATCH)
+                RouterWarmUp.join(method, pending);
+        }
+
+        RouterWarmUp.join(method, pending);
+
+        return amount;
+    }
+
+    /**
+     * Waits all {@code pending} executions to finish and clears the list.
+     */
+    private static void join(Method method, List<CompletableFuture<?>> pending) {
+        try {
+            for (CompletableFuture<?> future : pending) {
+                future.join();
+            }
+        } catch (CompletionException e) {
+            throw new RoutingException(String.format("Failed to execute route '%s' during warm-up.", method), e.getCause());
+        } catch (CancellationException e) {
+            throw new RoutingException(String.format("Execution of route '%s' was cancelled during warm-up.", method), e);
+        } finally {
+            pending.clear();
+        }
+    }
+
+    /**
+     * Invokes route {@code method} with arguments provided by {@code arguments} suppliers.
+     */
+    private static Object invoke(Router router, Method method, List<Supplier<?>> arguments) {
+        Object[] args = new Object[arguments.size()];
+
+        for (int i = 0; i < args.length; i++) {
+            args[i] = arguments.get(i).get();
+        }
+
+        try {
+            return method.invoke(router, args);
+        } catch (InvocationTargetException e) {
+            throw new RoutingException(String.format("Failed to invoke route '%s' during warm-up.", method), e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new RoutingException(String.format("Cannot access route '%s' during warm-up.", method), e);
+        }
+    }
+
+    /**
+     * Gets argument suppliers of route {@code method}.
+     *
+     * @return Optional with argument suppliers or {@link Optional#empty()} if there is at least one parameter without a sample
+     * supplier.
+     */
+    private static Optional<List<Supplier<?>>> getArgumentSuppliers(Method method, WarmUpOptions options) {
+        List<Supplier<?>> suppliers = new ArrayList<>(method.getParameterCount());
+
+        for (Class<?> type : method.getParameterTypes()) {
+            Optional<Supplier<?>> sample = options.getSample(type);
+
+            if (!sample.isPresent())
+                return Optional.empty();
+
+            suppliers.add(sample.get());
+        }
+
+        return Optional.of(suppliers);
+    }
+
+    /**
+     * Gets route methods implemented by {@code routerClass}, including routes of router interfaces implemented by super
+     * classes, such as shards, and router interfaces extended by other interfaces.
+     *
+     * @param routerClass Router implementation class.
+     * @return Route methods implemented by {@code routerClass}.
+     */
+    private static List<Method> getRouteMethods(Class<?> routerClass) {
+        Set<Class<?>> types = new LinkedHashSet<>();
+
+        RouterWarmUp.collectSuperTypes(routerClass, types);
+
+        return types.stream()
+                .filter(it -> it.isInterface() && it.isAnnotationPresent(RouterInterface.class))
+                .flatMap(it -> Arrays.stream(it.getMethods()))
+                .filter(it -> it.isAnnotationPresent(RouteTo.class))
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    private static void collectSuperTypes(Class<?> type, Set<Class<?>> types) {
+        if (type == null || !types.add(type))
+            return;
+
+        RouterWarmUp.collectSuperTypes(type.getSuperclass(), types);
+
+        for (Class<?> itf : type.getInterfaces()) {
+            RouterWarmUp.collectSuperTypes(itf, types);
+        }
+    }
+
+    /**
+     * Loads and initializes {@link #ROUTE_CLASSES}.
+     */
+    private static void initializeRouteClasses() {
+        for (Class<?> routeClass : ROUTE_CLASSES) {
+            try {
+                Class.forName(routeClass.getName(), true, routeClass.getClassLoader());
+            } catch (ClassNotFoundException e) {
+                throw new RoutingException(String.format("Cannot initialize route class '%s'.", routeClass), e);
+            }
+        }
+    }
+}
@@ -28,24 +28,61 @@
 package com.github.jonathanxd.interoute.test;
 
 import com.github.jonathanxd.interoute.Interoute;
+import com.github.jonathanxd.interoute.InterouteAnnotationParse;
 import com.github.jonathanxd.interoute.annotation.BackendConfigurer;
+import com.github.jonathanxd.interoute.annotation.Batched;
+import com.github.jonathanxd.interoute.annotation.Cached;
+import com.github.jonathanxd.interoute.annotation.Cancellable;
+import com.github.jonathanxd.interoute.annotation.CircuitBreaker;
+import com.github.jonathanxd.interoute.annotation.Coalesced;
+import com.github.jonathanxd.interoute.annotation.Hedged;
+import com.github.jonathanxd.interoute.annotation.Limited;
+import com.github.jonathanxd.interoute.annotation.Partitioned;
 import com.github.jonathanxd.interoute.annotation.RouteInfo;
+import com.github.jonathanxd.interoute.annotation.RouteKey;
 import com.github.jonathanxd.interoute.annotation.RouteTo;
 import com.github.jonathanxd.interoute.annotation.RouterInterface;
+import com.github.jonathanxd.interoute.annotation.Timeout;
 import com.github.jonathanxd.interoute.backend.InterouteBackendConfigurer;
 import com.github.jonathanxd.interoute.backend.def.DefaultBackendConfiguration;
 import com.github.jonathanxd.interoute.backend.def.DefaultBackendDestination;
+import com.github.jonathanxd.interoute.backend.def.InstanceScope;
+import com.github.jonathanxd.interoute.backend.def.InstanceSelection;
+import com.github.jonathanxd.interoute.backend.def.MethodHandleInterouteBackend;
+import com.github.jonathanxd.interoute.backend.def.PartitionedExecutor;
+import com.github.jonathanxd.interoute.backend.def.ScopedInstance;
+import com.github.jonathanxd.interoute.backend.def.TieredRouter;
+import com.github.jonathanxd.interoute.exception.RouteCircuitOpenException;
+import com.github.jonathanxd.interoute.exception.RouteRejectedException;
+import com.github.jonathanxd.interoute.exception.RouteTimeoutException;
 import com.github.jonathanxd.interoute.exception.RoutingException;
 import com.github.jonathanxd.interoute.gen.AnnotationUnifier;
+import com.github.jonathanxd.interoute.gen.GenerationProfile;
+import com.github.jonathanxd.interoute.gen.RouteParameterSpec;
+import com.github.jonathanxd.interoute.gen.RouteSpecInfo;
+import com.github.jonathanxd.interoute.gen.RouterClassReport;
 import com.github.jonathanxd.interoute.route.Destination;
 import com.github.jonathanxd.interoute.route.MethodTypeSpecOrigin;
 import com.github.jonathanxd.interoute.route.Origin;
 import com.github.jonathanxd.interoute.route.Route;
+import com.github.jonathanxd.interoute.route.RouteEntry;
+import com.github.jonathanxd.interoute.route.RouteTable;
+import com.github.jonathanxd.interoute.route.Router;
+import com.github.jonathanxd.interoute.route.Routes;
 import com.github.jonathanxd.interoute.route.SuppliedExecutorRoute;
+import com.github.jonathanxd.interoute.route.WarmUpOptions;
+import com.github.jonathanxd.interoute.route.breaker.RouteCircuitBreaker;
+import com.github.jonathanxd.interoute.route.cache.CacheStats;
+import com.github.jonathanxd.interoute.util.MethodResolutionIndex;
+import com.github.jonathanxd.interoute.util.RouteKeyUtil;
+import com.github.jonathanxd.interoute.util.RouteSpecInfoUtil;
 import com.github.jonathanxd.iutils.exception.RethrowException;
+import com.github.jonathanxd.iutils.object.EitherUtil;
 import com.github.jonathanxd.iutils.object.result.Result;
+import com.github.jonathanxd.kores.base.MethodDeclaration;
 import com.github.jonathanxd.kores.common.MethodTypeSpec;
 import com.github.jonathanxd.kores.factory.Factories;
+import com.github.jonathanxd.kores.type.ImplicitKoresType;
 
 import org.jetbrains.annotations.NotNull;
 import org.junit.Assert;
@@ -56,8 +93,23 @@ import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public class SimpleInterouteDefaultBackend {
 
@@ -91,6 +143,734 @@ public class SimpleInterouteDefaultBackend {
         }
     }
 
+    @Test
+    public void warmUpRouter() {
+        InternalRouter router = Interoute.createRouter(InternalRouter.class)
+                .getSuccessOrError(r -> r, e -> { throw RethrowException.rethrow(e); });
+
+        Result<Integer, RoutingException> warmUp = ((Router) router).warmUp(WarmUpOptions.builder()
+                .invokeRoutes(WarmUpOptions.CompilationTier.C1)
+                .invocations(10)
+                .build());
+
+        Assert.assertEquals(Integer.valueOf(2 * 10), warmUp.successOrNull());
+    }
+
+    @Test
+    public void warmUpShardedRouter() {
+        ShardedRouter router = Interoute.createRouter(ShardedRouter.class)
+                .getSuccessOrError(r -> r, e -> { throw RethrowException.rethrow(e); });
+
+        Result<Integer, RoutingException> warmUp = ((Router) router).warmUp(WarmUpOptions.builder()
+                .invokeRoutes(WarmUpOptions.CompilationTier.C1)
+                .invocations(10)
+                .build());
+
+        Assert.assertEquals(Integer.valueOf(5 * 10), warmUp.successOrNull());
+    }
+
+    @Test
+    public void rebindDestination() throws Exception {
+        RebindableRouter router = Interoute.createRouter(RebindableRouter.class)
+                .getSuccessOrError(r -> r, e -> { throw RethrowException.rethrow(e); });
+
+        Assert.assertEquals(Integer.valueOf(5 + 2), router.calc(5, 2).execute().get().successOrNull());
+
+        ((Router) router).rebind("Math", new MathPlus() {
+            @Override
+            public int plus(int a, int b) {
+                return a * b;
+            }
+        });
+
+        Assert.assertEquals(Integer.valueOf(5 * 2), router.calc(5, 2).execute().get().successOrNull());
+    }
+
+    @Test
+    public void rebindConfiguration() throws Exception {
+        MathPlus times = new MathPlus() {
+            @Override
+            public int plus(int a, int b) {
+                return a * b;
+            }
+        };
+
+        AtomicInteger provided = new AtomicInteger();
+        DefaultBackendConfiguration configuration = DefaultBackendConfiguration.builder()
+                .addInstance("Math", MathPlus.class, new MathPlus())
+                .addProvider("Lazy", MathPlus.class, () -> {
+                    provided.incrementAndGet();
+                    return new MathPlus();
+                })
+                .addGroup("Group", MathPlus.class, InstanceSelection.ROUND_ROBIN,
+                        Collections.singletonList(new MathPlus()))
+                .rebindable(true)
+                .build();
+
+        configuration.rebind("Math", times);
+
+        try {
+            configuration.rebind("Group", times);
+            Assert.fail("Groups are not rebindable.");
+        } catch (IllegalArgumentException e) {
+            Assert.assertTrue(e.getMessage().contains("is not rebindable"));
+        }
+
+        DefaultBackendConfiguration copy = configuration.toBuilder().build();
+
+        Assert.assertSame(times, copy.getInstance("Math").orElseThrow(IllegalStateException::new));
+        Assert.assertEquals(MathPlus.class, copy.getInstanceType("Math").orElseThrow(IllegalStateException::new));
+        Assert.assertEquals(0, provided.get());
+        Assert.assertTrue(copy.getLazyInstance("Lazy").isPresent());
+    }
+
+    @Test
+    public void routeTable() throws Exception {
+        InternalRouter router = Interoute.createRouter(InternalRouter.class)
+                .getSuccessOrError(r -> r, e -> { throw RethrowException.rethrow(e); });
+
+        RouteTable routeTable = ((Router) router).getRouteTable().orElseThrow(IllegalStateException::new);
+        RouteEntry calc = routeTable.find(InternalRouter.class.getMethod("calc", int.class, int.class))
+                .orElseThrow(IllegalStateException::new);
+
+        Assert.assertEquals(2, routeTable.size());
+        Assert.assertSame(calc, routeTable.getRoute(calc.getId()));
+        Assert.assertEquals("Math.plus", calc.getDestination());
+        Assert.assertEquals(Get.class, calc.getRouteSpecInfoList().get(0).getAnnotationType());
+        Assert.assertEquals(Body.class, calc.getParameterSpecInfoList(0).get(0).getAnnotationType());
+    }
+
+    @Test
+    public void routeSpecInfoIndex() throws Exception {
+        TaggedRouter router = Interoute.createRouter(TaggedRouter.class)
+                .getSuccessOrError(r -> r, e -> { throw RethrowException.rethrow(e); });
+
+        Method method = TaggedRouter.class.getMethod("calc", int.class, int.class);
+        RouteEntry calc = ((Router) router).getRouteTable().orElseThrow(IllegalStateException::new)
+                .find(method)
+                .orElseThrow(IllegalStateException::new);
+        List<RouteSpecInfo<?>> infos = calc.getRouteSpecInfoList();
+
+        // Spec infos are indexed under every superclass and interface of the unified instance, in declaration order.
+        Assert.assertEquals(Arrays.asList("calc:1", "calc"), calc.getRouteSpecInfos(NameTag.class).stream()
+                .map(info -> info.getInstance().getName())
+                .collect(Collectors.toList()));
+        Assert.assertEquals(Prioritized.class, calc.getRouteSpecInfos(Comparable.class).get(0).getAnnotationType());
+        Assert.assertEquals(2, calc.getRouteSpecInfos(Tag.class).size());
+        Assert.assertTrue(calc.getRouteSpecInfos(CharSequence.class).isEmpty());
+
+        List<Class<?>> types = Arrays.asList(Tag.class, NameTag.class, PriorityTag.class, Comparable.class, Object.class);
+
+        for (Class<?> type : types) {
+            Assert.assertEquals(RouteSpecInfoUtil.filterByUnificationType(infos.stream(), type)
+                    .collect(Collectors.toList()), calc.getRouteSpecInfos(type));
+        }
+
+        List<RouteParameterSpec> parameters = InterouteAnnotationParse.createParameterSpec(
+                Arrays.asList(method.getParameters()));
+        RouteParameterSpec a = parameters.get(0);
+
+        Assert.assertEquals(Arrays.asList("a", "a:2"), a.getRouteSpecInfos(Tag.class).stream()
+                .map(info -> info.getInstance().getName())
+                .collect(Collectors.toList()));
+        Assert.assertEquals(1, a.getRouteSpecInfos(PriorityTag.class).size());
+        Assert.assertTrue(parameters.get(1).getRouteSpecInfos(Tag.class).isEmpty());
+
+        for (Class<?> type : types) {
+            Assert.assertEquals(RouteSpecInfoUtil.filterByUnificationType(a.getRouteSpecInfos().stream(), type)
+                    .collect(Collectors.toList()), a.getRouteSpecInfos(type));
+            Assert.assertEquals(a.getRouteSpecInfos(type), calc.getParameterSpecInfos(0, type));
+        }
+    }
+
+    @Test
+    public void methodHandleRouteCalc() throws Exception {
+        HandleRouter router = Interoute.createRouter(HandleRouter.class)
+                .getSuccessOrError(r -> r, e -> { throw RethrowException.rethrow(e); });
+
+        Assert.assertEquals(Integer.valueOf(5 + 2), router.calc(5, 2).execute().get().successOrNull());
+
+        router.calc2(3, 4);
+
+        Assert.assertEquals(3 + 4, globalResult);
+    }
+
+    @Test
+    public void methodHandleCachedRoute() throws Exception {
+        HandleCachedRouter router = Interoute.createRouter(HandleCachedRouter.class)
+                .getSuccessOrError(r -> r, e -> { throw RethrowException.rethrow(e); });
+
+        Assert.assertEquals("Integer:1", router.describe(1).execute().get().successOrNull());
+        Assert.assertEquals("Long:1", router.describe(1L).execute().get().successOrNull());
+        Assert.assertEquals("Boolean:true", router.describe(true).execute().get().successOrNull());
+        Assert.assertEquals("Integer:1", router.describe(1).execute().get().successOrNull());
+
+        CacheStats stats = ((Router) router).getRouteTable().get().getRoute(0).getCache().get().getStats();
+
+        Assert.assertEquals(1, stats.getHitCount());
+        Assert.assertEquals(3, stats.getMissCount());
+    }
+
+    @Test
+    public void overloadedDestination() throws Exception {
+        OverloadedRouter router = Interoute.createRouter(OverloadedRouter.class)
+                .getSuccessOrError(r -> r, e -> { throw RethrowException.rethrow(e); });
+
+        Assert.assertEquals(Integer.valueOf(5 + 2), router.plus(5, 2).execute().get().successOrNull());
+        Assert.assertEquals(Long.valueOf(5L * 2L), router.plus(5L, 2L).execute().get().successOrNull());
+        Assert.assertEquals("52", router.plus("5", "2").execute().get().successOrNull());
+    }
+
+    @Test
+    public void methodResolutionIndex() {
+        MethodResolutionIndex index = MethodResolutionIndex.of(Overloads.class);
+        List<MethodDeclaration> declarations = EitherUtil.getLeftOrRight(
+                ImplicitKoresType.getBindedDefaultResolver(Overloads.class)
+                        .resolveMethods()
+                        .map(e -> Collections.<MethodDeclaration>emptyList(), d -> d));
+
+        Assert.assertTrue(index.isResolved());
+        Assert.assertFalse(declarations.isEmpty());
+
+        for (MethodDeclaration declaration : declarations) {
+            List<Type> parameterTypes = declaration.getTypeSpec().getParameterTypes();
+            MethodTypeSpec linear = declarations.stream()
+                    .filter(d -> d.getName().equals(declaration.getName())
+                            && d.getTypeSpec().getParameterTypes().equals(parameterTypes))
+                    .findFirst()
+                    .map(d -> new MethodTypeSpec(Overloads.class, d.getName(), d.getTypeSpec()))
+                    .orElseThrow(IllegalStateException::new);
+
+            Assert.assertEquals(Optional.of(linear), index.find(declaration.getName(), parameterTypes));
+        }
+
+        Assert.assertEquals(Long.TYPE, index.find("plus", Arrays.<Type>asList(Long.TYPE, Long.TYPE))
+                .orElseThrow(IllegalStateException::new).getTypeSpec().getReturnType());
+        Assert.assertEquals(String.class, index.find("plus", Arrays.<Type>asList(String.class, String.class))
+                .orElseThrow(IllegalStateException::new).getTypeSpec().getReturnType());
+        Assert.assertEquals(2, declarations.stream().filter(d -> d.getName().equals("first")).count());
+        Assert.assertFalse(index.find("plus", Arrays.<Type>asList(Double.TYPE, Double.TYPE)).isPresent());
+        Assert.assertSame(index, MethodResolutionIndex.of(Overloads.class));
+    }
+
+    @Test
+    public void shardedRouter() throws Exception {
+        ShardedRouter router = Interoute.createRouter(ShardedRouter.class)
+                .getSuccessOrError(r -> r, e -> { throw RethrowException.rethrow(e); });
+
+        Assert.assertTrue(router.getClass().getSuperclass().getName().endsWith("$Shard2"));
+        Assert.assertEquals(Integer.valueOf(1 + 2), router.calc0(1, 2).execute().get().successOrNull());
+        Assert.assertEquals(Integer.valueOf(3 + 4), router.calc1(3, 4).execute().get().successOrNull());
+        Assert.assertEquals(Integer.valueOf(5 + 6), router.calc2(5, 6).execute().get().successOrNull());
+        Assert.assertEquals(Integer.valueOf(7 + 8), router.calc3(7, 8).execute().get().successOrNull());
+        Assert.assertEquals(Integer.valueOf(9 + 10), router.calc4(9, 10).execute().get().successOrNull());
+    }
+
+    @Test
+    public void generationProfiles() throws Exception {
+        DebugRouter debugRouter = Interoute.createRouter(DebugRouter.class)
+                .getSuccessOrError(r -> r, e -> { throw RethrowException.rethrow(e); });
+        ProductionRouter productionRouter = Interoute.createRouter(ProductionRouter.class)
+                .getSuccessOrError(r -> r, e -> { throw RethrowException.rethrow(e); });
+
+        RouterClassReport debug = RouterClassReport.of(debugRouter.getClass()).orElseThrow(IllegalStateException::new);
+        RouterClassReport production = RouterClassReport.of(productionRouter.getClass())
+                .orElseThrow(IllegalStateException::new);
+
+        Assert.assertEquals(GenerationProfile.DEBUG, debug.getProfile());
+        Assert.assertTrue(debug.hasDebugInformation());
+        Assert.assertEquals(0, debug.getDeduplicatedMethods());
+        Assert.assertEquals(debug.getOriginalSize(), debug.getClassSize());
+
+        Assert.assertEquals(GenerationProfile.PRODUCTION, production.getProfile());
+        Assert.assertFalse(production.hasDebugInformation());
+        Assert.assertTrue(production.getDeduplicatedMethods() > 0);
+        Assert.assertTrue(production.getClassSize() < production.getOriginalSize());
+        Assert.assertTrue(production.getClassSize() < debug.getClassSize());
+
+        Assert.assertEquals(Integer.valueOf(5 + 2), debugRouter.calc(5, 2).execute().get().successOrNull());
+        Assert.assertEquals(Integer.valueOf(5 + 2), productionRouter.calc(5, 2).execute().get().successOrNull());
+        Assert.assertEquals(Integer.valueOf(3 + 4), productionRouter.calcAgain(3, 4).execute().get().successOrNull());
+    }
+
+    @Test
+    public void tieredRouterPromotion() throws Exception {
+        InternalRouter router = Interoute.createTieredRouter(InternalRouter.class, null, 3)
+                .getSuccessOrError(r -> r, e -> { throw RethrowException.rethrow(e); });
+
+        Assert.assertEquals(Integer.valueOf(1 + 1), router.increment(1).execute().get().successOrNull());
+
+        for (int i = 0; i < 3; ++i) {
+            Assert.assertEquals(Integer.valueOf(i + 2), router.calc(i, 2).execute().get().successOrNull());
+        }
+
+        Object promoted = TieredRouter.getPromotion(router).orElseThrow(IllegalStateException::new).get();
+
+        Assert.assertTrue(promoted instanceof InternalRouter);
+        Assert.assertSame(promoted, TieredRouter.current(router));
+        Assert.assertSame(((Router) router).getRouteTable().get(), ((Router) promoted).getRouteTable().get());
+        Assert.assertEquals(Integer.valueOf(5 + 2), router.calc(5, 2).execute().get().successOrNull());
+        Assert.assertEquals(Integer.valueOf(5 + 1), router.increment(5).execute().get().successOrNull());
+    }
+
+    @Test
+    public void lazyProvider() throws Exception {
+        LazyConfigurer.CREATED.set(0);
+
+        LazyRouter router = Interoute.createRouter(LazyRouter.class)
+                .getSuccessOrError(r -> r, e -> { throw RethrowException.rethrow(e); });
+
+        Assert.assertEquals(0, LazyConfigurer.CREATED.get());
+        Assert.assertEquals(Integer.valueOf(5 + 2), router.calc(5, 2).execute().get().successOrNull());
+        Assert.assertEquals(Integer.valueOf(3 + 2), router.calc(3, 2).execute().get().successOrNull());
+        Assert.assertEquals(1, LazyConfigurer.CREATED.get());
+    }
+
+    @Test
+    public void methodHandleLazyProvider() throws Exception {
+        LazyConfigurer.CREATED.set(0);
+
+        LazyHandleRouter router = Interoute.createRouter(LazyHandleRouter.class)
+                .getSuccessOrError(r -> r, e -> { throw RethrowException.rethrow(e); });
+
+        Route<Integer> route = router.calc(5, 2);
+
+        Assert.assertEquals(0, LazyConfigurer.CREATED.get());
+        Assert.assertEquals(Integer.valueOf(5 + 2), route.execute().get().successOrNull());
+        Assert.assertEquals(1, LazyConfigurer.CREATED.get());
+    }
+
+    @Test
+    public void scopedProvider() throws Exception {
+        ScopedConfigurer.CREATED.set(0);
+
+        ScopedRouter router = Interoute.createRouter(ScopedRouter.class)
+                .getSuccessOrError(r -> r, e -> { throw RethrowException.rethrow(e); });
+
+        for (int i = 0; i < 3; ++i) {
+            Assert.assertEquals(Integer.valueOf(i + 2), router.calc(i, 2).execute().get().successOrNull());
+        }
+
+        Assert.assertEquals(1, ScopedConfigurer.CREATED.get());
+    }
+
+    @Test
+    public void roundRobinGroup() {
+        List<MathPlus> instances = Arrays.asList(new MathPlus(), new MathPlus(), new MathPlus());
+        ScopedInstance<?> group = SimpleInterouteDefaultBackend.group(InstanceSelection.ROUND_ROBIN, instances);
+        Map<Object, Integer> selections = new IdentityHashMap<>();
+        Object previous = null;
+
+        for (int i = 0; i < 3 * 10; ++i) {
+            Object instance = group.acquire();
+            group.release(instance);
+
+            Assert.assertNotSame(previous, instance);
+            selections.merge(instance, 1, Integer::sum);
+            previous = instance;
+        }
+
+        Assert.assertEquals(3, selections.size());
+
+        for (MathPlus instance : instances) {
+            Assert.assertEquals(Integer.valueOf(10), selections.get(instance));
+        }
+    }
+
+    @Test
+    public void powerOfTwoChoicesGroup() {
+        List<MathPlus> instances = Arrays.asList(new MathPlus(), new MathPlus());
+        ScopedInstance<?> group = SimpleInterouteDefaultBackend.group(InstanceSelection.POWER_OF_TWO_CHOICES, instances);
+        Object busy = group.acquire();
+
+        for (int i = 0; i < 100; ++i) {
+            Object instance = group.acquire();
+            group.release(instance);
+
+            Assert.assertNotSame(busy, instance);
+        }
+
+        group.release(busy);
+    }
+
+    @Test
+    public void leastLatencyGroup() throws Exception {
+        List<MathPlus> instances = Arrays.asList(new MathPlus(), new MathPlus());
+        ScopedInstance<?> group = SimpleInterouteDefaultBackend.group(InstanceSelection.LEAST_LATENCY, instances);
+
+        Object slow = group.acquire();
+        Thread.sleep(20);
+        group.release(slow);
+
+        Object fast = group.acquire();
+        group.release(fast);
+
+        Assert.assertNotSame(slow, fast);
+
+        for (int i = 0; i < 100; ++i) {
+            Object instance = group.acquire();
+            group.release(instance);
+
+            Assert.assertSame(fast, instance);
+        }
+    }
+
+    @Test
+    public void consistentHashGroup() {
+        ScopedInstance<?> group = SimpleInterouteDefaultBackend.group(InstanceSelection.CONSISTENT_HASH, Node.NODES);
+
+        for (int key = 0; key < 100; ++key) {
+            Object instance = group.acquire(RouteKeyUtil.hash(key));
+            group.release(instance);
+
+            Assert.assertSame(instance, group.acquire(RouteKeyUtil.hash(key)));
+            Assert.assertSame(instance, group.acquire(RouteKeyUtil.hash((Object) key)));
+        }
+
+        Assert.assertEquals(RouteKeyUtil.hash(7L), RouteKeyUtil.hash((Object) 7L));
+        Assert.assertEquals(RouteKeyUtil.hash('k'), RouteKeyUtil.hash((Object) 'k'));
+        Assert.assertEquals(RouteKeyUtil.hash(true), RouteKeyUtil.hash((Object) true));
+        Assert.assertEquals(RouteKeyUtil.hash(1.5D), RouteKeyUtil.hash((Object) 1.5D));
+        Assert.assertEquals(RouteKeyUtil.hash(1.5F), RouteKeyUtil.hash((Object) 1.5F));
+    }
+
+    @Test
+    public void consistentHashGroupResize() {
+        int keys = 10000;
+        List<Node> nodes = Node.NODES;
+        ScopedInstance<?> smaller = SimpleInterouteDefaultBackend.group(InstanceSelection.CONSISTENT_HASH,
+                nodes.subList(0, nodes.size() - 1));
+        ScopedInstance<?> larger = SimpleInterouteDefaultBackend.group(InstanceSelection.CONSISTENT_HASH, nodes);
+        Node added = nodes.get(nodes.size() - 1);
+        int moved = 0;
+
+        for (int key = 0; key < keys; ++key) {
+            Object before = smaller.acquire(RouteKeyUtil.hash(key));
+            Object after = larger.acquire(RouteKeyUtil.hash(key));
+
+            if (before != after) {
+                // Adding an instance only moves keys to it and removing it only moves its own keys
+                Assert.assertSame(added, after);
+                ++moved;
+            }
+        }
+
+        double expected = (double) keys / nodes.size();
+
+        Assert.assertTrue(moved > expected / 2 && moved < expected * 1.5);
+    }
+
+    @Test
+    public void consistentHashRoute() throws Exception {
+        HashedRouter router = Interoute.createRouter(HashedRouter.class)
+                .getSuccessOrError(r -> r, e -> { throw RethrowException.rethrow(e); });
+        ScopedInstance<?> group = SimpleInterouteDefaultBackend.group(InstanceSelection.CONSISTENT_HASH, Node.NODES);
+
+        for (int key = 0; key < 100; ++key) {
+            Node expected = (Node) group.acquire(RouteKeyUtil.hash((Object) key));
+
+            Assert.assertEquals(Integer.valueOf(expected.id), router.id(key).execute().get().successOrNull());
+            Assert.assertEquals(Integer.valueOf(expected.id), router.id(key).execute().get().successOrNull());
+        }
+    }
+
+    @Test
+    public void partitionedRoute() throws Exception {
+        PartitionedRouter router = Interoute.createRouter(PartitionedRouter.class)
+                .getSuccessOrError(r -> r, e -> { throw RethrowException.rethrow(e); });
+
+        Assert.assertTrue(router.calc(5, 2).execute().get().successOrNull().startsWith("Interoute-Partition-"));
+        Assert.assertEquals(router.calc(5, 3).execute().get().successOrNull(),
+                router.calc(5, 4).execute().get().successOrNull());
+
+        PartitionedRouter other = Interoute.createRouter(PartitionedRouter.class)
+                .getSuccessOrError(r -> r, e -> { throw RethrowException.rethrow(e); });
+
+        Assert.assertSame(PartitionedConfigurer.EXECUTOR,
+                ((DefaultBackendConfiguration) ((Router) other).getBackendConfiguration().get())
+                        .getPartitionedExecutor().get());
+    }
+
+    @Test
+    public void saturatedPartition() throws Exception {
+        SaturatedRouter router = Interoute.createRouter(SaturatedRouter.class)
+                .getSuccessOrError(r -> r, e -> { throw RethrowException.rethrow(e); });
+        SlowCounter slow = SimpleInterouteDefaultBackend.slowCounter(router);
+
+        CompletableFuture<Result<Integer, RoutingException>> running = router.slow(1).execute();
+
+        Assert.assertTrue(slow.started.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<Result<Integer, RoutingException>> queued = router.slow(2).execute();
+        CompletableFuture<Result<Integer, RoutingException>> rejected = router.slow(3).execute();
+
+        Assert.assertTrue(rejected.get().errorOrNull() instanceof RouteRejectedException);
+
+        slow.release.countDown();
+
+        Assert.assertEquals(1, (int) running.get().successOrNull());
+        Assert.assertEquals(2, (int) queued.get().successOrNull());
+    }
+
+    @Test
+    public void cachedRoute() throws Exception {
+        CachedRouter router = Interoute.createRouter(CachedRouter.class)
+                .getSuccessOrError(r -> r, e -> { throw RethrowException.rethrow(e); });
+
+        Assert.assertEquals(3, (int) router.calc(1, 2).execute().get().successOrNull());
+        Assert.assertEquals(3, (int) router.calc(1, 2).execute().get().successOrNull());
+
+        CacheStats stats = ((Router) router).getRouteTable().get().getRoute(0).getCache().get().getStats();
+
+        Assert.assertEquals(1, stats.getHitCount());
+        Assert.assertEquals(1, stats.getMissCount());
+    }
+
+    @Test
+    public void coalescedRoute() throws Exception {
+        CoalescedRouter router = Interoute.createRouter(CoalescedRouter.class)
+                .getSuccessOrError(r -> r, e -> { throw RethrowException.rethrow(e); });
+
+        SlowCounter slow = SimpleInterouteDefaultBackend.slowCounter(router);
+
+        CompletableFuture<Result<Integer, RoutingException>> first = router.slow(1).execute();
+        CompletableFuture<Result<Integer, RoutingException>> second = router.slow(1).execute();
+
+        Assert.assertTrue(slow.started.await(5, TimeUnit.SECONDS));
+        slow.release.countDown();
+
+        Assert.assertEquals(first.get().successOrNull(), second.get().successOrNull());
+        Assert.assertEquals(1, slow.calls.get());
+    }
+
+    @Test
+    public void limitedRoute() throws Exception {
+        LimitedRouter router = Interoute.createRouter(LimitedRouter.class)
+                .getSuccessOrError(r -> r, e -> { throw RethrowException.rethrow(e); });
+
+        SlowCounter slow = SimpleInterouteDefaultBackend.slowCounter(router);
+
+        CompletableFuture<Result<Integer, RoutingException>> first = router.slow(1).execute();
+        CompletableFuture<Result<Integer, RoutingException>> second = router.slow(2).execute();
+
+        Assert.assertTrue(second.get().errorOrNull() instanceof RouteRejectedException);
+
+        slow.release.countDown();
+
+        Assert.assertEquals(1, (int) first.get().successOrNull());
+    }
+
+    @Test
+    public void hedgedRoute() throws Exception {
+        HedgedRouter router = Interoute.createRouter(HedgedRouter.class)
+                .getSuccessOrError(r -> r, e -> { throw RethrowException.rethrow(e); });
+
+        SlowCounter slow = SimpleInterouteDefaultBackend.slowCounter(router);
+
+        try {
+            Assert.assertEquals(1, (int) router.slow(1).execute().get().successOrNull());
+            Assert.assertEquals(1, ((Router) router).getRouteTable().get().getRoute(0).getHedger().get().getHedgeWinCount());
+        } finally {
+            slow.release.countDown();
+        }
+    }
+
+    @Test
+    public void hedgedGroupRoute() throws Exception {
+        HedgedGroupRouter router = Interoute.createRouter(HedgedGroupRouter.class)
+                .getSuccessOrError(r -> r, e -> { throw RethrowException.rethrow(e); });
+
+        SlowCounter first = SimpleInterouteDefaultBackend.slowCounter(router, "SlowA");
+        SlowCounter second = SimpleInterouteDefaultBackend.slowCounter(router, "SlowB");
+
+        try {
+            CompletableFuture<Result<Integer, RoutingException>> result = router.slow(1).execute();
+
+            // Both attempts block, so the second attempt only starts the other instance if it excludes the first one.
+            Assert.assertTrue(first.started.await(5, TimeUnit.SECONDS));
+            Assert.assertTrue(second.started.await(5, TimeUnit.SECONDS));
+
+            first.release.countDown();
+            second.release.countDown();
+
+            Assert.assertEquals(1, (int) result.get().successOrNull());
+        } finally {
+            first.release.countDown();
+            second.release.countDown();
+        }
+    }
+
+    @Test
+    public void timeoutRoute() throws Exception {
+        TimeoutRouter router = Interoute.createRouter(TimeoutRouter.class)
+                .getSuccessOrError(r -> r, e -> { throw RethrowException.rethrow(e); });
+
+        SlowCounter slow = SimpleInterouteDefaultBackend.slowCounter(router);
+
+        try {
+            Assert.assertTrue(router.slow(1).execute().get().errorOrNull() instanceof RouteTimeoutException);
+            Assert.assertEquals(1, ((Router) router).getRouteTable().get().getRoute(0).getTimeout().get().getTimeoutCount());
+        } finally {
+            slow.release.countDown();
+        }
+    }
+
+    @Test
+    public void nestedTimeoutRoute() throws Exception {
+        NestedRouter router = Interoute.createRouter(NestedRouter.class)
+                .getSuccessOrError(r -> r, e -> { throw RethrowException.rethrow(e); });
+        Nested nested = (Nested) ((DefaultBackendConfiguration) ((Router) router).getBackendConfiguration().get())
+                .getInstance("Nested")
+                .orElseThrow(IllegalStateException::new);
+        nested.router = router;
+
+        CompletableFuture<String> completionThread = router.outer(1).execute()
+                .thenApply(result -> {
+                    Assert.assertTrue(result.errorOrNull() instanceof RouteTimeoutException);
+                    return Thread.currentThread().getName();
+                });
+
+        Assert.assertNotEquals("Interoute-Timer", completionThread.get(5, TimeUnit.SECONDS));
+
+        nested.outerTimedOut.countDown();
+
+        Assert.assertTrue(nested.inner.get(5, TimeUnit.SECONDS).errorOrNull() instanceof RouteTimeoutException);
+        Assert.assertEquals(0, nested.innerCalls.get());
+    }
+
+    @Test
+    public void cancellableRoute() throws Exception {
+        CancellableRouter router = Interoute.createRouter(CancellableRouter.class)
+                .getSuccessOrError(r -> r, e -> { throw RethrowException.rethrow(e); });
+
+        SlowCounter slow = SimpleInterouteDefaultBackend.slowCounter(router);
+
+        CompletableFuture<Result<Integer, RoutingException>> future = router.slow(1).execute();
+
+        Assert.assertTrue(slow.started.await(5, TimeUnit.SECONDS));
+        future.cancel(true);
+
+        Assert.assertTrue(slow.interrupted.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void circuitBreakerRoute() throws Exception {
+        BreakerRouter router = Interoute.createRouter(BreakerRouter.class)
+                .getSuccessOrError(r -> r, e -> { throw RethrowException.rethrow(e); });
+
+        router.fail(1).execute().get();
+        router.fail(2).execute().get();
+
+        Assert.assertTrue(router.fail(3).execute().get().errorOrNull() instanceof RouteCircuitOpenException);
+        Assert.assertTrue(router.failAgain(4).execute().get().errorOrNull() instanceof RouteCircuitOpenException);
+        Assert.assertEquals(2, SimpleInterouteDefaultBackend.slowCounter(router).failures.get());
+
+        RouteTable routeTable = ((Router) router).getRouteTable().get();
+
+        Assert.assertSame(routeTable.getRoute(0).getBreaker().get(), routeTable.getRoute(1).getBreaker().get());
+    }
+
+    @Test
+    public void conflictingCircuitBreakers() {
+        Assert.assertNotNull(Interoute.createRouter(ConflictingBreakerRouter.class).errorOrNull());
+    }
+
+    @Test
+    public void circuitBreakerTransitions() throws Exception {
+        RouteCircuitBreaker breaker = RouteCircuitBreaker.create(0.5, 2, 2, 20, TimeUnit.MILLISECONDS, 2);
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<CompletableFuture<Result<Integer, RoutingException>>> success = () ->
+                CompletableFuture.completedFuture(Result.ok(calls.incrementAndGet()));
+        Supplier<CompletableFuture<Result<Integer, RoutingException>>> failure = () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(Result.error(new RoutingException("Destination failed.")));
+        };
+
+        breaker.execute(failure).get();
+        breaker.execute(failure).get();
+        Assert.assertEquals(RouteCircuitBreaker.State.OPEN, breaker.getState());
+
+        Assert.assertTrue(breaker.execute(success).get().errorOrNull() instanceof RouteCircuitOpenException);
+        Assert.assertEquals(2, calls.get());
+
+        Thread.sleep(30);
+        Assert.assertNotNull(breaker.execute(success).get().successOrNull());
+        Assert.assertEquals(RouteCircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        breaker.execute(failure).get();
+        Assert.assertEquals(RouteCircuitBreaker.State.OPEN, breaker.getState());
+        Assert.assertTrue(breaker.execute(success).get().errorOrNull() instanceof RouteCircuitOpenException);
+
+        Thread.sleep(30);
+        Assert.assertNotNull(breaker.execute(success).get().successOrNull());
+        Assert.assertNotNull(breaker.execute(success).get().successOrNull());
+        Assert.assertEquals(RouteCircuitBreaker.State.CLOSED, breaker.getState());
+        Assert.assertEquals(2, breaker.getOpenCount());
+    }
+
+    @Test
+    public void batchedRoute() throws Exception {
+        BatchedRouter router = Interoute.createRouter(BatchedRouter.class)
+                .getSuccessOrError(r -> r, e -> { throw RethrowException.rethrow(e); });
+
+        CompletableFuture<Result<Integer, RoutingException>> first = router.calc(1, 2).execute();
+        CompletableFuture<Result<Integer, RoutingException>> second = router.calc(3, 4).execute();
+
+        Assert.assertEquals(3, (int) first.get().successOrNull());
+        Assert.assertEquals(7, (int) second.get().successOrNull());
+    }
+
+    @Test
+    public void routeGroup() throws Exception {
+        InternalRouter router = Interoute.createRouter(InternalRouter.class)
+                .getSuccessOrError(r -> r, e -> { throw RethrowException.rethrow(e); });
+
+        List<Route<Integer>> routes = IntStream.range(0, 32)
+                .mapToObj(i -> router.calc(i, 1))
+                .collect(Collectors.toList());
+
+        Assert.assertTrue(routes.get(0).isDirect());
+
+        List<Result<Integer, RoutingException>> results = Routes.executeAll(routes).get();
+
+        for (int i = 0; i < 32; ++i) {
+            Assert.assertEquals(i + 1, (int) results.get(i).successOrNull());
+        }
+    }
+
+    @Test
+    public void composedRoute() throws Exception {
+        InternalRouter router = Interoute.createRouter(InternalRouter.class)
+                .getSuccessOrError(r -> r, e -> { throw RethrowException.rethrow(e); });
+
+        Route<Integer> mapped = router.calc(1, 2).map(v -> v * 2);
+        Route<Integer> route = mapped.then(v -> router.calc(v, 1));
+
+        Assert.assertTrue(mapped.isDirect());
+        // Continuation routes are only known after the first step, thus invoking them could wait for another route.
+        Assert.assertFalse(route.isDirect());
+        Assert.assertEquals(7, (int) route.execute().get().successOrNull());
+        Assert.assertEquals(8, (int) route.map(v -> v + 1).execute().get().successOrNull());
+    }
+
+    private static ScopedInstance<?> group(InstanceSelection selection, List<?> instances) {
+        return DefaultBackendConfiguration.builder()
+                .addGroup("Group", Object.class, selection, instances)
+                .build()
+                .getScopedInstance("Group")
+                .orElseThrow(IllegalStateException::new);
+    }
+
+    private static SlowCounter slowCounter(Object router) {
+        return SimpleInterouteDefaultBackend.slowCounter(router, "Slow");
+    }
+
+    private static SlowCounter slowCounter(Object router, String alias) {
+        return (SlowCounter) ((DefaultBackendConfiguration) ((Router) router).getBackendConfiguration().get())
+                .getInstance(alias)
+                .orElseThrow(IllegalStateException::new);
+    }
+
     @RouterInterface
     @BackendConfigurer(value = SimpleConfigurer.class)
     @Get
@@ -99,17 +879,371 @@ public class SimpleInterouteDefaultBackend {
         @Get
         Route<Integer> calc(@Body int a, int b);
 
-        @RouteTo("Math.plus2")
-        void calc2(int a, int b);
+        @RouteTo("Math.plus2")
+        void calc2(int a, int b);
+
+        default Route<Integer> increment(int a) {
+            return this.calc(a, 1);
+        }
+    }
+
+    @RouterInterface
+    @BackendConfigurer(value = RebindableConfigurer.class)
+    public interface RebindableRouter {
+        @RouteTo("Math.plus")
+        Route<Integer> calc(int a, int b);
+    }
+
+    @RouterInterface
+    @BackendConfigurer(value = SimpleConfigurer.class)
+    public interface TaggedRouter {
+        @RouteTo("Math.plus")
+        @Prioritized(name = "calc", value = 1)
+        @Named("calc")
+        Route<Integer> calc(@Named("a") @Prioritized(name = "a", value = 2) int a, int b);
+    }
+
+    @RouterInterface
+    @BackendConfigurer(value = LazyConfigurer.class)
+    public interface LazyRouter {
+        @RouteTo("Math.plus")
+        Route<Integer> calc(int a, int b);
+    }
+
+    @RouterInterface(MethodHandleInterouteBackend.class)
+    @BackendConfigurer(value = LazyConfigurer.class)
+    public interface LazyHandleRouter {
+        @RouteTo("Math.plus")
+        Route<Integer> calc(int a, int b);
+    }
+
+    @RouterInterface
+    @BackendConfigurer(value = ScopedConfigurer.class)
+    public interface ScopedRouter {
+        @RouteTo("Math.plus")
+        Route<Integer> calc(int a, int b);
+    }
+
+    @RouterInterface
+    @BackendConfigurer(value = PartitionedConfigurer.class)
+    public interface PartitionedRouter {
+        @RouteTo("Thread.name")
+        @Partitioned
+        Route<String> calc(@RouteKey int a, int b);
+    }
+
+    @RouterInterface
+    @BackendConfigurer(value = SaturatedConfigurer.class)
+    public interface SaturatedRouter {
+        @RouteTo("Slow.sleep")
+        @Partitioned
+        Route<Integer> slow(@RouteKey int a);
+    }
+
+    @RouterInterface
+    @BackendConfigurer(value = SimpleConfigurer.class)
+    public interface CachedRouter {
+        @RouteTo("Math.plus")
+        @Cached(maximumSize = 16)
+        Route<Integer> calc(int a, int b);
+    }
+
+    @RouterInterface
+    @BackendConfigurer(value = HedgedConfigurer.class)
+    public interface HedgedRouter {
+        @RouteTo("Slow.firstSlow")
+        @Hedged(initialDelay = 50, budget = 1.0)
+        Route<Integer> slow(int a);
+    }
+
+    @RouterInterface
+    @BackendConfigurer(value = HedgedGroupConfigurer.class)
+    public interface HedgedGroupRouter {
+        @RouteTo("Slow.sleep")
+        @Hedged(initialDelay = 50, budget = 1.0)
+        Route<Integer> slow(int a);
+    }
+
+    @RouterInterface
+    @BackendConfigurer(value = TimeoutConfigurer.class)
+    public interface TimeoutRouter {
+        @RouteTo("Slow.sleep")
+        @Timeout(100)
+        Route<Integer> slow(int a);
+    }
+
+    @RouterInterface
+    @BackendConfigurer(value = NestedConfigurer.class)
+    public interface NestedRouter {
+        @RouteTo("Nested.outer")
+        @Timeout(50)
+        Route<Integer> outer(int a);
+
+        @RouteTo("Nested.inner")
+        @Timeout(5000)
+        Route<Integer> inner(int a);
+    }
+
+    @RouterInterface
+    @BackendConfigurer(value = CancellableConfigurer.class)
+    public interface CancellableRouter {
+        @RouteTo("Slow.interruptible")
+        @Cancellable
+        Route<Integer> slow(int a);
+    }
+
+    @RouterInterface
+    @BackendConfigurer(value = BreakerConfigurer.class)
+    public interface BreakerRouter {
+        @RouteTo("Slow.fail")
+        @CircuitBreaker(window = 2, minimumCalls = 2)
+        Route<Integer> fail(int a);
+
+        @RouteTo("Slow.fail")
+        @CircuitBreaker(window = 2, minimumCalls = 2)
+        Route<Integer> failAgain(int a);
+    }
+
+    @RouterInterface
+    @BackendConfigurer(value = BreakerConfigurer.class)
+    public interface ConflictingBreakerRouter {
+        @RouteTo("Slow.fail")
+        @CircuitBreaker(window = 2, minimumCalls = 2)
+        Route<Integer> fail(int a);
+
+        @RouteTo("Slow.sleep")
+        @CircuitBreaker(window = 4, minimumCalls = 4)
+        Route<Integer> slow(int a);
+    }
+
+    @RouterInterface
+    @BackendConfigurer(value = LimitedConfigurer.class)
+    public interface LimitedRouter {
+        @RouteTo("Slow.sleep")
+        @Limited(initialLimit = 1, maxLimit = 1)
+        Route<Integer> slow(int a);
+    }
+
+    @RouterInterface
+    @BackendConfigurer(value = CoalescedConfigurer.class)
+    public interface CoalescedRouter {
+        @RouteTo("Slow.count")
+        @Coalesced
+        Route<Integer> slow(int a);
+    }
+
+    @RouterInterface
+    @BackendConfigurer(value = SimpleConfigurer.class)
+    public interface BatchedRouter {
+        @RouteTo("Math.plus")
+        @Batched(value = "plusAll", maxSize = 8)
+        Route<Integer> calc(int a, int b);
+    }
+
+    @RouterInterface
+    @BackendConfigurer(value = OverloadedConfigurer.class)
+    public interface OverloadedRouter {
+        @RouteTo("Overloads.plus")
+        Route<Integer> plus(int a, int b);
+
+        @RouteTo("Overloads.plus")
+        Route<Long> plus(long a, long b);
+
+        @RouteTo("Overloads.plus")
+        Route<String> plus(String a, String b);
+    }
+
+    @RouterInterface
+    @BackendConfigurer(value = DebugConfigurer.class)
+    public interface DebugRouter {
+        @RouteTo("Math.plus")
+        Route<Integer> calc(int a, int b);
+
+        @RouteTo("Math.plus")
+        Route<Integer> calcAgain(int a, int b);
+    }
+
+    @RouterInterface
+    @BackendConfigurer(value = ProductionConfigurer.class)
+    public interface ProductionRouter {
+        @RouteTo("Math.plus")
+        Route<Integer> calc(int a, int b);
+
+        @RouteTo("Math.plus")
+        Route<Integer> calcAgain(int a, int b);
+    }
+
+    @RouterInterface
+    @BackendConfigurer(value = ShardedConfigurer.class)
+    public interface ShardedRouter {
+        @RouteTo("Math.plus")
+        Route<Integer> calc0(int a, int b);
+
+        @RouteTo("Math.plus")
+        Route<Integer> calc1(int a, int b);
+
+        @RouteTo("Math.plus")
+        Route<Integer> calc2(int a, int b);
+
+        @RouteTo("Math.plus")
+        Route<Integer> calc3(int a, int b);
+
+        @RouteTo("Math.plus")
+        Route<Integer> calc4(int a, int b);
+    }
+
+    @RouterInterface
+    @BackendConfigurer(value = HashedConfigurer.class)
+    public interface HashedRouter {
+        @RouteTo("Node.id")
+        Route<Integer> id(@RouteKey int key);
+    }
+
+    @RouterInterface(MethodHandleInterouteBackend.class)
+    @BackendConfigurer(value = SimpleConfigurer.class)
+    public interface HandleRouter {
+        @RouteTo("Math.plus")
+        Route<Integer> calc(int a, int b);
+
+        @RouteTo("Math.plus2")
+        void calc2(int a, int b);
+    }
+
+    @RouterInterface(MethodHandleInterouteBackend.class)
+    @BackendConfigurer(value = DescriberConfigurer.class)
+    public interface HandleCachedRouter {
+        @RouteTo("Describer.describe")
+        @Cached(maximumSize = 16)
+        Route<String> describe(Object value);
+    }
+
+    public static class Describer {
+        public String describe(Object value) {
+            return value.getClass().getSimpleName() + ":" + value;
+        }
+    }
+
+    public static class MathPlus {
+        public int plus(int a, int b) {
+            return a + b;
+        }
+
+        public void plus2(int a, int b) {
+            globalResult = this.plus(a, b);
+        }
+
+        public List<Integer> plusAll(List<Object[]> arguments) {
+            return arguments.stream()
+                    .map(a -> this.plus((int) a[0], (int) a[1]))
+                    .collect(Collectors.toList());
+        }
     }
 
-    public static class MathPlus {
+    public static class Overloads {
         public int plus(int a, int b) {
             return a + b;
         }
 
-        public void plus2(int a, int b) {
-            globalResult = this.plus(a, b);
+        public long plus(long a, long b) {
+            return a * b;
+        }
+
+        public String plus(String a, String b) {
+            return a + b;
+        }
+
+        public <T> T first(List<T> values) {
+            return values.get(0);
+        }
+
+        public <T extends Comparable<T>> T first(T a, T b) {
+            return a.compareTo(b) <= 0 ? a : b;
+        }
+    }
+
+    public static class Nested {
+        final CountDownLatch outerTimedOut = new CountDownLatch(1);
+        final CompletableFuture<Result<Integer, RoutingException>> inner = new CompletableFuture<>();
+        final AtomicInteger innerCalls = new AtomicInteger();
+        volatile NestedRouter router;
+
+        public int outer(int a) throws Exception {
+            // Spends the whole budget of the outer route before executing the inner route
+            this.outerTimedOut.await();
+            this.inner.complete(this.router.inner(a).execute().get());
+            return a;
+        }
+
+        public int inner(int a) {
+            this.innerCalls.incrementAndGet();
+            return a;
+        }
+    }
+
+    public static class Node {
+        static final List<Node> NODES = Collections.unmodifiableList(IntStream.range(0, 5)
+                .mapToObj(Node::new)
+                .collect(Collectors.toList()));
+
+        final int id;
+
+        Node(int id) {
+            this.id = id;
+        }
+
+        public int id(int key) {
+            return this.id;
+        }
+    }
+
+    public static class ThreadName {
+        public String name(int a, int b) {
+            return Thread.currentThread().getName();
+        }
+    }
+
+    public static class SlowCounter {
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicBoolean firstSlow = new AtomicBoolean();
+        final AtomicInteger failures = new AtomicInteger();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        public int count(int a) throws InterruptedException {
+            this.started.countDown();
+            this.release.await(5, TimeUnit.SECONDS);
+            return a + this.calls.incrementAndGet();
+        }
+
+        public int firstSlow(int a) throws InterruptedException {
+            if (this.firstSlow.compareAndSet(false, true))
+                this.release.await(5, TimeUnit.SECONDS);
+
+            return a;
+        }
+
+        public int sleep(int a) throws InterruptedException {
+            this.started.countDown();
+            this.release.await(5, TimeUnit.SECONDS);
+            return a;
+        }
+
+        public int fail(int a) {
+            this.failures.incrementAndGet();
+            throw new IllegalStateException("Destination failed.");
+        }
+
+        public int interruptible(int a) {
+            this.started.countDown();
+
+            try {
+                this.release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                this.interrupted.countDown();
+            }
+
+            return a;
         }
     }
 
@@ -125,6 +1259,255 @@ public class SimpleInterouteDefaultBackend {
         }
     }
 
+    public static class DescriberConfigurer implements InterouteBackendConfigurer<DefaultBackendConfiguration> {
+        public static final DescriberConfigurer INSTANCE = new DescriberConfigurer();
+
+        @NotNull
+        @Override
+        public DefaultBackendConfiguration configure(@NotNull DefaultBackendConfiguration configuration) {
+            return configuration.toBuilder()
+                    .addInstance("Describer", new Describer())
+                    .build();
+        }
+    }
+
+    public static class RebindableConfigurer implements InterouteBackendConfigurer<DefaultBackendConfiguration> {
+        public static final RebindableConfigurer INSTANCE = new RebindableConfigurer();
+
+        @NotNull
+        @Override
+        public DefaultBackendConfiguration configure(@NotNull DefaultBackendConfiguration configuration) {
+            return configuration.toBuilder()
+                    .addInstance("Math", MathPlus.class, new MathPlus())
+                    .rebindable(true)
+                    .build();
+        }
+    }
+
+    public static class LazyConfigurer implements InterouteBackendConfigurer<DefaultBackendConfiguration> {
+        public static final LazyConfigurer INSTANCE = new LazyConfigurer();
+        static final AtomicInteger CREATED = new AtomicInteger();
+
+        @NotNull
+        @Override
+        public DefaultBackendConfiguration configure(@NotNull DefaultBackendConfiguration configuration) {
+            return configuration.toBuilder()
+                    .addProvider("Math", MathPlus.class, () -> {
+                        CREATED.incrementAndGet();
+                        return new MathPlus();
+                    })
+                    .build();
+        }
+    }
+
+    public static class ScopedConfigurer implements InterouteBackendConfigurer<DefaultBackendConfiguration> {
+        public static final ScopedConfigurer INSTANCE = new ScopedConfigurer();
+        static final AtomicInteger CREATED = new AtomicInteger();
+
+        @NotNull
+        @Override
+        public DefaultBackendConfiguration configure(@NotNull DefaultBackendConfiguration configuration) {
+            return configuration.toBuilder()
+                    .addProvider("Math", MathPlus.class, InstanceScope.pooled(1), () -> {
+                        CREATED.incrementAndGet();
+                        return new MathPlus();
+                    })
+                    .build();
+        }
+    }
+
+    public static class PartitionedConfigurer implements InterouteBackendConfigurer<DefaultBackendConfiguration> {
+        public static final PartitionedConfigurer INSTANCE = new PartitionedConfigurer();
+        static final PartitionedExecutor EXECUTOR = new PartitionedExecutor(4, 64);
+
+        @NotNull
+        @Override
+        public DefaultBackendConfiguration configure(@NotNull DefaultBackendConfiguration configuration) {
+            return configuration.toBuilder()
+                    .addInstance("Thread", new ThreadName())
+                    .partitions(EXECUTOR)
+                    .build();
+        }
+    }
+
+    public static class SaturatedConfigurer implements InterouteBackendConfigurer<DefaultBackendConfiguration> {
+        public static final SaturatedConfigurer INSTANCE = new SaturatedConfigurer();
+
+        @NotNull
+        @Override
+        public DefaultBackendConfiguration configure(@NotNull DefaultBackendConfiguration configuration) {
+            return configuration.toBuilder()
+                    .addInstance("Slow", new SlowCounter())
+                    .partitions(1, 1)
+                    .build();
+        }
+    }
+
+    public static class OverloadedConfigurer implements InterouteBackendConfigurer<DefaultBackendConfiguration> {
+        public static final OverloadedConfigurer INSTANCE = new OverloadedConfigurer();
+
+        @NotNull
+        @Override
+        public DefaultBackendConfiguration configure(@NotNull DefaultBackendConfiguration configuration) {
+            return configuration.toBuilder()
+                    .addInstance("Overloads", new Overloads())
+                    .build();
+        }
+    }
+
+    public static class DebugConfigurer implements InterouteBackendConfigurer<DefaultBackendConfiguration> {
+        public static final DebugConfigurer INSTANCE = new DebugConfigurer();
+
+        @NotNull
+        @Override
+        public DefaultBackendConfiguration configure(@NotNull DefaultBackendConfiguration configuration) {
+            return configuration.toBuilder()
+                    .addInstance("Math", new MathPlus())
+                    .generationProfile(GenerationProfile.DEBUG)
+                    .build();
+        }
+    }
+
+    public static class ProductionConfigurer implements InterouteBackendConfigurer<DefaultBackendConfiguration> {
+        public static final ProductionConfigurer INSTANCE = new ProductionConfigurer();
+
+        @NotNull
+        @Override
+        public DefaultBackendConfiguration configure(@NotNull DefaultBackendConfiguration configuration) {
+            return configuration.toBuilder()
+                    .addInstance("Math", new MathPlus())
+                    .generationProfile(GenerationProfile.PRODUCTION)
+                    .build();
+        }
+    }
+
+    public static class ShardedConfigurer implements InterouteBackendConfigurer<DefaultBackendConfiguration> {
+        public static final ShardedConfigurer INSTANCE = new ShardedConfigurer();
+
+        @NotNull
+        @Override
+        public DefaultBackendConfiguration configure(@NotNull DefaultBackendConfiguration configuration) {
+            return configuration.toBuilder()
+                    .addInstance("Math", new MathPlus())
+                    .shardSize(2)
+                    .build();
+        }
+    }
+
+    public static class NestedConfigurer implements InterouteBackendConfigurer<DefaultBackendConfiguration> {
+        public static final NestedConfigurer INSTANCE = new NestedConfigurer();
+
+        @NotNull
+        @Override
+        public DefaultBackendConfiguration configure(@NotNull DefaultBackendConfiguration configuration) {
+            return configuration.toBuilder()
+                    .addInstance("Nested", new Nested())
+                    .build();
+        }
+    }
+
+    public static class HashedConfigurer implements InterouteBackendConfigurer<DefaultBackendConfiguration> {
+        public static final HashedConfigurer INSTANCE = new HashedConfigurer();
+
+        @NotNull
+        @Override
+        public DefaultBackendConfiguration configure(@NotNull DefaultBackendConfiguration configuration) {
+            return configuration.toBuilder()
+                    .addGroup("Node", Node.class, InstanceSelection.CONSISTENT_HASH, Node.NODES)
+                    .build();
+        }
+    }
+
+    public static class CoalescedConfigurer implements InterouteBackendConfigurer<DefaultBackendConfiguration> {
+        public static final CoalescedConfigurer INSTANCE = new CoalescedConfigurer();
+
+        @NotNull
+        @Override
+        public DefaultBackendConfiguration configure(@NotNull DefaultBackendConfiguration configuration) {
+            return configuration.toBuilder()
+                    .addInstance("Slow", new SlowCounter())
+                    .build();
+        }
+    }
+
+    public static class LimitedConfigurer implements InterouteBackendConfigurer<DefaultBackendConfiguration> {
+        public static final LimitedConfigurer INSTANCE = new LimitedConfigurer();
+
+        @NotNull
+        @Override
+        public DefaultBackendConfiguration configure(@NotNull DefaultBackendConfiguration configuration) {
+            return configuration.toBuilder()
+                    .addInstance("Slow", new SlowCounter())
+                    .build();
+        }
+    }
+
+    public static class HedgedConfigurer implements InterouteBackendConfigurer<DefaultBackendConfiguration> {
+        public static final HedgedConfigurer INSTANCE = new HedgedConfigurer();
+
+        @NotNull
+        @Override
+        public DefaultBackendConfiguration configure(@NotNull DefaultBackendConfiguration configuration) {
+            return configuration.toBuilder()
+                    .addInstance("Slow", new SlowCounter())
+                    .build();
+        }
+    }
+
+    public static class HedgedGroupConfigurer implements InterouteBackendConfigurer<DefaultBackendConfiguration> {
+        public static final HedgedGroupConfigurer INSTANCE = new HedgedGroupConfigurer();
+
+        @NotNull
+        @Override
+        public DefaultBackendConfiguration configure(@NotNull DefaultBackendConfiguration configuration) {
+            SlowCounter first = new SlowCounter();
+            SlowCounter second = new SlowCounter();
+
+            return configuration.toBuilder()
+                    .addInstance("SlowA", first)
+                    .addInstance("SlowB", second)
+                    .addGroup("Slow", SlowCounter.class, InstanceSelection.POWER_OF_TWO_CHOICES,
+                            Arrays.asList(first, second))
+                    .build();
+        }
+    }
+
+    public static class TimeoutConfigurer implements InterouteBackendConfigurer<DefaultBackendConfiguration> {
+        public static final TimeoutConfigurer INSTANCE = new TimeoutConfigurer();
+
+        @NotNull
+        @Override
+        public DefaultBackendConfiguration configure(@NotNull DefaultBackendConfiguration configuration) {
+            return configuration.toBuilder()
+                    .addInstance("Slow", new SlowCounter())
+                    .build();
+        }
+    }
+
+    public static class CancellableConfigurer implements InterouteBackendConfigurer<DefaultBackendConfiguration> {
+        public static final CancellableConfigurer INSTANCE = new CancellableConfigurer();
+
+        @NotNull
+        @Override
+        public DefaultBackendConfiguration configure(@NotNull DefaultBackendConfiguration configuration) {
+            return configuration.toBuilder()
+                    .addInstance("Slow", new SlowCounter())
+                    .build();
+        }
+    }
+
+    public static class BreakerConfigurer implements InterouteBackendConfigurer<DefaultBackendConfiguration> {
+        public static final BreakerConfigurer INSTANCE = new BreakerConfigurer();
+
+        @NotNull
+        @Override
+        public DefaultBackendConfiguration configure(@NotNull DefaultBackendConfiguration configuration) {
+            return configuration.toBuilder()
+                    .addInstance("Slow", new SlowCounter())
+                    .build();
+        }
+    }
+
     @Retention(RetentionPolicy.RUNTIME)
     @Target({ElementType.METHOD, ElementType.TYPE})
     @RouteInfo(AnnotationUnifier.Self.class)
@@ -139,6 +1522,70 @@ public class SimpleInterouteDefaultBackend {
 
     }
 
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target({ElementType.METHOD, ElementType.PARAMETER})
+    @RouteInfo(NamedUnifier.class)
+    public @interface Named {
+        String value();
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target({ElementType.METHOD, ElementType.PARAMETER})
+    @RouteInfo(PrioritizedUnifier.class)
+    public @interface Prioritized {
+        String name();
+
+        int value();
+    }
+
+    public interface Tag {
+        String getName();
+    }
+
+    public static class NameTag implements Tag {
+        private final String name;
+
+        NameTag(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return this.name;
+        }
+    }
+
+    public static class PriorityTag extends NameTag implements Comparable<PriorityTag> {
+        private final int priority;
+
+        PriorityTag(String name, int priority) {
+            super(name + ":" + priority);
+            this.priority = priority;
+        }
+
+        @Override
+        public int compareTo(@NotNull PriorityTag o) {
+            return Integer.compare(this.priority, o.priority);
+        }
+    }
+
+    public static class NamedUnifier implements AnnotationUnifier<NameTag> {
+        @NotNull
+        @Override
+        public NameTag unify(@NotNull Annotation annotation) {
+            return new NameTag(((Named) annotation).value());
+        }
+    }
+
+    public static class PrioritizedUnifier implements AnnotationUnifier<PriorityTag> {
+        @NotNull
+        @Override
+        public PriorityTag unify(@NotNull Annotation annotation) {
+            Prioritized prioritized = (Prioritized) annotation;
+            return new PriorityTag(prioritized.name(), prioritized.value());
+        }
+    }
+
     public class GetUnifier implements AnnotationUnifier<Annotation> {
 
         @SuppressWarnings("unchecked")